@@ -1,6 +1,7 @@
 package tlb;
 
 import tlb.balancer.BalancerInitializer;
+import tlb.balancer.FramedTransportServer;
 import tlb.server.ServerInitializer;
 import tlb.utils.SystemEnvironment;
 
@@ -10,7 +11,12 @@ import tlb.utils.SystemEnvironment;
 public class BalancerApp {
     public static void main(String[] args) {
         try {
-            new BalancerInitializer(new SystemEnvironment()).init().start();
+            BalancerInitializer initializer = new BalancerInitializer(new SystemEnvironment());
+            initializer.init().start();
+            FramedTransportServer framedTransport = initializer.framedTransport();
+            if (framedTransport != null) {
+                framedTransport.start();
+            }
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
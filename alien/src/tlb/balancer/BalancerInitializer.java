@@ -5,6 +5,8 @@ import tlb.factory.TlbBalancerFactory;
 import tlb.factory.TlbFactory;
 import tlb.orderer.TestOrderer;
 import tlb.server.ServerInitializer;
+import tlb.service.PartitionProgress;
+import tlb.service.Server;
 import tlb.splitter.AbstractTestSplitter;
 import tlb.utils.SystemEnvironment;
 import org.restlet.Context;
@@ -32,10 +34,25 @@ public class BalancerInitializer extends ServerInitializer {
         HashMap<String, Object> appMap = new HashMap<String, Object>();
         appMap.put(TlbClient.SPLITTER, TlbBalancerFactory.getCriteria(env.val(AbstractTestSplitter.TLB_SPLITTER), env));
         appMap.put(TlbClient.ORDERER, TlbBalancerFactory.getOrderer(env.val(TestOrderer.TLB_ORDERER), env));
-        appMap.put(TlbClient.TALK_TO_SERVICE, TlbFactory.getTalkToService(env));
+        Server server = TlbFactory.getTalkToService(env);
+        appMap.put(TlbClient.TALK_TO_SERVICE, server);
+        appMap.put(TlbClient.PARTITION_PROGRESS, new PartitionProgress(server, env));
+        appMap.put(TlbClient.SUITE_QUEUE_BATCH_SIZE, Integer.valueOf(env.val(TlbConstants.Balancer.TLB_SUITE_QUEUE_BATCH_SIZE)));
+        appMap.put(TlbClient.PARTITION_PLAN_CACHE, new PartitionPlanCache(Integer.parseInt(env.val(TlbConstants.Balancer.TLB_PARTITION_PLAN_CACHE_SIZE))));
         appMap.put(TlbClient.APP_COMPONENT, init());
         Context applicationContext = new Context();
         applicationContext.setAttributes(appMap);
         return new TlbClient(applicationContext);
     }
+
+    /**
+     * persistent framed transport alongside http, null unless a port is configured for it
+     */
+    public FramedTransportServer framedTransport() {
+        int framedPort = Integer.parseInt(env.val(TlbConstants.Balancer.TLB_BALANCER_FRAMED_PORT));
+        if (framedPort <= 0) {
+            return null;
+        }
+        return new FramedTransportServer(init(), String.format("http://%s:%s", FramedTransportServer.LOOPBACK, appPort()), framedPort);
+    }
 }
@@ -6,11 +6,13 @@ import tlb.TlbConstants;
 import tlb.TlbSuiteFile;
 import tlb.TlbSuiteFileImpl;
 import tlb.orderer.TestOrderer;
+import tlb.service.PartitionProgress;
 import tlb.service.Server;
 import tlb.splitter.TestSplitter;
 import org.restlet.Context;
 import org.restlet.resource.*;
 import tlb.splitter.correctness.IncorrectBalancingException;
+import tlb.utils.Function;
 
 import java.io.IOException;
 import java.util.Collections;
@@ -29,6 +31,8 @@ public class BalancerResource extends Resource {
     private final TestOrderer orderer;
     private final TestSplitter splitter;
     private final Server server;
+    private final PartitionPlanCache planCache;
+    private final PartitionProgress partitionProgress;
 
     public BalancerResource(Context context, Request request, Response response) {
         super(context, request, response);
@@ -36,6 +40,8 @@ public class BalancerResource extends Resource {
         orderer = (TestOrderer) context.getAttributes().get(TlbClient.ORDERER);
         splitter = (TestSplitter) context.getAttributes().get(TlbClient.SPLITTER);
         server = (Server) context.getAttributes().get(TlbClient.TALK_TO_SERVICE);
+        planCache = (PartitionPlanCache) context.getAttributes().get(TlbClient.PARTITION_PLAN_CACHE);
+        partitionProgress = (PartitionProgress) context.getAttributes().get(TlbClient.PARTITION_PROGRESS);
     }
 
     @Override
@@ -48,10 +54,16 @@ public class BalancerResource extends Resource {
             logger.warn(message, e);
             throw new RuntimeException(message, e);
         }
-        String moduleName = RequestUtil.moduleName(getRequest());
+        final String moduleName = RequestUtil.moduleName(getRequest());
         List<TlbSuiteFile> suiteFilesSubset = null;
         try {
-            suiteFilesSubset = splitter.filterSuites(suiteFiles, moduleName);
+            suiteFilesSubset = planCache.plan(moduleName, suiteFiles, server.totalPartitions(), server.partitionNumber(), new Function<List<TlbSuiteFile>, RuntimeException, List<TlbSuiteFile>>() {
+                public List<TlbSuiteFile> execute(List<TlbSuiteFile> suites) {
+                    List<TlbSuiteFile> subset = splitter.filterSuites(suites, moduleName);
+                    Collections.sort(subset, orderer);
+                    return subset;
+                }
+            });
         } catch (IncorrectBalancingException e) {
             setExceptionInResponse(e, new Status(Status.CLIENT_ERROR_EXPECTATION_FAILED, e, CORRECTNESS_VALIDATION_FAILED));
             return;
@@ -59,10 +71,9 @@ public class BalancerResource extends Resource {
             setExceptionInResponse(e, new Status(Status.SERVER_ERROR_NOT_IMPLEMENTED, e, CORRECTNESS_CHECK_NOT_AVAILABLE));
             return;
         }
-        Collections.sort(suiteFilesSubset, orderer);
         server.publishSubsetSize(suiteFilesSubset.size());
         final StringBuilder builder = new StringBuilder();
-        for (TlbSuiteFile suiteFile : suiteFilesSubset) {
+        for (TlbSuiteFile suiteFile : partitionProgress.remaining(suiteFilesSubset)) {
             builder.append(suiteFile.dump());
         }
         getResponse().setEntity(new StringRepresentation(builder));
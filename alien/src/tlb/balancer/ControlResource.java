@@ -32,6 +32,12 @@ public class ControlResource extends Resource {
                 controlResource.suicideThread().start();
                 return new StringRepresentation("HALTING");
             }
+        },
+        plan_cache {
+            @Override
+            Representation act(ControlResource controlResource) {
+                return new StringRepresentation(controlResource.planCache().stats());
+            }
         };
         abstract Representation act(ControlResource controlResource);
     }
@@ -58,6 +64,10 @@ public class ControlResource extends Resource {
         return suicideThread;
     }
 
+    PartitionPlanCache planCache() {
+        return (PartitionPlanCache) getContext().getAttributes().get(TlbClient.PARTITION_PLAN_CACHE);
+    }
+
     @Override
     public Representation represent(Variant variant) throws ResourceException {
         return Query.valueOf(query()).act(this);
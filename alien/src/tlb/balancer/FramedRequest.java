@@ -0,0 +1,103 @@
+package tlb.balancer;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @understands a balancer request carried in a frame, request line and headers as in http followed by a blank line and the body
+ */
+public class FramedRequest {
+    private static final String HEAD_END = "\n\n";
+
+    private final String method;
+    private final String path;
+    private final Map<String, String> headers;
+    private final String body;
+
+    public FramedRequest(String method, String path, String body) {
+        this(method, path, new LinkedHashMap<String, String>(), body);
+    }
+
+    public FramedRequest(String method, String path, Map<String, String> headers, String body) {
+        this.method = method;
+        this.path = path;
+        this.headers = new LinkedHashMap<String, String>(headers);
+        this.body = body;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public String encode() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(method).append(' ').append(path).append('\n');
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            builder.append(header.getKey()).append(": ").append(header.getValue()).append('\n');
+        }
+        return builder.append('\n').append(body).toString();
+    }
+
+    public static FramedRequest decode(String payload) {
+        int headEnd = payload.indexOf(HEAD_END);
+        if (headEnd < 0) {
+            throw new IllegalArgumentException(String.format("failed to parse '%s' as %s, head must end with a blank line", payload, FramedRequest.class.getSimpleName()));
+        }
+        String[] headLines = payload.substring(0, headEnd).split("\n");
+        String[] requestLine = headLines[0].trim().split("\\s+", 2);
+        if (requestLine.length != 2) {
+            throw new IllegalArgumentException(String.format("failed to parse request line '%s' as %s, expected method and path", headLines[0], FramedRequest.class.getSimpleName()));
+        }
+        Map<String, String> headers = new LinkedHashMap<String, String>();
+        for (int i = 1; i < headLines.length; i++) {
+            int separator = headLines[i].indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException(String.format("failed to parse header '%s' of %s", headLines[i], FramedRequest.class.getSimpleName()));
+            }
+            headers.put(headLines[i].substring(0, separator).trim(), headLines[i].substring(separator + 1).trim());
+        }
+        return new FramedRequest(requestLine[0], requestLine[1], headers, payload.substring(headEnd + HEAD_END.length()));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        FramedRequest that = (FramedRequest) o;
+
+        if (body != null ? !body.equals(that.body) : that.body != null) return false;
+        if (headers != null ? !headers.equals(that.headers) : that.headers != null) return false;
+        if (method != null ? !method.equals(that.method) : that.method != null) return false;
+        if (path != null ? !path.equals(that.path) : that.path != null) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = method != null ? method.hashCode() : 0;
+        result = 31 * result + (path != null ? path.hashCode() : 0);
+        result = 31 * result + (headers != null ? headers.hashCode() : 0);
+        result = 31 * result + (body != null ? body.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s", method, path);
+    }
+}
@@ -0,0 +1,64 @@
+package tlb.balancer;
+
+/**
+ * @understands a balancer response carried in a frame, status code on first line followed by the body
+ */
+public class FramedResponse {
+    private final int status;
+    private final String body;
+
+    public FramedResponse(int status, String body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public boolean isSuccess() {
+        return status >= 200 && status < 300;
+    }
+
+    public String encode() {
+        return String.format("%s\n%s", status, body);
+    }
+
+    public static FramedResponse decode(String payload) {
+        int statusEnd = payload.indexOf('\n');
+        try {
+            return new FramedResponse(Integer.parseInt(payload.substring(0, statusEnd < 0 ? payload.length() : statusEnd).trim()), statusEnd < 0 ? "" : payload.substring(statusEnd + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("failed to parse '%s' as %s", payload, FramedResponse.class.getSimpleName()), e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        FramedResponse that = (FramedResponse) o;
+
+        if (status != that.status) return false;
+        if (body != null ? !body.equals(that.body) : that.body != null) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = status;
+        result = 31 * result + (body != null ? body.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %s", status, body);
+    }
+}
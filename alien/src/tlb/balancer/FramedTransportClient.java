@@ -0,0 +1,84 @@
+package tlb.balancer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @understands talking to balancer over one persistent framed connection, reference for runners in other languages
+ */
+public class FramedTransportClient {
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    public FramedTransportClient(int port) throws IOException {
+        socket = new Socket(InetAddress.getByName(FramedTransportServer.LOOPBACK), port);
+        socket.setTcpNoDelay(true);
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    public FramedResponse send(FramedRequest request) throws IOException {
+        return pipeline(Arrays.asList(request)).get(0);
+    }
+
+    /**
+     * writes all requests without waiting for responses, responses come back in request order
+     */
+    public synchronized List<FramedResponse> pipeline(final List<FramedRequest> requests) throws IOException {
+        final IOException[] writeFailure = new IOException[1];
+        Thread writer = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    for (FramedRequest request : requests) {
+                        Frames.write(out, request.encode());
+                    }
+                    out.flush();
+                } catch (IOException e) {
+                    writeFailure[0] = e;
+                }
+            }
+        }, "tlb-framed-transport-client-writer");
+        writer.start();//writing on a thread of its own, so a long pipeline can't fill both socket buffers and wait on itself
+        List<FramedResponse> responses = new ArrayList<FramedResponse>();
+        try {
+            for (int i = 0; i < requests.size(); i++) {
+                String payload = Frames.read(in);
+                if (payload == null) {
+                    throw new EOFException(String.format("balancer closed connection after answering %s of %s requests", i, requests.size()));
+                }
+                responses.add(FramedResponse.decode(payload));
+            }
+        } catch (IOException e) {
+            socket.close();//unblocks writer, connection is of no use once framing is lost
+            join(writer);
+            throw e;
+        }
+        join(writer);
+        if (writeFailure[0] != null) {
+            throw writeFailure[0];
+        }
+        return responses;
+    }
+
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    private static void join(Thread writer) {
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package tlb.balancer;
+
+import com.noelios.restlet.http.HttpConstants;
+import org.apache.log4j.Logger;
+import org.restlet.Restlet;
+import org.restlet.data.Form;
+import org.restlet.data.Method;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.data.Status;
+import org.restlet.resource.Representation;
+import org.restlet.resource.StringRepresentation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @understands serving balancer requests over persistent loopback connections, every frame is handed to the same restlet that serves http so both behave alike
+ */
+public class FramedTransportServer {
+    private static final Logger logger = Logger.getLogger(FramedTransportServer.class.getName());
+    public static final String LOOPBACK = "127.0.0.1";
+    private static final int BACKLOG = 50;
+
+    private final Restlet target;
+    private final String baseUri;
+    private final int port;
+    private final List<Socket> connections;
+    private ServerSocket serverSocket;
+
+    public FramedTransportServer(Restlet target, String baseUri, int port) {
+        this.target = target;
+        this.baseUri = baseUri;
+        this.port = port;
+        this.connections = new ArrayList<Socket>();
+    }
+
+    public synchronized void start() throws IOException {
+        serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getByName(LOOPBACK));
+        daemon(new Runnable() {
+            public void run() {
+                acceptConnections();
+            }
+        }, "tlb-framed-transport-acceptor").start();
+        logger.info(String.format("serving framed balancer requests on %s:%s", LOOPBACK, port()));
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    public synchronized void stop() {
+        close(serverSocket);
+        synchronized (connections) {
+            for (Socket connection : connections) {
+                close(connection);
+            }
+            connections.clear();
+        }
+    }
+
+    private void acceptConnections() {
+        while (! serverSocket.isClosed()) {
+            try {
+                final Socket connection = serverSocket.accept();
+                connection.setTcpNoDelay(true);
+                synchronized (connections) {
+                    connections.add(connection);
+                }
+                daemon(new Runnable() {
+                    public void run() {
+                        serve(connection);
+                    }
+                }, "tlb-framed-transport-connection-" + connection.getPort()).start();
+            } catch (IOException e) {
+                if (! serverSocket.isClosed()) {
+                    logger.warn(String.format("could not accept framed connection: '%s'", e.getMessage()), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * answers frames in the order they arrive, responses to pipelined requests already read off the wire are flushed together
+     */
+    private void serve(Socket connection) {
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+            String payload;
+            while ((payload = Frames.read(in)) != null) {
+                Frames.write(out, dispatch(payload).encode());
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            if (! connection.isClosed()) {
+                logger.warn(String.format("dropping framed connection from port %s: '%s'", connection.getPort(), e.getMessage()), e);
+            }
+        } finally {
+            synchronized (connections) {
+                connections.remove(connection);
+            }
+            close(connection);
+        }
+    }
+
+    FramedResponse dispatch(String payload) {
+        FramedRequest framedRequest;
+        try {
+            framedRequest = FramedRequest.decode(payload);
+        } catch (IllegalArgumentException e) {
+            return new FramedResponse(Status.CLIENT_ERROR_BAD_REQUEST.getCode(), e.getMessage());
+        }
+        try {
+            Request request = new Request(Method.valueOf(framedRequest.getMethod()), baseUri + framedRequest.getPath(), new StringRepresentation(framedRequest.getBody()));
+            Form headers = new Form();
+            for (Map.Entry<String, String> header : framedRequest.getHeaders().entrySet()) {
+                headers.add(header.getKey(), header.getValue());
+            }
+            request.getAttributes().put(HttpConstants.ATTRIBUTE_HEADERS, headers);
+            Response response = new Response(request);
+            target.handle(request, response);
+            Representation entity = response.getEntity();
+            return new FramedResponse(response.getStatus().getCode(), entity == null ? "" : entity.getText());
+        } catch (Exception e) {
+            logger.warn(String.format("failed to serve framed request %s", framedRequest), e);
+            return new FramedResponse(Status.SERVER_ERROR_INTERNAL.getCode(), String.valueOf(e.getMessage()));
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static void close(ServerSocket socket) {
+        try {
+            if (socket != null) socket.close();
+        } catch (IOException e) {
+            logger.warn(String.format("could not close framed transport socket: '%s'", e.getMessage()), e);
+        }
+    }
+
+    private static void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            logger.warn(String.format("could not close framed connection: '%s'", e.getMessage()), e);
+        }
+    }
+}
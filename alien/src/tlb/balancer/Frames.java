@@ -0,0 +1,38 @@
+package tlb.balancer;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * @understands length prefixed utf-8 frames, the unit of exchange on persistent balancer connections
+ */
+class Frames {
+    static final int MAX_FRAME_SIZE = 64 * 1024 * 1024;
+    static final String ENCODING = "UTF-8";
+
+    static void write(DataOutputStream out, String payload) throws IOException {
+        byte[] bytes = payload.getBytes(ENCODING);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * returns null when peer closes connection between frames
+     */
+    static String read(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < 0 || length > MAX_FRAME_SIZE) {
+            throw new IOException(String.format("frame of %s bytes is out of bounds, frames can be at most %s bytes", length, MAX_FRAME_SIZE));
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, ENCODING);
+    }
+}
@@ -0,0 +1,164 @@
+package tlb.balancer;
+
+import org.apache.log4j.Logger;
+import org.restlet.Context;
+import org.restlet.data.MediaType;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.data.Status;
+import org.restlet.resource.*;
+import tlb.TlbConstants;
+import tlb.TlbSuiteFile;
+import tlb.TlbSuiteFileImpl;
+import tlb.orderer.TestOrderer;
+import tlb.service.Server;
+import tlb.splitter.TestSplitter;
+import tlb.splitter.correctness.IncorrectBalancingException;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static tlb.TlbConstants.Correctness.CORRECTNESS_CHECK_NOT_AVAILABLE;
+import static tlb.TlbConstants.Correctness.CORRECTNESS_VALIDATION_FAILED;
+
+/**
+ * @understands subseting suites of all modules of a partition in one go, so time is balanced across modules rather than within each of them
+ */
+public class JointBalancerResource extends Resource {
+    private static final Logger logger = Logger.getLogger(JointBalancerResource.class.getName());
+    static final Pattern MODULE_HEADER = Pattern.compile("\\[(.+)\\]");
+    static final String JOINT_MODULE_NAME_SEPARATOR = ",";
+
+    private final TestOrderer orderer;
+    private final TestSplitter splitter;
+    private final Server server;
+
+    public JointBalancerResource(Context context, Request request, Response response) {
+        super(context, request, response);
+        getVariants().add(new Variant(MediaType.TEXT_PLAIN));
+        orderer = (TestOrderer) context.getAttributes().get(TlbClient.ORDERER);
+        splitter = (TestSplitter) context.getAttributes().get(TlbClient.SPLITTER);
+        server = (Server) context.getAttributes().get(TlbClient.TALK_TO_SERVICE);
+    }
+
+    @Override
+    public void acceptRepresentation(Representation representation) throws ResourceException {
+        Map<String, List<TlbSuiteFile>> modules;
+        try {
+            modules = parse(representation.getText());
+        } catch (IOException e) {
+            final String message = "failed to read request";
+            logger.warn(message, e);
+            throw new RuntimeException(message, e);
+        }
+        Map<String, List<String>> sharedSuites = suitesListedUnderManyModules(modules);
+        if (! sharedSuites.isEmpty()) {
+            String message = String.format("suites of jointly balanced modules must have distinct names, but %s listed under more than one module", sharedSuites);
+            logger.warn(message);
+            getResponse().setStatus(new Status(Status.CLIENT_ERROR_BAD_REQUEST, message));
+            getResponse().setEntity(new StringRepresentation(message));
+            return;
+        }
+        Set<TlbSuiteFile> jointSet = new LinkedHashSet<TlbSuiteFile>();
+        for (List<TlbSuiteFile> moduleSuites : modules.values()) {
+            jointSet.addAll(moduleSuites);
+        }
+        Set<TlbSuiteFile> jointSubset;
+        try {
+            jointSubset = new HashSet<TlbSuiteFile>(splitter.filterSuites(new ArrayList<TlbSuiteFile>(jointSet), jointModuleName(modules.keySet())));
+        } catch (IncorrectBalancingException e) {
+            setExceptionInResponse(e, new Status(Status.CLIENT_ERROR_EXPECTATION_FAILED, e, CORRECTNESS_VALIDATION_FAILED));
+            return;
+        } catch (UnsupportedOperationException e) {
+            setExceptionInResponse(e, new Status(Status.SERVER_ERROR_NOT_IMPLEMENTED, e, CORRECTNESS_CHECK_NOT_AVAILABLE));
+            return;
+        }
+        final StringBuilder builder = new StringBuilder();
+        int subsetSize = 0;
+        for (Map.Entry<String, List<TlbSuiteFile>> module : modules.entrySet()) {
+            List<TlbSuiteFile> moduleSubset = new ArrayList<TlbSuiteFile>();
+            for (TlbSuiteFile suiteFile : module.getValue()) {
+                if (jointSubset.contains(suiteFile)) moduleSubset.add(suiteFile);
+            }
+            Collections.sort(moduleSubset, orderer);
+            subsetSize += moduleSubset.size();
+            builder.append(String.format("[%s]\n", module.getKey()));
+            for (TlbSuiteFile suiteFile : moduleSubset) {
+                builder.append(suiteFile.dump());
+            }
+        }
+        server.publishSubsetSize(subsetSize);
+        getResponse().setEntity(new StringRepresentation(builder));
+    }
+
+    /**
+     * suite lists of modules, each starting with a [module-name] line, suites listed before any such line belong to default module
+     */
+    static Map<String, List<TlbSuiteFile>> parse(String body) {
+        Map<String, List<TlbSuiteFile>> modules = new LinkedHashMap<String, List<TlbSuiteFile>>();
+        String currentModule = TlbConstants.Balancer.DEFAULT_MODULE_NAME;
+        for (String line : body.split("\n")) {
+            line = line.trim();
+            if (line.length() == 0) continue;
+            Matcher matcher = MODULE_HEADER.matcher(line);
+            if (matcher.matches()) {
+                currentModule = matcher.group(1).trim();
+                if (! modules.containsKey(currentModule)) modules.put(currentModule, new ArrayList<TlbSuiteFile>());
+                continue;
+            }
+            if (! modules.containsKey(currentModule)) modules.put(currentModule, new ArrayList<TlbSuiteFile>());
+            modules.get(currentModule).add(new TlbSuiteFileImpl(line));
+        }
+        return modules;
+    }
+
+    /**
+     * times and results are kept by suite name alone, so a name shared by modules would be balanced once but run(and counted) in each of them
+     */
+    static Map<String, List<String>> suitesListedUnderManyModules(Map<String, List<TlbSuiteFile>> modules) {
+        Map<String, List<String>> modulesOfSuite = new LinkedHashMap<String, List<String>>();
+        for (Map.Entry<String, List<TlbSuiteFile>> module : modules.entrySet()) {
+            for (TlbSuiteFile suiteFile : module.getValue()) {
+                List<String> moduleNames = modulesOfSuite.get(suiteFile.getName());
+                if (moduleNames == null) {
+                    moduleNames = new ArrayList<String>();
+                    modulesOfSuite.put(suiteFile.getName(), moduleNames);
+                }
+                if (! moduleNames.contains(module.getKey())) moduleNames.add(module.getKey());
+            }
+        }
+        Map<String, List<String>> shared = new LinkedHashMap<String, List<String>>();
+        for (Map.Entry<String, List<String>> suite : modulesOfSuite.entrySet()) {
+            if (suite.getValue().size() > 1) shared.put(suite.getKey(), suite.getValue());
+        }
+        return shared;
+    }
+
+    static String jointModuleName(Collection<String> moduleNames) {
+        List<String> sortedNames = new ArrayList<String>(moduleNames);
+        Collections.sort(sortedNames);
+        StringBuilder builder = new StringBuilder();
+        for (String moduleName : sortedNames) {
+            if (builder.length() > 0) builder.append(JOINT_MODULE_NAME_SEPARATOR);
+            builder.append(moduleName);
+        }
+        return builder.length() > 0 ? builder.toString() : TlbConstants.Balancer.DEFAULT_MODULE_NAME;
+    }
+
+    private void setExceptionInResponse(RuntimeException e, final Status status) {
+        getResponse().setStatus(status);
+        getResponse().setEntity(new StringRepresentation(e.getMessage()));
+    }
+
+    @Override
+    public boolean allowGet() {
+        return false;
+    }
+
+    @Override
+    public boolean allowPost() {
+        return true;
+    }
+}
@@ -0,0 +1,90 @@
+package tlb.balancer;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.log4j.Logger;
+import tlb.TlbSuiteFile;
+import tlb.utils.Function;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @understands remembering subset and order computed for a suite list, so repeated balancing calls for the same partition don't split again
+ */
+public class PartitionPlanCache {
+    private static final Logger logger = Logger.getLogger(PartitionPlanCache.class.getName());
+
+    private final int maxEntries;
+    private final Map<String, List<TlbSuiteFile>> plans;
+    private long hits;
+    private long misses;
+
+    public PartitionPlanCache(final int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.plans = new LinkedHashMap<String, List<TlbSuiteFile>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<TlbSuiteFile>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public List<TlbSuiteFile> plan(String moduleName, List<TlbSuiteFile> suiteFiles, int totalPartitions, int partitionNumber, Function<List<TlbSuiteFile>, RuntimeException, List<TlbSuiteFile>> planner) {
+        if (maxEntries <= 0) {
+            return planner.execute(suiteFiles);
+        }
+        String key = key(moduleName, suiteFiles, totalPartitions, partitionNumber);
+        synchronized (this) {
+            List<TlbSuiteFile> cached = plans.get(key);
+            if (cached != null) {
+                hits++;
+                logger.debug(String.format("partition plan cache hit for module [ %s ], partition %s/%s", moduleName, partitionNumber, totalPartitions));
+                return new ArrayList<TlbSuiteFile>(cached);
+            }
+            misses++;
+        }
+        List<TlbSuiteFile> plan = planner.execute(suiteFiles);
+        synchronized (this) {
+            plans.put(key, new ArrayList<TlbSuiteFile>(plan));
+        }
+        return plan;
+    }
+
+    static String key(String moduleName, List<TlbSuiteFile> suiteFiles, int totalPartitions, int partitionNumber) {
+        List<String> names = new ArrayList<String>();
+        for (TlbSuiteFile suiteFile : suiteFiles) {
+            names.add(suiteFile.getName());
+        }
+        Collections.sort(names);
+        StringBuilder builder = new StringBuilder();
+        builder.append(moduleName).append('\n').append(totalPartitions).append('\n').append(partitionNumber).append('\n');
+        for (String name : names) {
+            builder.append(name).append('\n');
+        }
+        return DigestUtils.md5Hex(builder.toString());
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    public synchronized int size() {
+        return plans.size();
+    }
+
+    public synchronized String stats() {
+        return String.format("hits: %s\nmisses: %s\nhit_rate: %.2f\nentries: %s\nmax_entries: %s\n", hits, misses, hitRate(), plans.size(), maxEntries);
+    }
+}
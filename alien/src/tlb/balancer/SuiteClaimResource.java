@@ -0,0 +1,80 @@
+package tlb.balancer;
+
+import org.apache.log4j.Logger;
+import org.restlet.Context;
+import org.restlet.data.MediaType;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.data.Status;
+import org.restlet.resource.Representation;
+import org.restlet.resource.Resource;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.StringRepresentation;
+import org.restlet.resource.Variant;
+import tlb.TlbSuiteFile;
+import tlb.service.Server;
+
+import java.io.IOException;
+import java.util.List;
+
+import static tlb.TlbConstants.Correctness.NO_SUITE_QUEUE_FOUND;
+import static tlb.TlbConstants.Correctness.SUITE_QUEUE_NOT_AVAILABLE;
+
+/**
+ * @understands pulling next batch of suites for this partition off the server side queue, responds with nothing once queue is drained
+ */
+public class SuiteClaimResource extends Resource {
+    private static final Logger logger = Logger.getLogger(SuiteClaimResource.class.getName());
+
+    private final Server server;
+    private final int defaultBatchSize;
+
+    public SuiteClaimResource(Context context, Request request, Response response) {
+        super(context, request, response);
+        getVariants().add(new Variant(MediaType.TEXT_PLAIN));
+        server = (Server) context.getAttributes().get(TlbClient.TALK_TO_SERVICE);
+        defaultBatchSize = (Integer) context.getAttributes().get(TlbClient.SUITE_QUEUE_BATCH_SIZE);
+    }
+
+    @Override
+    public void acceptRepresentation(Representation representation) throws ResourceException {
+        List<TlbSuiteFile> claimed;
+        try {
+            claimed = server.claimSuites(RequestUtil.moduleName(getRequest()), batchSize(representation));
+        } catch (UnsupportedOperationException e) {
+            getResponse().setStatus(new Status(Status.SERVER_ERROR_NOT_IMPLEMENTED, e, SUITE_QUEUE_NOT_AVAILABLE));
+            getResponse().setEntity(new StringRepresentation(e.getMessage()));
+            return;
+        } catch (IllegalStateException e) {
+            getResponse().setStatus(new Status(Status.CLIENT_ERROR_NOT_ACCEPTABLE, e, NO_SUITE_QUEUE_FOUND));
+            getResponse().setEntity(new StringRepresentation(e.getMessage()));
+            return;
+        }
+        final StringBuilder builder = new StringBuilder();
+        for (TlbSuiteFile suiteFile : claimed) {
+            builder.append(suiteFile.dump());
+        }
+        getResponse().setEntity(new StringRepresentation(builder));
+    }
+
+    private int batchSize(Representation representation) {
+        try {
+            String body = representation == null ? null : representation.getText();
+            return body == null || body.trim().length() == 0 ? defaultBatchSize : Integer.parseInt(body.trim());
+        } catch (IOException e) {
+            final String message = "failed to read request";
+            logger.warn(message, e);
+            throw new RuntimeException(message, e);
+        }
+    }
+
+    @Override
+    public boolean allowGet() {
+        return false;
+    }
+
+    @Override
+    public boolean allowPost() {
+        return true;
+    }
+}
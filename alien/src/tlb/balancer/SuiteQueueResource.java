@@ -0,0 +1,66 @@
+package tlb.balancer;
+
+import org.apache.log4j.Logger;
+import org.restlet.Context;
+import org.restlet.data.MediaType;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.data.Status;
+import org.restlet.resource.Representation;
+import org.restlet.resource.Resource;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.StringRepresentation;
+import org.restlet.resource.Variant;
+import tlb.TlbSuiteFileImpl;
+import tlb.service.Server;
+import tlb.splitter.correctness.ValidationResult;
+
+import java.io.IOException;
+
+import static tlb.TlbConstants.Correctness.CORRECTNESS_VALIDATION_FAILED;
+import static tlb.TlbConstants.Correctness.SUITE_QUEUE_NOT_AVAILABLE;
+
+/**
+ * @understands registering all suites of a partition with the server side queue, that suites are then claimed from in batches
+ */
+public class SuiteQueueResource extends Resource {
+    private static final Logger logger = Logger.getLogger(SuiteQueueResource.class.getName());
+
+    private final Server server;
+
+    public SuiteQueueResource(Context context, Request request, Response response) {
+        super(context, request, response);
+        getVariants().add(new Variant(MediaType.TEXT_PLAIN));
+        server = (Server) context.getAttributes().get(TlbClient.TALK_TO_SERVICE);
+    }
+
+    @Override
+    public void acceptRepresentation(Representation representation) throws ResourceException {
+        ValidationResult result;
+        try {
+            result = server.defineSuiteQueue(TlbSuiteFileImpl.parse(representation.getText()), RequestUtil.moduleName(getRequest()));
+        } catch (IOException e) {
+            final String message = "failed to read request";
+            logger.warn(message, e);
+            throw new RuntimeException(message, e);
+        } catch (UnsupportedOperationException e) {
+            getResponse().setStatus(new Status(Status.SERVER_ERROR_NOT_IMPLEMENTED, e, SUITE_QUEUE_NOT_AVAILABLE));
+            getResponse().setEntity(new StringRepresentation(e.getMessage()));
+            return;
+        }
+        if (result.hasFailed()) {
+            getResponse().setStatus(new Status(Status.CLIENT_ERROR_EXPECTATION_FAILED, CORRECTNESS_VALIDATION_FAILED));
+        }
+        getResponse().setEntity(new StringRepresentation(result.getMessage()));
+    }
+
+    @Override
+    public boolean allowGet() {
+        return false;
+    }
+
+    @Override
+    public boolean allowPost() {
+        return true;
+    }
+}
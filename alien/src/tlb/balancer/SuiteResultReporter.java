@@ -17,7 +17,7 @@ import java.util.List;
 
 
 /**
- * @understands posting the suite result entry to server
+ * @understands posting suite result entries to server, all entries of a request in one batch
  */
 public class SuiteResultReporter extends Resource {
     private static final Logger logger = Logger.getLogger(SuiteResultReporter.class.getName());
@@ -34,9 +34,7 @@ public class SuiteResultReporter extends Resource {
     public void acceptRepresentation(Representation entity) throws ResourceException {
         try {
             final List<SuiteResultEntry> entries = SuiteResultEntry.parse(entity.getText());
-            for (SuiteResultEntry entry : entries) {
-                server.testClassFailure(entry.getName(), entry.hasFailed());
-            }
+            server.testClassFailures(entries);
         } catch (IOException e) {
             logger.warn(String.format("could not report test result: '%s'", e.getMessage()), e);
             throw new RuntimeException(e);
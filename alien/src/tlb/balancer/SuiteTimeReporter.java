@@ -17,7 +17,7 @@ import java.util.List;
 
 
 /**
- * @understands posting the suite time entry to server
+ * @understands posting suite time entries to server, all entries of a request in one batch
  */
 public class SuiteTimeReporter extends Resource {
     private static final Logger logger = Logger.getLogger(SuiteTimeReporter.class.getName());
@@ -34,9 +34,7 @@ public class SuiteTimeReporter extends Resource {
     public void acceptRepresentation(Representation entity) throws ResourceException {
         try {
             final List<SuiteTimeEntry> entries = SuiteTimeEntry.parse(entity.getText());
-            for (SuiteTimeEntry entry : entries) {
-                server.testClassTime(entry.getName(), entry.getTime());
-            }
+            server.testClassTimes(entries);
         } catch (IOException e) {
             logger.warn(String.format("could not report test time: '%s'", e.getMessage()), e);
             throw new RuntimeException(e);
@@ -14,6 +14,9 @@ public class TlbClient extends Application {
     public static final String ORDERER = "ORDERER";
     public static final String TALK_TO_SERVICE = "TYPE_OF_SERVER";
     public static final String APP_COMPONENT = "APP_COMPONENT";
+    public static final String SUITE_QUEUE_BATCH_SIZE = "SUITE_QUEUE_BATCH_SIZE";
+    public static final String PARTITION_PLAN_CACHE = "PARTITION_PLAN_CACHE";
+    public static final String PARTITION_PROGRESS = "PARTITION_PROGRESS";
 
     public TlbClient(Context context) {
         super(context);
@@ -23,9 +26,12 @@ public class TlbClient extends Application {
     public Restlet createRoot() {
         Router router = new Router(getContext());
 
+        router.attach("/balance_modules", JointBalancerResource.class);
         router.attach("/balance", BalancerResource.class);
         router.attach("/suite_time", SuiteTimeReporter.class);
         router.attach("/suite_result", SuiteResultReporter.class);
+        router.attach("/suite_queue/claim", SuiteClaimResource.class);
+        router.attach("/suite_queue", SuiteQueueResource.class);
         router.attach(String.format("/control/{%s}", TlbConstants.Balancer.QUERY), ControlResource.class);
         router.attach("/assert_all_partitions_executed", AllPartitionsExecutedAssertion.class);
 
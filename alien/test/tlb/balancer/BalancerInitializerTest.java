@@ -7,6 +7,7 @@ import org.restlet.Component;
 import tlb.TestUtil;
 import tlb.TlbConstants;
 import tlb.orderer.FailedFirstOrderer;
+import tlb.service.PartitionProgress;
 import tlb.service.TlbServer;
 import tlb.splitter.CountBasedTestSplitter;
 import tlb.utils.FileUtil;
@@ -18,6 +19,7 @@ import java.util.concurrent.ConcurrentMap;
 
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
 import static org.junit.Assert.assertThat;
 import static tlb.TestUtil.updateEnv;
 
@@ -48,6 +50,32 @@ public class BalancerInitializerTest {
             assertThat(map.get(TlbClient.TALK_TO_SERVICE), is(TlbServer.class));
             assertThat(map.get(TlbClient.APP_COMPONENT), is(Component.class));
             assertThat(map.get(TlbClient.APP_COMPONENT), sameInstance((Object) initializer.init()));
+            assertThat(map.get(TlbClient.SUITE_QUEUE_BATCH_SIZE), is((Object) 1));
+            assertThat(map.get(TlbClient.PARTITION_PLAN_CACHE), is(PartitionPlanCache.class));
+            assertThat(map.get(TlbClient.PARTITION_PROGRESS), is(PartitionProgress.class));
+        } finally {
+            FileUtils.deleteQuietly(new File(new FileUtil(env).tmpDir()));
+        }
+    }
+
+    @Test
+    public void shouldNotServeFramedTransport_unlessPortIsConfiguredForIt() {
+        assertThat(initializer.framedTransport(), nullValue());
+    }
+
+    @Test
+    public void shouldServeFramedTransportOffTheSameComponentAsHttp() throws NoSuchFieldException, IllegalAccessException {
+        updateEnv(env, TlbConstants.TLB_SPLITTER, CountBasedTestSplitter.class.getCanonicalName());
+        updateEnv(env, TlbConstants.TYPE_OF_SERVER.key, TlbServer.class.getCanonicalName());
+        updateEnv(env, TlbConstants.Balancer.TLB_BALANCER_PORT.key, "614");
+        updateEnv(env, TlbConstants.Balancer.TLB_BALANCER_FRAMED_PORT.key, "615");
+        updateEnv(env, TlbConstants.TlbServer.TLB_BASE_URL, "http://foo.bar.com:7019");
+
+        try {
+            FramedTransportServer framedTransport = initializer.framedTransport();
+            assertThat(TestUtil.deref("target", framedTransport), sameInstance((Object) initializer.init()));
+            assertThat(TestUtil.deref("baseUri", framedTransport), is((Object) "http://127.0.0.1:614"));
+            assertThat(TestUtil.deref("port", framedTransport), is((Object) 615));
         } finally {
             FileUtils.deleteQuietly(new File(new FileUtil(env).tmpDir()));
         }
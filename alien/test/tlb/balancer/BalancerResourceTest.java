@@ -15,11 +15,13 @@ import tlb.TlbConstants;
 import tlb.TlbSuiteFile;
 import tlb.TlbSuiteFileImpl;
 import tlb.orderer.TestOrderer;
+import tlb.service.PartitionProgress;
 import tlb.service.Server;
 import tlb.service.TlbServer;
 import tlb.splitter.AbstractTestSplitter;
 import tlb.splitter.TestSplitter;
 import tlb.splitter.correctness.IncorrectBalancingException;
+import tlb.utils.SystemEnvironment;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -45,10 +47,12 @@ public class BalancerResourceTest {
     private HashMap<String,Object> attrs;
     private Response mockResponse;
     private Server server;
+    private PartitionPlanCache planCache;
+    private Context context;
 
     @Before
     public void setUp() throws ClassNotFoundException, IOException {
-        Context context = new Context();
+        context = new Context();
 
         request = mock(Request.class);
         attrs = new HashMap<String, Object>();
@@ -63,6 +67,9 @@ public class BalancerResourceTest {
         ctxMap.put(TlbClient.SPLITTER, criteria);
         ctxMap.put(TlbClient.ORDERER, orderer);
         ctxMap.put(TlbClient.TALK_TO_SERVICE, server);
+        planCache = new PartitionPlanCache(10);
+        ctxMap.put(TlbClient.PARTITION_PLAN_CACHE, planCache);
+        ctxMap.put(TlbClient.PARTITION_PROGRESS, new PartitionProgress(server, new SystemEnvironment(new HashMap<String, String>())));
         context.setAttributes(ctxMap);
 
         mockResponse = mock(Response.class);
@@ -184,4 +191,48 @@ public class BalancerResourceTest {
         verifyNoMoreInteractions(mockResponse);
     }
 
+    @Test
+    public void shouldReusePlanComputedEarlier_whenSameSuitesAreBalancedAgainForSameModule() throws ResourceException, IOException {
+        when(criteria.filterSuites(new ArrayList<TlbSuiteFile>(Arrays.asList(new TlbSuiteFileImpl("foo/bar/Baz.class"), new TlbSuiteFileImpl("foo/bar/Bang.class"), new TlbSuiteFileImpl("foo/bar/Quux.class"))), "module_foo"))
+                .thenReturn(new ArrayList<TlbSuiteFile>(Arrays.asList(new TlbSuiteFileImpl("foo/bar/Baz.class"), new TlbSuiteFileImpl("foo/bar/Quux.class"))));
+        when(orderer.compare(any(TlbSuiteFileImpl.class), any(TlbSuiteFileImpl.class))).thenReturn(0);
+        attrs.put(HttpConstants.ATTRIBUTE_HEADERS, new Form(Arrays.asList(new Parameter(TlbConstants.Balancer.TLB_MODULE_NAME_HEADER, "module_foo"))));
+
+        balancerResource.acceptRepresentation(new StringRepresentation("foo/bar/Baz.class\nfoo/bar/Bang.class\nfoo/bar/Quux.class\n"));
+        new BalancerResource(context, request, response).acceptRepresentation(new StringRepresentation("foo/bar/Quux.class\nfoo/bar/Baz.class\nfoo/bar/Bang.class\n"));
+
+        verify(criteria, times(1)).filterSuites(Matchers.<List<TlbSuiteFile>>any(), eq("module_foo"));
+        verify(server, times(2)).publishSubsetSize(2);
+        assertThat(representation.getText(), is("foo/bar/Baz.class\nfoo/bar/Quux.class\n"));
+        assertThat(planCache.hits(), is(1l));
+        assertThat(planCache.misses(), is(1l));
+    }
+
+    @Test
+    public void shouldNotReusePlan_whenBalancingFailedEarlier() throws ResourceException, IOException {
+        when(criteria.filterSuites(Matchers.<List<TlbSuiteFile>>any(), eq("module_foo"))).thenThrow(new IncorrectBalancingException("universal set mismatched"));
+        attrs.put(HttpConstants.ATTRIBUTE_HEADERS, new Form(Arrays.asList(new Parameter(TlbConstants.Balancer.TLB_MODULE_NAME_HEADER, "module_foo"))));
+
+        balancerResource.acceptRepresentation(new StringRepresentation("foo/bar/Baz.class\n"));
+        new BalancerResource(context, request, response).acceptRepresentation(new StringRepresentation("foo/bar/Baz.class\n"));
+
+        verify(criteria, times(2)).filterSuites(Matchers.<List<TlbSuiteFile>>any(), eq("module_foo"));
+        assertThat(planCache.size(), is(0));
+    }
+
+    @Test
+    public void shouldListOnlySuitesNotRunYet_whenResumingPartition_butPublishSizeOfWholeSubset() throws ResourceException, IOException {
+        HashMap<String, String> variables = new HashMap<String, String>();
+        variables.put(TlbConstants.TLB_RESUME_PARTITION.key, "true");
+        context.getAttributes().put(TlbClient.PARTITION_PROGRESS, new PartitionProgress(server, new SystemEnvironment(variables)));
+        when(server.completedSuiteNames()).thenReturn(Arrays.asList("foo/bar/Baz.class"));
+        when(criteria.filterSuites(Matchers.<List<TlbSuiteFile>>any(), eq("module_foo"))).thenReturn(new ArrayList<TlbSuiteFile>(Arrays.asList(new TlbSuiteFileImpl("foo/bar/Baz.class"), new TlbSuiteFileImpl("foo/bar/Quux.class"))));
+        when(orderer.compare(any(TlbSuiteFileImpl.class), any(TlbSuiteFileImpl.class))).thenReturn(0);
+        attrs.put(HttpConstants.ATTRIBUTE_HEADERS, new Form(Arrays.asList(new Parameter(TlbConstants.Balancer.TLB_MODULE_NAME_HEADER, "module_foo"))));
+
+        new BalancerResource(context, request, response).acceptRepresentation(new StringRepresentation("foo/bar/Baz.class\nfoo/bar/Bang.class\nfoo/bar/Quux.class\n"));
+
+        assertThat(representation.getText(), is("foo/bar/Quux.class\n"));
+        verify(server).publishSubsetSize(2);
+    }
 }
@@ -73,6 +73,15 @@ public class ControlResourceTest {
         assertThat(rep.getText(), is("RUNNING"));
     }
 
+    @Test
+    public void shouldReturnPartitionPlanCacheStats() throws ResourceException, IOException {
+        PartitionPlanCache planCache = new PartitionPlanCache(3);
+        resource.getContext().getAttributes().put(TlbClient.PARTITION_PLAN_CACHE, planCache);
+        attributes.put(TlbConstants.Balancer.QUERY, ControlResource.Query.plan_cache.toString());
+        final Representation rep = resource.represent(new Variant(MediaType.TEXT_PLAIN));
+        assertThat(rep.getText(), is(planCache.stats()));
+    }
+
     @Test
     public void shouldBombWhenQueryNotUnderstood() {
         attributes.put(TlbConstants.Balancer.QUERY, "foo");
@@ -0,0 +1,55 @@
+package tlb.balancer;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static junit.framework.Assert.fail;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class FramedRequestTest {
+    @Test
+    public void shouldEncodeRequestLineHeadersAndBody() {
+        Map<String, String> headers = new LinkedHashMap<String, String>();
+        headers.put("X-Tlb-Module-Name", "unit");
+        FramedRequest request = new FramedRequest("POST", "/balance", headers, "foo/Bar.class\nfoo/Baz.class\n");
+        assertThat(request.encode(), is("POST /balance\nX-Tlb-Module-Name: unit\n\nfoo/Bar.class\nfoo/Baz.class\n"));
+    }
+
+    @Test
+    public void shouldDecodeWhatItEncodes() {
+        Map<String, String> headers = new LinkedHashMap<String, String>();
+        headers.put("X-Tlb-Module-Name", "unit");
+        headers.put("X-Foo", "bar: baz");
+        FramedRequest request = new FramedRequest("POST", "/suite_time", headers, "foo/Bar.class: 10\n\nfoo/Baz.class: 12");
+        assertThat(FramedRequest.decode(request.encode()), is(request));
+        assertThat(FramedRequest.decode(request.encode()).getHeaders().get("X-Foo"), is("bar: baz"));
+    }
+
+    @Test
+    public void shouldDecodeRequestWithoutHeadersOrBody() {
+        assertThat(FramedRequest.decode("GET /control/status\n\n"), is(new FramedRequest("GET", "/control/status", "")));
+    }
+
+    @Test
+    public void shouldBombWhenHeadIsNotTerminatedByBlankLine() {
+        try {
+            FramedRequest.decode("GET /control/status\n");
+            fail("should not have decoded request without end of head");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("failed to parse 'GET /control/status\n' as FramedRequest, head must end with a blank line"));
+        }
+    }
+
+    @Test
+    public void shouldBombWhenRequestLineHasNoPath() {
+        try {
+            FramedRequest.decode("GET\n\n");
+            fail("should not have decoded request without path");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("failed to parse request line 'GET' as FramedRequest, expected method and path"));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package tlb.balancer;
+
+import org.junit.Test;
+
+import static junit.framework.Assert.fail;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class FramedResponseTest {
+    @Test
+    public void shouldEncodeStatusFollowedByBody() {
+        assertThat(new FramedResponse(200, "foo/Bar.class\n").encode(), is("200\nfoo/Bar.class\n"));
+    }
+
+    @Test
+    public void shouldDecodeWhatItEncodes() {
+        assertThat(FramedResponse.decode(new FramedResponse(417, "Correctness validation failed\nmore").encode()), is(new FramedResponse(417, "Correctness validation failed\nmore")));
+        assertThat(FramedResponse.decode("204"), is(new FramedResponse(204, "")));
+    }
+
+    @Test
+    public void shouldUnderstandSuccess() {
+        assertThat(new FramedResponse(200, "").isSuccess(), is(true));
+        assertThat(new FramedResponse(204, "").isSuccess(), is(true));
+        assertThat(new FramedResponse(417, "").isSuccess(), is(false));
+    }
+
+    @Test
+    public void shouldBombWhenStatusIsNotANumber() {
+        try {
+            FramedResponse.decode("OK\nfoo");
+            fail("should not have decoded response without status code");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("failed to parse 'OK\nfoo' as FramedResponse"));
+        }
+    }
+}
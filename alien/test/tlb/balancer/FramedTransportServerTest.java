@@ -0,0 +1,138 @@
+package tlb.balancer;
+
+import com.noelios.restlet.http.HttpConstants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.restlet.Restlet;
+import org.restlet.data.Form;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.data.Status;
+import org.restlet.resource.StringRepresentation;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static junit.framework.Assert.fail;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class FramedTransportServerTest {
+    private FramedTransportServer server;
+    private List<String> handledUris;
+    private FramedTransportClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        handledUris = Collections.synchronizedList(new ArrayList<String>());
+        server = new FramedTransportServer(new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                handledUris.add(request.getResourceRef().toString());
+                if (request.getResourceRef().toString().endsWith("/boom")) {
+                    throw new RuntimeException("boom");
+                }
+                if (request.getResourceRef().toString().endsWith("/missing")) {
+                    response.setStatus(Status.CLIENT_ERROR_NOT_FOUND);
+                    return;
+                }
+                try {
+                    String module = ((Form) request.getAttributes().get(HttpConstants.ATTRIBUTE_HEADERS)).getFirstValue("X-Tlb-Module-Name", "none");
+                    response.setEntity(new StringRepresentation(String.format("%s[%s]%s", request.getMethod(), module, request.getEntity().getText())));
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }, "http://127.0.0.1:8019", 0);
+        server.start();
+        client = new FramedTransportClient(server.port());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    public void shouldHandFramesToRestletAsRequestsAgainstHttpBaseUri() throws IOException {
+        Map<String, String> headers = new LinkedHashMap<String, String>();
+        headers.put("X-Tlb-Module-Name", "unit");
+        FramedResponse response = client.send(new FramedRequest("POST", "/balance", headers, "foo/Bar.class\n"));
+        assertThat(response, is(new FramedResponse(200, "POST[unit]foo/Bar.class\n")));
+        assertThat(handledUris, is(Arrays.asList("http://127.0.0.1:8019/balance")));
+    }
+
+    @Test
+    public void shouldKeepConnectionOpenAcrossRequests() throws IOException {
+        assertThat(client.send(new FramedRequest("POST", "/suite_time", "foo/Bar.class: 10\n")).getBody(), is("POST[none]foo/Bar.class: 10\n"));
+        assertThat(client.send(new FramedRequest("POST", "/suite_result", "foo/Bar.class: false\n")).getBody(), is("POST[none]foo/Bar.class: false\n"));
+        assertThat(handledUris.size(), is(2));
+    }
+
+    @Test
+    public void shouldAnswerPipelinedRequestsInOrder() throws IOException {
+        List<FramedRequest> requests = new ArrayList<FramedRequest>();
+        for (int i = 0; i < 2000; i++) {
+            requests.add(new FramedRequest("POST", "/suite_time", String.format("foo/Suite%s.class: %s\n", i, i)));
+        }
+        List<FramedResponse> responses = client.pipeline(requests);
+        assertThat(responses.size(), is(2000));
+        for (int i = 0; i < 2000; i++) {
+            assertThat(responses.get(i).getBody(), is(String.format("POST[none]foo/Suite%s.class: %s\n", i, i)));
+        }
+    }
+
+    @Test
+    public void shouldCarryStatusOfRestletResponse() throws IOException {
+        FramedResponse response = client.send(new FramedRequest("GET", "/missing", ""));
+        assertThat(response.getStatus(), is(404));
+        assertThat(response.isSuccess(), is(false));
+    }
+
+    @Test
+    public void shouldAnswerMalformedAndFailingRequestsWithoutDroppingConnection() throws IOException {
+        assertThat(client.send(new FramedRequest("GET", "/boom", "")), is(new FramedResponse(500, "boom")));
+        assertThat(client.send(new FramedRequest("GET", "/control/status", "")).getStatus(), is(200));
+    }
+
+    @Test
+    public void shouldRespondWithBadRequestForUndecodableFrame() throws IOException {
+        FramedResponse response = server.dispatch("garbage");
+        assertThat(response.getStatus(), is(400));
+        assertThat(handledUris.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldDropConnectionWhenFrameSizeIsOutOfBounds() throws IOException {
+        Socket socket = new Socket("127.0.0.1", server.port());
+        try {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeInt(Frames.MAX_FRAME_SIZE + 1);
+            out.flush();
+            assertThat(socket.getInputStream().read(), is(-1));
+        } finally {
+            socket.close();
+        }
+        assertThat(client.send(new FramedRequest("GET", "/control/status", "")).getStatus(), is(200));
+    }
+
+    @Test
+    public void shouldFailPipelineWhenServerGoesAway() throws IOException {
+        server.stop();
+        try {
+            client.send(new FramedRequest("GET", "/control/status", ""));
+            fail("should have failed as server closed connection");
+        } catch (IOException e) {
+            //expected
+        }
+    }
+}
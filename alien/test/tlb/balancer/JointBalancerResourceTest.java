@@ -0,0 +1,122 @@
+package tlb.balancer;
+
+import com.noelios.restlet.http.HttpConstants;
+import org.junit.Before;
+import org.junit.Test;
+import org.restlet.Context;
+import org.restlet.data.*;
+import org.restlet.resource.Representation;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.StringRepresentation;
+import org.restlet.util.WrapperResponse;
+import tlb.TlbConstants;
+import tlb.TlbSuiteFile;
+import tlb.TlbSuiteFileImpl;
+import tlb.orderer.TestOrderer;
+import tlb.service.Server;
+import tlb.splitter.AbstractTestSplitter;
+import tlb.splitter.TestSplitter;
+import tlb.splitter.correctness.IncorrectBalancingException;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class JointBalancerResourceTest {
+    private JointBalancerResource resource;
+    private TestSplitter splitter;
+    private TestOrderer orderer;
+    private Server server;
+    private Response mockResponse;
+    private Representation representation;
+
+    @Before
+    public void setUp() {
+        Context context = new Context();
+        Request request = mock(Request.class);
+        HashMap<String, Object> attrs = new HashMap<String, Object>();
+        attrs.put(HttpConstants.ATTRIBUTE_HEADERS, new Form());
+        when(request.getAttributes()).thenReturn(attrs);
+
+        splitter = mock(AbstractTestSplitter.class);
+        orderer = mock(TestOrderer.class);
+        server = mock(Server.class);
+        HashMap<String, Object> ctxMap = new HashMap<String, Object>();
+        ctxMap.put(TlbClient.SPLITTER, splitter);
+        ctxMap.put(TlbClient.ORDERER, orderer);
+        ctxMap.put(TlbClient.TALK_TO_SERVICE, server);
+        context.setAttributes(ctxMap);
+
+        mockResponse = mock(Response.class);
+        Response response = new WrapperResponse(mockResponse) {
+            @Override
+            public void setEntity(Representation entity) {
+                representation = entity;
+            }
+        };
+        resource = new JointBalancerResource(context, request, response);
+    }
+
+    @Test
+    public void shouldAllow_ONLY_Post() {
+        assertThat(resource.allowPost(), is(true));
+        assertThat(resource.allowGet(), is(false));
+    }
+
+    @Test
+    public void shouldUnderstandSuitesOfManyModules() {
+        Map<String, List<TlbSuiteFile>> modules = JointBalancerResource.parse("Loose.class\n[web]\nweb/Foo.class\n\n[core]\ncore/Bar.class\n[web]\nweb/Baz.class\n");
+        assertThat(new ArrayList<String>(modules.keySet()), is(Arrays.asList(TlbConstants.Balancer.DEFAULT_MODULE_NAME, "web", "core")));
+        assertThat(modules.get(TlbConstants.Balancer.DEFAULT_MODULE_NAME), is(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("Loose.class"))));
+        assertThat(modules.get("web"), is(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("web/Foo.class"), new TlbSuiteFileImpl("web/Baz.class"))));
+        assertThat(modules.get("core"), is(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("core/Bar.class"))));
+    }
+
+    @Test
+    public void shouldSplitSuitesOfAllModulesTogether_andHandBackOrderedSubsetOfEachModule() throws ResourceException, IOException {
+        when(splitter.filterSuites(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("web/Foo.class"), new TlbSuiteFileImpl("web/Baz.class"), new TlbSuiteFileImpl("core/Bar.class"), new TlbSuiteFileImpl("core/Quux.class")), "core,web")).thenReturn(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("web/Foo.class"), new TlbSuiteFileImpl("web/Baz.class"), new TlbSuiteFileImpl("core/Quux.class")));
+        when(orderer.compare(new TlbSuiteFileImpl("web/Foo.class"), new TlbSuiteFileImpl("web/Baz.class"))).thenReturn(1);
+        when(orderer.compare(new TlbSuiteFileImpl("web/Baz.class"), new TlbSuiteFileImpl("web/Foo.class"))).thenReturn(-1);
+
+        resource.acceptRepresentation(new StringRepresentation("[web]\nweb/Foo.class\nweb/Baz.class\n[core]\ncore/Bar.class\ncore/Quux.class\n"));
+
+        assertThat(representation.getText(), is("[web]\nweb/Baz.class\nweb/Foo.class\n[core]\ncore/Quux.class\n"));
+        verify(server).publishSubsetSize(3);
+    }
+
+    @Test
+    public void shouldRejectSuiteNameListedUnderMoreThanOneModule_asItWouldBeBalancedOnceButRunInEach() throws ResourceException, IOException {
+        resource.acceptRepresentation(new StringRepresentation("[web]\nShared.class\nweb/Foo.class\n[core]\nShared.class\ncore/Bar.class\n"));
+
+        String message = "suites of jointly balanced modules must have distinct names, but {Shared.class=[web, core]} listed under more than one module";
+        verify(mockResponse).setStatus(new Status(Status.CLIENT_ERROR_BAD_REQUEST, message));
+        assertThat(representation.getText(), is(message));
+        verify(splitter, never()).filterSuites(any(List.class), anyString());
+        verify(server, never()).publishSubsetSize(anyInt());
+    }
+
+    @Test
+    public void shouldListEveryModule_evenWhenNoneOfItsSuitesAreAssignedToThisPartition() throws ResourceException, IOException {
+        when(splitter.filterSuites(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("web/Foo.class"), new TlbSuiteFileImpl("core/Bar.class")), "core,web")).thenReturn(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("web/Foo.class")));
+
+        resource.acceptRepresentation(new StringRepresentation("[web]\nweb/Foo.class\n[core]\ncore/Bar.class\n"));
+
+        assertThat(representation.getText(), is("[web]\nweb/Foo.class\n[core]\n"));
+    }
+
+    @Test
+    public void shouldReportCorrectnessFailure() throws ResourceException, IOException {
+        when(splitter.filterSuites(any(List.class), anyString())).thenThrow(new IncorrectBalancingException("universal set mismatched"));
+
+        resource.acceptRepresentation(new StringRepresentation("[web]\nweb/Foo.class\n"));
+
+        verify(mockResponse).setStatus(new Status(Status.CLIENT_ERROR_EXPECTATION_FAILED, TlbConstants.Correctness.CORRECTNESS_VALIDATION_FAILED));
+        assertThat(representation.getText(), is("universal set mismatched"));
+        verify(server, never()).publishSubsetSize(anyInt());
+    }
+}
@@ -0,0 +1,102 @@
+package tlb.balancer;
+
+import org.junit.Before;
+import org.junit.Test;
+import tlb.TlbSuiteFile;
+import tlb.TlbSuiteFileImpl;
+import tlb.utils.Function;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.assertThat;
+
+public class PartitionPlanCacheTest {
+    private CountingPlanner planner;
+
+    private static class CountingPlanner implements Function<List<TlbSuiteFile>, RuntimeException, List<TlbSuiteFile>> {
+        int calls = 0;
+
+        public List<TlbSuiteFile> execute(List<TlbSuiteFile> suiteFiles) {
+            calls++;
+            return new ArrayList<TlbSuiteFile>(suiteFiles.subList(0, 1));
+        }
+    }
+
+    @Before
+    public void setUp() {
+        planner = new CountingPlanner();
+    }
+
+    @Test
+    public void shouldPlanOnlyOnce_forSameSuitesOfSameModuleAndPartition() {
+        PartitionPlanCache cache = new PartitionPlanCache(5);
+        assertThat(cache.plan("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class"), new TlbSuiteFileImpl("B.class")), 3, 1, planner), is(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class"))));
+        assertThat(cache.plan("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class"), new TlbSuiteFileImpl("B.class")), 3, 1, planner), is(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class"))));
+        assertThat(planner.calls, is(1));
+        assertThat(cache.hits(), is(1l));
+        assertThat(cache.misses(), is(1l));
+        assertThat(cache.hitRate(), is(0.5));
+    }
+
+    @Test
+    public void shouldNotCareAboutOrderOfSuitesGiven() {
+        assertThat(PartitionPlanCache.key("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class"), new TlbSuiteFileImpl("B.class")), 3, 1), is(PartitionPlanCache.key("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("B.class"), new TlbSuiteFileImpl("A.class")), 3, 1)));
+    }
+
+    @Test
+    public void shouldKeyPlansByModuleSuitesAndPartition() {
+        String key = PartitionPlanCache.key("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class"), new TlbSuiteFileImpl("B.class")), 3, 1);
+        assertThat(PartitionPlanCache.key("bar", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class"), new TlbSuiteFileImpl("B.class")), 3, 1), not(key));
+        assertThat(PartitionPlanCache.key("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class"), new TlbSuiteFileImpl("C.class")), 3, 1), not(key));
+        assertThat(PartitionPlanCache.key("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class"), new TlbSuiteFileImpl("B.class")), 4, 1), not(key));
+        assertThat(PartitionPlanCache.key("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class"), new TlbSuiteFileImpl("B.class")), 3, 2), not(key));
+    }
+
+    @Test
+    public void shouldHandOutCopyOfCachedPlan() {
+        PartitionPlanCache cache = new PartitionPlanCache(5);
+        cache.plan("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class"), new TlbSuiteFileImpl("B.class")), 3, 1, planner).add(new TlbSuiteFileImpl("Z.class"));
+        cache.plan("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class"), new TlbSuiteFileImpl("B.class")), 3, 1, planner).clear();
+        assertThat(cache.plan("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class"), new TlbSuiteFileImpl("B.class")), 3, 1, planner), is(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class"))));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedPlan_whenFull() {
+        PartitionPlanCache cache = new PartitionPlanCache(2);
+        cache.plan("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class")), 3, 1, planner);
+        cache.plan("bar", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class")), 3, 1, planner);
+        cache.plan("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class")), 3, 1, planner);
+        cache.plan("baz", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class")), 3, 1, planner);
+        assertThat(cache.size(), is(2));
+        assertThat(planner.calls, is(3));
+
+        cache.plan("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class")), 3, 1, planner);
+        assertThat(planner.calls, is(3));
+        cache.plan("bar", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class")), 3, 1, planner);
+        assertThat(planner.calls, is(4));
+    }
+
+    @Test
+    public void shouldAlwaysPlan_whenDisabled() {
+        PartitionPlanCache cache = new PartitionPlanCache(0);
+        cache.plan("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class")), 3, 1, planner);
+        cache.plan("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class")), 3, 1, planner);
+        assertThat(planner.calls, is(2));
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void shouldReportStats() {
+        PartitionPlanCache cache = new PartitionPlanCache(5);
+        assertThat(cache.hitRate(), is(0.0));
+        cache.plan("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class")), 3, 1, planner);
+        cache.plan("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class")), 3, 1, planner);
+        cache.plan("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class")), 3, 1, planner);
+        cache.plan("foo", Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class")), 3, 2, planner);
+        assertThat(cache.stats(), is("hits: 2\nmisses: 2\nhit_rate: 0.50\nentries: 2\nmax_entries: 5\n"));
+    }
+}
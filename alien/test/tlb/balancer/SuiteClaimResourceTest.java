@@ -0,0 +1,99 @@
+package tlb.balancer;
+
+import com.noelios.restlet.http.HttpConstants;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.restlet.Context;
+import org.restlet.data.*;
+import org.restlet.resource.Representation;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.StringRepresentation;
+import tlb.TlbConstants;
+import tlb.TlbSuiteFile;
+import tlb.TlbSuiteFileImpl;
+import tlb.service.Server;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class SuiteClaimResourceTest {
+    private SuiteClaimResource resource;
+    private Server toService;
+    private Response response;
+    private Representation representationGiven;
+
+    @Before
+    public void setUp() {
+        Context context = new Context();
+        HashMap<String, Object> appCtx = new HashMap<String, Object>();
+        toService = mock(Server.class);
+        appCtx.put(TlbClient.TALK_TO_SERVICE, toService);
+        appCtx.put(TlbClient.SUITE_QUEUE_BATCH_SIZE, 3);
+        context.setAttributes(appCtx);
+        Request request = mock(Request.class);
+        HashMap<String, Object> attrs = new HashMap<String, Object>();
+        attrs.put(HttpConstants.ATTRIBUTE_HEADERS, new Form(Arrays.asList(new Parameter(TlbConstants.Balancer.TLB_MODULE_NAME_HEADER, "module_foo"))));
+        when(request.getAttributes()).thenReturn(attrs);
+        response = mock(Response.class);
+        representationGiven = null;
+        doAnswer(new Answer<Object>() {
+            public Object answer(InvocationOnMock invocationOnMock) throws Throwable {
+                representationGiven = (Representation) invocationOnMock.getArguments()[0];
+                return null;
+            }
+        }).when(response).setEntity(any(Representation.class));
+        resource = new SuiteClaimResource(context, request, response);
+    }
+
+    @Test
+    public void shouldAllow_ONLY_Post() {
+        assertThat(resource.allowPost(), is(true));
+        assertThat(resource.allowGet(), is(false));
+    }
+
+    @Test
+    public void shouldClaimRequestedNumberOfSuites() throws ResourceException, IOException {
+        when(toService.claimSuites("module_foo", 2)).thenReturn(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("com/foo/Foo.class"), new TlbSuiteFileImpl("com/bar/Bar.class")));
+        resource.acceptRepresentation(new StringRepresentation("2"));
+        assertThat(representationGiven.getText(), is("com/foo/Foo.class\ncom/bar/Bar.class\n"));
+    }
+
+    @Test
+    public void shouldClaimConfiguredNumberOfSuites_whenBatchSizeIsNotGiven() throws ResourceException, IOException {
+        when(toService.claimSuites("module_foo", 3)).thenReturn(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("com/foo/Foo.class")));
+        resource.acceptRepresentation(new StringRepresentation(""));
+        assertThat(representationGiven.getText(), is("com/foo/Foo.class\n"));
+    }
+
+    @Test
+    public void shouldRespondWithNothing_onceQueueIsDrained() throws ResourceException, IOException {
+        when(toService.claimSuites("module_foo", 3)).thenReturn(new ArrayList<TlbSuiteFile>());
+        resource.acceptRepresentation(new StringRepresentation(""));
+        assertThat(representationGiven.getText(), is(""));
+    }
+
+    @Test
+    public void shouldRejectClaim_whenServerHasNoQueueDefined() throws ResourceException, IOException {
+        when(toService.claimSuites("module_foo", 3)).thenThrow(new IllegalStateException("Could not claim suites, status 406: no queue"));
+        resource.acceptRepresentation(new StringRepresentation(""));
+        verify(response).setStatus(new Status(Status.CLIENT_ERROR_NOT_ACCEPTABLE, TlbConstants.Correctness.NO_SUITE_QUEUE_FOUND));
+        assertThat(representationGiven.getText(), is("Could not claim suites, status 406: no queue"));
+    }
+
+    @Test
+    public void shouldReportNotImplemented_whenServerDoesNotSupportQueueing() throws ResourceException, IOException {
+        when(toService.claimSuites("module_foo", 3)).thenThrow(new UnsupportedOperationException("Dynamic distribution of suites is only available when working against TLB server."));
+        resource.acceptRepresentation(new StringRepresentation(""));
+        verify(response).setStatus(new Status(Status.SERVER_ERROR_NOT_IMPLEMENTED, TlbConstants.Correctness.SUITE_QUEUE_NOT_AVAILABLE));
+        assertThat(representationGiven.getText(), is("Dynamic distribution of suites is only available when working against TLB server."));
+    }
+}
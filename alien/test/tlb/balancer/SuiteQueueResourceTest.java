@@ -0,0 +1,76 @@
+package tlb.balancer;
+
+import com.noelios.restlet.http.HttpConstants;
+import org.junit.Before;
+import org.junit.Test;
+import org.restlet.Context;
+import org.restlet.data.*;
+import org.restlet.resource.Representation;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.StringRepresentation;
+import tlb.TlbConstants;
+import tlb.TlbSuiteFile;
+import tlb.TlbSuiteFileImpl;
+import tlb.service.Server;
+import tlb.splitter.correctness.ValidationResult;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class SuiteQueueResourceTest {
+    private SuiteQueueResource resource;
+    private Server toService;
+    private Response response;
+
+    @Before
+    public void setUp() {
+        Context context = new Context();
+        HashMap<String, Object> appCtx = new HashMap<String, Object>();
+        toService = mock(Server.class);
+        appCtx.put(TlbClient.TALK_TO_SERVICE, toService);
+        context.setAttributes(appCtx);
+        Request request = mock(Request.class);
+        HashMap<String, Object> attrs = new HashMap<String, Object>();
+        attrs.put(HttpConstants.ATTRIBUTE_HEADERS, new Form(Arrays.asList(new Parameter(TlbConstants.Balancer.TLB_MODULE_NAME_HEADER, "module_foo"))));
+        when(request.getAttributes()).thenReturn(attrs);
+        response = mock(Response.class);
+        resource = new SuiteQueueResource(context, request, response);
+    }
+
+    @Test
+    public void shouldAllow_ONLY_Post() {
+        assertThat(resource.getVariants().get(0).getMediaType(), is(MediaType.TEXT_PLAIN));
+        assertThat(resource.allowPost(), is(true));
+        assertThat(resource.allowGet(), is(false));
+    }
+
+    @Test
+    public void shouldDefineQueueWithAllSuitesOfThePartition_forGivenModule() throws ResourceException {
+        when(toService.defineSuiteQueue(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("com/foo/Foo.class"), new TlbSuiteFileImpl("com/bar/Bar.class")), "module_foo")).thenReturn(new ValidationResult(ValidationResult.Status.FIRST, "Suite queue defined."));
+        resource.acceptRepresentation(new StringRepresentation("com/foo/Foo.class\ncom/bar/Bar.class\n"));
+        verify(response).setEntity(any(Representation.class));
+        verify(response, never()).setStatus(any(Status.class));
+    }
+
+    @Test
+    public void shouldFailRequest_whenServerRejectsDefinition() throws ResourceException {
+        when(toService.defineSuiteQueue(any(List.class), eq("module_foo"))).thenReturn(new ValidationResult(ValidationResult.Status.FAILED, "Expected universal set was [...]"));
+        resource.acceptRepresentation(new StringRepresentation("com/foo/Foo.class\n"));
+        verify(response).setStatus(new Status(Status.CLIENT_ERROR_EXPECTATION_FAILED, TlbConstants.Correctness.CORRECTNESS_VALIDATION_FAILED));
+    }
+
+    @Test
+    public void shouldReportNotImplemented_whenServerDoesNotSupportQueueing() throws ResourceException, IOException {
+        when(toService.defineSuiteQueue(any(List.class), eq("module_foo"))).thenThrow(new UnsupportedOperationException("Dynamic distribution of suites is only available when working against TLB server."));
+        resource.acceptRepresentation(new StringRepresentation("com/foo/Foo.class\n"));
+        verify(response).setStatus(new Status(Status.SERVER_ERROR_NOT_IMPLEMENTED, TlbConstants.Correctness.SUITE_QUEUE_NOT_AVAILABLE));
+    }
+}
@@ -1,6 +1,7 @@
 package tlb.balancer;
 
 import tlb.TestUtil;
+import tlb.domain.SuiteResultEntry;
 import tlb.service.Server;
 import org.junit.Before;
 import org.junit.Test;
@@ -13,6 +14,8 @@ import org.restlet.resource.ResourceException;
 import org.restlet.resource.StringRepresentation;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 
 import static junit.framework.Assert.fail;
@@ -56,24 +59,22 @@ public class SuiteResultReporterTest {
     @Test
     public void shouldReportSuiteResultToServiceImpl() throws ResourceException {
         reporter.acceptRepresentation(new StringRepresentation("foo/bar/Baz.class: true"));
-        verify(toService).testClassFailure("foo/bar/Baz.class", true);
+        verify(toService).testClassFailures(Arrays.asList(new SuiteResultEntry("foo/bar/Baz.class", true)));
         reporter.acceptRepresentation(new StringRepresentation("foo/bar/Quux.class: false"));
-        verify(toService).testClassFailure("foo/bar/Quux.class", false);
+        verify(toService).testClassFailures(Arrays.asList(new SuiteResultEntry("foo/bar/Quux.class", false)));
     }
     
     @Test
-    public void shouldReportBatchedSuiteResultOverToServiceImpl() throws ResourceException {
+    public void shouldReportBatchedSuiteResultOverToServiceImplInOneGo() throws ResourceException {
         reporter.acceptRepresentation(new StringRepresentation("foo/bar/Baz.class: true\nbar/Baz.class: false\ncom/foo/bar/Bar.class: true\nfoo/bar/Quux.class: false\n"));
-        verify(toService).testClassFailure("foo/bar/Baz.class", true);
-        verify(toService).testClassFailure("bar/Baz.class", false);
-        verify(toService).testClassFailure("com/foo/bar/Bar.class", true);
-        verify(toService).testClassFailure("foo/bar/Quux.class", false);
+        verify(toService).testClassFailures(Arrays.asList(new SuiteResultEntry("foo/bar/Baz.class", true), new SuiteResultEntry("bar/Baz.class", false), new SuiteResultEntry("com/foo/bar/Bar.class", true), new SuiteResultEntry("foo/bar/Quux.class", false)));
+        verify(toService, never()).testClassFailure(any(String.class), anyBoolean());
     }
 
     @Test
     public void shouldNotFailWhileTryingToReportEmptySuiteResultOverToServiceImpl() throws ResourceException {
         reporter.acceptRepresentation(new StringRepresentation(""));
-        verify(toService, never()).testClassFailure(any(String.class), anyBoolean());
+        verify(toService).testClassFailures(new ArrayList<SuiteResultEntry>());
     }
 
     @Test
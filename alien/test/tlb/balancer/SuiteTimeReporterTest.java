@@ -1,6 +1,7 @@
 package tlb.balancer;
 
 import tlb.TestUtil;
+import tlb.domain.SuiteTimeEntry;
 import tlb.service.Server;
 import org.junit.Before;
 import org.junit.Test;
@@ -13,6 +14,8 @@ import org.restlet.resource.ResourceException;
 import org.restlet.resource.StringRepresentation;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 
 import static junit.framework.Assert.fail;
@@ -56,22 +59,20 @@ public class SuiteTimeReporterTest {
     @Test
     public void shouldReportSuiteTimeOverToServiceImpl() throws ResourceException {
         reporter.acceptRepresentation(new StringRepresentation("com/foo/Foo.class: 103"));
-        verify(toService).testClassTime("com/foo/Foo.class", 103l);
+        verify(toService).testClassTimes(Arrays.asList(new SuiteTimeEntry("com/foo/Foo.class", 103l)));
     }
 
     @Test
-    public void shouldReportBatchedSuiteTimeReportingOverToServiceImpl() throws ResourceException {
+    public void shouldReportBatchedSuiteTimeReportingOverToServiceImplInOneGo() throws ResourceException {
         reporter.acceptRepresentation(new StringRepresentation("com/foo/Foo.class: 103\ncom/bar/Bar.class: 89\ncom/baz/Quux.class: 17\nfoo/bar/Baz.class: 134"));
-        verify(toService).testClassTime("com/foo/Foo.class", 103l);
-        verify(toService).testClassTime("com/bar/Bar.class", 89l);
-        verify(toService).testClassTime("com/baz/Quux.class", 17l);
-        verify(toService).testClassTime("foo/bar/Baz.class", 134l);
+        verify(toService).testClassTimes(Arrays.asList(new SuiteTimeEntry("com/foo/Foo.class", 103l), new SuiteTimeEntry("com/bar/Bar.class", 89l), new SuiteTimeEntry("com/baz/Quux.class", 17l), new SuiteTimeEntry("foo/bar/Baz.class", 134l)));
+        verify(toService, never()).testClassTime(any(String.class), anyLong());
     }
     
     @Test
     public void shouldNotFailForBatchedSuiteTimeReportingWithNoEntries() throws ResourceException {
         reporter.acceptRepresentation(new StringRepresentation(""));
-        verify(toService, never()).testClassTime(any(String.class), anyLong());
+        verify(toService).testClassTimes(new ArrayList<SuiteTimeEntry>());
     }
 
     @Test
@@ -32,6 +32,14 @@ public class TlbClientTest {
         assertThat(((Finder)restlet).getTargetClass().getName(), is(BalancerResource.class.getName()));
     }
 
+    @Test
+    public void shouldHaveRouteForBalancingModulesJointly() {
+        HashMap<String, Restlet> routeMaping = getRoutePatternsAndResources(app);
+        assertThat(routeMaping.keySet(), hasItem("/balance_modules"));
+        Restlet restlet = routeMaping.get("/balance_modules");
+        assertThat(((Finder)restlet).getTargetClass().getName(), is(JointBalancerResource.class.getName()));
+    }
+
     @Test
     public void shouldHaveRouteForReportingSuiteTime() {
         HashMap<String, Restlet> routeMaping = getRoutePatternsAndResources(app);
@@ -48,6 +56,15 @@ public class TlbClientTest {
         assertThat(((Finder)restlet).getTargetClass().getName(), is(SuiteResultReporter.class.getName()));
     }
 
+    @Test
+    public void shouldHaveRoutesForDefiningAndClaimingFromSuiteQueue() {
+        HashMap<String, Restlet> routeMaping = getRoutePatternsAndResources(app);
+        assertThat(routeMaping.keySet(), hasItem("/suite_queue"));
+        assertThat(((Finder) routeMaping.get("/suite_queue")).getTargetClass().getName(), is(SuiteQueueResource.class.getName()));
+        assertThat(routeMaping.keySet(), hasItem("/suite_queue/claim"));
+        assertThat(((Finder) routeMaping.get("/suite_queue/claim")).getTargetClass().getName(), is(SuiteClaimResource.class.getName()));
+    }
+
     @Test
     public void shouldHaveRouteForControl() {
         HashMap<String, Restlet> routeMaping = getRoutePatternsAndResources(app);
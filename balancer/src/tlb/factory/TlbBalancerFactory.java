@@ -6,6 +6,7 @@ import tlb.splitter.AbstractTestSplitter;
 import tlb.splitter.JobFamilyAwareSplitter;
 import tlb.splitter.TestSplitter;
 import tlb.splitter.correctness.SplitChecker;
+import tlb.splitter.timebased.NewSuiteTimeEstimator;
 import tlb.utils.SystemEnvironment;
 
 /**
@@ -15,6 +16,7 @@ public class TlbBalancerFactory {
     private static TlbFactory<TestSplitter> criteriaFactory;
     private static TlbFactory<SplitChecker> splitCheckerFactory;
     private static TlbFactory<TestOrderer> testOrderer;
+    private static TlbFactory<NewSuiteTimeEstimator> newSuiteTimeEstimatorFactory;
 
     public static TestSplitter getCriteria(String criteriaName, SystemEnvironment environment) {
         if (criteriaFactory == null)
@@ -30,4 +32,10 @@ public class TlbBalancerFactory {
             testOrderer = new TlbFactory<TestOrderer>(TestOrderer.class, TestOrderer.NO_OP, SystemEnvironment.class);
         return testOrderer.getInstance(ordererName, environment, environment);
     }
+
+    public static NewSuiteTimeEstimator getNewSuiteTimeEstimator(String estimatorName, SystemEnvironment environment) {
+        if (newSuiteTimeEstimatorFactory == null)
+            newSuiteTimeEstimatorFactory = new TlbFactory<NewSuiteTimeEstimator>(NewSuiteTimeEstimator.class, null, SystemEnvironment.class);
+        return newSuiteTimeEstimatorFactory.getInstance(estimatorName, environment, environment);
+    }
 }
@@ -0,0 +1,38 @@
+package tlb.orderer;
+
+import tlb.TlbConstants;
+import tlb.TlbSuiteFile;
+import tlb.factory.TlbBalancerFactory;
+import tlb.utils.SystemEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @understands ordering by orderers in order of precedence, later ones break ties left by earlier ones
+ */
+public class ChainedOrderer extends TestOrderer {
+    public static final SystemEnvironment.EnvVar TLB_CHAINED_ORDERERS = new SystemEnvironment.DefaultedEnvVar(TlbConstants.TLB_CHAINED_ORDERERS, FailedFirstOrderer.class.getCanonicalName() + ":" + LongestFirstOrderer.class.getCanonicalName());
+
+    private final List<TestOrderer> orderers;
+
+    public ChainedOrderer(SystemEnvironment environment) {
+        super(environment);
+        orderers = new ArrayList<TestOrderer>();
+        for (String ordererName : environment.val(TLB_CHAINED_ORDERERS).split("\\s*:\\s*")) {
+            orderers.add(TlbBalancerFactory.getOrderer(ordererName, environment));
+        }
+    }
+
+    public int compare(TlbSuiteFile o1, TlbSuiteFile o2) {
+        for (TestOrderer orderer : orderers) {
+            int order = orderer.compare(o1, o2);
+            if (order != 0) return order;
+        }
+        return 0;
+    }
+
+    List<TestOrderer> orderers() {
+        return orderers;
+    }
+}
@@ -5,36 +5,49 @@ import tlb.domain.SuiteResultEntry;
 import tlb.service.Server;
 import tlb.service.TalksToServer;
 import tlb.utils.SystemEnvironment;
-import tlb.utils.FileUtil;
 
-import java.util.List;
-import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * @understands ordering to bring failed tests first
  */
 public class FailedFirstOrderer extends TestOrderer implements TalksToServer {
-    private Server toService;
-    private List<String> failedTestFiles;
+    protected static final double NOT_FAILED = 0.0;
+    protected static final double FAILED_LAST_RUN = 1.0;
+
+    protected Server toService;
+    private Map<String, Double> failureScores;
 
     public FailedFirstOrderer(SystemEnvironment environment) {
         super(environment);
     }
 
     public int compare(TlbSuiteFile o1, TlbSuiteFile o2) {
-        if (failedTestFiles == null) {
-            failedTestFiles = new ArrayList<String>();
-            for (SuiteResultEntry failedSuiteEntry : toService.getLastRunFailedTests()) {
-                if (failedSuiteEntry.hasFailed()) {
-                    failedTestFiles.add(failedSuiteEntry.getName());
-                }
+        double score1 = scoreOf(o1);
+        double score2 = scoreOf(o2);
+        return score1 > score2 ? -1 : (score1 == score2 ? 0 : 1);
+    }
+
+    private double scoreOf(TlbSuiteFile suiteFile) {
+        if (failureScores == null) {
+            failureScores = failureScores();
+        }
+        Double score = failureScores.get(suiteFile.getName());
+        return score == null ? NOT_FAILED : score;
+    }
+
+    /**
+     * computed once per orderer, suites with higher score are brought ahead(more recently or more often failed ones for instance), suites not listed are taken to have not failed
+     */
+    protected Map<String, Double> failureScores() {
+        Map<String, Double> scores = new HashMap<String, Double>();
+        for (SuiteResultEntry failedSuiteEntry : toService.getLastRunFailedTests()) {
+            if (failedSuiteEntry.hasFailed()) {
+                scores.put(failedSuiteEntry.getName(), FAILED_LAST_RUN);
             }
         }
-        if (failedTestFiles.contains(o1.getName()))
-            return -1;
-        if (failedTestFiles.contains(o2.getName()))
-            return 1;
-        return 0;
+        return scores;
     }
 
     public void talksToServer(Server service) {
@@ -0,0 +1,27 @@
+package tlb.orderer;
+
+import tlb.domain.SuiteFailureHistoryEntry;
+import tlb.utils.SystemEnvironment;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @understands ordering to bring suites that failed more recently and more often first, using failure history aggregated by server
+ */
+public class FailureHistoryOrderer extends FailedFirstOrderer {
+    public FailureHistoryOrderer(SystemEnvironment environment) {
+        super(environment);
+    }
+
+    @Override
+    protected Map<String, Double> failureScores() {
+        Map<String, Double> scores = new HashMap<String, Double>();
+        for (SuiteFailureHistoryEntry historyEntry : toService.getSuiteFailureHistory()) {
+            if (historyEntry.getScore() > NOT_FAILED) {
+                scores.put(historyEntry.getName(), historyEntry.getScore());
+            }
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,18 @@
+package tlb.orderer;
+
+import tlb.TlbSuiteFile;
+import tlb.utils.SystemEnvironment;
+
+/**
+ * @understands ordering to bring slower suites first, so parallel forks finish close to each other
+ */
+public class LongestFirstOrderer extends SuiteTimeOrderer {
+    public LongestFirstOrderer(SystemEnvironment environment) {
+        super(environment);
+    }
+
+    @Override
+    public int compare(TlbSuiteFile o1, TlbSuiteFile o2) {
+        return super.compare(o2, o1);
+    }
+}
@@ -0,0 +1,12 @@
+package tlb.orderer;
+
+import tlb.utils.SystemEnvironment;
+
+/**
+ * @understands ordering to bring quicker suites first, so failures show up early
+ */
+public class ShortestFirstOrderer extends SuiteTimeOrderer {
+    public ShortestFirstOrderer(SystemEnvironment environment) {
+        super(environment);
+    }
+}
@@ -0,0 +1,56 @@
+package tlb.orderer;
+
+import tlb.TlbSuiteFile;
+import tlb.domain.SuiteTimeEntry;
+import tlb.service.Server;
+import tlb.service.TalksToServer;
+import tlb.utils.SystemEnvironment;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @understands ordering suites by time they took last run, suites with no history are taken to run for mean time of known suites
+ */
+public abstract class SuiteTimeOrderer extends TestOrderer implements TalksToServer {
+    private Server toService;
+    private Map<String, Long> suiteTimes;
+    private long meanTime;
+
+    protected SuiteTimeOrderer(SystemEnvironment environment) {
+        super(environment);
+    }
+
+    public int compare(TlbSuiteFile o1, TlbSuiteFile o2) {
+        long time1 = timeOf(o1);
+        long time2 = timeOf(o2);
+        return time1 < time2 ? -1 : (time1 == time2 ? 0 : 1);
+    }
+
+    long timeOf(TlbSuiteFile suiteFile) {
+        if (suiteTimes == null) {
+            loadSuiteTimes();
+        }
+        Long time = suiteTimes.get(suiteFile.getName());
+        return time == null ? meanTime : time;
+    }
+
+    /**
+     * server caches last run times locally when splitter fetches them, so this does not hit the service again
+     */
+    private void loadSuiteTimes() {
+        List<SuiteTimeEntry> lastRunTimes = toService.getLastRunTestTimes();
+        suiteTimes = new HashMap<String, Long>();
+        long totalTime = 0;
+        for (SuiteTimeEntry entry : lastRunTimes) {
+            suiteTimes.put(entry.getName(), entry.getTime());
+            totalTime += entry.getTime();
+        }
+        meanTime = suiteTimes.isEmpty() ? 0 : totalTime / lastRunTimes.size();
+    }
+
+    public void talksToServer(Server service) {
+        toService = service;
+    }
+}
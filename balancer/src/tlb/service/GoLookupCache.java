@@ -0,0 +1,120 @@
+package tlb.service;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+import tlb.TlbConstants;
+import tlb.utils.FileUtil;
+import tlb.utils.Function;
+import tlb.utils.SystemEnvironment;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * @understands remembering results of go stage/job lookups on disk, so partitions running on the same agent don't ask go server the same thing again
+ */
+public class GoLookupCache {
+    private static final Logger logger = Logger.getLogger(GoLookupCache.class.getName());
+
+    static final String CACHE_DIR = "go_lookup_cache";
+    private static final String PARTIAL_WRITE_SUFFIX = ".part";
+    private static final long ONE_MINUTE = 60 * 1000l;
+
+    private final File dir;
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    public GoLookupCache(SystemEnvironment environment) {
+        this(new FileUtil(environment), Long.parseLong(environment.val(TlbConstants.Go.GO_LOOKUP_CACHE_TTL_IN_MINUTES)) * ONE_MINUTE, Integer.parseInt(environment.val(TlbConstants.Go.GO_LOOKUP_CACHE_MAX_ENTRIES)));
+    }
+
+    GoLookupCache(FileUtil fileUtil, long ttlMillis, int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.dir = enabled() ? new File(fileUtil.sharedTmpDir(CACHE_DIR)) : null;
+    }
+
+    private boolean enabled() {
+        return ttlMillis > 0 && maxEntries > 0;
+    }
+
+    public List<String> lookup(String key, Function<String, RuntimeException, List<String>> loader) {
+        if (! enabled()) {
+            return loader.execute(key);
+        }
+        File entryFile = new File(dir, DigestUtils.md5Hex(key));
+        List<String> cached = read(key, entryFile);
+        if (cached != null) {
+            logger.debug(String.format("go lookup cache hit for [ %s ]", key));
+            return cached;
+        }
+        List<String> value = loader.execute(key);
+        write(key, entryFile, value);
+        evictOverflow();
+        return value;
+    }
+
+    private List<String> read(String key, File entryFile) {
+        if (! entryFile.exists() || System.currentTimeMillis() - entryFile.lastModified() > ttlMillis) {
+            return null;
+        }
+        try {
+            List<String> lines = FileUtils.readLines(entryFile);
+            if (lines.isEmpty() || ! lines.get(0).equals(key)) {
+                return null;
+            }
+            return new ArrayList<String>(lines.subList(1, lines.size()));
+        } catch (IOException e) {
+            logger.warn(String.format("could not read go lookup cache entry %s, will ask go server instead", entryFile.getAbsolutePath()), e);
+            return null;
+        }
+    }
+
+    private void write(String key, File entryFile, List<String> value) {
+        List<String> lines = new ArrayList<String>();
+        lines.add(key);
+        lines.addAll(value);
+        File partialFile = new File(dir, entryFile.getName() + "." + UUID.randomUUID() + PARTIAL_WRITE_SUFFIX);
+        try {
+            FileUtils.writeLines(partialFile, lines);
+            if (! partialFile.renameTo(entryFile)) {
+                entryFile.delete();
+                if (! partialFile.renameTo(entryFile)) {
+                    throw new IOException(String.format("could not move %s to %s", partialFile.getAbsolutePath(), entryFile.getAbsolutePath()));
+                }
+            }
+        } catch (IOException e) {
+            logger.warn(String.format("could not cache go lookup for [ %s ]", key), e);
+        } finally {
+            FileUtils.deleteQuietly(partialFile);
+        }
+    }
+
+    private void evictOverflow() {
+        File[] entries = dir.listFiles(new FileFilter() {
+            public boolean accept(File file) {
+                return file.isFile() && ! file.getName().endsWith(PARTIAL_WRITE_SUFFIX);
+            }
+        });
+        if (entries == null || entries.length <= maxEntries) {
+            return;
+        }
+        Arrays.sort(entries, new Comparator<File>() {
+            public int compare(File one, File other) {
+                long oneModified = one.lastModified();
+                long otherModified = other.lastModified();
+                return oneModified < otherModified ? -1 : (oneModified == otherModified ? 0 : 1);
+            }
+        });
+        for (int i = 0; i < entries.length - maxEntries; i++) {
+            FileUtils.deleteQuietly(entries[i]);
+        }
+    }
+}
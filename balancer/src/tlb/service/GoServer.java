@@ -16,18 +16,19 @@ import tlb.TlbConstants;
 import static tlb.TlbConstants.*;
 
 import tlb.TlbSuiteFile;
+import tlb.domain.PartitionSpeedEntry;
 import tlb.domain.SuiteResultEntry;
 import tlb.domain.SuiteTimeEntry;
+import tlb.service.go.JobDetail;
+import tlb.service.go.StageDetail;
+import tlb.service.go.StageFeedPage;
 import tlb.service.http.HttpAction;
 import tlb.service.http.DefaultHttpAction;
 import tlb.splitter.correctness.ValidationResult;
 import tlb.storage.TlbEntryRepository;
 import tlb.utils.FileUtil;
+import tlb.utils.Function;
 import tlb.utils.SystemEnvironment;
-import tlb.utils.XmlUtil;
-
-import org.dom4j.Attribute;
-import org.dom4j.Element;
 
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -43,7 +44,7 @@ public class GoServer extends SmoothingServer {
     private static final Logger logger = Logger.getLogger(GoServer.class.getName());
 
     private final HttpAction httpAction;
-    private static final String JOB_NAME = "name";
+    private final GoLookupCache lookupCache;
     protected static final String TEST_TIME_FILE = "tlb/test_time.properties";
     private static final Pattern STAGE_LOCATOR = Pattern.compile("(.*?)/\\d+/(.*?)/\\d+");
     final String jobLocator;
@@ -56,6 +57,12 @@ public class GoServer extends SmoothingServer {
     private static final String UUID = HEX + "{8}-" + HEX + "{4}-" + HEX + "{4}-" + HEX + "{4}-" + HEX + "{12}";
     private static final Pattern UUID_BASED_LOAD_BALANCED_JOB = Pattern.compile("(.*?)-(" + UUID + ")");
 
+    private final StageFeedPage.EntryMatcher sameStageMatcher = new StageFeedPage.EntryMatcher() {
+        public boolean matches(String title) {
+            return sameStage(title);
+        }
+    };
+
     public GoServer(SystemEnvironment environment) {
         this(environment, createHttpAction(environment));
     }
@@ -63,6 +70,7 @@ public class GoServer extends SmoothingServer {
     public GoServer(SystemEnvironment environment, HttpAction httpAction) {
         super(environment);
         this.httpAction = httpAction;
+        this.lookupCache = new GoLookupCache(environment);
         jobLocator = String.format("%s/%s/%s/%s/%s", v(Go.GO_PIPELINE_NAME), v(Go.GO_PIPELINE_LABEL), v(Go.GO_STAGE_NAME), v(Go.GO_STAGE_COUNTER), v(Go.GO_JOB_NAME));
         FileUtil fileUtil = new FileUtil(environment);
         stageLocator = String.format("%s/%s/%s/%s", v(Go.GO_PIPELINE_NAME), v(Go.GO_PIPELINE_COUNTER), v(Go.GO_STAGE_NAME), v(Go.GO_STAGE_COUNTER));
@@ -104,23 +112,25 @@ public class GoServer extends SmoothingServer {
     }
 
     public List<String> getJobs() {
-        ArrayList<String> jobNames = new ArrayList<String>();
-        for (Attribute jobLink : jobLinks(String.format("%s/pipelines/%s.xml", cruiseUrl(), stageLocator))) {
-            jobNames.add(rootFor(jobLink.getValue()).attributeValue(JOB_NAME));
-        }
+        List<String> jobNames = lookupCache.lookup(String.format("jobs:%s/pipelines/%s", cruiseUrl(), stageLocator), new Function<String, RuntimeException, List<String>>() {
+            public List<String> execute(String key) {
+                ArrayList<String> jobNames = new ArrayList<String>();
+                for (String jobLink : jobLinks(String.format("%s/pipelines/%s.xml", cruiseUrl(), stageLocator))) {
+                    jobNames.add(JobDetail.nameOf(httpAction.get(jobLink)).name());
+                }
+                return jobNames;
+            }
+        });
         logger.info(String.format("jobs found %s", jobNames));
         return jobNames;
     }
 
-    @SuppressWarnings({"unchecked"})
-    private List<Attribute> jobLinks(String url) {
-        Element stage = rootFor(url);
-        return (List<Attribute>) stage.selectNodes("//jobs/job/@href");
-    }
-
-    public Element rootFor(String url) {
-        String xmlString = httpAction.get(url);
-        return XmlUtil.domFor(xmlString);
+    private List<String> jobLinks(final String url) {
+        return lookupCache.lookup("job_links:" + url, new Function<String, RuntimeException, List<String>>() {
+            public List<String> execute(String key) {
+                return StageDetail.parse(httpAction.get(url)).jobHrefs();
+            }
+        });
     }
 
     private Object cruiseUrl() {
@@ -165,7 +175,7 @@ public class GoServer extends SmoothingServer {
     private List<String> lastRunArtifactUrls(List<String> jobNames, String urlSuffix) {
         String stageFeedUrl = String.format("%s/api/pipelines/%s/stages.xml", cruiseUrl(), v(Go.GO_PIPELINE_NAME));
         String stageDetailUrl = lastRunStageDetailUrl(stageFeedUrl);
-        List<Attribute> jobLinks = jobLinks(stageDetailUrl);
+        List<String> jobLinks = jobLinks(stageDetailUrl);
         return tlbArtifactUrls(jobLinks, jobNames, urlSuffix);
     }
 
@@ -181,37 +191,48 @@ public class GoServer extends SmoothingServer {
         return buffer.toString();
     }
 
-    private List<String> tlbArtifactUrls(List<Attribute> jobLinks, List<String> jobNames, String urlSuffix) {
+    private List<String> tlbArtifactUrls(List<String> jobLinks, List<String> jobNames, String urlSuffix) {
         ArrayList<String> tlbAtrifactUrls = new ArrayList<String>();
-        for (Attribute jobLink : jobLinks) {
-            Element jobDom = rootFor(jobLink.getValue());
-            String jobName = jobDom.attribute("name").getValue().trim();
+        for (String jobLink : jobLinks) {
+            List<String> nameAndArtifactBaseUri = jobNameAndArtifactBaseUri(jobLink);
+            String jobName = nameAndArtifactBaseUri.get(0).trim();
             if (jobNames.contains(jobName)) {
-                String atrifactBaseUrl = jobDom.selectSingleNode("//artifacts/@baseUri").getText();
-                tlbAtrifactUrls.add(String.format("%s/%s", atrifactBaseUrl, urlSuffix));
+                tlbAtrifactUrls.add(String.format("%s/%s", nameAndArtifactBaseUri.get(1), urlSuffix));
             }
         }
         return tlbAtrifactUrls;
     }
 
-    @SuppressWarnings({"unchecked"})
-    private String lastRunStageDetailUrl(String stageFeedUrl) {
-        return findLastRunStageDetailUrl(stageFeedUrl, Integer.parseInt(environment.val(TlbConstants.Go.GO_STAGE_FEED_MAX_SEARCH_DEPTH)), 0);
+    private List<String> jobNameAndArtifactBaseUri(final String jobLink) {
+        return lookupCache.lookup("job_detail:" + jobLink, new Function<String, RuntimeException, List<String>>() {
+            public List<String> execute(String key) {
+                JobDetail job = JobDetail.parse(httpAction.get(jobLink));
+                return Arrays.asList(job.name(), job.artifactBaseUri());
+            }
+        });
+    }
+
+    private String lastRunStageDetailUrl(final String stageFeedUrl) {
+        String key = String.format("last_run_stage_detail:%s/pipelines/%s", cruiseUrl(), stageLocator);
+        return lookupCache.lookup(key, new Function<String, RuntimeException, List<String>>() {
+            public List<String> execute(String key) {
+                return Arrays.asList(findLastRunStageDetailUrl(stageFeedUrl, Integer.parseInt(environment.val(TlbConstants.Go.GO_STAGE_FEED_MAX_SEARCH_DEPTH)), 0));
+            }
+        }).get(0);
     }
 
     private String findLastRunStageDetailUrl(String stageFeedUrl, int digNoMoreThan, int current) {
         if (digNoMoreThan == current) {
             throw new IllegalStateException(String.format("Couldn't find a historical run for stage in '%s' pages of stage feed.", digNoMoreThan));
         }
-        Element stageFeedPage = rootFor(stageFeedUrl);
-        List<Element> list = stageFeedPage.selectNodes("//a:entry");
-        for (Element element : list) {
-            String stageLocator = element.selectSingleNode("./a:title").getText();
-            if (sameStage(stageLocator)) {
-                return element.selectSingleNode("./a:link/@href").getText();
-            }
+        StageFeedPage stageFeedPage = StageFeedPage.parse(httpAction.get(stageFeedUrl), sameStageMatcher);
+        if (stageFeedPage.hasMatch()) {
+            return stageFeedPage.matchedEntryHref();
+        }
+        if (stageFeedPage.nextPageHref() == null) {
+            throw new IllegalStateException(String.format("Couldn't find a historical run for stage, stage feed has no page after '%s'.", stageFeedUrl));
         }
-        return findLastRunStageDetailUrl(stageFeedPage.selectSingleNode("//a:link[@rel='next']/@href").getText(), digNoMoreThan, ++current);
+        return findLastRunStageDetailUrl(stageFeedPage.nextPageHref(), digNoMoreThan, ++current);
     }
 
     private boolean sameStage(String stageLocator) {
@@ -244,6 +265,19 @@ public class GoServer extends SmoothingServer {
         return getLastRunFailedTests(pearJobs());
     }
 
+    /**
+     * go server keeps no record of how fast partitions ran, so all of them are balanced as equally fast
+     */
+    @Override
+    protected List<PartitionSpeedEntry> fetchPartitionSpeeds() {
+        return new ArrayList<PartitionSpeedEntry>();
+    }
+
+    @Override
+    protected void postPartitionSpeedToServer(PartitionSpeedEntry speed) {
+        logger.debug(String.format("not publishing partition speed %s, as go server support does not include weighting partitions by speed", speed));
+    }
+
     protected String jobName() {
         return environment.val(new SystemEnvironment.EnvVar(Go.GO_JOB_NAME));
     }
@@ -301,6 +335,14 @@ public class GoServer extends SmoothingServer {
         throw new UnsupportedOperationException("Correctness-check feature is only available when working against TLB server. Go server support does not include correctness-checking yet.");
     }
 
+    public ValidationResult defineSuiteQueue(List<TlbSuiteFile> universalSet, String moduleName) {
+        throw new UnsupportedOperationException("Dynamic distribution of suites is only available when working against TLB server.");
+    }
+
+    public List<TlbSuiteFile> claimSuites(String moduleName, int batchSize) {
+        throw new UnsupportedOperationException("Dynamic distribution of suites is only available when working against TLB server.");
+    }
+
     public String partitionIdentifier() {
         return String.format("job: '%s', partition: %s/%s", jobName(), partitionNumber(), totalPartitions());
     }
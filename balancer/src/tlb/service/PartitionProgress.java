@@ -0,0 +1,61 @@
+package tlb.service;
+
+import org.apache.log4j.Logger;
+import tlb.TlbConstants;
+import tlb.TlbSuiteFile;
+import tlb.factory.TlbFactory;
+import tlb.utils.SystemEnvironment;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @understands skipping suites a partition already ran before it crashed or was preempted, when resuming it
+ */
+public class PartitionProgress {
+    private static final Logger logger = Logger.getLogger(PartitionProgress.class.getName());
+
+    private final SystemEnvironment environment;
+    private final boolean resume;
+    private Server server;
+
+    public PartitionProgress(SystemEnvironment environment) {
+        this(null, environment);
+    }
+
+    public PartitionProgress(Server server, SystemEnvironment environment) {
+        this.server = server;
+        this.environment = environment;
+        this.resume = Boolean.parseBoolean(environment.val(TlbConstants.TLB_RESUME_PARTITION));
+    }
+
+    /**
+     * subset size must still be published for the whole subset, so the report server gets covers suites run before and after restart
+     */
+    public List<TlbSuiteFile> remaining(List<TlbSuiteFile> subset) {
+        if (! resume) {
+            return subset;
+        }
+        Set<String> completed = new HashSet<String>(server().completedSuiteNames());
+        if (completed.isEmpty()) {
+            return subset;
+        }
+        List<TlbSuiteFile> remaining = new ArrayList<TlbSuiteFile>();
+        for (TlbSuiteFile suiteFile : subset) {
+            if (! completed.contains(suiteFile.getName())) {
+                remaining.add(suiteFile);
+            }
+        }
+        logger.info(String.format("Resuming partition, skipping %s suites that have already run.", subset.size() - remaining.size()));
+        return remaining;
+    }
+
+    private Server server() {
+        if (server == null) {
+            server = TlbFactory.getTalkToService(environment);
+        }
+        return server;
+    }
+}
@@ -1,8 +1,11 @@
 package tlb.service;
 
 import tlb.TlbSuiteFile;
+import tlb.domain.PartitionSpeedEntry;
+import tlb.domain.SuiteFailureHistoryEntry;
 import tlb.domain.SuiteResultEntry;
 import tlb.domain.SuiteTimeEntry;
+import tlb.domain.SuiteTimeHistoryEntry;
 import tlb.splitter.correctness.ValidationResult;
 
 import java.util.List;
@@ -17,10 +20,22 @@ public interface Server {
     //TODO: this is horrible api, make it accept SuiteResultEntry
     void testClassFailure(String className, boolean hasFailed);
 
+    void testClassTimes(List<SuiteTimeEntry> times);
+
+    void testClassFailures(List<SuiteResultEntry> results);
+
     List<SuiteTimeEntry> getLastRunTestTimes();
 
+    List<SuiteTimeHistoryEntry> getLastRunTestTimeHistory();
+
     List<SuiteResultEntry> getLastRunFailedTests();
 
+    List<SuiteFailureHistoryEntry> getSuiteFailureHistory();
+
+    List<PartitionSpeedEntry> getPartitionSpeeds();
+
+    List<String> completedSuiteNames();
+
     void publishSubsetSize(int size);
 
     int partitionNumber();
@@ -33,5 +48,9 @@ public interface Server {
 
     ValidationResult verifyAllPartitionsExecutedFor(String moduleName);
 
+    ValidationResult defineSuiteQueue(List<TlbSuiteFile> universalSet, String moduleName);
+
+    List<TlbSuiteFile> claimSuites(String moduleName, int batchSize);
+
     String partitionIdentifier();
 }
@@ -3,8 +3,11 @@ package tlb.service;
 import org.apache.commons.io.FileUtils;
 import org.apache.log4j.Logger;
 import tlb.TlbConstants;
+import tlb.domain.PartitionSpeedEntry;
+import tlb.domain.SuiteFailureHistoryEntry;
 import tlb.domain.SuiteResultEntry;
 import tlb.domain.SuiteTimeEntry;
+import tlb.domain.SuiteTimeHistoryEntry;
 import tlb.storage.TlbEntryRepository;
 import tlb.utils.FileUtil;
 import tlb.utils.SystemEnvironment;
@@ -12,7 +15,11 @@ import tlb.utils.SystemEnvironment;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -24,6 +31,9 @@ public abstract class SmoothingServer implements Server {
     static final String SUBSET_SIZE_REPO_FILE = "subset_size";
     static final String TEST_TIMES_REPO_FILE = "test_times";
     static final String FAILED_TESTS_REPO_FILE = "failed_tests";
+    static final String SPEED_SAMPLES_REPO_FILE = "speed_samples";
+    static final String PUBLISHED_TEST_TIMES_REPO_FILE = "published_test_times";
+    static final String PARTITION_SPEEDS_REPO_FILE = "partition_speeds";
     private FileUtil fileUtil;
     Integer subsetSize;
 
@@ -31,17 +41,9 @@ public abstract class SmoothingServer implements Server {
     final TlbEntryRepository oldTestTimesRepo;
     final TlbEntryRepository subsetSizeRepository;
     final TlbEntryRepository failedTestsRepository;
-
-    private static class PassThroughSuiteEntry extends SuiteTimeEntry {
-        public PassThroughSuiteEntry() {
-            super(null, -1l);
-        }
-
-        @Override
-        public SuiteTimeEntry smoothedWrt(SuiteTimeEntry newDataPoint, double alpha) {
-            return newDataPoint;
-        }
-    }
+    final TlbEntryRepository speedSamplesRepository;
+    final TlbEntryRepository publishedTestTimesRepository;
+    final TlbEntryRepository partitionSpeedsRepository;
 
     protected final SystemEnvironment environment;
 
@@ -52,6 +54,9 @@ public abstract class SmoothingServer implements Server {
         subsetSizeRepository = new TlbEntryRepository(fileUtil.getUniqueFile(SUBSET_SIZE_REPO_FILE));
         testTimesRepository = new TlbEntryRepository(fileUtil.getUniqueFile(TEST_TIMES_REPO_FILE));
         failedTestsRepository = new TlbEntryRepository(fileUtil.getUniqueFile(FAILED_TESTS_REPO_FILE));
+        speedSamplesRepository = new TlbEntryRepository(fileUtil.getUniqueFile(SPEED_SAMPLES_REPO_FILE));
+        publishedTestTimesRepository = new TlbEntryRepository(fileUtil.getUniqueFile(PUBLISHED_TEST_TIMES_REPO_FILE));
+        partitionSpeedsRepository = new TlbEntryRepository(fileUtil.getUniqueFile(PARTITION_SPEEDS_REPO_FILE));
         subsetSize = null;
     }
 
@@ -73,18 +78,62 @@ public abstract class SmoothingServer implements Server {
 
     protected abstract void postTestTimesToServer(String body);
 
+    /**
+     * services that replace everything a partition reported on every post need all suite times in one go, and can't be streamed to
+     */
+    protected boolean acceptsPartialTestTimes() {
+        return false;
+    }
+
+    protected abstract void postPartitionSpeedToServer(PartitionSpeedEntry speed);
+
+    protected abstract List<PartitionSpeedEntry> fetchPartitionSpeeds();
+
+    /**
+     * suites whose time this partition has recorded but not yet posted(time is recorded after result, so it marks a suite as done)
+     */
+    public List<String> completedSuiteNames() {
+        List<String> names = new ArrayList<String>();
+        for (SuiteTimeEntry entry : SuiteTimeEntry.parse(testTimesRepository.loadLines())) {
+            names.add(entry.getName());
+        }
+        return names;
+    }
+
     public void testClassFailure(String className, boolean hasFailed) {
-        failedTestsRepository.appendLine(new SuiteResultEntry(className, hasFailed).dump());
+        testClassFailures(Arrays.asList(new SuiteResultEntry(className, hasFailed)));
+    }
 
-        if (subsetSize() == failedTestsRepository.lineCount()) {
-            List<String> runTests = failedTestsRepository.loadLines();
-            List<SuiteResultEntry> resultEntries = SuiteResultEntry.parse(runTests);
-            postFailedTestsToServer(resultEntries);
-            cleanupRepo(failedTestsRepository);
-            cleanupCachingFilesIfNoOtherReposExist();
+    /**
+     * journals all results in one write, so runners reporting many suites at once don't pay a file open per suite
+     */
+    public void testClassFailures(List<SuiteResultEntry> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        failedTestsRepository.appendLines(results);
+
+        if (failedTestsRepository.lineCount() >= subsetSize()) {
+            List<SuiteResultEntry> resultEntries = latestResultPerSuite(SuiteResultEntry.parse(failedTestsRepository.loadLines()));
+            if (resultEntries.size() == subsetSize()) {
+                postFailedTestsToServer(resultEntries);
+                cleanupRepo(failedTestsRepository);
+                cleanupCachingFilesIfNoOtherReposExist();
+            }
         }
     }
 
+    /**
+     * a suite resumed after crash between its result and time being journaled is run again and journals a second result, last one wins
+     */
+    private static List<SuiteResultEntry> latestResultPerSuite(List<SuiteResultEntry> results) {
+        Map<String, SuiteResultEntry> latest = new LinkedHashMap<String, SuiteResultEntry>();
+        for (SuiteResultEntry result : results) {
+            latest.put(result.getName(), result);
+        }
+        return new ArrayList<SuiteResultEntry>(latest.values());
+    }
+
     protected abstract void postFailedTestsToServer(List<SuiteResultEntry> failures);
 
     public abstract List<SuiteTimeEntry> fetchLastRunTestTimes();
@@ -92,34 +141,147 @@ public abstract class SmoothingServer implements Server {
     public void processedTestClassTime(String className, long time) {
         logger.info(String.format("recording run time for suite %s", className));
         testTimesRepository.appendLine(new SuiteTimeEntry(className, time).dump());
+        testTimesRecorded();
+    }
 
-        if (subsetSize() == testTimesRepository.lineCount()) {
-            String body = testTimesRepository.loadBody();
+    private void testTimesRecorded() {
+        int recordedCount = testTimesRepository.lineCount();
+        if (subsetSize() == recordedCount) {
             logger.info(String.format("Posting test run times for suite with size %s to the server.", subsetSize()));
-            postTestTimesToServer(body);
+            postTestTimesToServer(streamsTestTimes() ? unpublishedTestTimes() : testTimesRepository.loadBody());
+            try {
+                publishPartitionSpeed();
+            } catch (Exception e) {
+                logger.warn(String.format("could not publish speed of partition, test times are posted regardless.: '%s'", e.getMessage()), e);
+            }
             cleanupRepo(testTimesRepository);
+            cleanupRepo(publishedTestTimesRepository);
             cleanupRepo(oldTestTimesRepo);
+            cleanupRepo(partitionSpeedsRepository);
             cleanupCachingFilesIfNoOtherReposExist();
+        } else if (streamsTestTimes() && recordedCount - publishedTestTimesCount() >= streamBatchSize()) {
+            streamTestTimes();
         }
     }
 
+    private boolean streamsTestTimes() {
+        return streamBatchSize() > 0 && acceptsPartialTestTimes();
+    }
+
+    private int streamBatchSize() {
+        return Integer.parseInt(environment.val(TlbConstants.TLB_SUITE_TIME_STREAM_BATCH_SIZE));
+    }
+
+    /**
+     * posts times recorded since the last streamed batch, journal of how many were posted lives in tmp dir that is scoped to job version, so a time is posted only once per version
+     */
+    private void streamTestTimes() {
+        String body = unpublishedTestTimes();
+        int recordedCount = testTimesRepository.lineCount();
+        try {
+            logger.info(String.format("Streaming %s test run times to the server.", recordedCount - publishedTestTimesCount()));
+            postTestTimesToServer(body);
+            publishedTestTimesRepository.appendLine(String.format("%s\n", recordedCount));
+        } catch (Exception e) {
+            logger.warn(String.format("could not stream test times, will post them with the next batch.: '%s'", e.getMessage()), e);
+        }
+    }
+
+    private String unpublishedTestTimes() {
+        List<String> recorded = testTimesRepository.loadLines();
+        int publishedCount = Math.min(publishedTestTimesCount(), recorded.size());
+        StringBuilder body = new StringBuilder();
+        for (String line : recorded.subList(publishedCount, recorded.size())) {
+            body.append(line).append("\n");
+        }
+        return body.toString();
+    }
+
+    private int publishedTestTimesCount() {
+        String lastPublished = publishedTestTimesRepository.loadLastLine();
+        return lastPublished == null ? 0 : Integer.parseInt(lastPublished.trim());
+    }
+
     public void testClassTime(String className, long time) {
-        SuiteTimeEntry entry = entryFor(className);
-        entry = entry.smoothedWrt(new SuiteTimeEntry(className, time), smoothingFactor());
-        processedTestClassTime(entry.getName(), entry.getTime());
+        testClassTimes(Arrays.asList(new SuiteTimeEntry(className, time)));
     }
 
-    private double smoothingFactor() {
-        return Double.parseDouble(environment.val(TlbConstants.TLB_SMOOTHING_FACTOR));
+    /**
+     * smooths all times against one lookup of last run times, and journals speed samples and smoothed times in one write each
+     */
+    public void testClassTimes(List<SuiteTimeEntry> times) {
+        if (times.isEmpty()) {
+            return;
+        }
+        Map<String, SuiteTimeEntry> lastRunTimes = new HashMap<String, SuiteTimeEntry>();
+        for (SuiteTimeEntry lastRun : getLastRunTestTimes()) {
+            lastRunTimes.put(lastRun.getName(), lastRun);
+        }
+        List<SuiteTimeEntry> speedSamples = new ArrayList<SuiteTimeEntry>();
+        List<SuiteTimeEntry> smoothedTimes = new ArrayList<SuiteTimeEntry>();
+        double smoothingFactor = smoothingFactor();
+        for (SuiteTimeEntry time : times) {
+            SuiteTimeEntry lastRun = lastRunTimes.get(time.getName());
+            if (lastRun == null) {
+                smoothedTimes.add(time);
+            } else {
+                speedSamples.add(time);
+                smoothedTimes.add(lastRun.smoothedWrt(time, smoothingFactor));
+            }
+        }
+        if (! speedSamples.isEmpty()) {
+            speedSamplesRepository.appendLines(speedSamples);
+        }
+        logger.info(String.format("recording run times for %s suites", smoothedTimes.size()));
+        testTimesRepository.appendLines(smoothedTimes);
+        testTimesRecorded();
     }
 
-    private SuiteTimeEntry entryFor(String className) {
-        for (SuiteTimeEntry suiteTimeEntry : getLastRunTestTimes()) {
-            if (suiteTimeEntry.getName().equals(className)) {
-                return suiteTimeEntry;
+    /**
+     * compares what suites with known history actually took on this partition against what they were predicted to take
+     */
+    private void publishPartitionSpeed() {
+        List<SuiteTimeEntry> samples = SuiteTimeEntry.parse(speedSamplesRepository.loadLines());
+        cleanupRepo(speedSamplesRepository);
+        Map<String, Long> predictedTimes = new HashMap<String, Long>();
+        for (SuiteTimeEntry lastRun : getLastRunTestTimes()) {
+            predictedTimes.put(lastRun.getName(), lastRun.getTime());
+        }
+        long predicted = 0;
+        long actual = 0;
+        for (SuiteTimeEntry sample : samples) {
+            Long predictedTime = predictedTimes.get(sample.getName());
+            if (predictedTime == null) continue;
+            predicted += predictedTime;
+            actual += sample.getTime();
+        }
+        if (predicted <= 0) {
+            return;
+        }
+        PartitionSpeedEntry speed = PartitionSpeedEntry.measured(partitionNumber(), predicted, actual);
+        PartitionSpeedEntry knownSpeed = knownSpeedOf(speed.getName());
+        if (knownSpeed != null) {
+            speed = knownSpeed.smoothedWrt(speed, Double.parseDouble(environment.val(TlbConstants.TLB_PARTITION_SPEED_SMOOTHING_FACTOR)));
+        }
+        logger.info(String.format("Posting speed of partition as %s%% of predicted time to the server.", speed.getPercentOfPredictedTime()));
+        postPartitionSpeedToServer(speed);
+    }
+
+    private PartitionSpeedEntry knownSpeedOf(String partition) {
+        try {
+            for (PartitionSpeedEntry knownSpeed : getPartitionSpeeds()) {
+                if (knownSpeed.getName().equals(partition)) {
+                    return knownSpeed;
+                }
             }
+        } catch (Exception e) {
+            logger.warn(String.format("could not load partition speeds for smoothing.: '%s'", e.getMessage()), e);
         }
-        return new PassThroughSuiteEntry();
+        return null;
+    }
+
+    private double smoothingFactor() {
+        return Double.parseDouble(environment.val(TlbConstants.TLB_SMOOTHING_FACTOR));
     }
 
     private void deleteCachingFilesDir() {
@@ -129,7 +291,7 @@ public abstract class SmoothingServer implements Server {
     private void cleanupCachingFilesIfNoOtherReposExist() {
         boolean anyRepoExists;
         synchronized (this) {
-            anyRepoExists = testTimesRepository.exists() || oldTestTimesRepo.exists() || failedTestsRepository.exists();
+            anyRepoExists = testTimesRepository.exists() || publishedTestTimesRepository.exists() || oldTestTimesRepo.exists() || partitionSpeedsRepository.exists() || failedTestsRepository.exists();
         }
         if (anyRepoExists) {
             if (logger.isDebugEnabled()) {
@@ -159,6 +321,37 @@ public abstract class SmoothingServer implements Server {
         return SuiteTimeEntry.parse(oldTestTimesRepo.loadLines());
     }
 
+    /**
+     * speeds are cached like last run times, so every module balanced by this partition sees the same speeds, a failed fetch is not cached and is left to caller
+     */
+    public List<PartitionSpeedEntry> getPartitionSpeeds() {
+        if (! partitionSpeedsRepository.getFile().exists()) {
+            partitionSpeedsRepository.appendLines(fetchPartitionSpeeds());
+        }
+        return PartitionSpeedEntry.parse(partitionSpeedsRepository.loadLines());
+    }
+
+    /**
+     * services that don't remember more than one run per suite report last run time as the only run
+     */
+    public List<SuiteTimeHistoryEntry> getLastRunTestTimeHistory() {
+        List<SuiteTimeHistoryEntry> history = new ArrayList<SuiteTimeHistoryEntry>();
+        for (SuiteTimeEntry suiteTimeEntry : getLastRunTestTimes()) {
+            history.add(new SuiteTimeHistoryEntry(suiteTimeEntry.getName(), 1).record(suiteTimeEntry.getTime()));
+        }
+        return history;
+    }
+
+    public List<SuiteFailureHistoryEntry> getSuiteFailureHistory() {
+        List<SuiteFailureHistoryEntry> history = new ArrayList<SuiteFailureHistoryEntry>();
+        for (SuiteResultEntry suiteResultEntry : getLastRunFailedTests()) {
+            if (suiteResultEntry.hasFailed()) {
+                history.add(new SuiteFailureHistoryEntry(suiteResultEntry.getName(), 1l, 1.0));
+            }
+        }
+        return history;
+    }
+
     private void cacheOldSuiteTimeEntries() {
         List<SuiteTimeEntry> suiteTimeEntries = null;
         try {
@@ -6,8 +6,12 @@ import org.apache.http.util.EntityUtils;
 import org.apache.log4j.Logger;
 import tlb.TlbConstants;
 import tlb.TlbSuiteFile;
+import tlb.TlbSuiteFileImpl;
+import tlb.domain.PartitionSpeedEntry;
+import tlb.domain.SuiteFailureHistoryEntry;
 import tlb.domain.SuiteResultEntry;
 import tlb.domain.SuiteTimeEntry;
+import tlb.domain.SuiteTimeHistoryEntry;
 import tlb.service.http.DefaultHttpAction;
 import tlb.service.http.HttpAction;
 import tlb.splitter.correctness.ValidationResult;
@@ -21,6 +25,7 @@ import static tlb.TlbConstants.Server.EntryRepoFactory.CORRECTNESS_CHECK;
 import static tlb.TlbConstants.TlbServer.TLB_JOB_NAME;
 import static tlb.TlbConstants.TlbServer.TLB_BASE_URL;
 import static tlb.TlbConstants.TlbServer.TLB_JOB_VERSION;
+import static tlb.TlbConstants.TlbServer.TLB_SUITE_TIME_AGGREGATE;
 
 /**
  * @understands exchanging balancing/ordering related data with the TLB server
@@ -54,13 +59,51 @@ public class TlbServer extends SmoothingServer {
     }
 
     public List<SuiteTimeEntry> fetchLastRunTestTimes() {
+        String aggregate = environment.val(new SystemEnvironment.EnvVar(TLB_SUITE_TIME_AGGREGATE));
+        if (aggregate != null) {
+            List<SuiteTimeEntry> aggregatedTimes = SuiteTimeEntry.parse(httpAction.get(getUrl(namespace(), SUITE_TIME_HISTORY, jobVersion(), aggregate)));
+            if (! aggregatedTimes.isEmpty()) {
+                return aggregatedTimes;
+            }
+            logger.info(String.format("no suite time history available for %s aggregate, using last run times instead", aggregate));
+        }
         return SuiteTimeEntry.parse(httpAction.get(getUrl(namespace(), suiteTimeRepoName(), jobVersion())));
     }
 
+    @Override
+    public List<SuiteTimeHistoryEntry> getLastRunTestTimeHistory() {
+        List<SuiteTimeHistoryEntry> history = SuiteTimeHistoryEntry.parse(httpAction.get(getUrl(namespace(), SUITE_TIME_HISTORY, jobVersion())));
+        if (history.isEmpty()) {
+            logger.info("no suite time history available, using last run times instead");
+            return super.getLastRunTestTimeHistory();
+        }
+        return history;
+    }
+
     public List<SuiteResultEntry> getLastRunFailedTests() {
         return SuiteResultEntry.parse(httpAction.get(suiteResultUrl()));
     }
 
+    @Override
+    public List<SuiteFailureHistoryEntry> getSuiteFailureHistory() {
+        List<SuiteFailureHistoryEntry> history = SuiteFailureHistoryEntry.parse(httpAction.get(getUrl(namespace(), SUITE_FAILURE_HISTORY)));
+        if (history.isEmpty()) {
+            logger.info("no suite failure history available, using last run results instead");
+            return super.getSuiteFailureHistory();
+        }
+        return history;
+    }
+
+    @Override
+    protected List<PartitionSpeedEntry> fetchPartitionSpeeds() {
+        return PartitionSpeedEntry.parse(httpAction.get(getUrl(namespace(), PARTITION_SPEED, jobVersion())));
+    }
+
+    @Override
+    protected void postPartitionSpeedToServer(PartitionSpeedEntry speed) {
+        httpAction.put(getUrl(namespace(), PARTITION_SPEED), speed.dump());
+    }
+
     @Override
     protected void postSubsetSizeToServer(int size) {
         httpAction.post(getUrl(jobName(), SUBSET_SIZE), String.valueOf(size));
@@ -71,6 +114,11 @@ public class TlbServer extends SmoothingServer {
         httpAction.put(getUrl(namespace(), suiteTimeRepoName()), body);
     }
 
+    @Override
+    protected boolean acceptsPartialTestTimes() {
+        return true;
+    }
+
     public void clearOtherCachingFiles() {
         //NOOP
         //TODO: if chattiness becomes a problem, this will need to be implemented sensibly
@@ -156,6 +204,36 @@ public class TlbServer extends SmoothingServer {
         }
     }
 
+    public ValidationResult defineSuiteQueue(List<TlbSuiteFile> universalSet, String moduleName) {
+        String namespace = namespace();
+        String jobVersion = jobVersion();
+
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("Posting suites to be queued for %s[v:%s](m:%s)", namespace, jobVersion, moduleName));
+        }
+
+        RemoteValidationResponse resp = correctnessPost(universalSet, getUrl(namespace, SUITE_QUEUE, jobVersion, UNIVERSAL_SET, moduleName));
+
+        if (resp.status == HttpStatus.SC_CREATED) {
+            return new ValidationResult(ValidationResult.Status.FIRST, "Suite queue defined.");
+        } else if (resp.status == HttpStatus.SC_OK) {
+            return new ValidationResult(ValidationResult.Status.OK, "Suite queue matched.");
+        } else if (resp.status == HttpStatus.SC_CONFLICT) {
+            return new ValidationResult(ValidationResult.Status.FAILED, resp.body);
+        } else {
+            throw new IllegalStateException(String.format("Status %s for suite queue definition not understood.", resp.status));
+        }
+    }
+
+    public List<TlbSuiteFile> claimSuites(String moduleName, int batchSize) {
+        String url = getUrl(namespace(), SUITE_QUEUE, jobVersion(), String.valueOf(totalPartitions()), String.valueOf(partitionNumber()), TlbConstants.Server.CLAIM, moduleName);
+        RemoteValidationResponse resp = validationResponse(httpAction.doPost(url, String.valueOf(batchSize)));
+        if (resp.status == HttpStatus.SC_OK) {
+            return TlbSuiteFileImpl.parse(resp.body == null ? "" : resp.body);
+        }
+        throw new IllegalStateException(String.format("Could not claim suites, status %s: %s", resp.status, resp.body));
+    }
+
     public String partitionIdentifier() {
         return String.format("job: '%s', version: '%s', partition: %s/%s", jobName(), jobVersion(), partitionNumber(), totalPartitions());
     }
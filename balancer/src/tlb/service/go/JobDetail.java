@@ -0,0 +1,53 @@
+package tlb.service.go;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+import tlb.utils.XmlUtil;
+
+/**
+ * @understands name and artifact location of a job, read off job xml only as far as needed
+ */
+public class JobDetail extends DefaultHandler {
+    private static final String JOB = "job";
+    private static final String NAME = "name";
+    private static final String ARTIFACTS = "artifacts";
+    private static final String BASE_URI = "baseUri";
+
+    private final boolean needsArtifacts;
+    private String name;
+    private String artifactBaseUri;
+
+    private JobDetail(boolean needsArtifacts) {
+        this.needsArtifacts = needsArtifacts;
+    }
+
+    public static JobDetail nameOf(String jobXml) {
+        return XmlUtil.stream(jobXml, new JobDetail(false));
+    }
+
+    public static JobDetail parse(String jobXml) {
+        return XmlUtil.stream(jobXml, new JobDetail(true));
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+        if (name == null && JOB.equals(localName)) {
+            name = attributes.getValue(NAME);
+            if (! needsArtifacts) {
+                throw new XmlUtil.StopParsing();
+            }
+        } else if (ARTIFACTS.equals(localName)) {
+            artifactBaseUri = attributes.getValue(BASE_URI);
+            throw new XmlUtil.StopParsing();
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String artifactBaseUri() {
+        return artifactBaseUri;
+    }
+}
@@ -0,0 +1,45 @@
+package tlb.service.go;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+import tlb.utils.XmlUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @understands links to jobs that ran as part of a stage
+ */
+public class StageDetail extends DefaultHandler {
+    private static final String JOBS = "jobs";
+    private static final String JOB = "job";
+    private static final String HREF = "href";
+
+    private final List<String> jobHrefs = new ArrayList<String>();
+    private boolean inJobs;
+
+    public static StageDetail parse(String stageXml) {
+        return XmlUtil.stream(stageXml, new StageDetail());
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+        if (JOBS.equals(localName)) {
+            inJobs = true;
+        } else if (inJobs && JOB.equals(localName)) {
+            jobHrefs.add(attributes.getValue(HREF));
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        if (JOBS.equals(localName)) {
+            inJobs = false;
+        }
+    }
+
+    public List<String> jobHrefs() {
+        return jobHrefs;
+    }
+}
@@ -0,0 +1,96 @@
+package tlb.service.go;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+import tlb.utils.XmlUtil;
+
+/**
+ * @understands finding the first entry of a stage feed page whose title is acceptable, without reading the page beyond it
+ */
+public class StageFeedPage extends DefaultHandler {
+    private static final String ENTRY = "entry";
+    private static final String TITLE = "title";
+    private static final String LINK = "link";
+    private static final String HREF = "href";
+    private static final String REL = "rel";
+    private static final String NEXT = "next";
+
+    public static interface EntryMatcher {
+        boolean matches(String title);
+    }
+
+    private final EntryMatcher matcher;
+
+    private boolean inEntry;
+    private boolean entryMatched;
+    private StringBuilder title;
+    private String entryHref;
+
+    private String matchedEntryHref;
+    private String nextPageHref;
+
+    public StageFeedPage(EntryMatcher matcher) {
+        this.matcher = matcher;
+    }
+
+    public static StageFeedPage parse(String feedPageXml, EntryMatcher matcher) {
+        return XmlUtil.stream(feedPageXml, new StageFeedPage(matcher));
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+        if (! XmlUtil.ATOM_NAMESPACE.equals(uri)) {
+            return;
+        }
+        if (ENTRY.equals(localName)) {
+            inEntry = true;
+            entryMatched = false;
+            entryHref = null;
+        } else if (inEntry && TITLE.equals(localName)) {
+            title = new StringBuilder();
+        } else if (LINK.equals(localName)) {
+            if (inEntry) {
+                if (entryHref == null) entryHref = attributes.getValue(HREF);
+            } else if (NEXT.equals(attributes.getValue(REL))) {
+                nextPageHref = attributes.getValue(HREF);
+            }
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+        if (title != null) {
+            title.append(ch, start, length);
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        if (! XmlUtil.ATOM_NAMESPACE.equals(uri)) {
+            return;
+        }
+        if (TITLE.equals(localName) && title != null) {
+            entryMatched = matcher.matches(title.toString());
+            title = null;
+        } else if (ENTRY.equals(localName)) {
+            inEntry = false;
+            if (entryMatched) {
+                matchedEntryHref = entryHref;
+                throw new XmlUtil.StopParsing();
+            }
+        }
+    }
+
+    public boolean hasMatch() {
+        return matchedEntryHref != null;
+    }
+
+    public String matchedEntryHref() {
+        return matchedEntryHref;
+    }
+
+    public String nextPageHref() {
+        return nextPageHref;
+    }
+}
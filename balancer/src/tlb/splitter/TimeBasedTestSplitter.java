@@ -2,26 +2,29 @@ package tlb.splitter;
 
 import org.apache.log4j.Logger;
 import tlb.TlbSuiteFile;
+import tlb.domain.PartitionSpeedEntry;
 import tlb.domain.SuiteTimeEntry;
 import tlb.service.Server;
+import tlb.TlbConstants;
+import tlb.factory.TlbBalancerFactory;
 import tlb.service.TalksToServer;
 import tlb.splitter.timebased.Bucket;
+import tlb.splitter.timebased.NewSuiteTimeEstimator;
+import tlb.splitter.timebased.SuiteTimeIndex;
 import tlb.splitter.timebased.TestFile;
-import tlb.utils.CollectionUtils;
 import tlb.utils.SystemEnvironment;
 
 import java.util.*;
 
-import static tlb.utils.CollectionUtils.mean;
-import static tlb.utils.CollectionUtils.sortedCopy;
-
-
 /**
  * @understands criteria for splitting tests based on time taken
  */
 public class TimeBasedTestSplitter extends JobFamilyAwareSplitter implements TalksToServer {
     private static final Logger logger = Logger.getLogger(TimeBasedTestSplitter.class.getName());
     private static final String NO_HISTORICAL_DATA = "no historical test time data, aborting attempt to balance based on time";
+    private static final String NO_PARTITION_SPEEDS = "could not load partition speeds, aborting attempt to balance based on time";
+    private final List<NewSuiteTimeEstimator> newSuiteTimeEstimators;
+    private SuiteTimeIndex historyIndex;
 
     public TimeBasedTestSplitter(Server server, SystemEnvironment env) {
         this(env);
@@ -30,6 +33,11 @@ public class TimeBasedTestSplitter extends JobFamilyAwareSplitter implements Tal
 
     public TimeBasedTestSplitter(SystemEnvironment env) {
         super(env);
+        newSuiteTimeEstimators = new ArrayList<NewSuiteTimeEstimator>();
+        for (String estimatorName : env.val(TlbConstants.TLB_NEW_SUITE_TIME_ESTIMATORS).split("\\s*:\\s*")) {
+            NewSuiteTimeEstimator estimator = TlbBalancerFactory.getNewSuiteTimeEstimator(estimatorName, env);
+            if (estimator != null) newSuiteTimeEstimators.add(estimator);
+        }
     }
 
     protected List<TlbSuiteFile> subset(List<TlbSuiteFile> fileResources) {
@@ -43,8 +51,10 @@ public class TimeBasedTestSplitter extends JobFamilyAwareSplitter implements Tal
         Bucket thisBucket = null;
         List<Bucket> buckets = new ArrayList<Bucket>();
         int thisPartition = server.partitionNumber();
+        Map<String, Double> capacities = partitionCapacities();
         for(int i = 1; i <= totalPartitions; i++) {
-            Bucket bucket = new Bucket(i);
+            Double capacity = capacities.get(String.valueOf(i));
+            Bucket bucket = new Bucket(i, capacity == null ? 1.0 : capacity);
             if (i == thisPartition) thisBucket = bucket;
             buckets.add(bucket);
         }
@@ -55,21 +65,43 @@ public class TimeBasedTestSplitter extends JobFamilyAwareSplitter implements Tal
         logger.info("Assigned the tests to buckets in the following way:");
 
         for (Bucket bucket : buckets) {
-            logger.info("Bucket number " + bucket.index() + " has following files:\n" + bucket.files() + "\n");
+            logger.info("Bucket number " + bucket.index() + " with capacity " + bucket.capacity() + " has following files:\n" + bucket.files() + "\n");
         }
 
         return thisBucket;
     }
 
-    private void assignToBuckets(List<TestFile> testFiles, List<Bucket> buckets) {
+    /**
+     * partitions that have never reported speed are taken to be as fast as predicted, but speeds that can't be loaded fail the split, as other partitions may have loaded them
+     */
+    private Map<String, Double> partitionCapacities() {
+        List<PartitionSpeedEntry> speeds;
+        try {
+            speeds = server.getPartitionSpeeds();
+        } catch (Exception e) {
+            logger.warn(String.format("%s: '%s'", NO_PARTITION_SPEEDS, e.getMessage()), e);
+            throw new IllegalStateException(NO_PARTITION_SPEEDS, e);
+        }
+        Map<String, Double> capacities = new HashMap<String, Double>();
+        for (PartitionSpeedEntry speed : speeds) {
+            capacities.put(speed.getName(), speed.capacity());
+        }
+        return capacities;
+    }
+
+    protected void assignToBuckets(List<TestFile> testFiles, List<Bucket> buckets) {
         for (TestFile testFile : testFiles) {
-            buckets.get(0).add(testFile);
+            Bucket earliestFinishing = buckets.get(0);
+            for (Bucket bucket : buckets) {
+                if (bucket.finishTimeWith(testFile) < earliestFinishing.finishTimeWith(testFile)) earliestFinishing = bucket;
+            }
+            earliestFinishing.add(testFile);
             Collections.sort(buckets);
         }
     }
 
     private List<TestFile> testFiles(List<TlbSuiteFile> fileResources) {
-        List<SuiteTimeEntry> suiteTimeEntries = server.getLastRunTestTimes();
+        List<SuiteTimeEntry> suiteTimeEntries = lastRunTestTimes();
         if (suiteTimeEntries.isEmpty()) {
             logger.warn(NO_HISTORICAL_DATA);
             throw new IllegalStateException(NO_HISTORICAL_DATA);
@@ -90,8 +122,7 @@ public class TimeBasedTestSplitter extends JobFamilyAwareSplitter implements Tal
 
         for (SuiteTimeEntry suiteTimeEntry : suiteTimeEntries) {
             String fileName = suiteTimeEntry.getName();
-            double time = suiteTimeEntry.getTime();
-            if (currentFileNames.remove(fileName)) testFiles.add(new TestFile(fileNameToResource.get(fileName), time));
+            if (currentFileNames.remove(fileName)) testFiles.add(testFile(fileNameToResource.get(fileName), suiteTimeEntry));
         }
 
         logger.info(String.format("%s entries of historical test time data found relevant", testFiles.size()));
@@ -103,53 +134,48 @@ public class TimeBasedTestSplitter extends JobFamilyAwareSplitter implements Tal
         return testFiles;
     }
 
-    private void addNewTests(Map<String, TlbSuiteFile> fileNameToResource, Set<String> currentFileNames, List<TestFile> testFiles, List<SuiteTimeEntry> suiteTimeEntries) {
-        if (currentFileNames.isEmpty()) return;
+    private void addNewTests(Map<String, TlbSuiteFile> fileNameToResource, Set<String> newFileNames, List<TestFile> testFiles, List<SuiteTimeEntry> suiteTimeEntries) {
+        if (newFileNames.isEmpty()) return;
 
-        double newTime = calculateNewTime(groupSimilarEntries(suiteTimeEntries), suiteTimeEntries.size());
-        logger.info(String.format("Encountered %s new files which don't have historical time data, used average time [ %s ] to balance", currentFileNames.size(), newTime));
+        SuiteTimeIndex history = historyIndex(suiteTimeEntries);
+        double totalTime = 0.0;
+        for (String newFile : newFileNames) {
+            TlbSuiteFile resource = fileNameToResource.get(newFile);
+            double time = estimateNewTime(resource, history, fileNameToResource.keySet());
+            totalTime += time;
+            testFiles.add(newTestFile(resource, time));
+        }
+        logger.info(String.format("Encountered %s new files which don't have historical time data, used average time [ %s ] to balance", newFileNames.size(), totalTime / newFileNames.size()));
+    }
 
-        for (String newFile : currentFileNames) {
-            testFiles.add(new TestFile(fileNameToResource.get(newFile), newTime));
+    private SuiteTimeIndex historyIndex(List<SuiteTimeEntry> suiteTimeEntries) {
+        if (historyIndex == null || ! historyIndex.indexes(suiteTimeEntries)) {
+            historyIndex = new SuiteTimeIndex(suiteTimeEntries);
         }
+        return historyIndex;
     }
 
-    private List<List<Long>> groupSimilarEntries(List<SuiteTimeEntry> suiteTimeEntries) {
-        List<List<Long>> groupedTimes = new ArrayList<List<Long>>();
-        List<Long> latestGroup = new ArrayList<Long>();
-        groupedTimes.add(latestGroup);
-        for (SuiteTimeEntry entry : sortedCopy(suiteTimeEntries)) {
-            long time = entry.getTime();
-            if (latestGroup.size() > 1 && !comparableDifferences(latestGroup, time)) {
-                latestGroup = new ArrayList<Long>();
-                groupedTimes.add(latestGroup);
+    private double estimateNewTime(TlbSuiteFile resource, SuiteTimeIndex history, Set<String> currentFileNames) {
+        for (NewSuiteTimeEstimator estimator : newSuiteTimeEstimators) {
+            Double time = estimator.estimate(resource, history, currentFileNames);
+            if (time != null) {
+                logger.debug(String.format("estimated time of new file %s as [ %s ] using %s", resource.getName(), time, estimator.getClass().getCanonicalName()));
+                return time;
             }
-            latestGroup.add(time);
         }
-        return groupedTimes;
+        return history.groupedMeanTime();
     }
 
-    private double calculateNewTime(List<List<Long>> groupedTimes, int size) {
-        double time = 0.0;
-        for (List<Long> groupedTime : groupedTimes) {
-            time += (((double) groupedTime.size()) / size) * mean(groupedTime);
-        }
-        return time;
+    protected List<SuiteTimeEntry> lastRunTestTimes() {
+        return server.getLastRunTestTimes();
     }
 
-    private boolean comparableDifferences(List<Long> groupedTimes, long time) {
-        double mean = meanDifference(groupedTimes);
-        Long largest = groupedTimes.get(groupedTimes.size() - 1);
-        long diff = time - largest;
-        return  diff > .7 * mean && diff < 1.3 * mean || diff < .1 * largest;
+    protected TestFile testFile(TlbSuiteFile resource, SuiteTimeEntry suiteTimeEntry) {
+        return new TestFile(resource, (double) suiteTimeEntry.getTime());
     }
 
-    private double meanDifference(List<Long> groupedTimes) {
-        long sum = 0;
-        for (int i = 1; i < groupedTimes.size(); i++) {
-            sum += groupedTimes.get(i) - groupedTimes.get(i - 1);
-        }
-        return ((double)sum  / (groupedTimes.size() - 1));
+    protected TestFile newTestFile(TlbSuiteFile resource, double time) {
+        return new TestFile(resource, time);
     }
 
     private List<TlbSuiteFile> resourcesFrom(Bucket bucket) {
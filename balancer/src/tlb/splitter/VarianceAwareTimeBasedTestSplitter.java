@@ -0,0 +1,190 @@
+package tlb.splitter;
+
+import org.apache.log4j.Logger;
+import tlb.TlbConstants;
+import tlb.TlbSuiteFile;
+import tlb.domain.SuiteTimeEntry;
+import tlb.domain.SuiteTimeHistoryEntry;
+import tlb.service.Server;
+import tlb.splitter.timebased.Bucket;
+import tlb.splitter.timebased.NormalDistribution;
+import tlb.splitter.timebased.TestFile;
+import tlb.utils.SystemEnvironment;
+
+import java.util.*;
+
+/**
+ * @understands criteria for splitting tests based on mean and variance of time taken, so that a chosen percentile of the slowest partition's time is kept low
+ */
+public class VarianceAwareTimeBasedTestSplitter extends TimeBasedTestSplitter {
+    private static final Logger logger = Logger.getLogger(VarianceAwareTimeBasedTestSplitter.class.getName());
+    private static final String NO_VARIANCE_DATA = "no suite has more than one historical run, aborting attempt to balance based on time variance";
+
+    private final double deviations;
+    private Map<String, SuiteTimeHistoryEntry> histories;
+    private double meanCoefficientOfVariation;
+
+    public VarianceAwareTimeBasedTestSplitter(Server server, SystemEnvironment env) {
+        this(env);
+        talksToServer(server);
+    }
+
+    public VarianceAwareTimeBasedTestSplitter(SystemEnvironment env) {
+        super(env);
+        deviations = NormalDistribution.deviationsAt(Double.parseDouble(env.val(TlbConstants.TLB_BALANCING_PERCENTILE)));
+    }
+
+    @Override
+    protected List<SuiteTimeEntry> lastRunTestTimes() {
+        histories = new HashMap<String, SuiteTimeHistoryEntry>();
+        List<SuiteTimeEntry> meanTimes = new ArrayList<SuiteTimeEntry>();
+        int suitesWithManyRuns = 0;
+        double coefficientOfVariationSum = 0;
+        for (SuiteTimeHistoryEntry history : server.getLastRunTestTimeHistory()) {
+            histories.put(history.getName(), history);
+            meanTimes.add(new SuiteTimeEntry(history.getName(), Math.round(history.mean())));
+            if (history.runs() > 1) {
+                suitesWithManyRuns++;
+                if (history.mean() > 0) {
+                    coefficientOfVariationSum += Math.sqrt(history.variance()) / history.mean();
+                }
+            }
+        }
+        if (! histories.isEmpty() && suitesWithManyRuns == 0) {
+            logger.warn(NO_VARIANCE_DATA);
+            throw new IllegalStateException(NO_VARIANCE_DATA);
+        }
+        meanCoefficientOfVariation = suitesWithManyRuns == 0 ? 0 : coefficientOfVariationSum / suitesWithManyRuns;
+        logger.info(String.format("balancing for %s standard deviations above mean time, with %s of %s suites having more than one historical run", deviations, suitesWithManyRuns, histories.size()));
+        return meanTimes;
+    }
+
+    @Override
+    protected TestFile testFile(TlbSuiteFile resource, SuiteTimeEntry suiteTimeEntry) {
+        SuiteTimeHistoryEntry history = histories.get(suiteTimeEntry.getName());
+        return new TestFile(resource, history.mean(), history.variance());
+    }
+
+    @Override
+    protected TestFile newTestFile(TlbSuiteFile resource, double time) {
+        double standardDeviation = time * meanCoefficientOfVariation;
+        return new TestFile(resource, time, standardDeviation * standardDeviation);
+    }
+
+    @Override
+    protected void assignToBuckets(List<TestFile> testFiles, List<Bucket> buckets) {
+        List<TestFile> slowestFirst = new ArrayList<TestFile>(testFiles);
+        Collections.sort(slowestFirst, new Comparator<TestFile>() {
+            public int compare(TestFile one, TestFile other) {
+                int byTime = Double.compare(other.timeAt(deviations), one.timeAt(deviations));
+                return byTime == 0 ? one.compareTo(other) : byTime;
+            }
+        });
+        Partitioning partitioning = new Partitioning(buckets);
+        for (TestFile testFile : slowestFirst) {
+            partitioning.addToFastest(testFile);
+        }
+        int improvements = 0;
+        while (improvements < slowestFirst.size() && partitioning.relieveSlowest()) {
+            improvements++;
+        }
+        logger.info(String.format("made %s moves/swaps after greedy assignment to relieve slowest partition", improvements));
+        for (int i = 0; i < buckets.size(); i++) {
+            for (TestFile testFile : partitioning.files.get(i)) {
+                buckets.get(i).add(testFile);
+            }
+        }
+    }
+
+    /**
+     * @understands tentative assignment of files to partitions, which can be revised before being committed to buckets
+     */
+    private class Partitioning {
+        private final List<List<TestFile>> files = new ArrayList<List<TestFile>>();
+        private final double[] means;
+        private final double[] variances;
+        private final double[] capacities;
+
+        Partitioning(List<Bucket> buckets) {
+            means = new double[buckets.size()];
+            variances = new double[buckets.size()];
+            capacities = new double[buckets.size()];
+            for (int i = 0; i < buckets.size(); i++) {
+                files.add(new ArrayList<TestFile>());
+                capacities[i] = buckets.get(i).capacity();
+            }
+        }
+
+        private double timeOf(int partition, double mean, double variance) {
+            return (mean + deviations * Math.sqrt(Math.max(variance, 0))) / capacities[partition];
+        }
+
+        private double timeOf(int partition) {
+            return timeOf(partition, means[partition], variances[partition]);
+        }
+
+        void addToFastest(TestFile testFile) {
+            int target = -1;
+            double targetTime = 0;
+            for (int i = 0; i < means.length; i++) {
+                double time = timeOf(i, means[i] + testFile.getTime(), variances[i] + testFile.getVariance());
+                if (target == -1 || time < targetTime || (time == targetTime && files.get(i).size() < files.get(target).size())) {
+                    target = i;
+                    targetTime = time;
+                }
+            }
+            move(testFile, -1, target);
+        }
+
+        boolean relieveSlowest() {
+            int slowest = 0;
+            for (int i = 1; i < means.length; i++) {
+                if (timeOf(i) > timeOf(slowest)) slowest = i;
+            }
+            double bestTime = timeOf(slowest);
+            TestFile bestCandidate = null;
+            TestFile bestSwapWith = null;
+            int bestOther = -1;
+            for (int other = 0; other < means.length; other++) {
+                if (other == slowest) continue;
+                for (TestFile candidate : files.get(slowest)) {
+                    double time = timeAfterExchange(slowest, other, candidate.getTime(), candidate.getVariance());
+                    if (time < bestTime) {
+                        bestTime = time;
+                        bestCandidate = candidate;
+                        bestSwapWith = null;
+                        bestOther = other;
+                    }
+                    for (TestFile swapWith : files.get(other)) {
+                        time = timeAfterExchange(slowest, other, candidate.getTime() - swapWith.getTime(), candidate.getVariance() - swapWith.getVariance());
+                        if (time < bestTime) {
+                            bestTime = time;
+                            bestCandidate = candidate;
+                            bestSwapWith = swapWith;
+                            bestOther = other;
+                        }
+                    }
+                }
+            }
+            if (bestCandidate == null) return false;
+            move(bestCandidate, slowest, bestOther);
+            if (bestSwapWith != null) move(bestSwapWith, bestOther, slowest);
+            return true;
+        }
+
+        private double timeAfterExchange(int from, int to, double meanMoved, double varianceMoved) {
+            return Math.max(timeOf(from, means[from] - meanMoved, variances[from] - varianceMoved), timeOf(to, means[to] + meanMoved, variances[to] + varianceMoved));
+        }
+
+        private void move(TestFile testFile, int from, int to) {
+            if (from >= 0) {
+                files.get(from).remove(testFile);
+                means[from] -= testFile.getTime();
+                variances[from] -= testFile.getVariance();
+            }
+            files.get(to).add(testFile);
+            means[to] += testFile.getTime();
+            variances[to] += testFile.getVariance();
+        }
+    }
+}
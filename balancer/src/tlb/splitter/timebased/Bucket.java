@@ -6,20 +6,26 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
-* @understands a bucket which needs to be filled up equally
+* @understands a bucket which needs to be filled up in proportion to how fast its partition runs
 */
 public class Bucket implements Comparable<Bucket> {
 
     int partition;
+    double capacity;
     Double time = 0.0;
     List<TlbSuiteFile> files = new ArrayList<TlbSuiteFile>();
 
     public Bucket(int partition) {
+        this(partition, 1.0);
+    }
+
+    public Bucket(int partition, double capacity) {
         this.partition = partition;
+        this.capacity = capacity;
     }
 
     public int compareTo(Bucket o) {
-        int i = time.compareTo(o.time);
+        int i = Double.compare(finishTime(), o.finishTime());
         if (i == 0) {
             return new Integer(files.size()).compareTo(o.files.size());
         }
@@ -31,6 +37,21 @@ public class Bucket implements Comparable<Bucket> {
         time += testFile.time;
     }
 
+    /**
+     * time partition will take to run what is in the bucket
+     */
+    public double finishTime() {
+        return time / capacity;
+    }
+
+    public double finishTimeWith(TestFile testFile) {
+        return (time + testFile.time) / capacity;
+    }
+
+    public double capacity() {
+        return capacity;
+    }
+
     public List<TlbSuiteFile> files() {
         return files;
     }
@@ -0,0 +1,18 @@
+package tlb.splitter.timebased;
+
+import tlb.TlbSuiteFile;
+import tlb.utils.SystemEnvironment;
+
+import java.util.Set;
+
+/**
+ * @understands estimating time of a new suite as mean of historical times, weighted by groups of suites that take comparable time
+ */
+public class GroupedMeanTimeEstimator implements NewSuiteTimeEstimator {
+    public GroupedMeanTimeEstimator(SystemEnvironment env) {
+    }
+
+    public Double estimate(TlbSuiteFile newSuite, SuiteTimeIndex history, Set<String> currentSuiteNames) {
+        return history.groupedMeanTime();
+    }
+}
@@ -0,0 +1,18 @@
+package tlb.splitter.timebased;
+
+import tlb.TlbSuiteFile;
+
+import java.util.Set;
+
+/**
+ * @understands guessing time a suite with no history of its own is likely to take
+ */
+public interface NewSuiteTimeEstimator {
+    /**
+     * @param newSuite suite that has no historical time data
+     * @param history index over historical time data of all suites
+     * @param currentSuiteNames names of all the suites being balanced, including the new ones
+     * @return estimated time, or null when there is nothing to go by for the given suite
+     */
+    Double estimate(TlbSuiteFile newSuite, SuiteTimeIndex history, Set<String> currentSuiteNames);
+}
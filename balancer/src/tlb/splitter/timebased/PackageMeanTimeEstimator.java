@@ -0,0 +1,24 @@
+package tlb.splitter.timebased;
+
+import tlb.TlbSuiteFile;
+import tlb.utils.SystemEnvironment;
+
+import java.util.Set;
+
+/**
+ * @understands estimating time of a new suite as mean time of historical suites in the closest enclosing package (or module prefix)
+ */
+public class PackageMeanTimeEstimator implements NewSuiteTimeEstimator {
+    public PackageMeanTimeEstimator(SystemEnvironment env) {
+    }
+
+    public Double estimate(TlbSuiteFile newSuite, SuiteTimeIndex history, Set<String> currentSuiteNames) {
+        for (String packageName : SuiteTimeIndex.enclosingPackages(newSuite.getName())) {
+            Double meanTime = history.meanTimeInPackage(packageName);
+            if (meanTime != null) {
+                return meanTime;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,25 @@
+package tlb.splitter.timebased;
+
+import tlb.TlbSuiteFile;
+import tlb.domain.SuiteTimeEntry;
+import tlb.utils.SystemEnvironment;
+
+import java.util.Set;
+
+/**
+ * @understands estimating time of a new suite as last known time of a suite with the same class name that no longer exists (moved to another package)
+ */
+public class RenamedSuiteTimeEstimator implements NewSuiteTimeEstimator {
+    public RenamedSuiteTimeEstimator(SystemEnvironment env) {
+    }
+
+    public Double estimate(TlbSuiteFile newSuite, SuiteTimeIndex history, Set<String> currentSuiteNames) {
+        SuiteTimeEntry moved = null;
+        for (SuiteTimeEntry entry : history.entriesWithSimpleName(SuiteTimeIndex.simpleName(newSuite.getName()))) {
+            if (currentSuiteNames.contains(entry.getName())) continue;
+            if (moved != null) return null;
+            moved = entry;
+        }
+        return moved == null ? null : (double) moved.getTime();
+    }
+}
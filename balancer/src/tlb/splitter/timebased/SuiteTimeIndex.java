@@ -0,0 +1,154 @@
+package tlb.splitter.timebased;
+
+import tlb.domain.SuiteTimeEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static tlb.utils.CollectionUtils.mean;
+import static tlb.utils.CollectionUtils.sortedCopy;
+
+/**
+ * @understands historical suite times arranged for estimating time of suites that have no history of their own
+ */
+public class SuiteTimeIndex {
+    private static final String[] STRIPPED_SUFFIXES = {".class", ".java"};
+
+    private final List<SuiteTimeEntry> entries;
+    private final Map<String, List<SuiteTimeEntry>> entriesBySimpleName;
+    private final Map<String, List<Long>> timesByPackage;
+    private final double groupedMeanTime;
+
+    public SuiteTimeIndex(List<SuiteTimeEntry> entries) {
+        this.entries = new ArrayList<SuiteTimeEntry>(entries);
+        entriesBySimpleName = new HashMap<String, List<SuiteTimeEntry>>();
+        timesByPackage = new HashMap<String, List<Long>>();
+        for (SuiteTimeEntry entry : entries) {
+            add(entriesBySimpleName, simpleName(entry.getName()), entry);
+            for (String packageName : enclosingPackages(entry.getName())) {
+                add(timesByPackage, packageName, entry.getTime());
+            }
+        }
+        groupedMeanTime = calculateGroupedMeanTime(groupSimilarEntries(entries), entries.size());
+    }
+
+    public boolean indexes(List<SuiteTimeEntry> entries) {
+        return this.entries.equals(entries);
+    }
+
+    /**
+     * mean of suite times, weighted by size of groups of suites that take comparable time
+     */
+    public double groupedMeanTime() {
+        return groupedMeanTime;
+    }
+
+    public List<SuiteTimeEntry> entriesWithSimpleName(String simpleName) {
+        List<SuiteTimeEntry> matching = entriesBySimpleName.get(simpleName);
+        return matching == null ? Collections.<SuiteTimeEntry>emptyList() : matching;
+    }
+
+    /**
+     * @return mean time of suites in the given package or any package nested under it, null when no such suite is known
+     */
+    public Double meanTimeInPackage(String packageName) {
+        List<Long> times = timesByPackage.get(packageName);
+        return times == null ? null : mean(times);
+    }
+
+    public static String simpleName(String suiteName) {
+        List<String> segments = segments(suiteName);
+        return segments.get(segments.size() - 1);
+    }
+
+    /**
+     * @return packages enclosing the given suite, most specific first
+     */
+    public static List<String> enclosingPackages(String suiteName) {
+        List<String> segments = segments(suiteName);
+        List<String> packages = new ArrayList<String>();
+        StringBuilder packageName = new StringBuilder();
+        for (int i = 0; i < segments.size() - 1; i++) {
+            if (i > 0) packageName.append('.');
+            packageName.append(segments.get(i));
+            packages.add(0, packageName.toString());
+        }
+        return packages;
+    }
+
+    private static List<String> segments(String suiteName) {
+        String name = suiteName;
+        for (String suffix : STRIPPED_SUFFIXES) {
+            if (name.endsWith(suffix)) {
+                name = name.substring(0, name.length() - suffix.length());
+                break;
+            }
+        }
+        List<String> segments = new ArrayList<String>();
+        if (name.indexOf('/') >= 0 || name.indexOf('\\') >= 0) {
+            for (String segment : name.split("[/\\\\]+")) {
+                if (segment.length() > 0) segments.add(segment);
+            }
+            String last = segments.isEmpty() ? name : segments.remove(segments.size() - 1);
+            int extension = last.lastIndexOf('.');
+            segments.add(extension > 0 ? last.substring(0, extension) : last);
+        } else {
+            for (String segment : name.split("\\.")) {
+                if (segment.length() > 0) segments.add(segment);
+            }
+            if (segments.isEmpty()) segments.add(name);
+        }
+        return segments;
+    }
+
+    private static <T> void add(Map<String, List<T>> map, String key, T value) {
+        List<T> values = map.get(key);
+        if (values == null) {
+            values = new ArrayList<T>();
+            map.put(key, values);
+        }
+        values.add(value);
+    }
+
+    private static List<List<Long>> groupSimilarEntries(List<SuiteTimeEntry> suiteTimeEntries) {
+        List<List<Long>> groupedTimes = new ArrayList<List<Long>>();
+        List<Long> latestGroup = new ArrayList<Long>();
+        groupedTimes.add(latestGroup);
+        for (SuiteTimeEntry entry : sortedCopy(suiteTimeEntries)) {
+            long time = entry.getTime();
+            if (latestGroup.size() > 1 && !comparableDifferences(latestGroup, time)) {
+                latestGroup = new ArrayList<Long>();
+                groupedTimes.add(latestGroup);
+            }
+            latestGroup.add(time);
+        }
+        return groupedTimes;
+    }
+
+    private static double calculateGroupedMeanTime(List<List<Long>> groupedTimes, int size) {
+        double time = 0.0;
+        for (List<Long> groupedTime : groupedTimes) {
+            if (groupedTime.isEmpty()) continue;
+            time += (((double) groupedTime.size()) / size) * mean(groupedTime);
+        }
+        return time;
+    }
+
+    private static boolean comparableDifferences(List<Long> groupedTimes, long time) {
+        double mean = meanDifference(groupedTimes);
+        Long largest = groupedTimes.get(groupedTimes.size() - 1);
+        long diff = time - largest;
+        return  diff > .7 * mean && diff < 1.3 * mean || diff < .1 * largest;
+    }
+
+    private static double meanDifference(List<Long> groupedTimes) {
+        long sum = 0;
+        for (int i = 1; i < groupedTimes.size(); i++) {
+            sum += groupedTimes.get(i) - groupedTimes.get(i - 1);
+        }
+        return ((double)sum  / (groupedTimes.size() - 1));
+    }
+}
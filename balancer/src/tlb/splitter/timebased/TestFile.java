@@ -8,10 +8,31 @@ import tlb.TlbSuiteFile;
 public class TestFile implements Comparable<TestFile> {
     TlbSuiteFile fileName;
     Double time;
+    double variance;
 
     public TestFile(TlbSuiteFile fileName, Double time) {
+        this(fileName, time, 0.0);
+    }
+
+    public TestFile(TlbSuiteFile fileName, Double time, double variance) {
         this.fileName = fileName;
         this.time = time;
+        this.variance = variance;
+    }
+
+    public double getTime() {
+        return time;
+    }
+
+    public double getVariance() {
+        return variance;
+    }
+
+    /**
+     * time this file takes at a given number of standard deviations above its mean
+     */
+    public double timeAt(double deviations) {
+        return time + deviations * Math.sqrt(variance);
     }
 
     public int compareTo(TestFile o) {
@@ -4,7 +4,11 @@ import org.dom4j.DocumentFactory;
 import org.dom4j.Element;
 import org.dom4j.Document;
 import org.dom4j.io.SAXReader;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
 
+import javax.xml.parsers.SAXParserFactory;
 import java.util.HashMap;
 import java.io.StringReader;
 
@@ -12,6 +16,17 @@ import java.io.StringReader;
  * @understands xml reading
  */
 public class XmlUtil {
+    public static final String ATOM_NAMESPACE = "http://www.w3.org/2005/Atom";
+
+    /**
+     * @understands handler's request to stop reading the document as everything it needed has been seen
+     */
+    public static class StopParsing extends SAXException {
+        public StopParsing() {
+            super("parsing stopped by handler");
+        }
+    }
+
     public static Element domFor(String xmlString) {
         registerNamespaces();
         SAXReader builder = new SAXReader();
@@ -23,9 +38,25 @@ public class XmlUtil {
         }
     }
 
+    /**
+     * pushes the document through the given handler without building a dom, handler may throw {@link StopParsing} to skip rest of the document
+     */
+    public static <T extends DefaultHandler> T stream(String xmlString, T handler) {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        try {
+            factory.newSAXParser().parse(new InputSource(new StringReader(xmlString)), handler);
+        } catch (StopParsing e) {
+            //handler found what it was looking for
+        } catch (Exception e) {
+            throw new RuntimeException("XML could not be understood -> " + xmlString, e);
+        }
+        return handler;
+    }
+
     private static void registerNamespaces() {
         HashMap<String, String> map = new HashMap<String, String>();
-        map.put("a", "http://www.w3.org/2005/Atom");
+        map.put("a", ATOM_NAMESPACE);
         DocumentFactory factory = DocumentFactory.getInstance();
         factory.setXPathNamespaceURIs(map);
     }
@@ -15,6 +15,8 @@ import tlb.splitter.*;
 import tlb.splitter.correctness.AbortOnFailure;
 import tlb.splitter.correctness.NoOp;
 import tlb.splitter.correctness.SplitChecker;
+import tlb.splitter.timebased.NewSuiteTimeEstimator;
+import tlb.splitter.timebased.PackageMeanTimeEstimator;
 import tlb.utils.FileUtil;
 import tlb.utils.SystemEnvironment;
 
@@ -139,6 +141,19 @@ public class TlbBalancerFactoryTest {
         }
     }
 
+    @Test
+    public void shouldReturnNewSuiteTimeEstimator() {
+        SystemEnvironment env = env("tlb.service.GoServer", null);
+        assertThat(TlbBalancerFactory.getNewSuiteTimeEstimator("tlb.splitter.timebased.PackageMeanTimeEstimator", env), instanceOf(PackageMeanTimeEstimator.class));
+        assertThat(TlbBalancerFactory.getNewSuiteTimeEstimator("", env), is((NewSuiteTimeEstimator) null));
+        try {
+            TlbBalancerFactory.getNewSuiteTimeEstimator("tlb.splitter.TimeBasedTestSplitter", env);
+            fail("should not have created estimator out of a splitter");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("Class 'tlb.splitter.TimeBasedTestSplitter' is-not/does-not-implement 'interface tlb.splitter.timebased.NewSuiteTimeEstimator'"));
+        }
+    }
+
     @Test
     public void shouldReturnFailedFirstOrderer() {
         SystemEnvironment env = env("tlb.service.GoServer", null);
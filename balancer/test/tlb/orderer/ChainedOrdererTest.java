@@ -0,0 +1,62 @@
+package tlb.orderer;
+
+import org.junit.Test;
+import tlb.TlbConstants;
+import tlb.TlbSuiteFile;
+import tlb.TlbSuiteFileImpl;
+import tlb.orderer.test.AlphabeticalOrderer;
+import tlb.orderer.test.PackageDepthOrderer;
+import tlb.utils.SystemEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class ChainedOrdererTest {
+
+    private ChainedOrderer chainedOrdererWith(String orderers) {
+        Map<String, String> envMap = new HashMap<String, String>();
+        envMap.put(TlbConstants.TLB_CHAINED_ORDERERS, orderers);
+        return new ChainedOrderer(new SystemEnvironment(envMap));
+    }
+
+    @Test
+    public void shouldChainFailedFirstAndLongestFirstByDefault() {
+        ChainedOrderer orderer = new ChainedOrderer(new SystemEnvironment(new HashMap<String, String>()));
+        assertThat(orderer.orderers().size(), is(2));
+        assertThat(orderer.orderers().get(0), is(FailedFirstOrderer.class));
+        assertThat(orderer.orderers().get(1), is(LongestFirstOrderer.class));
+    }
+
+    @Test
+    public void shouldBreakTiesLeftByAnOrdererUsingTheNextOne() {
+        ChainedOrderer orderer = chainedOrdererWith(PackageDepthOrderer.class.getCanonicalName() + " : " + AlphabeticalOrderer.class.getCanonicalName());
+        TlbSuiteFile deepBar = new TlbSuiteFileImpl("foo/baz/Bar.class");
+        TlbSuiteFile shallowQuux = new TlbSuiteFileImpl("foo/Quux.class");
+        TlbSuiteFile shallowBaz = new TlbSuiteFileImpl("foo/Baz.class");
+        TlbSuiteFile deepAlpha = new TlbSuiteFileImpl("foo/baz/Alpha.class");
+
+        List<TlbSuiteFile> suites = new ArrayList<TlbSuiteFile>(Arrays.asList(deepBar, shallowQuux, shallowBaz, deepAlpha));
+        Collections.sort(suites, orderer);
+
+        assertThat(suites, is(Arrays.asList(shallowBaz, shallowQuux, deepAlpha, deepBar)));
+    }
+
+    @Test
+    public void shouldNotReorderSuitesNoOrdererCaresAbout() {
+        ChainedOrderer orderer = chainedOrdererWith(PackageDepthOrderer.class.getCanonicalName());
+        TlbSuiteFile bar = new TlbSuiteFileImpl("foo/Bar.class");
+        TlbSuiteFile alpha = new TlbSuiteFileImpl("foo/Alpha.class");
+
+        List<TlbSuiteFile> suites = new ArrayList<TlbSuiteFile>(Arrays.asList(bar, alpha));
+        Collections.sort(suites, orderer);
+
+        assertThat(suites, is(Arrays.asList(bar, alpha)));
+    }
+}
@@ -14,7 +14,9 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.core.AnyOf.anyOf;
 import static org.hamcrest.core.Is.is;
@@ -95,4 +97,58 @@ public class FailedFirstOrdererTest {
         verify(toCruise, new Times(1)).getLastRunFailedTests();
     }
 
+    @Test
+    public void shouldBeConsistent_whenBothSuitesHaveFailed() throws Exception {
+        TlbSuiteFile failedFooClass = new TlbSuiteFileImpl("baz/bang/Foo.class");
+        TlbSuiteFile failedBangClass = new TlbSuiteFileImpl("foo/bar/Bang.class");
+        TlbSuiteFile bazClass = new TlbSuiteFileImpl("foo/bar/Baz.class");
+        when(toCruise.getLastRunFailedTests()).thenReturn(Arrays.asList(new SuiteResultEntry("baz/bang/Foo.class", true), new SuiteResultEntry("foo/bar/Bang.class", true)));
+
+        assertThat(orderer.compare(failedFooClass, failedBangClass), is(0));
+        assertThat(orderer.compare(failedBangClass, failedFooClass), is(0));
+        assertThat(orderer.compare(failedFooClass, bazClass), is(-1));
+        assertThat(orderer.compare(bazClass, failedFooClass), is(1));
+        assertThat(orderer.compare(bazClass, bazClass), is(0));
+    }
+
+    @Test
+    public void shouldBringSuitesWithHigherFailureScoreAhead() throws Exception {
+        FailedFirstOrderer weightingOrderer = new FailedFirstOrderer(initEnvironment("job-1")) {
+            @Override
+            protected Map<String, Double> failureScores() {
+                Map<String, Double> scores = new HashMap<String, Double>();
+                scores.put("Recent.class", 0.9);
+                scores.put("Old.class", 0.2);
+                return scores;
+            }
+        };
+        TlbSuiteFile passed = new TlbSuiteFileImpl("Passed.class");
+        TlbSuiteFile old = new TlbSuiteFileImpl("Old.class");
+        TlbSuiteFile recent = new TlbSuiteFileImpl("Recent.class");
+
+        List<TlbSuiteFile> fileList = new ArrayList<TlbSuiteFile>(Arrays.asList(passed, old, recent));
+        Collections.sort(fileList, weightingOrderer);
+
+        assertThat(fileList, is(Arrays.asList(recent, old, passed)));
+    }
+
+    @Test
+    public void shouldOrderThousandsOfSuitesAgainstThousandsOfFailuresQuickly() throws Exception {
+        List<SuiteResultEntry> failedTests = new ArrayList<SuiteResultEntry>();
+        List<TlbSuiteFile> fileList = new ArrayList<TlbSuiteFile>();
+        for (int i = 0; i < 20000; i++) {
+            if (i % 2 == 0) failedTests.add(new SuiteResultEntry("Suite" + i + ".class", true));
+            fileList.add(new TlbSuiteFileImpl("Suite" + i + ".class"));
+        }
+        when(toCruise.getLastRunFailedTests()).thenReturn(failedTests);
+
+        long start = System.currentTimeMillis();
+        Collections.sort(fileList, orderer);
+        assertTrue("ordering should not scan the list of failures for every comparison", System.currentTimeMillis() - start < 2000);
+
+        assertThat(fileList.get(0).getName(), is("Suite0.class"));
+        assertThat(fileList.get(9999).getName(), is("Suite19998.class"));
+        assertThat(fileList.get(10000).getName(), is("Suite1.class"));
+        verify(toCruise, new Times(1)).getLastRunFailedTests();
+    }
 }
@@ -0,0 +1,51 @@
+package tlb.orderer;
+
+import org.junit.Before;
+import org.junit.Test;
+import tlb.TlbSuiteFile;
+import tlb.TlbSuiteFileImpl;
+import tlb.domain.SuiteFailureHistoryEntry;
+import tlb.service.Server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+import static tlb.TestUtil.initEnvironment;
+
+public class FailureHistoryOrdererTest {
+    private FailureHistoryOrderer orderer;
+    private Server server;
+
+    @Before
+    public void setUp() throws Exception {
+        orderer = new FailureHistoryOrderer(initEnvironment("job-1"));
+        server = mock(Server.class);
+        orderer.talksToServer(server);
+    }
+
+    @Test
+    public void shouldBringSuitesWithHigherDecayedFailureScoreFirst() {
+        TlbSuiteFile neverFailed = new TlbSuiteFileImpl("foo/bar/Never.class");
+        TlbSuiteFile failedLongAgo = new TlbSuiteFileImpl("foo/bar/LongAgo.class");
+        TlbSuiteFile failedLastRun = new TlbSuiteFileImpl("foo/bar/LastRun.class");
+        TlbSuiteFile failsOften = new TlbSuiteFileImpl("foo/bar/Often.class");
+        TlbSuiteFile forgotten = new TlbSuiteFileImpl("foo/bar/Forgotten.class");
+        when(server.getSuiteFailureHistory()).thenReturn(Arrays.asList(
+                new SuiteFailureHistoryEntry("foo/bar/LongAgo.class", 4l, 0.25),
+                new SuiteFailureHistoryEntry("foo/bar/LastRun.class", 1l, 1.0),
+                new SuiteFailureHistoryEntry("foo/bar/Often.class", 7l, 1.75),
+                new SuiteFailureHistoryEntry("foo/bar/Forgotten.class", 0l, 0.0)));
+
+        List<TlbSuiteFile> suites = new ArrayList<TlbSuiteFile>(Arrays.asList(neverFailed, failedLongAgo, forgotten, failedLastRun, failsOften));
+        Collections.sort(suites, orderer);
+
+        assertThat(suites, is(Arrays.asList(failsOften, failedLastRun, failedLongAgo, neverFailed, forgotten)));
+        verify(server, times(1)).getSuiteFailureHistory();
+        verify(server, never()).getLastRunFailedTests();
+    }
+}
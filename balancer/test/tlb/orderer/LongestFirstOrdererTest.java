@@ -0,0 +1,65 @@
+package tlb.orderer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.internal.verification.Times;
+import tlb.TlbSuiteFile;
+import tlb.TlbSuiteFileImpl;
+import tlb.domain.SuiteTimeEntry;
+import tlb.service.Server;
+import tlb.service.TalksToServer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+import static tlb.TestUtil.initEnvironment;
+
+public class LongestFirstOrdererTest {
+    private LongestFirstOrderer orderer;
+    private Server server;
+
+    @Before
+    public void setUp() {
+        orderer = new LongestFirstOrderer(initEnvironment("job-1"));
+        server = mock(Server.class);
+        orderer.talksToServer(server);
+    }
+
+    @Test
+    public void shouldImplementTalksToServer() {
+        assertTrue("Longest first orderer must be talk to server aware", TalksToServer.class.isAssignableFrom(LongestFirstOrderer.class));
+    }
+
+    @Test
+    public void shouldBringSlowerSuitesFirst_consideringSuitesWithNoHistoryToTakeMeanTime() {
+        when(server.getLastRunTestTimes()).thenReturn(Arrays.asList(new SuiteTimeEntry("Foo.class", 10l), new SuiteTimeEntry("Bar.class", 50l), new SuiteTimeEntry("Baz.class", 30l), new SuiteTimeEntry("Gone.class", 10l)));
+        TlbSuiteFile foo = new TlbSuiteFileImpl("Foo.class");
+        TlbSuiteFile bar = new TlbSuiteFileImpl("Bar.class");
+        TlbSuiteFile baz = new TlbSuiteFileImpl("Baz.class");
+        TlbSuiteFile newSuite = new TlbSuiteFileImpl("New.class");
+
+        List<TlbSuiteFile> suites = new ArrayList<TlbSuiteFile>(Arrays.asList(foo, newSuite, bar, baz));
+        Collections.sort(suites, orderer);
+
+        assertThat(suites, is(Arrays.asList(bar, baz, newSuite, foo)));
+        verify(server, new Times(1)).getLastRunTestTimes();
+    }
+
+    @Test
+    public void shouldNotReorderSuites_whenNoHistoryIsAvailable() {
+        when(server.getLastRunTestTimes()).thenReturn(new ArrayList<SuiteTimeEntry>());
+        TlbSuiteFile foo = new TlbSuiteFileImpl("Foo.class");
+        TlbSuiteFile bar = new TlbSuiteFileImpl("Bar.class");
+
+        List<TlbSuiteFile> suites = new ArrayList<TlbSuiteFile>(Arrays.asList(foo, bar));
+        Collections.sort(suites, orderer);
+
+        assertThat(suites, is(Arrays.asList(foo, bar)));
+    }
+}
@@ -0,0 +1,46 @@
+package tlb.orderer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.internal.verification.Times;
+import tlb.TlbSuiteFile;
+import tlb.TlbSuiteFileImpl;
+import tlb.domain.SuiteTimeEntry;
+import tlb.service.Server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+import static tlb.TestUtil.initEnvironment;
+
+public class ShortestFirstOrdererTest {
+    private ShortestFirstOrderer orderer;
+    private Server server;
+
+    @Before
+    public void setUp() {
+        orderer = new ShortestFirstOrderer(initEnvironment("job-1"));
+        server = mock(Server.class);
+        orderer.talksToServer(server);
+    }
+
+    @Test
+    public void shouldBringQuickerSuitesFirst_consideringSuitesWithNoHistoryToTakeMeanTime() {
+        when(server.getLastRunTestTimes()).thenReturn(Arrays.asList(new SuiteTimeEntry("Foo.class", 10l), new SuiteTimeEntry("Bar.class", 50l), new SuiteTimeEntry("Baz.class", 30l), new SuiteTimeEntry("Gone.class", 10l)));
+        TlbSuiteFile foo = new TlbSuiteFileImpl("Foo.class");
+        TlbSuiteFile bar = new TlbSuiteFileImpl("Bar.class");
+        TlbSuiteFile baz = new TlbSuiteFileImpl("Baz.class");
+        TlbSuiteFile newSuite = new TlbSuiteFileImpl("New.class");
+
+        List<TlbSuiteFile> suites = new ArrayList<TlbSuiteFile>(Arrays.asList(bar, newSuite, baz, foo));
+        Collections.sort(suites, orderer);
+
+        assertThat(suites, is(Arrays.asList(foo, newSuite, baz, bar)));
+        verify(server, new Times(1)).getLastRunTestTimes();
+    }
+}
@@ -0,0 +1,15 @@
+package tlb.orderer.test;
+
+import tlb.TlbSuiteFile;
+import tlb.orderer.TestOrderer;
+import tlb.utils.SystemEnvironment;
+
+public class AlphabeticalOrderer extends TestOrderer {
+    public AlphabeticalOrderer(SystemEnvironment environment) {
+        super(environment);
+    }
+
+    public int compare(TlbSuiteFile o1, TlbSuiteFile o2) {
+        return o1.getName().compareTo(o2.getName());
+    }
+}
@@ -0,0 +1,19 @@
+package tlb.orderer.test;
+
+import tlb.TlbSuiteFile;
+import tlb.orderer.TestOrderer;
+import tlb.utils.SystemEnvironment;
+
+public class PackageDepthOrderer extends TestOrderer {
+    public PackageDepthOrderer(SystemEnvironment environment) {
+        super(environment);
+    }
+
+    public int compare(TlbSuiteFile o1, TlbSuiteFile o2) {
+        return depth(o1) - depth(o2);
+    }
+
+    private int depth(TlbSuiteFile suiteFile) {
+        return suiteFile.getName().split("/").length;
+    }
+}
@@ -0,0 +1,122 @@
+package tlb.service;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import tlb.TlbConstants;
+import tlb.utils.FileUtil;
+import tlb.utils.Function;
+import tlb.utils.SystemEnvironment;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class GoLookupCacheTest {
+    private FileUtil fileUtil;
+    private File cacheDir;
+    private List<String> loadedKeys;
+
+    @Before
+    public void setUp() {
+        HashMap<String, String> envMap = new HashMap<String, String>();
+        envMap.put(TlbConstants.TLB_TMP_DIR, System.getProperty("java.io.tmpdir"));
+        fileUtil = new FileUtil(new SystemEnvironment(envMap));
+        cacheDir = new File(fileUtil.sharedTmpDir(GoLookupCache.CACHE_DIR));
+        FileUtils.deleteQuietly(cacheDir);
+        loadedKeys = new ArrayList<String>();
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(cacheDir);
+    }
+
+    private Function<String, RuntimeException, List<String>> loader(final String... value) {
+        return new Function<String, RuntimeException, List<String>>() {
+            public List<String> execute(String key) {
+                loadedKeys.add(key);
+                return Arrays.asList(value);
+            }
+        };
+    }
+
+    @Test
+    public void shouldServeRepeatLookupsFromDiskAcrossCacheInstances() {
+        GoLookupCache cache = new GoLookupCache(fileUtil, 60000, 10);
+        assertThat(cache.lookup("jobs:pipeline/1/stage/1", loader("firefox-1", "firefox-2")), is(Arrays.asList("firefox-1", "firefox-2")));
+        assertThat(cache.lookup("jobs:pipeline/1/stage/1", loader("should-not-be-loaded")), is(Arrays.asList("firefox-1", "firefox-2")));
+
+        GoLookupCache otherProcessCache = new GoLookupCache(fileUtil, 60000, 10);
+        assertThat(otherProcessCache.lookup("jobs:pipeline/1/stage/1", loader("should-not-be-loaded")), is(Arrays.asList("firefox-1", "firefox-2")));
+        assertThat(otherProcessCache.lookup("jobs:pipeline/2/stage/1", loader("firefox-3")), is(Arrays.asList("firefox-3")));
+
+        assertThat(loadedKeys, is(Arrays.asList("jobs:pipeline/1/stage/1", "jobs:pipeline/2/stage/1")));
+    }
+
+    @Test
+    public void shouldCacheEmptyResults() {
+        GoLookupCache cache = new GoLookupCache(fileUtil, 60000, 10);
+        assertThat(cache.lookup("jobs:pipeline/1/stage/1", loader()), is((List<String>) new ArrayList<String>()));
+        assertThat(cache.lookup("jobs:pipeline/1/stage/1", loader("should-not-be-loaded")), is((List<String>) new ArrayList<String>()));
+        assertThat(loadedKeys.size(), is(1));
+    }
+
+    @Test
+    public void shouldReloadEntriesOlderThanTtl() {
+        GoLookupCache cache = new GoLookupCache(fileUtil, 60000, 10);
+        cache.lookup("jobs:pipeline/1/stage/1", loader("firefox-1"));
+        File[] entries = cacheDir.listFiles();
+        assertThat(entries.length, is(1));
+        entries[0].setLastModified(System.currentTimeMillis() - 120000);
+
+        assertThat(cache.lookup("jobs:pipeline/1/stage/1", loader("firefox-2")), is(Arrays.asList("firefox-2")));
+        assertThat(cache.lookup("jobs:pipeline/1/stage/1", loader("should-not-be-loaded")), is(Arrays.asList("firefox-2")));
+        assertThat(loadedKeys.size(), is(2));
+    }
+
+    @Test
+    public void shouldEvictOldestEntriesWhenSizeLimitIsCrossed() {
+        GoLookupCache cache = new GoLookupCache(fileUtil, 60000, 2);
+        cache.lookup("stage:1", loader("one"));
+        cache.lookup("stage:2", loader("two"));
+        File[] entries = cacheDir.listFiles();
+        for (File entry : entries) {
+            entry.setLastModified(System.currentTimeMillis() - (entry.getName().equals(DigestUtils.md5Hex("stage:1")) ? 20000 : 10000));
+        }
+        cache.lookup("stage:3", loader("three"));
+        assertThat(cacheDir.listFiles().length, is(2));
+
+        cache.lookup("stage:2", loader("should-not-be-loaded"));
+        cache.lookup("stage:3", loader("should-not-be-loaded"));
+        assertThat(cache.lookup("stage:1", loader("one-again")), is(Arrays.asList("one-again")));
+        assertThat(loadedKeys, is(Arrays.asList("stage:1", "stage:2", "stage:3", "stage:1")));
+    }
+
+    @Test
+    public void shouldNotCacheAnythingWhenTtlIsZero() {
+        GoLookupCache cache = new GoLookupCache(fileUtil, 0, 10);
+        cache.lookup("stage:1", loader("one"));
+        cache.lookup("stage:1", loader("one"));
+        assertThat(loadedKeys.size(), is(2));
+        assertThat(cacheDir.exists(), is(false));
+    }
+
+    @Test
+    public void shouldReadTtlAndSizeFromEnvironment() {
+        HashMap<String, String> envMap = new HashMap<String, String>();
+        envMap.put(TlbConstants.TLB_TMP_DIR, System.getProperty("java.io.tmpdir"));
+        envMap.put(TlbConstants.Go.GO_LOOKUP_CACHE_TTL_IN_MINUTES.key, "0");
+        GoLookupCache cache = new GoLookupCache(new SystemEnvironment(envMap));
+        cache.lookup("stage:1", loader("one"));
+        cache.lookup("stage:1", loader("one"));
+        assertThat(loadedKeys.size(), is(2));
+    }
+}
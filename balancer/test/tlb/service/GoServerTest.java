@@ -12,6 +12,7 @@ import org.junit.runner.RunWith;
 import tlb.TestUtil;
 import tlb.TlbConstants;
 import tlb.TlbSuiteFile;
+import tlb.domain.PartitionSpeedEntry;
 import tlb.domain.SuiteResultEntry;
 import tlb.domain.SuiteTimeEntry;
 import tlb.service.http.HttpAction;
@@ -40,11 +41,13 @@ public class GoServerTest {
     @Before
     public void setUp() {
         logFixture = new TestUtil.LogFixture();
+        SmoothingServerTest.clearCachingFiles(new FileUtil(initEnvironment("http://test.host:8153/go")));
     }
 
     @After
     public void tearDown() {
         logFixture.stopListening();
+        SmoothingServerTest.clearCachingFiles(new FileUtil(initEnvironment("http://test.host:8153/go")));
     }
 
     @Test
@@ -139,7 +142,7 @@ public class GoServerTest {
 
             logFixture.startListening();
             cruise.testClassTime("com.thoughtworks.tlb.TestSuite", 12);
-            logFixture.assertHeard("recording run time for suite com.thoughtworks.tlb.TestSuite");
+            logFixture.assertHeard("recording run times for 1 suites");
             logFixture.assertHeard("Posting test run times for suite with size 1 to the server.");
             verify(action).put(url, data);
         } finally {
@@ -394,6 +397,7 @@ public class GoServerTest {
                 fail("should not have failed in absence of failed tests data, but failed with exception => " + e.getMessage());
             }
 
+            SmoothingServerTest.clearCachingFiles(new FileUtil(environment));
             Exception exception = new RuntimeException("something went really wrong!");
             when(action.get("http://test.host:8153/go/api/pipelines/pipeline-foo/stages.xml?before=23")).thenThrow(exception);
             logFixture.startListening();
@@ -477,6 +481,43 @@ public class GoServerTest {
         }
     }
 
+    @Test
+    public void shouldReuseStageAndJobLookupsMadeByOtherPartitionsOfTheSameStageRun() throws Exception{
+        HttpAction action = mock(HttpAction.class);
+        when(action.get("http://test.host:8153/go/api/pipelines/pipeline-foo/stages.xml")).thenReturn(fileContents("resources/stages_p1.xml"));
+        when(action.get("http://test.host:8153/go/api/pipelines/pipeline-foo/stages.xml?before=23")).thenReturn(fileContents("resources/stages_p2.xml"));
+        when(action.get("http://test.host:8153/go/api/stages/3.xml")).thenReturn(fileContents("resources/stage_detail.xml"));
+        when(action.get("http://test.host:8153/go/pipelines/pipeline-foo/26/stage-foo-bar/1.xml")).thenReturn(fileContents("resources/stage_detail.xml"));
+        stubJobDetails(action);
+        when(action.get("http://test.host:8153/go/files/pipeline/1/stage/1/firefox-1/tlb/test_time.properties")).thenReturn(fileContents("resources/test_time_1.properties"));
+        when(action.get("http://test.host:8153/go/files/pipeline/1/stage/1/firefox-2/tlb/test_time.properties")).thenReturn(fileContents("resources/test_time_2.properties"));
+        Map<String, String> firstPartitionEnv = initEnvMap("http://test.host:8153/go");
+        firstPartitionEnv.put(TlbConstants.Go.GO_JOB_NAME, "firefox-1");
+        Map<String, String> secondPartitionEnv = initEnvMap("http://test.host:8153/go");
+        secondPartitionEnv.put(TlbConstants.Go.GO_JOB_NAME, "firefox-2");
+        SystemEnvironment firstEnvironment = new SystemEnvironment(firstPartitionEnv);
+        SystemEnvironment secondEnvironment = new SystemEnvironment(secondPartitionEnv);
+        try {
+            GoServer firstPartition = new GoServer(firstEnvironment, action);
+            assertThat(firstPartition.totalPartitions(), is(3));
+            List<SuiteTimeEntry> firstPartitionTimes = firstPartition.getLastRunTestTimes(Arrays.asList("firefox-1", "firefox-2"));
+
+            GoServer secondPartition = new GoServer(secondEnvironment, action);
+            assertThat(secondPartition.partitionNumber(), is(2));
+            assertThat(secondPartition.getLastRunTestTimes(Arrays.asList("firefox-1", "firefox-2")), is(firstPartitionTimes));
+
+            verify(action, times(1)).get("http://test.host:8153/go/pipelines/pipeline-foo/26/stage-foo-bar/1.xml");
+            verify(action, times(1)).get("http://test.host:8153/go/api/pipelines/pipeline-foo/stages.xml");
+            verify(action, times(1)).get("http://test.host:8153/go/api/pipelines/pipeline-foo/stages.xml?before=23");
+            verify(action, times(1)).get("http://test.host:8153/go/api/stages/3.xml");
+            verify(action, times(2)).get("http://test.host:8153/go/api/jobs/140.xml");//once for name in current run, once for artifacts of last run(fixture serves same jobs for both)
+            verify(action, times(2)).get("http://test.host:8153/go/files/pipeline/1/stage/1/firefox-1/tlb/test_time.properties");
+        } finally {
+            SmoothingServerTest.clearCachingFiles(new FileUtil(firstEnvironment));
+            SmoothingServerTest.clearCachingFiles(new FileUtil(secondEnvironment));
+        }
+    }
+
     @Test
     public void failWhenCantFindTestTimesFromLastRunStage() throws Exception{
         HttpAction action = mock(HttpAction.class);
@@ -493,7 +534,7 @@ public class GoServerTest {
                 service.getLastRunTestTimes(Arrays.asList("firefox-1", "firefox-2"));
                 fail("should have failed as a historical stage run does not exist");
             } catch (Exception e) {
-                assertThat(e, is(NullPointerException.class));
+                assertThat(e, is(IllegalStateException.class));
             }
         } finally {
             SmoothingServerTest.clearCachingFiles(new FileUtil(environment));
@@ -601,6 +642,42 @@ public class GoServerTest {
         }
     }
 
+    @Test
+    public void shouldTreatAllPartitionsAsEquallyFast_asGoServerKeepsNoRecordOfPartitionSpeed() {
+        SystemEnvironment environment = new SystemEnvironment(initEnvMap("http://test.host:8153/go"));
+        try {
+            HttpAction action = mock(HttpAction.class);
+            GoServer server = new GoServer(environment, action);
+            assertThat(server.getPartitionSpeeds().isEmpty(), is(true));
+            server.postPartitionSpeedToServer(new PartitionSpeedEntry(1, 150));
+            verifyZeroInteractions(action);
+        } finally {
+            SmoothingServerTest.clearCachingFiles(new FileUtil(environment));
+        }
+    }
+
+    @Test
+    public void shouldFailAndInformUserAboutDynamicDistributionUnavailability_whileUsingGoServerSupport() {
+        SystemEnvironment environment = new SystemEnvironment(initEnvMap("http://test.host:8153/go"));
+        try {
+            GoServer server = new GoServer(environment, mock(HttpAction.class));
+            try {
+                server.defineSuiteQueue(new ArrayList<TlbSuiteFile>(), "foo");
+                fail("should not have allowed suite queue definition while working against go server.");
+            } catch (UnsupportedOperationException e) {
+                assertThat(e.getMessage(), is("Dynamic distribution of suites is only available when working against TLB server."));
+            }
+            try {
+                server.claimSuites("foo", 2);
+                fail("should not have allowed claiming suites while working against go server.");
+            } catch (UnsupportedOperationException e) {
+                assertThat(e.getMessage(), is("Dynamic distribution of suites is only available when working against TLB server."));
+            }
+        } finally {
+            SmoothingServerTest.clearCachingFiles(new FileUtil(environment));
+        }
+    }
+
     private SystemEnvironment initEnvironment(String url) {
         return new SystemEnvironment(initEnvMap(url));
     }
@@ -0,0 +1,55 @@
+package tlb.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import tlb.TlbConstants;
+import tlb.TlbSuiteFile;
+import tlb.TlbSuiteFileImpl;
+import tlb.utils.SystemEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class PartitionProgressTest {
+    private Server server;
+    private List<TlbSuiteFile> subset;
+
+    @Before
+    public void setUp() {
+        server = mock(Server.class);
+        subset = new ArrayList<TlbSuiteFile>(Arrays.asList(new TlbSuiteFileImpl("foo/Bar.class"), new TlbSuiteFileImpl("foo/Baz.class"), new TlbSuiteFileImpl("foo/Quux.class")));
+    }
+
+    private SystemEnvironment env(String resume) {
+        HashMap<String, String> variables = new HashMap<String, String>();
+        if (resume != null) variables.put(TlbConstants.TLB_RESUME_PARTITION.key, resume);
+        return new SystemEnvironment(variables);
+    }
+
+    @Test
+    public void shouldSkipSuitesAlreadyRun_whenResuming() {
+        when(server.completedSuiteNames()).thenReturn(Arrays.asList("foo/Baz.class", "foo/NotInSubset.class"));
+        PartitionProgress progress = new PartitionProgress(server, env("true"));
+        assertThat(progress.remaining(subset), is(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("foo/Bar.class"), new TlbSuiteFileImpl("foo/Quux.class"))));
+    }
+
+    @Test
+    public void shouldRunWholeSubset_whenNothingHasRunYet() {
+        when(server.completedSuiteNames()).thenReturn(new ArrayList<String>());
+        PartitionProgress progress = new PartitionProgress(server, env("true"));
+        assertThat(progress.remaining(subset), is(subset));
+    }
+
+    @Test
+    public void shouldNotLookForSuitesAlreadyRun_unlessResuming() {
+        PartitionProgress progress = new PartitionProgress(server, env(null));
+        assertThat(progress.remaining(subset), is(subset));
+        verify(server, never()).completedSuiteNames();
+    }
+}
@@ -8,8 +8,11 @@ import org.mockito.internal.verification.Times;
 import tlb.TestUtil;
 import tlb.TlbConstants;
 import tlb.TlbSuiteFile;
+import tlb.domain.PartitionSpeedEntry;
+import tlb.domain.SuiteFailureHistoryEntry;
 import tlb.domain.SuiteResultEntry;
 import tlb.domain.SuiteTimeEntry;
+import tlb.domain.SuiteTimeHistoryEntry;
 import tlb.splitter.correctness.ValidationResult;
 import tlb.storage.TlbEntryRepository;
 import tlb.utils.FileUtil;
@@ -38,6 +41,7 @@ public class SmoothingServerTest {
 
     public static void clearCachingFiles(FileUtil fileUtil) {
         FileUtils.deleteQuietly(new File(fileUtil.tmpDir()));
+        FileUtils.deleteQuietly(new File(fileUtil.sharedTmpDir(GoLookupCache.CACHE_DIR)));
     }
 
     public static void assertCacheState(SystemEnvironment env, int lineCount, String lastLine, TlbEntryRepository repository) throws IOException {
@@ -85,6 +89,37 @@ public class SmoothingServerTest {
         verify(delegate).postTestTimesToServer("foo/bar/Baz.class: 17\nfoo/bar/Quux.class: 19\n");
     }
 
+    @Test
+    public void shouldSmoothenBatchOfTimesAgainstOneLookupOfLastRunTimes() {
+        server.subsetSizeRepository.appendLine("4\n");
+        when(delegate.partitionNumber()).thenReturn(1);
+        when(delegate.fetchLastRunTestTimes()).thenReturn(Arrays.asList(new SuiteTimeEntry("foo/bar/Baz.class", 12l), new SuiteTimeEntry("foo/bar/Bang.class", 100l)));
+        when(delegate.fetchPartitionSpeeds()).thenReturn(new ArrayList<PartitionSpeedEntry>());
+
+        server.testClassTimes(Arrays.asList(new SuiteTimeEntry("foo/bar/Baz.class", 102l), new SuiteTimeEntry("foo/bar/Quux.class", 19l)));
+        assertThat(server.testTimesRepository.lineCount(), is(2));
+        verify(delegate, never()).postTestTimesToServer(any(String.class));
+
+        server.testClassTimes(Arrays.asList(new SuiteTimeEntry("foo/bar/Bang.class", 80l), new SuiteTimeEntry("foo/bar/New.class", 10l)));
+        verify(delegate).postTestTimesToServer("foo/bar/Baz.class: 17\nfoo/bar/Quux.class: 19\nfoo/bar/Bang.class: 99\nfoo/bar/New.class: 10\n");
+        verify(delegate, new Times(1)).fetchLastRunTestTimes();
+        verify(delegate).postPartitionSpeedToServer(new PartitionSpeedEntry(1, 163));
+    }
+
+    @Test
+    public void shouldRecordBatchOfResultsInOneGo_postingThemOnceAllSuitesHaveReported() {
+        server.subsetSizeRepository.appendLine("3\n");
+
+        server.testClassFailures(Arrays.asList(new SuiteResultEntry("foo/bar/Baz.class", true), new SuiteResultEntry("foo/bar/Quux.class", false)));
+        assertThat(server.failedTestsRepository.lineCount(), is(2));
+        verify(delegate, never()).postFailedTestsToServer(any(List.class));
+
+        server.testClassFailures(new ArrayList<SuiteResultEntry>());
+        server.testClassFailures(Arrays.asList(new SuiteResultEntry("foo/bar/Bang.class", true)));
+        verify(delegate).postFailedTestsToServer(Arrays.asList(new SuiteResultEntry("foo/bar/Baz.class", true), new SuiteResultEntry("foo/bar/Quux.class", false), new SuiteResultEntry("foo/bar/Bang.class", true)));
+        assertThat(server.failedTestsRepository.exists(), is(false));
+    }
+
     @Test
     public void shouldNotFailWhenHasNoHistory() {//should just skip smoothing
         server.subsetSizeRepository.appendLine("2\n");
@@ -100,6 +135,109 @@ public class SmoothingServerTest {
         logFixture.assertHeardException(exception);
     }
 
+    @Test
+    public void shouldPublishSpeedOfPartitionSmoothedWrtItsKnownSpeed_onceAllSuitesHaveReportedTime() {
+        server.subsetSizeRepository.appendLine("3\n");
+        when(delegate.partitionNumber()).thenReturn(2);
+        when(delegate.fetchLastRunTestTimes()).thenReturn(Arrays.asList(new SuiteTimeEntry("foo/bar/Baz.class", 100l), new SuiteTimeEntry("foo/bar/Quux.class", 50l)));
+        when(delegate.fetchPartitionSpeeds()).thenReturn(Arrays.asList(new PartitionSpeedEntry(1, 80), new PartitionSpeedEntry(2, 100)));
+
+        server.testClassTime("foo/bar/Baz.class", 150l);
+        server.testClassTime("foo/bar/Quux.class", 75l);
+        verify(delegate, never()).postPartitionSpeedToServer(any(PartitionSpeedEntry.class));
+        server.testClassTime("foo/bar/New.class", 10l);
+
+        verify(delegate).postPartitionSpeedToServer(new PartitionSpeedEntry(2, 125));
+        assertThat(server.speedSamplesRepository.exists(), is(false));
+        assertThat(server.partitionSpeedsRepository.exists(), is(false));
+    }
+
+    @Test
+    public void shouldFetchPartitionSpeedsOnce_andServeThemFromCacheAfterwards() {
+        when(delegate.fetchPartitionSpeeds()).thenReturn(Arrays.asList(new PartitionSpeedEntry(1, 80), new PartitionSpeedEntry(2, 100)));
+        assertThat(server.getPartitionSpeeds(), is(Arrays.asList(new PartitionSpeedEntry(1, 80), new PartitionSpeedEntry(2, 100))));
+
+        when(delegate.fetchPartitionSpeeds()).thenReturn(Arrays.asList(new PartitionSpeedEntry(1, 120)));
+        assertThat(server.getPartitionSpeeds(), is(Arrays.asList(new PartitionSpeedEntry(1, 80), new PartitionSpeedEntry(2, 100))));
+        verify(delegate, new Times(1)).fetchPartitionSpeeds();
+    }
+
+    @Test
+    public void shouldNotCachePartitionSpeeds_whenTheyCanNotBeFetched() {
+        when(delegate.fetchPartitionSpeeds()).thenThrow(new RuntimeException("not found"));
+        try {
+            server.getPartitionSpeeds();
+            fail("should have failed as partition speeds could not be fetched");
+        } catch (RuntimeException e) {
+            assertThat(e.getMessage(), is("not found"));
+        }
+        assertThat(server.partitionSpeedsRepository.exists(), is(false));
+    }
+
+    @Test
+    public void shouldPublishMeasuredSpeedOfPartition_whenKnownSpeedsCanNotBeLoaded() {
+        server.subsetSizeRepository.appendLine("1\n");
+        when(delegate.partitionNumber()).thenReturn(1);
+        when(delegate.fetchLastRunTestTimes()).thenReturn(Arrays.asList(new SuiteTimeEntry("foo/bar/Baz.class", 100l)));
+        when(delegate.fetchPartitionSpeeds()).thenThrow(new RuntimeException("not found"));
+
+        logFixture.startListening();
+        server.testClassTime("foo/bar/Baz.class", 80l);
+        logFixture.stopListening();
+
+        verify(delegate).postPartitionSpeedToServer(new PartitionSpeedEntry(1, 80));
+        logFixture.assertHeard("could not load partition speeds for smoothing.: 'not found'");
+    }
+
+    @Test
+    public void shouldCleanupJournals_whenSpeedOfPartitionCanNotBePublished() {
+        server.subsetSizeRepository.appendLine("1\n");
+        when(delegate.partitionNumber()).thenReturn(1);
+        when(delegate.fetchLastRunTestTimes()).thenReturn(Arrays.asList(new SuiteTimeEntry("foo/bar/Baz.class", 100l)));
+        when(delegate.fetchPartitionSpeeds()).thenReturn(new ArrayList<PartitionSpeedEntry>());
+        RuntimeException exception = new RuntimeException("connection refused");
+        doThrow(exception).when(delegate).postPartitionSpeedToServer(any(PartitionSpeedEntry.class));
+
+        logFixture.startListening();
+        server.testClassTime("foo/bar/Baz.class", 80l);
+        logFixture.stopListening();
+
+        verify(delegate).postTestTimesToServer("foo/bar/Baz.class: 99\n");
+        logFixture.assertHeard("could not publish speed of partition, test times are posted regardless.: 'connection refused'");
+        logFixture.assertHeardException(exception);
+        assertThat(server.testTimesRepository.exists(), is(false));
+        assertThat(server.oldTestTimesRepo.exists(), is(false));
+        assertThat(server.speedSamplesRepository.exists(), is(false));
+    }
+
+    @Test
+    public void shouldNotPublishSpeedOfPartition_whenNoSuiteRunHadKnownTime() {
+        server.subsetSizeRepository.appendLine("1\n");
+        when(delegate.fetchLastRunTestTimes()).thenReturn(new ArrayList<SuiteTimeEntry>());
+
+        server.testClassTime("foo/bar/New.class", 10l);
+
+        verify(delegate).postTestTimesToServer("foo/bar/New.class: 10\n");
+        verify(delegate, never()).postPartitionSpeedToServer(any(PartitionSpeedEntry.class));
+    }
+
+    @Test
+    public void shouldReportLastRunFailuresAsSingleRunFailureHistory_whenServiceDoesNotRememberMoreRuns() {
+        when(delegate.getLastRunFailedTests()).thenReturn(Arrays.asList(new SuiteResultEntry("foo/bar/Baz.class", true), new SuiteResultEntry("foo/bar/Quux.class", false), new SuiteResultEntry("quux/bang/Boom.class", true)));
+        List<SuiteFailureHistoryEntry> history = server.getSuiteFailureHistory();
+        assertThat(history, is(Arrays.asList(new SuiteFailureHistoryEntry("foo/bar/Baz.class", 1l, 1.0), new SuiteFailureHistoryEntry("quux/bang/Boom.class", 1l, 1.0))));
+    }
+
+    @Test
+    public void shouldReportLastRunTimesAsSingleRunHistory_whenServiceDoesNotRememberMoreRuns() {
+        when(delegate.fetchLastRunTestTimes()).thenReturn(Arrays.asList(new SuiteTimeEntry("foo/bar/Baz.class", 12l), new SuiteTimeEntry("quux/bang/Boom.class", 15l)));
+        List<SuiteTimeHistoryEntry> history = server.getLastRunTestTimeHistory();
+        assertThat(history.size(), is(2));
+        assertThat(history.get(0), is(SuiteTimeHistoryEntry.parseSingleEntry("foo/bar/Baz.class: 12")));
+        assertThat(history.get(1), is(SuiteTimeHistoryEntry.parseSingleEntry("quux/bang/Boom.class: 15")));
+        assertThat(history.get(1).runs(), is(1));
+    }
+
     @Test
     public void shouldCacheTestRunTimes() {
         server.subsetSizeRepository.appendLine("3\n");
@@ -198,6 +336,108 @@ public class SmoothingServerTest {
         }
     }
 
+    @Test
+    public void shouldUnderstandSuitesWhoseTimeHasBeenRecordedButNotPostedAsCompleted() {
+        server.subsetSizeRepository.appendLine("3\n");
+        when(delegate.fetchLastRunTestTimes()).thenReturn(new ArrayList<SuiteTimeEntry>());
+        assertThat(server.completedSuiteNames(), is((List<String>) new ArrayList<String>()));
+        server.testClassFailure("foo/bar/Baz.class", true);
+        server.testClassTime("foo/bar/Baz.class", 10l);
+        server.testClassFailure("foo/bar/Quux.class", false);
+        assertThat(server.completedSuiteNames(), is(Arrays.asList("foo/bar/Baz.class")));
+    }
+
+    @Test
+    public void shouldPostEachSuiteResultOnce_whenSuiteWhoseResultWasRecordedWithoutTimeIsRunAgainOnResume() {
+        server.subsetSizeRepository.appendLine("3\n");
+        when(delegate.fetchLastRunTestTimes()).thenReturn(new ArrayList<SuiteTimeEntry>());
+        server.testClassFailure("foo/bar/Baz.class", true);
+        server.testClassTime("foo/bar/Baz.class", 10l);
+        server.testClassFailure("foo/bar/Quux.class", true);//crashed before time of Quux was recorded
+
+        assertThat(server.completedSuiteNames(), is(Arrays.asList("foo/bar/Baz.class")));
+        server.testClassFailure("foo/bar/Quux.class", false);
+        server.testClassTime("foo/bar/Quux.class", 20l);
+        verify(delegate, never()).postFailedTestsToServer(any(List.class));
+        server.testClassFailure("foo/bar/Bang.class", false);
+        server.testClassTime("foo/bar/Bang.class", 30l);
+
+        verify(delegate).postFailedTestsToServer(Arrays.asList(new SuiteResultEntry("foo/bar/Baz.class", true), new SuiteResultEntry("foo/bar/Quux.class", false), new SuiteResultEntry("foo/bar/Bang.class", false)));
+        verify(delegate).postTestTimesToServer(any(String.class));
+        assertThat(server.failedTestsRepository.exists(), is(false));
+    }
+
+    private DelegatingSmoothingServer streamingServer(String batchSize) {
+        HashMap<String, String> variables = new HashMap<String, String>();
+        variables.put(TlbConstants.TLB_SMOOTHING_FACTOR.key, "0.05");
+        variables.put(TlbConstants.TLB_SUITE_TIME_STREAM_BATCH_SIZE.key, batchSize);
+        SystemEnvironment streamingEnv = new SystemEnvironment(variables);
+        FileUtils.deleteQuietly(new File(new FileUtil(streamingEnv).tmpDir()));
+        return new DelegatingSmoothingServer(delegate, streamingEnv);
+    }
+
+    @Test
+    public void shouldStreamTestTimesInBatches_postingOnlyTheRemainderOnceAllSuitesHaveReported() {
+        DelegatingSmoothingServer server = streamingServer("2");
+        when(delegate.acceptsPartialTestTimes()).thenReturn(true);
+        when(delegate.fetchLastRunTestTimes()).thenReturn(new ArrayList<SuiteTimeEntry>());
+        try {
+            server.subsetSizeRepository.appendLine("5\n");
+            server.testClassTime("A.class", 10l);
+            verify(delegate, never()).postTestTimesToServer(any(String.class));
+            server.testClassTime("B.class", 20l);
+            verify(delegate).postTestTimesToServer("A.class: 10\nB.class: 20\n");
+            server.testClassTime("C.class", 30l);
+            server.testClassTime("D.class", 40l);
+            verify(delegate).postTestTimesToServer("C.class: 30\nD.class: 40\n");
+            server.testClassTime("E.class", 50l);
+            verify(delegate).postTestTimesToServer("E.class: 50\n");
+            verify(delegate, times(3)).postTestTimesToServer(any(String.class));
+            assertThat(server.publishedTestTimesRepository.exists(), is(false));
+            assertThat(server.testTimesRepository.exists(), is(false));
+        } finally {
+            FileUtils.deleteQuietly(new File(new FileUtil(server.environment).tmpDir()));
+        }
+    }
+
+    @Test
+    public void shouldPostStreamedTimesThatFailedToPostWithNextBatch() {
+        DelegatingSmoothingServer server = streamingServer("1");
+        when(delegate.acceptsPartialTestTimes()).thenReturn(true);
+        when(delegate.fetchLastRunTestTimes()).thenReturn(new ArrayList<SuiteTimeEntry>());
+        RuntimeException exception = new RuntimeException("server went away");
+        doThrow(exception).when(delegate).postTestTimesToServer("A.class: 10\n");
+        try {
+            server.subsetSizeRepository.appendLine("3\n");
+            logFixture.startListening();
+            server.testClassTime("A.class", 10l);
+            logFixture.stopListening();
+            logFixture.assertHeard("could not stream test times, will post them with the next batch.: 'server went away'");
+            server.testClassTime("B.class", 20l);
+            verify(delegate).postTestTimesToServer("A.class: 10\nB.class: 20\n");
+            server.testClassTime("C.class", 30l);
+            verify(delegate).postTestTimesToServer("C.class: 30\n");
+        } finally {
+            FileUtils.deleteQuietly(new File(new FileUtil(server.environment).tmpDir()));
+        }
+    }
+
+    @Test
+    public void shouldNotStreamTestTimes_whenServiceNeedsAllOfThemInOneGo() {
+        DelegatingSmoothingServer server = streamingServer("1");
+        when(delegate.acceptsPartialTestTimes()).thenReturn(false);
+        when(delegate.fetchLastRunTestTimes()).thenReturn(new ArrayList<SuiteTimeEntry>());
+        try {
+            server.subsetSizeRepository.appendLine("2\n");
+            server.testClassTime("A.class", 10l);
+            server.testClassTime("B.class", 20l);
+            verify(delegate).postTestTimesToServer("A.class: 10\nB.class: 20\n");
+            verify(delegate, times(1)).postTestTimesToServer(any(String.class));
+        } finally {
+            FileUtils.deleteQuietly(new File(new FileUtil(server.environment).tmpDir()));
+        }
+    }
+
     private static class DelegatingSmoothingServer extends SmoothingServer {
 
         private final SmoothingServer delegate;
@@ -217,6 +457,11 @@ public class SmoothingServerTest {
             delegate.postTestTimesToServer(body);
         }
 
+        @Override
+        protected boolean acceptsPartialTestTimes() {
+            return delegate.acceptsPartialTestTimes();
+        }
+
         @Override
         protected void postFailedTestsToServer(List<SuiteResultEntry> failures) {
             delegate.postFailedTestsToServer(failures);
@@ -231,6 +476,16 @@ public class SmoothingServerTest {
             return delegate.getLastRunFailedTests();
         }
 
+        @Override
+        protected List<PartitionSpeedEntry> fetchPartitionSpeeds() {
+            return delegate.fetchPartitionSpeeds();
+        }
+
+        @Override
+        protected void postPartitionSpeedToServer(PartitionSpeedEntry speed) {
+            delegate.postPartitionSpeedToServer(speed);
+        }
+
         public int partitionNumber() {
             return delegate.partitionNumber();
         }
@@ -247,6 +502,14 @@ public class SmoothingServerTest {
             throw new UnsupportedOperationException("not implemented yet");
         }
 
+        public ValidationResult defineSuiteQueue(List<TlbSuiteFile> universalSet, String moduleName) {
+            throw new UnsupportedOperationException("not implemented yet");
+        }
+
+        public List<TlbSuiteFile> claimSuites(String moduleName, int batchSize) {
+            throw new UnsupportedOperationException("not implemented yet");
+        }
+
         public ValidationResult verifyAllPartitionsExecutedFor(String moduleName) {
             throw new UnsupportedOperationException("not implemented yet");
         }
@@ -0,0 +1,31 @@
+package tlb.service.go;
+
+import org.junit.Test;
+import tlb.TestUtil;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class JobDetailTest {
+    @Test
+    public void shouldUnderstandJobNameAndArtifactBaseUri() throws Exception {
+        JobDetail job = JobDetail.parse(TestUtil.fileContents("resources/job_details_140.xml"));
+        assertThat(job.name(), is("firefox-1"));
+        assertThat(job.artifactBaseUri(), is("http://test.host:8153/go/files/pipeline/1/stage/1/firefox-1"));
+    }
+
+    @Test
+    public void shouldNotReadArtifactsWhenOnlyNameIsAskedFor() throws Exception {
+        JobDetail job = JobDetail.nameOf(TestUtil.fileContents("resources/job_details_140.xml"));
+        assertThat(job.name(), is("firefox-1"));
+        assertThat(job.artifactBaseUri(), is((String) null));
+    }
+
+    @Test
+    public void shouldUnderstandJobLinksInStageDetail() throws Exception {
+        StageDetail stage = StageDetail.parse(TestUtil.fileContents("resources/stage_detail.xml"));
+        assertThat(stage.jobHrefs().size(), is(5));
+        assertThat(stage.jobHrefs().get(0), is("http://test.host:8153/go/api/jobs/140.xml"));
+        assertThat(stage.jobHrefs().get(4), is("http://test.host:8153/go/api/jobs/139.xml"));
+    }
+}
@@ -0,0 +1,50 @@
+package tlb.service.go;
+
+import org.junit.Test;
+import tlb.TestUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class StageFeedPageTest {
+    private static class RecordingMatcher implements StageFeedPage.EntryMatcher {
+        private final String lookingFor;
+        private final List<String> seen = new ArrayList<String>();
+
+        RecordingMatcher(String lookingFor) {
+            this.lookingFor = lookingFor;
+        }
+
+        public boolean matches(String title) {
+            seen.add(title);
+            return title.equals(lookingFor);
+        }
+    }
+
+    @Test
+    public void shouldFindHrefOfFirstMatchingEntry() throws Exception {
+        RecordingMatcher matcher = new RecordingMatcher("pipeline-foo/24/stage-baz/1");
+        StageFeedPage page = StageFeedPage.parse(TestUtil.fileContents("resources/stages_p1.xml"), matcher);
+        assertThat(page.hasMatch(), is(true));
+        assertThat(page.matchedEntryHref(), is("http://test.host:8153/go/api/stages/72.xml"));
+    }
+
+    @Test
+    public void shouldStopReadingFeedOnceMatchingEntryIsFound() throws Exception {
+        RecordingMatcher matcher = new RecordingMatcher("pipeline-foo/25/stage-bar/1");
+        StageFeedPage.parse(TestUtil.fileContents("resources/stages_p1.xml"), matcher);
+        assertThat(matcher.seen.size(), is(2));
+    }
+
+    @Test
+    public void shouldUnderstandNextPageLinkWhenNoEntryMatches() throws Exception {
+        RecordingMatcher matcher = new RecordingMatcher("pipeline-foo/25/stage-quux/1");
+        StageFeedPage page = StageFeedPage.parse(TestUtil.fileContents("resources/stages_p1.xml"), matcher);
+        assertThat(page.hasMatch(), is(false));
+        assertThat(page.nextPageHref(), is("http://test.host:8153/go/api/pipelines/pipeline-foo/stages.xml?before=23"));
+        assertThat(matcher.seen.size(), is(6));
+    }
+}
@@ -0,0 +1,160 @@
+package tlb.splitter;
+
+import org.apache.log4j.Logger;
+import org.junit.Before;
+import org.junit.Test;
+import tlb.TlbConstants;
+import tlb.TlbSuiteFile;
+import tlb.TlbSuiteFileImpl;
+import tlb.domain.SuiteTimeEntry;
+import tlb.domain.SuiteTimeHistoryEntry;
+import tlb.service.Server;
+import tlb.utils.SystemEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * simulates builds where a third of the suites have log-normally distributed (heavy tailed) times, and compares how long the slowest partition takes
+ * when balanced on last run's times, on mean of recent runs and for 90th percentile using mean and variance of recent runs
+ */
+public class HeavyTailedSuiteTimeSimulationTest {
+    private static final Logger logger = Logger.getLogger(HeavyTailedSuiteTimeSimulationTest.class.getName());
+
+    private static final int SUITES = 60;
+    private static final int PARTITIONS = 6;
+    private static final int HISTORY_SIZE = 10;
+    private static final int SIMULATED_RUNS = 2000;
+
+    private Random random;
+    private List<SimulatedSuite> suites;
+    private List<TlbSuiteFile> resources;
+
+    private class SimulatedSuite {
+        private final TlbSuiteFile file;
+        private final double meanTime;
+        private final double logSigma;
+
+        SimulatedSuite(TlbSuiteFile file, double meanTime, double logSigma) {
+            this.file = file;
+            this.meanTime = meanTime;
+            this.logSigma = logSigma;
+        }
+
+        long run() {
+            double time = logSigma == 0 ? meanTime * (1 + 0.05 * random.nextGaussian()) : meanTime * Math.exp(logSigma * random.nextGaussian() - logSigma * logSigma / 2);
+            return Math.max(1, Math.round(time));
+        }
+    }
+
+    @Before
+    public void setUp() {
+        random = new Random(4242);
+        suites = new ArrayList<SimulatedSuite>();
+        resources = new ArrayList<TlbSuiteFile>();
+        for (int i = 0; i < SUITES; i++) {
+            TlbSuiteFile file = new TlbSuiteFileImpl(String.format("com/foo/Suite%02d.class", i));
+            boolean heavyTailed = i % 3 == 0;
+            suites.add(new SimulatedSuite(file, 20 + random.nextInt(180), heavyTailed ? 1.0 : 0));
+            resources.add(file);
+        }
+    }
+
+    @Test
+    public void shouldReduceTailOfSlowestPartitionTime_whenBalancingForHighPercentileOnRecentRuns() {
+        List<SuiteTimeHistoryEntry> histories = new ArrayList<SuiteTimeHistoryEntry>();
+        List<SuiteTimeEntry> lastRun = new ArrayList<SuiteTimeEntry>();
+        for (SimulatedSuite suite : suites) {
+            SuiteTimeHistoryEntry history = new SuiteTimeHistoryEntry(suite.file.getName(), HISTORY_SIZE);
+            for (int i = 0; i < HISTORY_SIZE; i++) {
+                history = history.record(suite.run());
+            }
+            histories.add(history);
+            long[] times = history.times();
+            lastRun.add(new SuiteTimeEntry(suite.file.getName(), times[times.length - 1]));
+        }
+        Server server = mock(Server.class);
+        when(server.totalPartitions()).thenReturn(PARTITIONS);
+        when(server.getLastRunTestTimes()).thenReturn(lastRun);
+        when(server.getLastRunTestTimeHistory()).thenReturn(histories);
+
+        List<List<SimulatedSuite>> lastRunBased = new ArrayList<List<SimulatedSuite>>();
+        List<List<SimulatedSuite>> meanBased = new ArrayList<List<SimulatedSuite>>();
+        List<List<SimulatedSuite>> varianceAware = new ArrayList<List<SimulatedSuite>>();
+        for (int i = 1; i <= PARTITIONS; i++) {
+            when(server.partitionNumber()).thenReturn(i);
+            lastRunBased.add(suitesFor(new TimeBasedTestSplitter(server, env(i, "90")).filterSuites(resources, "module")));
+            meanBased.add(suitesFor(new VarianceAwareTimeBasedTestSplitter(server, env(i, "50")).filterSuites(resources, "module")));
+            varianceAware.add(suitesFor(new VarianceAwareTimeBasedTestSplitter(server, env(i, "90")).filterSuites(resources, "module")));
+        }
+
+        long[] lastRunBasedMakespans = new long[SIMULATED_RUNS];
+        long[] meanBasedMakespans = new long[SIMULATED_RUNS];
+        long[] varianceAwareMakespans = new long[SIMULATED_RUNS];
+        for (int run = 0; run < SIMULATED_RUNS; run++) {
+            Map<SimulatedSuite, Long> times = new HashMap<SimulatedSuite, Long>();
+            for (SimulatedSuite suite : suites) {
+                times.put(suite, suite.run());
+            }
+            lastRunBasedMakespans[run] = makespan(lastRunBased, times);
+            meanBasedMakespans[run] = makespan(meanBased, times);
+            varianceAwareMakespans[run] = makespan(varianceAware, times);
+        }
+        Arrays.sort(lastRunBasedMakespans);
+        Arrays.sort(meanBasedMakespans);
+        Arrays.sort(varianceAwareMakespans);
+
+        String report = String.format("slowest partition time over %s simulated runs, last run based: %s, mean based: %s, variance aware: %s",
+                SIMULATED_RUNS, summary(lastRunBasedMakespans), summary(meanBasedMakespans), summary(varianceAwareMakespans));
+        logger.info(report);
+        assertTrue(report, percentile(varianceAwareMakespans, 90) < percentile(lastRunBasedMakespans, 90));
+        assertTrue(report, percentile(varianceAwareMakespans, 90) < percentile(meanBasedMakespans, 90));
+    }
+
+    private SystemEnvironment env(int partition, String percentile) {
+        Map<String, String> map = new HashMap<String, String>();
+        map.put(TlbConstants.TlbServer.TLB_JOB_NAME, "job-" + partition);
+        map.put(TlbConstants.TLB_BALANCING_PERCENTILE.key, percentile);
+        return new SystemEnvironment(map);
+    }
+
+    private List<SimulatedSuite> suitesFor(List<TlbSuiteFile> files) {
+        List<SimulatedSuite> partition = new ArrayList<SimulatedSuite>();
+        for (SimulatedSuite suite : suites) {
+            if (files.contains(suite.file)) partition.add(suite);
+        }
+        return partition;
+    }
+
+    private long makespan(List<List<SimulatedSuite>> partitions, Map<SimulatedSuite, Long> times) {
+        long slowest = 0;
+        for (List<SimulatedSuite> partition : partitions) {
+            long total = 0;
+            for (SimulatedSuite suite : partition) {
+                total += times.get(suite);
+            }
+            slowest = Math.max(slowest, total);
+        }
+        return slowest;
+    }
+
+    private long percentile(long[] sorted, int percentile) {
+        return sorted[(int) Math.ceil(percentile / 100.0 * sorted.length) - 1];
+    }
+
+    private String summary(long[] sorted) {
+        long sum = 0;
+        for (long makespan : sorted) {
+            sum += makespan;
+        }
+        return String.format("[ mean: %s, p50: %s, p90: %s, p99: %s ]", sum / sorted.length, percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99));
+    }
+}
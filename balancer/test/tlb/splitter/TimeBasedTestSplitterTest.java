@@ -4,9 +4,11 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import tlb.TestUtil;
+import tlb.TlbConstants;
 import tlb.TlbSuiteFile;
 import tlb.TlbSuiteFileImpl;
 import static tlb.TestUtil.convertToPlatformSpecificPath;
+import tlb.domain.PartitionSpeedEntry;
 import tlb.domain.SuiteTimeEntry;
 import tlb.service.Server;
 import tlb.utils.SystemEnvironment;
@@ -14,7 +16,9 @@ import tlb.utils.SystemEnvironment;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
@@ -82,6 +86,46 @@ public class TimeBasedTestSplitterTest {
         assertThat(criteria.filterSuites(resources, moduleName), is(Arrays.asList(fourth, fifth)));
     }
 
+    @Test
+    public void shouldFillBucketsInProportionToHowFastTheirPartitionsRun() {
+        when(server.totalPartitions()).thenReturn(2);
+        when(server.getLastRunTestTimes()).thenReturn(Arrays.asList(new SuiteTimeEntry("A", 40), new SuiteTimeEntry("B", 30), new SuiteTimeEntry("C", 20), new SuiteTimeEntry("D", 10)));
+        TlbSuiteFile a = new TlbSuiteFileImpl("A");
+        TlbSuiteFile b = new TlbSuiteFileImpl("B");
+        TlbSuiteFile c = new TlbSuiteFileImpl("C");
+        TlbSuiteFile d = new TlbSuiteFileImpl("D");
+        List<TlbSuiteFile> resources = Arrays.asList(a, b, c, d);
+
+        when(server.partitionNumber()).thenReturn(1);
+        assertThat(new TimeBasedTestSplitter(server, TestUtil.initEnvironment("job-1")).filterSuites(resources, moduleName), is(Arrays.asList(a, d)));
+        when(server.partitionNumber()).thenReturn(2);
+        assertThat(new TimeBasedTestSplitter(server, TestUtil.initEnvironment("job-2")).filterSuites(resources, moduleName), is(Arrays.asList(b, c)));
+
+        when(server.getPartitionSpeeds()).thenReturn(Arrays.asList(new PartitionSpeedEntry(1, 50), new PartitionSpeedEntry(2, 100)));
+
+        when(server.partitionNumber()).thenReturn(1);
+        assertThat(new TimeBasedTestSplitter(server, TestUtil.initEnvironment("job-1")).filterSuites(resources, moduleName), is(Arrays.asList(a, c, d)));
+        when(server.partitionNumber()).thenReturn(2);
+        assertThat(new TimeBasedTestSplitter(server, TestUtil.initEnvironment("job-2")).filterSuites(resources, moduleName), is(Arrays.asList(b)));
+    }
+
+    @Test
+    public void shouldBomb_whenPartitionSpeedsCanNotBeLoaded() {
+        when(server.totalPartitions()).thenReturn(2);
+        when(server.getLastRunTestTimes()).thenReturn(Arrays.asList(new SuiteTimeEntry("A", 40), new SuiteTimeEntry("B", 30), new SuiteTimeEntry("C", 20), new SuiteTimeEntry("D", 10)));
+        when(server.getPartitionSpeeds()).thenThrow(new RuntimeException("not found"));
+
+        when(server.partitionNumber()).thenReturn(1);
+        logFixture.startListening();
+        try {
+            new TimeBasedTestSplitter(server, TestUtil.initEnvironment("job-1")).filterSuites(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A"), new TlbSuiteFileImpl("B"), new TlbSuiteFileImpl("C"), new TlbSuiteFileImpl("D")), moduleName);
+            fail("should have failed to split, as other partitions may have balanced against speeds this one could not load");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("could not load partition speeds, aborting attempt to balance based on time"));
+        }
+        logFixture.assertHeard("could not load partition speeds, aborting attempt to balance based on time: 'not found'");
+    }
+
     @Test
     public void shouldBombWhenNoTestTimeDataAvailable() {
         when(server.totalPartitions()).thenReturn(4);
@@ -217,6 +261,33 @@ public class TimeBasedTestSplitterTest {
         logFixture.assertHeard("assigned total of 2 files to [ foo bar ]");
     }
 
+    @Test
+    public void shouldEstimateTimeOfNewTestsUsingConfiguredEstimatorsInOrderOfPreference() throws Exception{
+        when(server.totalPartitions()).thenReturn(2);
+        when(server.getLastRunTestTimes()).thenReturn(testTimes());
+
+        TlbSuiteFile first = new TlbSuiteFileImpl(convertToPlatformSpecificPath("com/foo/First.class"));
+        TlbSuiteFile second = new TlbSuiteFileImpl(convertToPlatformSpecificPath("com/foo/Second.class"));
+        TlbSuiteFile movedThird = new TlbSuiteFileImpl(convertToPlatformSpecificPath("com/quux/Third.class"));
+        TlbSuiteFile fourth = new TlbSuiteFileImpl(convertToPlatformSpecificPath("foo/baz/Fourth.class"));
+        TlbSuiteFile fifth = new TlbSuiteFileImpl(convertToPlatformSpecificPath("foo/bar/Fourth.class"));
+        TlbSuiteFile sixth = new TlbSuiteFileImpl(convertToPlatformSpecificPath("foo/baz/Sixth.class"));
+        List<TlbSuiteFile> resources = Arrays.asList(first, second, movedThird, fourth, fifth, sixth);
+
+        Map<String, String> envMap = new HashMap<String, String>();
+        envMap.put(TlbConstants.TLB_NEW_SUITE_TIME_ESTIMATORS.key, "tlb.splitter.timebased.RenamedSuiteTimeEstimator : tlb.splitter.timebased.PackageMeanTimeEstimator:tlb.splitter.timebased.GroupedMeanTimeEstimator");
+
+        when(server.partitionNumber()).thenReturn(1);
+        TimeBasedTestSplitter criteria = new TimeBasedTestSplitter(server, new SystemEnvironment(envMap));
+        logFixture.startListening();
+        assertThat(criteria.filterSuites(resources, moduleName), is(Arrays.asList(second, fifth, first)));
+        logFixture.assertHeard("Encountered 2 new files which don't have historical time data, used average time [ 2.5 ] to balance");
+
+        when(server.partitionNumber()).thenReturn(2);
+        criteria = new TimeBasedTestSplitter(server, new SystemEnvironment(envMap));
+        assertThat(criteria.filterSuites(resources, moduleName), is(Arrays.asList(sixth, fourth, movedThird)));
+    }
+
     private List<SuiteTimeEntry> testTimes() {
         List<SuiteTimeEntry> entries = new ArrayList<SuiteTimeEntry>();
         entries.add(new SuiteTimeEntry(new File("com/foo/First.class").getPath(), 2l));
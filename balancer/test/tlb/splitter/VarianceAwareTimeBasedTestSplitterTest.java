@@ -0,0 +1,141 @@
+package tlb.splitter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import tlb.TestUtil;
+import tlb.TlbConstants;
+import tlb.TlbSuiteFile;
+import tlb.TlbSuiteFileImpl;
+import tlb.domain.PartitionSpeedEntry;
+import tlb.domain.SuiteTimeHistoryEntry;
+import tlb.service.Server;
+import tlb.splitter.timebased.TestFile;
+import tlb.utils.SystemEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class VarianceAwareTimeBasedTestSplitterTest {
+    private static final String moduleName = "module_quux";
+
+    private Server server;
+    private TestUtil.LogFixture logFixture;
+    private TlbSuiteFile slowStable;
+    private TlbSuiteFile fastStable;
+    private TlbSuiteFile firstFlaky;
+    private TlbSuiteFile secondFlaky;
+    private List<TlbSuiteFile> resources;
+
+    @Before
+    public void setUp() throws Exception {
+        server = mock(Server.class);
+        logFixture = new TestUtil.LogFixture();
+        when(server.totalPartitions()).thenReturn(2);
+        slowStable = new TlbSuiteFileImpl("com/foo/SlowStable.class");
+        fastStable = new TlbSuiteFileImpl("com/foo/FastStable.class");
+        firstFlaky = new TlbSuiteFileImpl("com/foo/FirstFlaky.class");
+        secondFlaky = new TlbSuiteFileImpl("com/foo/SecondFlaky.class");
+        resources = Arrays.asList(slowStable, fastStable, firstFlaky, secondFlaky);
+    }
+
+    @After
+    public void tearDown() {
+        logFixture.stopListening();
+    }
+
+    private SystemEnvironment env(String jobName, String percentile) {
+        Map<String, String> map = new HashMap<String, String>();
+        map.put(TlbConstants.TlbServer.TLB_JOB_NAME, jobName);
+        map.put(TlbConstants.TlbServer.TLB_JOB_VERSION, "build_no_19");
+        map.put(TlbConstants.TLB_BALANCING_PERCENTILE.key, percentile);
+        return new SystemEnvironment(map);
+    }
+
+    private List<SuiteTimeHistoryEntry> histories(String... dumps) {
+        List<SuiteTimeHistoryEntry> entries = new ArrayList<SuiteTimeHistoryEntry>();
+        for (String dump : dumps) {
+            entries.add(SuiteTimeHistoryEntry.parseSingleEntry(dump));
+        }
+        return entries;
+    }
+
+    private List<TlbSuiteFile> partition(int number, String percentile) {
+        when(server.partitionNumber()).thenReturn(number);
+        return new VarianceAwareTimeBasedTestSplitter(server, env("job-" + number, percentile)).filterSuites(resources, moduleName);
+    }
+
+    @Test
+    public void shouldGiveFasterPartitionProportionallyMoreWork() {
+        when(server.getLastRunTestTimeHistory()).thenReturn(histories("com/foo/SlowStable.class: 60,60", "com/foo/FastStable.class: 40,40", "com/foo/FirstFlaky.class: 30,30", "com/foo/SecondFlaky.class: 10,10"));
+
+        assertThat(partition(1, "90"), is(Arrays.asList(slowStable, secondFlaky)));
+        assertThat(partition(2, "90"), is(Arrays.asList(fastStable, firstFlaky)));
+
+        when(server.getPartitionSpeeds()).thenReturn(Arrays.asList(new PartitionSpeedEntry(1, 50)));
+
+        assertThat(partition(1, "90"), is(Arrays.asList(slowStable, firstFlaky)));
+        assertThat(partition(2, "90"), is(Arrays.asList(fastStable, secondFlaky)));
+    }
+
+    @Test
+    public void shouldKeepSuitesWithVaryingTimesApart_whenBalancingForHighPercentile() {
+        when(server.getLastRunTestTimeHistory()).thenReturn(histories("com/foo/SlowStable.class: 60,60", "com/foo/FastStable.class: 40,40", "com/foo/FirstFlaky.class: 10,90", "com/foo/SecondFlaky.class: 90,10"));
+
+        assertThat(partition(1, "90"), is(Arrays.asList(secondFlaky, slowStable)));
+        assertThat(partition(2, "90"), is(Arrays.asList(firstFlaky, fastStable)));
+    }
+
+    @Test
+    public void shouldBalanceOnMeanTime_whenBalancingForMedian() {
+        when(server.getLastRunTestTimeHistory()).thenReturn(histories("com/foo/SlowStable.class: 60,60", "com/foo/FastStable.class: 40,40", "com/foo/FirstFlaky.class: 10,90", "com/foo/SecondFlaky.class: 90,10"));
+
+        assertThat(partition(1, "50"), is(Arrays.asList(slowStable, fastStable)));
+        assertThat(partition(2, "50"), is(Arrays.asList(secondFlaky, firstFlaky)));
+    }
+
+    @Test
+    public void shouldAssumeAverageRelativeVarianceForNewSuites() {
+        when(server.getLastRunTestTimeHistory()).thenReturn(histories("com/foo/SlowStable.class: 60,60", "com/foo/FirstFlaky.class: 10,90"));
+        VarianceAwareTimeBasedTestSplitter splitter = new VarianceAwareTimeBasedTestSplitter(server, env("job-1", "90"));
+        splitter.lastRunTestTimes();
+
+        TestFile newSuite = splitter.newTestFile(secondFlaky, 50.0);
+        assertThat(newSuite.getTime(), is(50.0));
+        assertThat(newSuite.getVariance(), is(400.0));
+    }
+
+    @Test
+    public void shouldBombWhenNoSuiteHasMoreThanOneHistoricalRun() {
+        when(server.getLastRunTestTimeHistory()).thenReturn(histories("com/foo/SlowStable.class: 60", "com/foo/FirstFlaky.class: 10", "com/foo/SecondFlaky.class: 90"));
+        logFixture.startListening();
+        try {
+            partition(1, "90");
+            fail("should have aborted, as there is nothing to estimate variance from");
+        } catch (IllegalStateException e) {
+            String message = "no suite has more than one historical run, aborting attempt to balance based on time variance";
+            logFixture.assertHeard(message);
+            assertThat(e.getMessage(), is(message));
+        }
+    }
+
+    @Test
+    public void shouldBombWhenNoHistoricalDataAvailable() {
+        when(server.getLastRunTestTimeHistory()).thenReturn(new ArrayList<SuiteTimeHistoryEntry>());
+        try {
+            partition(1, "90");
+            fail("should have aborted, as no historical test time data was given");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("no historical test time data, aborting attempt to balance based on time"));
+        }
+    }
+}
@@ -32,8 +32,21 @@ public class BucketTest {
         assertThat(bigger.compareTo(smaller), is(0));
     }
 
+    @Test
+    public void shouldCompareBucketsBasedOnTimeTheirPartitionsTakeToRunThem() {
+        Bucket fastPartition = bucket(new Bucket(1, 2.0), 6.0);
+        Bucket slowPartition = bucket(new Bucket(2, 0.5), 2.0);
+        assertThat(fastPartition.finishTime(), is(3.0));
+        assertThat(slowPartition.finishTime(), is(4.0));
+        assertThat(fastPartition.compareTo(slowPartition), is(-1));
+        assertThat(slowPartition.finishTimeWith(new TestFile(new TlbSuiteFileImpl("foo"), 1.0)), is(6.0));
+    }
+
     private Bucket bucket(int partition, double... times) {
-        Bucket bucket = new Bucket(partition);
+        return bucket(new Bucket(partition), times);
+    }
+
+    private Bucket bucket(Bucket bucket, double... times) {
         for (double time : times) {
             String s = "foo" + time;
             bucket.add(new TestFile(new TlbSuiteFileImpl(s), time));
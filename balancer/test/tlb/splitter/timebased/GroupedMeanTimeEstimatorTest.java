@@ -0,0 +1,19 @@
+package tlb.splitter.timebased;
+
+import org.junit.Test;
+import tlb.TlbSuiteFileImpl;
+import tlb.domain.SuiteTimeEntry;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class GroupedMeanTimeEstimatorTest {
+    @Test
+    public void shouldAlwaysEstimateGroupedMeanOfHistory() {
+        SuiteTimeIndex history = new SuiteTimeIndex(Arrays.asList(new SuiteTimeEntry("com/foo/First.class", 2), new SuiteTimeEntry("com/foo/Second.class", 4)));
+        assertThat(new GroupedMeanTimeEstimator(null).estimate(new TlbSuiteFileImpl("com/bar/Quux.class"), history, new HashSet<String>()), is(3.0));
+    }
+}
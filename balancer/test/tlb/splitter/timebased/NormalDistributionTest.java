@@ -0,0 +1,38 @@
+package tlb.splitter.timebased;
+
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class NormalDistributionTest {
+    private static final double PRECISION = 1e-6;
+
+    private void assertDeviations(double percentile, double expected) {
+        double actual = NormalDistribution.deviationsAt(percentile);
+        assertThat(String.format("deviations at %s were %s", percentile, actual), Math.abs(actual - expected) < PRECISION, is(true));
+    }
+
+    @Test
+    public void shouldUnderstandStandardDeviationsAtCommonPercentiles() {
+        assertDeviations(50, 0.0);
+        assertDeviations(90, 1.2815516);
+        assertDeviations(97.5, 1.9599640);
+        assertDeviations(99, 2.3263479);
+        assertDeviations(10, -1.2815516);
+        assertDeviations(1, -2.3263479);
+    }
+
+    @Test
+    public void shouldNotAcceptPercentilesOutsideOpenRange() {
+        for (double percentile : new double[]{0, 100, 120, -5}) {
+            try {
+                NormalDistribution.deviationsAt(percentile);
+                fail("should not have accepted percentile " + percentile);
+            } catch (IllegalArgumentException e) {
+                assertThat(e.getMessage(), is(String.format("percentile must lie between 0 and 100 (exclusive), but was %s", percentile)));
+            }
+        }
+    }
+}
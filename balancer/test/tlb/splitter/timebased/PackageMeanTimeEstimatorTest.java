@@ -0,0 +1,34 @@
+package tlb.splitter.timebased;
+
+import org.junit.Test;
+import tlb.TlbSuiteFileImpl;
+import tlb.domain.SuiteTimeEntry;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class PackageMeanTimeEstimatorTest {
+    private final PackageMeanTimeEstimator estimator = new PackageMeanTimeEstimator(null);
+    private final SuiteTimeIndex history = new SuiteTimeIndex(Arrays.asList(new SuiteTimeEntry("integration/foo/First.class", 200), new SuiteTimeEntry("integration/foo/Second.class", 100),
+            new SuiteTimeEntry("integration/bar/Third.class", 60), new SuiteTimeEntry("unit/foo/Fourth.class", 2)));
+
+    @Test
+    public void shouldUseMeanTimeOfSuitesInSamePackage() {
+        assertThat(estimator.estimate(new TlbSuiteFileImpl("integration/foo/Fifth.class"), history, new HashSet<String>()), is(150.0));
+    }
+
+    @Test
+    public void shouldUseMeanTimeOfSuitesInClosestEnclosingPackage_whenNoneKnownInSamePackage() {
+        assertThat(estimator.estimate(new TlbSuiteFileImpl("integration/quux/Fifth.class"), history, new HashSet<String>()), is(120.0));
+        assertThat(estimator.estimate(new TlbSuiteFileImpl("unit/quux/bang/Fifth.class"), history, new HashSet<String>()), is(2.0));
+    }
+
+    @Test
+    public void shouldNotEstimate_whenNoSuiteKnownUnderAnyEnclosingPackage() {
+        assertThat(estimator.estimate(new TlbSuiteFileImpl("functional/foo/Fifth.class"), history, new HashSet<String>()), is((Double) null));
+        assertThat(estimator.estimate(new TlbSuiteFileImpl("Fifth.class"), history, new HashSet<String>()), is((Double) null));
+    }
+}
@@ -0,0 +1,39 @@
+package tlb.splitter.timebased;
+
+import org.junit.Test;
+import tlb.TlbSuiteFileImpl;
+import tlb.domain.SuiteTimeEntry;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class RenamedSuiteTimeEstimatorTest {
+    private final RenamedSuiteTimeEstimator estimator = new RenamedSuiteTimeEstimator(null);
+
+    @Test
+    public void shouldUseTimeOfSuiteWithSameNameThatNoLongerExists() {
+        SuiteTimeIndex history = new SuiteTimeIndex(Arrays.asList(new SuiteTimeEntry("com/foo/First.class", 20), new SuiteTimeEntry("com/foo/Second.class", 5)));
+        assertThat(estimator.estimate(new TlbSuiteFileImpl("com/bar/First.class"), history, new HashSet<String>(Arrays.asList("com/bar/First.class", "com/foo/Second.class"))), is(20.0));
+    }
+
+    @Test
+    public void shouldNotEstimate_whenSuiteWithSameNameStillExists() {
+        SuiteTimeIndex history = new SuiteTimeIndex(Arrays.asList(new SuiteTimeEntry("com/foo/First.class", 20)));
+        assertThat(estimator.estimate(new TlbSuiteFileImpl("com/bar/First.class"), history, new HashSet<String>(Arrays.asList("com/bar/First.class", "com/foo/First.class"))), is((Double) null));
+    }
+
+    @Test
+    public void shouldNotEstimate_whenMoreThanOneRemovedSuiteHasTheSameName() {
+        SuiteTimeIndex history = new SuiteTimeIndex(Arrays.asList(new SuiteTimeEntry("com/foo/First.class", 20), new SuiteTimeEntry("com/baz/First.class", 3)));
+        assertThat(estimator.estimate(new TlbSuiteFileImpl("com/bar/First.class"), history, new HashSet<String>(Arrays.asList("com/bar/First.class"))), is((Double) null));
+    }
+
+    @Test
+    public void shouldNotEstimate_whenNoSuiteWithSameNameIsKnown() {
+        SuiteTimeIndex history = new SuiteTimeIndex(Arrays.asList(new SuiteTimeEntry("com/foo/Second.class", 20)));
+        assertThat(estimator.estimate(new TlbSuiteFileImpl("com/bar/First.class"), history, new HashSet<String>(Arrays.asList("com/bar/First.class"))), is((Double) null));
+    }
+}
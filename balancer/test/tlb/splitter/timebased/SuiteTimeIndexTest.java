@@ -0,0 +1,63 @@
+package tlb.splitter.timebased;
+
+import org.junit.Test;
+import tlb.domain.SuiteTimeEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class SuiteTimeIndexTest {
+    private List<SuiteTimeEntry> history() {
+        return Arrays.asList(new SuiteTimeEntry("com/foo/First.class", 2), new SuiteTimeEntry("com/foo/Second.class", 5),
+                new SuiteTimeEntry("com/bar/Third.class", 1), new SuiteTimeEntry("foo/baz/Fourth.class", 4), new SuiteTimeEntry("foo/bar/Fourth.class", 3));
+    }
+
+    @Test
+    public void shouldUnderstandSimpleNameOfSuite() {
+        assertThat(SuiteTimeIndex.simpleName("com/foo/First.class"), is("First"));
+        assertThat(SuiteTimeIndex.simpleName("com\\foo\\First.class"), is("First"));
+        assertThat(SuiteTimeIndex.simpleName("com.foo.First"), is("First"));
+        assertThat(SuiteTimeIndex.simpleName("First.class"), is("First"));
+        assertThat(SuiteTimeIndex.simpleName("scenarios/login/Logout.scn"), is("Logout"));
+    }
+
+    @Test
+    public void shouldUnderstandEnclosingPackagesOfSuite_mostSpecificFirst() {
+        assertThat(SuiteTimeIndex.enclosingPackages("com/foo/bar/First.class"), is(Arrays.asList("com.foo.bar", "com.foo", "com")));
+        assertThat(SuiteTimeIndex.enclosingPackages("com.foo.First"), is(Arrays.asList("com.foo", "com")));
+        assertThat(SuiteTimeIndex.enclosingPackages("First.class"), is((List<String>) new ArrayList<String>()));
+    }
+
+    @Test
+    public void shouldComputeMeanTimeOfSuitesUnderAPackage() {
+        SuiteTimeIndex index = new SuiteTimeIndex(history());
+        assertThat(index.meanTimeInPackage("com.foo"), is(3.5));
+        assertThat(index.meanTimeInPackage("com"), is(8.0 / 3));
+        assertThat(index.meanTimeInPackage("foo.bar"), is(3.0));
+        assertThat(index.meanTimeInPackage("foo.quux"), is((Double) null));
+    }
+
+    @Test
+    public void shouldFindEntriesBySimpleName() {
+        SuiteTimeIndex index = new SuiteTimeIndex(history());
+        assertThat(index.entriesWithSimpleName("Fourth"), is(Arrays.asList(new SuiteTimeEntry("foo/baz/Fourth.class", 4), new SuiteTimeEntry("foo/bar/Fourth.class", 3))));
+        assertThat(index.entriesWithSimpleName("Fifth"), is((List<SuiteTimeEntry>) new ArrayList<SuiteTimeEntry>()));
+    }
+
+    @Test
+    public void shouldComputeMeanTimeWeightedByGroupsOfComparableSuites() {
+        assertThat(new SuiteTimeIndex(history()).groupedMeanTime(), is(3.0));
+        assertThat(new SuiteTimeIndex(Arrays.asList(new SuiteTimeEntry("a", 1), new SuiteTimeEntry("b", 2), new SuiteTimeEntry("c", 3), new SuiteTimeEntry("d", 102))).groupedMeanTime(), is(27.0));
+    }
+
+    @Test
+    public void shouldUnderstandIfItIndexesGivenEntries() {
+        SuiteTimeIndex index = new SuiteTimeIndex(history());
+        assertThat(index.indexes(history()), is(true));
+        assertThat(index.indexes(history().subList(1, 5)), is(false));
+    }
+}
@@ -24,4 +24,12 @@ public class TestFileTest {
     public void testReturn0WhenTheNameAndTimeAreSame() {
         assertThat(new TestFile(new TlbSuiteFileImpl("fop"), 2.33).compareTo(new TestFile(new TlbSuiteFileImpl("fop"), 2.33)), is(0));
     }
+
+    @Test
+    public void shouldUnderstandTimeGivenNumberOfStandardDeviationsAboveMean() {
+        TestFile testFile = new TestFile(new TlbSuiteFileImpl("foo"), 10.0, 9.0);
+        assertThat(testFile.timeAt(0), is(10.0));
+        assertThat(testFile.timeAt(2), is(16.0));
+        assertThat(new TestFile(new TlbSuiteFileImpl("foo"), 10.0).timeAt(2), is(10.0));
+    }
 }
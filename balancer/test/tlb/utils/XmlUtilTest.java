@@ -5,8 +5,12 @@ import org.junit.Test;
 import static org.junit.Assert.assertThat;
 import org.dom4j.Element;
 import org.dom4j.DocumentFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
 import static org.hamcrest.core.Is.is;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.HashMap;
 
@@ -51,4 +55,18 @@ public class XmlUtilTest {
         assertThat(entryIds.size(), is(6));
         assertThat(((Element) entryIds.get(0)).getText(), is("http://test.host:8153/go/pipelines/pipeline-foo/25/stage-baz/1"));
     }
+
+    @Test
+    public void shouldStreamDocumentThroughHandlerUntilHandlerAsksToStop() throws Exception{
+        final List<String> seen = new ArrayList<String>();
+        XmlUtil.stream("<foo><bar/><baz/><quux/></foo>", new DefaultHandler() {
+            @Override
+            public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+                seen.add(localName);
+                if (localName.equals("baz")) throw new XmlUtil.StopParsing();
+            }
+        });
+        assertThat(seen.size(), is(3));
+        assertThat(seen.get(2), is("baz"));
+    }
 }
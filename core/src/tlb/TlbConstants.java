@@ -18,6 +18,8 @@ public interface TlbConstants {
         static final String GO_PIPELINE_LABEL = "GO_PIPELINE_LABEL";
         static final String DEFAULT_STAGE_FEED_SEARCH_DEPTH = "10";
         static final SystemEnvironment.EnvVar GO_STAGE_FEED_MAX_SEARCH_DEPTH = new SystemEnvironment.DefaultedEnvVar("GO_STAGE_FEED_MAX_SEARCH_DEPTH", DEFAULT_STAGE_FEED_SEARCH_DEPTH);
+        static final SystemEnvironment.EnvVar GO_LOOKUP_CACHE_TTL_IN_MINUTES = new SystemEnvironment.DefaultedEnvVar("GO_LOOKUP_CACHE_TTL_IN_MINUTES", "60");
+        static final SystemEnvironment.EnvVar GO_LOOKUP_CACHE_MAX_ENTRIES = new SystemEnvironment.DefaultedEnvVar("GO_LOOKUP_CACHE_MAX_ENTRIES", "500");
     }
 
     public static interface TlbServer {
@@ -26,6 +28,7 @@ public interface TlbConstants {
         static final String TLB_PARTITION_NUMBER = "TLB_PARTITION_NUMBER";
         static final String TLB_TOTAL_PARTITIONS = "TLB_TOTAL_PARTITIONS";
         static final String TLB_JOB_VERSION = "TLB_JOB_VERSION";
+        static final String TLB_SUITE_TIME_AGGREGATE = "TLB_SUITE_TIME_AGGREGATE";
     }
 
     static final String PASSWORD = "TLB_PASSWORD";
@@ -35,13 +38,22 @@ public interface TlbConstants {
     static final String TLB_PREFERRED_SPLITTERS = "TLB_PREFERRED_SPLITTERS";
     static final String TLB_TMP_DIR = "TLB_TMP_DIR";
     static final String TLB_ORDERER = "TLB_ORDERER";
+    static final String TLB_CHAINED_ORDERERS = "TLB_CHAINED_ORDERERS";
     static final SystemEnvironment.EnvVar TLB_SMOOTHING_FACTOR = new SystemEnvironment.DefaultedEnvVar("TLB_SMOOTHING_FACTOR", "1.0");
+    static final SystemEnvironment.EnvVar TLB_RESUME_PARTITION = new SystemEnvironment.DefaultedEnvVar("TLB_RESUME_PARTITION", "false");
+    static final SystemEnvironment.EnvVar TLB_SUITE_TIME_STREAM_BATCH_SIZE = new SystemEnvironment.DefaultedEnvVar("TLB_SUITE_TIME_STREAM_BATCH_SIZE", "0");
+    static final SystemEnvironment.EnvVar TLB_PARTITION_SPEED_SMOOTHING_FACTOR = new SystemEnvironment.DefaultedEnvVar("TLB_PARTITION_SPEED_SMOOTHING_FACTOR", "0.5");
+    static final SystemEnvironment.EnvVar TLB_BALANCING_PERCENTILE = new SystemEnvironment.DefaultedEnvVar("TLB_BALANCING_PERCENTILE", "90");
+    static final SystemEnvironment.EnvVar TLB_NEW_SUITE_TIME_ESTIMATORS = new SystemEnvironment.DefaultedEnvVar("TLB_NEW_SUITE_TIME_ESTIMATORS", "tlb.splitter.timebased.GroupedMeanTimeEstimator");
 
     public static interface Balancer {
         static final SystemEnvironment.EnvVar TLB_BALANCER_PORT = new SystemEnvironment.DefaultedEnvVar("TLB_BALANCER_PORT", "8019");
         static final String QUERY = "query";
         static final String DEFAULT_MODULE_NAME = "default-module";
         static final String TLB_MODULE_NAME_HEADER = "X-Tlb-Module-Name";
+        static final SystemEnvironment.EnvVar TLB_SUITE_QUEUE_BATCH_SIZE = new SystemEnvironment.DefaultedEnvVar("TLB_SUITE_QUEUE_BATCH_SIZE", "1");
+        static final SystemEnvironment.EnvVar TLB_PARTITION_PLAN_CACHE_SIZE = new SystemEnvironment.DefaultedEnvVar("TLB_PARTITION_PLAN_CACHE_SIZE", "64");
+        static final SystemEnvironment.EnvVar TLB_BALANCER_FRAMED_PORT = new SystemEnvironment.DefaultedEnvVar("TLB_BALANCER_FRAMED_PORT", "0");
     }
 
     public static interface Correctness {
@@ -53,35 +65,65 @@ public interface TlbConstants {
         static final String NO_UNIVERSAL_SET_FOUND = "Failed to find corresponding universal set definition";
         static final String CURRENT_PARTITION_VIOLATES_CORRECTNESS_CHECK_FOR_SUBSET = "Choice of suites by the current partition violate correctness check with respect to other partitions";
         static final String CURRENT_PARTITION_POSTED_INCORRECT_UNIVERSAL_SET = "Current partition is partitioning a different set of test-suites than other partitions";
+        static final String NO_SUITE_QUEUE_FOUND = "Failed to find corresponding suite queue definition";
+        static final String SUITE_QUEUE_NOT_AVAILABLE = "Dynamic distribution of suites not available in current configuration";
         static final String SOME_PARTITIONS_DID_NOT_EXECUTE = "One or more partitions didn't execute for job-name, job-version and module-name combination";
     }
 
     public static interface Server {
         static final String REPO_FACTORY = "repo_factory";
+        static final String REPO_WARM_UP = "repo_warm_up";
         static final String REQUEST_NAMESPACE = "namespace";
         static final String DEFAULT_SERVER_PORT = "7019";
         static final SystemEnvironment.EnvVar TLB_SERVER_PORT = new SystemEnvironment.DefaultedEnvVar("TLB_SERVER_PORT", DEFAULT_SERVER_PORT);
         static final String DEFAULT_TLB_DATA_DIR = "tlb_store";
         static final SystemEnvironment.EnvVar TLB_DATA_DIR = new SystemEnvironment.DefaultedEnvVar("TLB_DATA_DIR", DEFAULT_TLB_DATA_DIR);
+        static final String FILE_DATA_STORAGE = "files";
+        static final String SEGMENTED_DATA_STORAGE = "segments";
+        static final String KEY_VALUE_DATA_STORAGE = "kv";
+        static final SystemEnvironment.EnvVar TLB_DATA_STORAGE = new SystemEnvironment.DefaultedEnvVar("TLB_DATA_STORAGE", FILE_DATA_STORAGE);
+        static final SystemEnvironment.EnvVar TLB_SERVER_CONNECTOR = new SystemEnvironment.DefaultedEnvVar("TLB_SERVER_CONNECTOR", "blocking");//blocking asks jetty for its thread per connection socket connector, nio for select channel connector
+        static final SystemEnvironment.EnvVar TLB_SERVER_ACCEPTOR_THREADS = new SystemEnvironment.DefaultedEnvVar("TLB_SERVER_ACCEPTOR_THREADS", "2");
+        static final SystemEnvironment.EnvVar TLB_SERVER_MIN_WORKER_THREADS = new SystemEnvironment.DefaultedEnvVar("TLB_SERVER_MIN_WORKER_THREADS", "16");
+        static final SystemEnvironment.EnvVar TLB_SERVER_MAX_WORKER_THREADS = new SystemEnvironment.DefaultedEnvVar("TLB_SERVER_MAX_WORKER_THREADS", "256");
+        static final SystemEnvironment.EnvVar TLB_SERVER_ACCEPT_QUEUE_SIZE = new SystemEnvironment.DefaultedEnvVar("TLB_SERVER_ACCEPT_QUEUE_SIZE", "2048");
 
         static final String LISTING_VERSION = "listing_version";
         static final String JOB_NUMBER = "job_number";
         static final String TOTAL_JOBS = "total_jobs";
         static final SystemEnvironment.EnvVar TLB_VERSION_LIFE_IN_DAYS = new SystemEnvironment.DefaultedEnvVar("TLB_VERSION_LIFE_IN_DAYS", "7");
+        static final String DEFAULT_PURGE_BATCH_SIZE = "500";
+        static final SystemEnvironment.EnvVar TLB_PURGE_BATCH_SIZE = new SystemEnvironment.DefaultedEnvVar("TLB_PURGE_BATCH_SIZE", DEFAULT_PURGE_BATCH_SIZE);
+        static final String DEFAULT_PURGE_BATCH_PAUSE_IN_MILLIS = "1000";
+        static final SystemEnvironment.EnvVar TLB_PURGE_BATCH_PAUSE_IN_MILLIS = new SystemEnvironment.DefaultedEnvVar("TLB_PURGE_BATCH_PAUSE_IN_MILLIS", DEFAULT_PURGE_BATCH_PAUSE_IN_MILLIS);
         static final SystemEnvironment.EnvVar TLB_SYNC_TO_DISK_INTERVAL_IN_MINS = new SystemEnvironment.DefaultedEnvVar("TLB_SYNC_TO_DISK_INTERVAL_IN_MINS", "60");
         static final SystemEnvironment.EnvVar TLB_DATA_CACHE_SIZE = new SystemEnvironment.DefaultedEnvVar("TLB_DATA_CACHE_SIZE", "100");
+        static final SystemEnvironment.EnvVar TLB_REPO_PREWARM_LIMIT = new SystemEnvironment.DefaultedEnvVar("TLB_REPO_PREWARM_LIMIT", "32");
+        static final SystemEnvironment.EnvVar TLB_REPO_PREWARM_THREADS = new SystemEnvironment.DefaultedEnvVar("TLB_REPO_PREWARM_THREADS", "4");
+        static final SystemEnvironment.EnvVar TLB_REPO_PREWARM_MEMORY_BUDGET_IN_MB = new SystemEnvironment.DefaultedEnvVar("TLB_REPO_PREWARM_MEMORY_BUDGET_IN_MB", "64");
+        static final String DEFAULT_SUITE_TIME_HISTORY_SIZE = "10";
+        static final SystemEnvironment.EnvVar TLB_SUITE_TIME_HISTORY_SIZE = new SystemEnvironment.DefaultedEnvVar("TLB_SUITE_TIME_HISTORY_SIZE", DEFAULT_SUITE_TIME_HISTORY_SIZE);
+        static final String DEFAULT_FAILURE_SCORE_DECAY = "0.5";
+        static final SystemEnvironment.EnvVar TLB_FAILURE_SCORE_DECAY = new SystemEnvironment.DefaultedEnvVar("TLB_FAILURE_SCORE_DECAY", DEFAULT_FAILURE_SCORE_DECAY);
 
         static final String MODULE_NAME = "module_name";
         static final String VERIFY_PARTITION_COMPLETENESS = "verify_partition_completeness";
+        static final String SUITE_TIME_AGGREGATE = "suite_time_aggregate";
+        static final String CLAIM = "claim";
+        static final String READY = "ready";
 
         public static interface EntryRepoFactory {
             static final String SUBSET_SIZE = "subset_size";
             static final String SUITE_TIME = "suite_time";
+            static final String SUITE_TIME_HISTORY = "suite_time_history";
             static final String SUITE_RESULT = "suite_result";
+            static final String SUITE_FAILURE_HISTORY = "suite_failure_history";
             static final String CORRECTNESS_CHECK = "correctness_check";
             static final String UNIVERSAL_SET = "universal_set";
             static final String PARTITION_RECORD = "partition_record";
             static final String SUB_SET = "sub_set";
+            static final String SUITE_QUEUE = "suite_queue";
+            static final String PARTITION_SPEED = "partition_speed";
         }
     }
 }
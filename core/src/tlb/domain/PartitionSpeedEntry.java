@@ -0,0 +1,56 @@
+package tlb.domain;
+
+import java.util.List;
+
+/**
+ * @understands how long a partition takes to run its suites, as percentage of time those suites were predicted to take
+ */
+public class PartitionSpeedEntry extends NameNumberEntry {
+    public static final int AS_PREDICTED = 100;
+
+    public static final EntryCreator<PartitionSpeedEntry> PARTITION_SPEED_ENTRY_CREATOR = new EntryCreator<PartitionSpeedEntry>() {
+        public PartitionSpeedEntry create(String name, long number) {
+            return new PartitionSpeedEntry(name, number);
+        }
+    };
+
+    public PartitionSpeedEntry(String partitionNumber, long percentOfPredictedTime) {
+        super(partitionNumber, percentOfPredictedTime);
+    }
+
+    public PartitionSpeedEntry(int partitionNumber, long percentOfPredictedTime) {
+        this(String.valueOf(partitionNumber), percentOfPredictedTime);
+    }
+
+    public static PartitionSpeedEntry measured(int partitionNumber, long predictedTime, long actualTime) {
+        return new PartitionSpeedEntry(partitionNumber, Math.max(1, Math.round(AS_PREDICTED * (double) actualTime / predictedTime)));
+    }
+
+    public long getPercentOfPredictedTime() {
+        return number;
+    }
+
+    /**
+     * work this partition gets through in the time an average partition needs for one unit of work
+     */
+    public double capacity() {
+        return number > 0 ? (double) AS_PREDICTED / number : 1.0;
+    }
+
+    public PartitionSpeedEntry smoothedWrt(PartitionSpeedEntry newDataPoint, double alpha) {
+        if ( ! name.equals(newDataPoint.name)) throw new IllegalArgumentException(String.format("partition %s can not be smoothed with data point from partition %s", name, newDataPoint.name));
+        return new PartitionSpeedEntry(name, Math.round(alpha * newDataPoint.number + (1 - alpha) * number));
+    }
+
+    public static List<PartitionSpeedEntry> parse(String buffer) {
+        return parse(buffer, PARTITION_SPEED_ENTRY_CREATOR);
+    }
+
+    public static List<PartitionSpeedEntry> parse(List<String> listOfStrings) {
+        return parse(listOfStrings, PARTITION_SPEED_ENTRY_CREATOR);
+    }
+
+    public static PartitionSpeedEntry parseSingleEntry(String entryString) {
+        return parseSingleEntry(entryString, PARTITION_SPEED_ENTRY_CREATOR);
+    }
+}
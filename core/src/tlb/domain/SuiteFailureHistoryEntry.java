@@ -0,0 +1,107 @@
+package tlb.domain;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @understands whether a suite failed in each of its last 64 runs, and a failure score that decays with every run
+ */
+public class SuiteFailureHistoryEntry implements NamedEntry {
+    public static final Pattern SUITE_FAILURE_HISTORY_PATTERN = Pattern.compile("(.*?):\\s*([0-9a-fA-F]+)\\s*:\\s*(\\S+)");
+    public static final int RUNS_REMEMBERED = 64;
+
+    private final String name;
+    private final long failedRuns;
+    private final double score;
+
+    public SuiteFailureHistoryEntry(String name) {
+        this(name, 0l, 0.0);
+    }
+
+    /**
+     * @param failedRuns bit n is set when suite failed in the run n runs before the latest one
+     */
+    public SuiteFailureHistoryEntry(String name, long failedRuns, double score) {
+        this.name = name;
+        this.failedRuns = failedRuns;
+        this.score = score;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getFailedRuns() {
+        return failedRuns;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * returns next entry rather than updating this one, so an ordering computed off list() while results come in never sees failed runs and score out of step
+     */
+    public SuiteFailureHistoryEntry record(boolean failed, double decay) {
+        return new SuiteFailureHistoryEntry(name, (failedRuns << 1) | (failed ? 1 : 0), score * decay + (failed ? 1 : 0));
+    }
+
+    public boolean failedRunsAgo(int runsAgo) {
+        return runsAgo < RUNS_REMEMBERED && ((failedRuns >>> runsAgo) & 1) == 1;
+    }
+
+    public int failureCount() {
+        return Long.bitCount(failedRuns);
+    }
+
+    public String dump() {
+        return toString() + "\n";
+    }
+
+    public static List<SuiteFailureHistoryEntry> parse(String buffer) {
+        List<SuiteFailureHistoryEntry> entries = new ArrayList<SuiteFailureHistoryEntry>();
+        for (String entryString : buffer.split("\n")) {
+            if (entryString.trim().length() > 0) entries.add(parseSingleEntry(entryString));
+        }
+        return entries;
+    }
+
+    public static SuiteFailureHistoryEntry parseSingleEntry(String entryString) {
+        Matcher matcher = SUITE_FAILURE_HISTORY_PATTERN.matcher(entryString);
+        if (! matcher.matches()) {
+            throw new IllegalArgumentException(String.format("failed to parse '%s' as %s", entryString, SuiteFailureHistoryEntry.class.getSimpleName()));
+        }
+        return new SuiteFailureHistoryEntry(matcher.group(1), new BigInteger(matcher.group(2), 16).longValue(), Double.parseDouble(matcher.group(3)));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        SuiteFailureHistoryEntry that = (SuiteFailureHistoryEntry) o;
+
+        if (failedRuns != that.failedRuns) return false;
+        if (Double.compare(that.score, score) != 0) return false;
+        if (name != null ? !name.equals(that.name) : that.name != null) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = name != null ? name.hashCode() : 0;
+        result = 31 * result + (int) (failedRuns ^ (failedRuns >>> 32));
+        long temp = Double.doubleToLongBits(score);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %s: %s", name, Long.toHexString(failedRuns), score);
+    }
+}
@@ -0,0 +1,194 @@
+package tlb.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @understands times a suite took in its last few runs, kept as a fixed size ring of primitives
+ */
+public class SuiteTimeHistoryEntry implements NamedEntry {
+    public static final Pattern SUITE_TIME_HISTORY_PATTERN = Pattern.compile("(.*?):\\s*(-?\\d+(\\s*,\\s*-?\\d+)*)");
+    private static final String TIME_SEPARATOR = ",";
+
+    public static enum Aggregate {
+        MEDIAN {
+            long of(long[] sortedTimes) {
+                int mid = sortedTimes.length / 2;
+                return sortedTimes.length % 2 == 1 ? sortedTimes[mid] : Math.round((sortedTimes[mid - 1] + sortedTimes[mid]) / 2.0);
+            }
+        },
+        TRIMMED_MEAN {
+            private static final double TRIM_EACH_SIDE = 0.2;
+
+            long of(long[] sortedTimes) {
+                int trim = (int) (sortedTimes.length * TRIM_EACH_SIDE);
+                long total = 0;
+                for (int i = trim; i < sortedTimes.length - trim; i++) {
+                    total += sortedTimes[i];
+                }
+                return Math.round((double) total / (sortedTimes.length - 2 * trim));
+            }
+        },
+        P90 {
+            long of(long[] sortedTimes) {
+                int nearestRank = (int) Math.ceil(0.9 * sortedTimes.length);
+                return sortedTimes[nearestRank - 1];
+            }
+        };
+
+        abstract long of(long[] sortedTimes);
+
+        public static Aggregate named(String name) {
+            return valueOf(name.toUpperCase());
+        }
+    }
+
+    private final String name;
+    private final long[] ring;
+    private final int next;
+    private final int size;
+
+    public SuiteTimeHistoryEntry(String name, int capacity) {
+        this(name, new long[capacity], 0, 0);
+    }
+
+    private SuiteTimeHistoryEntry(String name, long[] ring, int next, int size) {
+        this.name = name;
+        this.ring = ring;
+        this.next = next;
+        this.size = size;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * entries are shared between version snapshots, so recording never mutates this entry
+     */
+    public SuiteTimeHistoryEntry record(long time) {
+        long[] newRing = ring.clone();
+        newRing[next] = time;
+        return new SuiteTimeHistoryEntry(name, newRing, (next + 1) % ring.length, Math.min(size + 1, ring.length));
+    }
+
+    public SuiteTimeHistoryEntry resizedTo(int capacity) {
+        if (capacity == ring.length) {
+            return this;
+        }
+        SuiteTimeHistoryEntry resized = new SuiteTimeHistoryEntry(name, capacity);
+        for (long time : times()) {
+            resized = resized.record(time);
+        }
+        return resized;
+    }
+
+    /**
+     * oldest first
+     */
+    public long[] times() {
+        long[] times = new long[size];
+        int oldest = (next - size + ring.length) % ring.length;
+        for (int i = 0; i < size; i++) {
+            times[i] = ring[(oldest + i) % ring.length];
+        }
+        return times;
+    }
+
+    public double mean() {
+        long[] times = times();
+        double total = 0;
+        for (long time : times) {
+            total += time;
+        }
+        return total / times.length;
+    }
+
+    /**
+     * population variance of remembered times, zero when only one run is known
+     */
+    public double variance() {
+        long[] times = times();
+        double mean = mean();
+        double squaredDeviations = 0;
+        for (long time : times) {
+            squaredDeviations += (time - mean) * (time - mean);
+        }
+        return squaredDeviations / times.length;
+    }
+
+    public int runs() {
+        return size;
+    }
+
+    public SuiteTimeEntry aggregate(Aggregate aggregate) {
+        long[] sortedTimes = times();
+        Arrays.sort(sortedTimes);
+        return new SuiteTimeEntry(name, aggregate.of(sortedTimes));
+    }
+
+    public String dump() {
+        return toString() + "\n";
+    }
+
+    public static List<SuiteTimeHistoryEntry> parse(String buffer) {
+        List<SuiteTimeHistoryEntry> entries = new ArrayList<SuiteTimeHistoryEntry>();
+        for (String entryString : buffer.split("\n")) {
+            if (entryString.trim().length() > 0) entries.add(parseSingleEntry(entryString));
+        }
+        return entries;
+    }
+
+    /**
+     * remembers exactly as many runs as the string has
+     */
+    public static SuiteTimeHistoryEntry parseSingleEntry(String entryString) {
+        return parseSingleEntry(entryString, -1);
+    }
+
+    public static SuiteTimeHistoryEntry parseSingleEntry(String entryString, int capacity) {
+        Matcher matcher = SUITE_TIME_HISTORY_PATTERN.matcher(entryString);
+        if (! matcher.matches()) {
+            throw new IllegalArgumentException(String.format("failed to parse '%s' as %s", entryString, SuiteTimeHistoryEntry.class.getSimpleName()));
+        }
+        String[] times = matcher.group(2).split(TIME_SEPARATOR);
+        SuiteTimeHistoryEntry entry = new SuiteTimeHistoryEntry(matcher.group(1), capacity < 0 ? times.length : capacity);
+        for (String time : times) {
+            entry = entry.record(Long.parseLong(time.trim()));
+        }
+        return entry;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        SuiteTimeHistoryEntry that = (SuiteTimeHistoryEntry) o;
+
+        if (name != null ? !name.equals(that.name) : that.name != null) return false;
+
+        return Arrays.equals(times(), that.times());
+    }
+
+    @Override
+    public int hashCode() {
+        int result = name != null ? name.hashCode() : 0;
+        result = 31 * result + Arrays.hashCode(times());
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(name).append(": ");
+        long[] times = times();
+        for (int i = 0; i < times.length; i++) {
+            if (i > 0) builder.append(TIME_SEPARATOR);
+            builder.append(times[i]);
+        }
+        return builder.toString();
+    }
+}
@@ -27,6 +27,15 @@ public class FileUtil {
         return tmpDir.getAbsolutePath();
     }
 
+    /**
+     * directory under tlb tmp parent that is not scoped by environment digest, hence is visible to every tlb process on the machine
+     */
+    public String sharedTmpDir(String name) {
+        File sharedDir = new File(env.sharedTmpDir(name));
+        createDirIfNecessary(sharedDir);
+        return sharedDir.getAbsolutePath();
+    }
+
     private void createDirIfNecessary(final File tmpDirectory) {
         final String tmpDir = tmpDirectory.getAbsolutePath();
         logger.info(String.format("checking for existance of directory %s as tlb tmpdir", tmpDir));
@@ -114,12 +114,20 @@ public class SystemEnvironment {
     }
 
     String tmpDir() {
+        return new File(tmpParent(), getDigest()).getAbsolutePath();
+    }
+
+    String sharedTmpDir(String name) {
+        return new File(tmpParent(), name).getAbsolutePath();
+    }
+
+    private String tmpParent() {
         String tmpParent = val(new EnvVar(TLB_TMP_DIR));
         if (tmpParent == null) {
             tmpParent = System.getProperty(SystemEnvironment.TMP_DIR);
             logger.warn(String.format("defaulting tlb tmp directory to %s", tmpParent));
         }
         logger.info(String.format("using %s as tlb temp directory", tmpParent));
-        return new File(tmpParent, getDigest()).getAbsolutePath();
+        return tmpParent;
     }
 }
@@ -0,0 +1,51 @@
+package tlb.domain;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static junit.framework.Assert.fail;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class PartitionSpeedEntryTest {
+    @Test
+    public void shouldMeasureSpeedAsPercentageOfPredictedTime() {
+        assertThat(PartitionSpeedEntry.measured(3, 200, 300), is(new PartitionSpeedEntry(3, 150)));
+        assertThat(PartitionSpeedEntry.measured(1, 300, 200), is(new PartitionSpeedEntry(1, 67)));
+        assertThat(PartitionSpeedEntry.measured(1, 300, 0), is(new PartitionSpeedEntry(1, 1)));
+    }
+
+    @Test
+    public void shouldUnderstandCapacityAsInverseOfSlowdown() {
+        assertThat(new PartitionSpeedEntry(1, 100).capacity(), is(1.0));
+        assertThat(new PartitionSpeedEntry(1, 200).capacity(), is(0.5));
+        assertThat(new PartitionSpeedEntry(1, 50).capacity(), is(2.0));
+        assertThat(new PartitionSpeedEntry(1, 0).capacity(), is(1.0));
+    }
+
+    @Test
+    public void shouldSmoothenWithRespectToNewMeasurement() {
+        PartitionSpeedEntry speed = new PartitionSpeedEntry(2, 100);
+        assertThat(speed.smoothedWrt(new PartitionSpeedEntry(2, 200), 0.5), is(new PartitionSpeedEntry(2, 150)));
+        assertThat(speed.smoothedWrt(new PartitionSpeedEntry(2, 200), 1.0), is(new PartitionSpeedEntry(2, 200)));
+        assertThat(speed.getPercentOfPredictedTime(), is(100l));
+    }
+
+    @Test
+    public void shouldBombIfNewDatapointIsForDifferentPartition() {
+        try {
+            new PartitionSpeedEntry(2, 100).smoothedWrt(new PartitionSpeedEntry(3, 120), 0.5);
+            fail("should have bombed for data point from a different partition");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("partition 2 can not be smoothed with data point from partition 3"));
+        }
+    }
+
+    @Test
+    public void shouldParseAndDumpItself() {
+        assertThat(PartitionSpeedEntry.parse("1: 80\n2: 125\n"), is(Arrays.asList(new PartitionSpeedEntry(1, 80), new PartitionSpeedEntry(2, 125))));
+        assertThat(PartitionSpeedEntry.parseSingleEntry("3: 95").dump(), is("3: 95\n"));
+        assertThat(PartitionSpeedEntry.parse(Arrays.asList("4: 110")), is(Arrays.asList(new PartitionSpeedEntry("4", 110))));
+    }
+}
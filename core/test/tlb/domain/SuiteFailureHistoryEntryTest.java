@@ -0,0 +1,68 @@
+package tlb.domain;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static junit.framework.Assert.fail;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class SuiteFailureHistoryEntryTest {
+
+    @Test
+    public void shouldRememberWhichRunsFailed_mostRecentRunBeingTheLowestBit() {
+        SuiteFailureHistoryEntry entry = new SuiteFailureHistoryEntry("foo/Bar.class").record(true, 0.5).record(false, 0.5).record(true, 0.5);
+        assertThat(entry.getFailedRuns(), is(5l));
+        assertThat(entry.failedRunsAgo(0), is(true));
+        assertThat(entry.failedRunsAgo(1), is(false));
+        assertThat(entry.failedRunsAgo(2), is(true));
+        assertThat(entry.failedRunsAgo(64), is(false));
+        assertThat(entry.failureCount(), is(2));
+    }
+
+    @Test
+    public void shouldDecayFailureScoreWithEveryRun() {
+        SuiteFailureHistoryEntry entry = new SuiteFailureHistoryEntry("foo/Bar.class").record(true, 0.5);
+        assertThat(entry.getScore(), is(1.0));
+        entry = entry.record(false, 0.5);
+        assertThat(entry.getScore(), is(0.5));
+        entry = entry.record(true, 0.5);
+        assertThat(entry.getScore(), is(1.25));
+    }
+
+    @Test
+    public void shouldForgetRunsOlderThanSixtyFourRuns() {
+        SuiteFailureHistoryEntry entry = new SuiteFailureHistoryEntry("foo/Bar.class").record(true, 0.5);
+        for (int i = 0; i < 63; i++) {
+            entry = entry.record(false, 0.5);
+        }
+        assertThat(entry.failedRunsAgo(63), is(true));
+        assertThat(entry.record(false, 0.5).getFailedRuns(), is(0l));
+    }
+
+    @Test
+    public void shouldNotMutateEntryWhileRecording() {
+        SuiteFailureHistoryEntry entry = new SuiteFailureHistoryEntry("foo/Bar.class");
+        entry.record(true, 0.5);
+        assertThat(entry, is(new SuiteFailureHistoryEntry("foo/Bar.class", 0l, 0.0)));
+    }
+
+    @Test
+    public void shouldDumpAndParse() {
+        SuiteFailureHistoryEntry entry = new SuiteFailureHistoryEntry("foo/Bar.class", 0x8000000000000005l, 1.25);
+        assertThat(entry.dump(), is("foo/Bar.class: 8000000000000005: 1.25\n"));
+        assertThat(SuiteFailureHistoryEntry.parseSingleEntry("foo/Bar.class: 8000000000000005: 1.25"), is(entry));
+        assertThat(SuiteFailureHistoryEntry.parse("foo/Bar.class: 8000000000000005: 1.25\n\nfoo/Baz.class: 0: 0.0\n"), is(Arrays.asList(entry, new SuiteFailureHistoryEntry("foo/Baz.class"))));
+    }
+
+    @Test
+    public void shouldBombWhenEntryCanNotBeParsed() {
+        try {
+            SuiteFailureHistoryEntry.parseSingleEntry("foo/Bar.class: 1");
+            fail("should not have parsed entry without score");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("failed to parse 'foo/Bar.class: 1' as SuiteFailureHistoryEntry"));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package tlb.domain;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static tlb.domain.SuiteTimeHistoryEntry.Aggregate.*;
+
+public class SuiteTimeHistoryEntryTest {
+    private SuiteTimeHistoryEntry entryWith(int capacity, long... times) {
+        SuiteTimeHistoryEntry entry = new SuiteTimeHistoryEntry("foo.bar.Baz", capacity);
+        for (long time : times) {
+            entry = entry.record(time);
+        }
+        return entry;
+    }
+
+    @Test
+    public void shouldRememberOnlyLastFewTimesOldestFirst() {
+        assertThat(entryWith(3, 10, 20).times(), is(new long[]{10, 20}));
+        assertThat(entryWith(3, 10, 20, 30, 40, 50).times(), is(new long[]{30, 40, 50}));
+    }
+
+    @Test
+    public void shouldNotMutateEntryWhenRecordingNewTime() {
+        SuiteTimeHistoryEntry entry = entryWith(2, 10, 20);
+        entry.record(30);
+        assertThat(entry.times(), is(new long[]{10, 20}));
+    }
+
+    @Test
+    public void shouldAggregateTimesIntoMedian() {
+        assertThat(entryWith(10, 40, 10, 30).aggregate(MEDIAN), is(new SuiteTimeEntry("foo.bar.Baz", 30)));
+        assertThat(entryWith(10, 40, 10, 30, 15).aggregate(MEDIAN), is(new SuiteTimeEntry("foo.bar.Baz", 23)));
+    }
+
+    @Test
+    public void shouldAggregateTimesIntoMeanAfterDroppingExtremes() {
+        assertThat(entryWith(10, 10, 12, 14, 1000, 1).aggregate(TRIMMED_MEAN), is(new SuiteTimeEntry("foo.bar.Baz", 12)));
+        assertThat(entryWith(10, 10, 20).aggregate(TRIMMED_MEAN), is(new SuiteTimeEntry("foo.bar.Baz", 15)));
+    }
+
+    @Test
+    public void shouldAggregateTimesInto90thPercentile() {
+        assertThat(entryWith(10, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10).aggregate(P90), is(new SuiteTimeEntry("foo.bar.Baz", 9)));
+        assertThat(entryWith(10, 7).aggregate(P90), is(new SuiteTimeEntry("foo.bar.Baz", 7)));
+        assertThat(entryWith(10, 3, 1, 2).aggregate(P90), is(new SuiteTimeEntry("foo.bar.Baz", 3)));
+    }
+
+    @Test
+    public void shouldUnderstandAggregateNames() {
+        assertThat(SuiteTimeHistoryEntry.Aggregate.named("median"), is(MEDIAN));
+        assertThat(SuiteTimeHistoryEntry.Aggregate.named("trimmed_mean"), is(TRIMMED_MEAN));
+        assertThat(SuiteTimeHistoryEntry.Aggregate.named("p90"), is(P90));
+    }
+
+    @Test
+    public void shouldDumpAndParseEntry() {
+        SuiteTimeHistoryEntry entry = entryWith(3, 10, 20, 30, 40);
+        assertThat(entry.dump(), is("foo.bar.Baz: 20,30,40\n"));
+        assertThat(SuiteTimeHistoryEntry.parseSingleEntry("foo.bar.Baz: 20,30,40", 3), is(entry));
+        assertThat(SuiteTimeHistoryEntry.parseSingleEntry("foo.bar.Baz: 20, 30, 40", 2).times(), is(new long[]{30, 40}));
+    }
+
+    @Test
+    public void shouldResizeKeepingLatestTimes() {
+        SuiteTimeHistoryEntry entry = entryWith(4, 10, 20, 30, 40);
+        assertThat(entry.resizedTo(2).times(), is(new long[]{30, 40}));
+        assertThat(entry.resizedTo(6).record(50).times(), is(new long[]{10, 20, 30, 40, 50}));
+    }
+
+    @Test
+    public void shouldUnderstandMeanAndVarianceOfRememberedTimes() {
+        SuiteTimeHistoryEntry entry = entryWith(3, 1000, 10, 20, 30);
+        assertThat(entry.runs(), is(3));
+        assertThat(entry.mean(), is(20.0));
+        assertThat(entry.variance(), is(200.0 / 3));
+        assertThat(entryWith(3, 42).variance(), is(0.0));
+    }
+
+    @Test
+    public void shouldParseEntriesRememberingAsManyRunsAsGiven() {
+        List<SuiteTimeHistoryEntry> entries = SuiteTimeHistoryEntry.parse("foo.bar.Baz: 20,30,40\nfoo.bar.Quux: 7\n");
+        assertThat(entries.size(), is(2));
+        assertThat(entries.get(0), is(entryWith(3, 20, 30, 40)));
+        assertThat(entries.get(0).record(50).times(), is(new long[]{30, 40, 50}));
+        assertThat(entries.get(1).getName(), is("foo.bar.Quux"));
+        assertThat(entries.get(1).times(), is(new long[]{7}));
+    }
+
+    @Test
+    public void shouldFailWhenCanNotParseSingleEntry() {
+        try {
+            SuiteTimeHistoryEntry.parseSingleEntry("foo.bar.Baz: abc", 3);
+            fail("should have failed as entry is unparsable");
+        } catch (Exception e) {
+            assertThat(e.getMessage(), is("failed to parse 'foo.bar.Baz: abc' as SuiteTimeHistoryEntry"));
+        }
+    }
+}
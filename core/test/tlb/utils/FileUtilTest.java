@@ -95,6 +95,20 @@ public class FileUtilTest {
         logFixture.assertHeard(String.format("directory %s exists, creation not required", javaTmpDir));
     }
 
+    @Test
+    public void shouldCreateSharedTmpDirUnderTmpParentIndependentOfEnvironmentDigest() throws Exception{
+        HashMap<String, String> otherEnv = new HashMap<String, String>();
+        otherEnv.put(TlbConstants.TLB_TMP_DIR, overriddenTmpDirParent);
+        otherEnv.put("SOME_PARTITION_SPECIFIC_VAR", "partition-2");
+        FileUtil otherFileUtil = new FileUtil(new SystemEnvironment(otherEnv));
+
+        String sharedDir = fileUtil.sharedTmpDir("shared_foo");
+        assertThat(sharedDir, is(new File(overriddenTmpDirParent, "shared_foo").getAbsolutePath()));
+        assertThat(new File(sharedDir).isDirectory(), is(true));
+        assertThat(otherFileUtil.sharedTmpDir("shared_foo"), is(sharedDir));
+        FileUtils.deleteQuietly(new File(sharedDir));
+    }
+
     @Test
     public void shouldFailIfFindsAFileInPlaceOfDirectoryForTmpDir() throws Exception{
         FileUtils.writeStringToFile(new File(overriddenTmpDir), "hello world");
@@ -0,0 +1,86 @@
+package tlb.server;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.restlet.Component;
+import tlb.TestUtil;
+import tlb.TlbConstants;
+import tlb.service.http.DefaultHttpAction;
+import tlb.utils.SystemEnvironment;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * starts a real tlb server with non-blocking connector and has a pipeline stage worth of partitions hit it at once
+ */
+public class NioConnectorLoadTest {
+    private static final int PARTITIONS = 1000;
+
+    private static Component component;
+    private static File tmpDir;
+    private static String freePort;
+
+    @BeforeClass
+    public static void startTlbServer() throws Exception {
+        HashMap<String, String> serverEnv = new HashMap<String, String>();
+        freePort = TestUtil.findFreePort();
+        serverEnv.put(TlbConstants.Server.TLB_SERVER_PORT.key, freePort);
+        tmpDir = TestUtil.createTmpDir();
+        serverEnv.put(TlbConstants.Server.TLB_DATA_DIR.key, tmpDir.getAbsolutePath());
+        serverEnv.put(TlbConstants.Server.TLB_SERVER_CONNECTOR.key, "nio");
+        serverEnv.put(TlbConstants.Server.TLB_SERVER_MAX_WORKER_THREADS.key, "64");
+        component = new TlbServerInitializer(new SystemEnvironment(serverEnv)).init();
+        component.start();
+    }
+
+    @AfterClass
+    public static void shutDownTlbServer() throws Exception {
+        component.stop();
+        FileUtils.deleteQuietly(tmpDir);
+    }
+
+    @Test
+    public void shouldServeAThousandPartitionsConnectingInTheSameSecond() throws InterruptedException {
+        final String baseUrl = String.format("http://localhost:%s/load-job", freePort);
+        final CountDownLatch startTogether = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(PARTITIONS);
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+        final List<String> subsetSizes = Collections.synchronizedList(new ArrayList<String>());
+
+        for (int i = 1; i <= PARTITIONS; i++) {
+            final int partition = i;
+            new Thread(new Runnable() {
+                public void run() {
+                    DefaultHttpAction httpAction = new DefaultHttpAction();
+                    try {
+                        startTogether.await();
+                        httpAction.put(String.format("%s-%s/%s", baseUrl, partition, TlbConstants.Server.EntryRepoFactory.SUBSET_SIZE), String.valueOf(partition));
+                        subsetSizes.add(httpAction.get(String.format("%s-%s/%s", baseUrl, partition, TlbConstants.Server.EntryRepoFactory.SUBSET_SIZE)).trim());
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }, "partition-" + partition).start();
+        }
+
+        startTogether.countDown();
+        assertTrue("partitions did not get through in a minute", done.await(1, TimeUnit.MINUTES));
+
+        assertThat(failures.toString(), failures.isEmpty(), is(true));
+        assertThat(subsetSizes.size(), is(PARTITIONS));
+    }
+}
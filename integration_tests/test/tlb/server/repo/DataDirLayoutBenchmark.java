@@ -0,0 +1,98 @@
+package tlb.server.repo;
+
+import org.apache.commons.io.FileUtils;
+import tlb.TestUtil;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * compares create and open latency of repo dumps in flat data dir against sharded one, at a million files by default
+ *
+ * run with: java -cp <test classpath> tlb.server.repo.DataDirLayoutBenchmark [number-of-files] [number-of-opens]
+ * (not a junit test, takes minutes and a few GB of inodes)
+ */
+public class DataDirLayoutBenchmark {
+    private static final byte[] DUMP = "foo.bar.Baz: 10\nfoo.bar.Quux: 20\n".getBytes();
+
+    private interface Layout {
+        File fileForWriting(String identifier);
+
+        File fileFor(String identifier);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int files = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int opens = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+        File tmpDir = TestUtil.createTmpDir();
+        try {
+            final File flatRoot = new File(tmpDir, "flat");
+            flatRoot.mkdirs();
+            run("flat", files, opens, new Layout() {
+                public File fileForWriting(String identifier) {
+                    return new File(flatRoot, identifier);
+                }
+
+                public File fileFor(String identifier) {
+                    return new File(flatRoot, identifier);
+                }
+            });
+            FileUtils.deleteQuietly(flatRoot);
+
+            final ShardedDataDir sharded = new ShardedDataDir(new File(tmpDir, "sharded"));
+            run("sharded", files, opens, new Layout() {
+                public File fileForWriting(String identifier) {
+                    return sharded.fileForWriting(identifier);
+                }
+
+                public File fileFor(String identifier) {
+                    return sharded.fileFor(identifier);
+                }
+            });
+        } finally {
+            FileUtils.deleteQuietly(tmpDir);
+        }
+    }
+
+    private static void run(String name, int files, int opens, Layout layout) throws IOException {
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < files; i++) {
+            FileOutputStream out = new FileOutputStream(layout.fileForWriting(identifier(i)));
+            try {
+                out.write(DUMP);
+            } finally {
+                out.close();
+            }
+        }
+        long createNanos = System.nanoTime() - startedAt;
+
+        Random random = new Random(42);
+        byte[] buffer = new byte[DUMP.length];
+        startedAt = System.nanoTime();
+        for (int i = 0; i < opens; i++) {
+            FileInputStream in = new FileInputStream(layout.fileFor(identifier(random.nextInt(files))));
+            try {
+                in.read(buffer);
+            } finally {
+                in.close();
+            }
+        }
+        long openNanos = System.nanoTime() - startedAt;
+
+        startedAt = System.nanoTime();
+        for (int i = 0; i < opens; i++) {
+            layout.fileFor(identifier(files + i)).exists();
+        }
+        long missNanos = System.nanoTime() - startedAt;
+
+        System.out.println(String.format("%s: %s files, create %.1f us/file, open+read %.1f us/file, lookup of missing %.1f us/file",
+                name, files, createNanos / 1000.0 / files, openNanos / 1000.0 / opens, missNanos / 1000.0 / opens));
+    }
+
+    private static String identifier(int i) {
+        return String.format("job-%s_version-%s_universal__set_module-%s", i % 1000, i, i % 7);
+    }
+}
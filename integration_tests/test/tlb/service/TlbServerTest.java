@@ -9,8 +9,11 @@ import tlb.TestUtil;
 import tlb.TlbConstants;
 import tlb.TlbSuiteFile;
 import tlb.TlbSuiteFileImpl;
+import tlb.domain.PartitionSpeedEntry;
+import tlb.domain.SuiteFailureHistoryEntry;
 import tlb.domain.SuiteResultEntry;
 import tlb.domain.SuiteTimeEntry;
+import tlb.domain.SuiteTimeHistoryEntry;
 import tlb.server.ServerInitializer;
 import tlb.server.TlbServerInitializer;
 import tlb.service.http.DefaultHttpAction;
@@ -230,6 +233,48 @@ public class TlbServerTest {
         Assert.assertThat(entryList, JUnitMatchers.hasItem(new SuiteTimeEntry("com.foo.Bang", 103)));
     }
 
+    @Test
+    public void shouldBeAbleToFetchSuiteTimesAggregatedOverRecentRuns() throws NoSuchFieldException, IllegalAccessException {
+        final String url = String.format("http://localhost:%s/agg-job/suite_time", freePort);
+        updateEnv(env, TlbConstants.TlbServer.TLB_JOB_NAME, "agg-job");
+        updateEnv(env, TlbConstants.TlbServer.TLB_SUITE_TIME_AGGREGATE, "median");
+        server = makeTlbServer(env);
+        httpAction.put(url, "com.foo.Foo: 10\ncom.bar.Bar: 12\n");
+        httpAction.put(url, "com.foo.Foo: 900\ncom.bar.Bar: 14\n");
+        httpAction.put(url, "com.foo.Foo: 14\ncom.bar.Bar: 13\n");
+
+        List<SuiteTimeEntry> entryList = server.getLastRunTestTimes();
+        Assert.assertThat(entryList.size(), Is.is(2));
+        Assert.assertThat(entryList, JUnitMatchers.hasItem(new SuiteTimeEntry("com.foo.Foo", 14)));
+        Assert.assertThat(entryList, JUnitMatchers.hasItem(new SuiteTimeEntry("com.bar.Bar", 13)));
+    }
+
+    @Test
+    public void shouldBeAbleToFetchSuiteTimeHistoryOverRecentRuns() throws NoSuchFieldException, IllegalAccessException {
+        final String url = String.format("http://localhost:%s/hist-job/suite_time", freePort);
+        updateEnv(env, TlbConstants.TlbServer.TLB_JOB_NAME, "hist-job");
+        server = makeTlbServer(env);
+        httpAction.put(url, "com.foo.Foo: 10\ncom.bar.Bar: 12\n");
+        httpAction.put(url, "com.foo.Foo: 900\n");
+
+        List<SuiteTimeHistoryEntry> history = server.getLastRunTestTimeHistory();
+        Assert.assertThat(history.size(), Is.is(2));
+        Assert.assertThat(history, JUnitMatchers.hasItem(SuiteTimeHistoryEntry.parseSingleEntry("com.foo.Foo: 10,900")));
+        Assert.assertThat(history, JUnitMatchers.hasItem(SuiteTimeHistoryEntry.parseSingleEntry("com.bar.Bar: 12")));
+    }
+
+    @Test
+    public void shouldBeAbleToFetchDecayedSuiteFailureHistory() throws NoSuchFieldException, IllegalAccessException {
+        final String url = String.format("http://localhost:%s/fail-hist-job/suite_result", freePort);
+        updateEnv(env, TlbConstants.TlbServer.TLB_JOB_NAME, "fail-hist-job");
+        server = makeTlbServer(env);
+        httpAction.put(url, "com.foo.Foo: true\ncom.bar.Bar: true\ncom.baz.Baz: false\n");
+        httpAction.put(url, "com.foo.Foo: true\ncom.bar.Bar: false\ncom.baz.Baz: false\n");
+
+        List<SuiteFailureHistoryEntry> history = server.getSuiteFailureHistory();
+        Assert.assertThat(history, Is.is(Arrays.asList(new SuiteFailureHistoryEntry("com.foo.Foo", 3l, 1.5), new SuiteFailureHistoryEntry("com.bar.Bar", 2l, 0.5))));
+    }
+
     @Test
     public void shouldBeAbleToFetchSuiteResults() throws NoSuchFieldException, IllegalAccessException {
         final String url = String.format("http://localhost:%s/job/suite_result", freePort);
@@ -488,6 +533,67 @@ public class TlbServerTest {
         assertThat(validationResult.hasFailed(), is(true));
     }
 
+    @Test
+    public void shouldPostAndFetchPartitionSpeeds() {
+        clientEnv.put(TlbConstants.TlbServer.TLB_JOB_NAME, "speed_job");
+        server.postPartitionSpeedToServer(new PartitionSpeedEntry(4, 130));
+        server.postPartitionSpeedToServer(new PartitionSpeedEntry(5, 90));
+        server.postPartitionSpeedToServer(new PartitionSpeedEntry(4, 120));
+        List<PartitionSpeedEntry> speeds = server.getPartitionSpeeds();
+        assertThat(speeds.size(), is(2));
+        assertThat(speeds, hasItem(new PartitionSpeedEntry(4, 120)));
+        assertThat(speeds, hasItem(new PartitionSpeedEntry(5, 90)));
+    }
+
+    @Test
+    public void shouldHandOutQueuedSuitesSlowestFirst_toPartitionsAskingForMoreWork() throws IllegalAccessException {
+        clientEnv.put(TlbConstants.TlbServer.TLB_JOB_NAME, "queued_job");
+        server = makeTlbServer(env);
+        server.subsetSizeRepository.appendLine("4\n");
+        server.testClassTime("com.foo.Foo", 10);
+        server.testClassTime("com.bar.Bar", 40);
+        server.testClassTime("com.baz.Baz", 30);
+        server.testClassTime("com.quux.Quux", 20);
+        server = makeTlbServer(env);
+        ArrayList<TlbSuiteFile> files = new ArrayList<TlbSuiteFile>();
+        files.add(new TlbSuiteFileImpl("com.foo.Foo"));
+        files.add(new TlbSuiteFileImpl("com.bar.Bar"));
+        files.add(new TlbSuiteFileImpl("com.baz.Baz"));
+        files.add(new TlbSuiteFileImpl("com.quux.Quux"));
+        files.add(new TlbSuiteFileImpl("com.hello.World"));
+
+        ValidationResult validationResult = server.defineSuiteQueue(files, "foo-module");
+        assertThat(validationResult.getMessage(), is("Suite queue defined."));
+        assertThat((ValidationResult.Status) TestUtil.deref("status", validationResult), is(ValidationResult.Status.FIRST));
+
+        incrementPartitionNumber();
+        TlbServer otherPartition = makeTlbServer(env);
+        validationResult = otherPartition.defineSuiteQueue(files, "foo-module");
+        assertThat(validationResult.getMessage(), is("Suite queue matched."));
+        assertThat((ValidationResult.Status) TestUtil.deref("status", validationResult), is(ValidationResult.Status.OK));
+
+        assertThat(server.claimSuites("foo-module", 2), is(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("com.bar.Bar"), new TlbSuiteFileImpl("com.baz.Baz"))));
+        assertThat(otherPartition.claimSuites("foo-module", 2), is(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("com.hello.World"), new TlbSuiteFileImpl("com.quux.Quux"))));
+        assertThat(server.claimSuites("foo-module", 2), is(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("com.foo.Foo"))));
+        assertThat(otherPartition.claimSuites("foo-module", 2).isEmpty(), is(true));
+        assertThat(server.claimSuites("bar-module", 2).isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldReturnFailure_whenSuiteQueueDefinitionMismatches() throws IllegalAccessException {
+        ArrayList<TlbSuiteFile> files = new ArrayList<TlbSuiteFile>();
+        files.add(new TlbSuiteFileImpl("com.foo.Foo"));
+        files.add(new TlbSuiteFileImpl("com.bar.Bar"));
+        server.defineSuiteQueue(files, "foo-module");
+
+        files.remove(0);
+        incrementPartitionNumber();
+        ValidationResult validationResult = makeTlbServer(env).defineSuiteQueue(files, "foo-module");
+
+        assertThat(validationResult.hasFailed(), is(true));
+        assertThat(validationResult.getMessage(), is("Expected universal set was [com.bar.Bar, com.foo.Foo] but given [com.bar.Bar].\n"));
+    }
+
     private void incrementPartitionNumber() {
         clientEnv.put(TlbConstants.TlbServer.TLB_PARTITION_NUMBER, String.valueOf(Integer.parseInt(partitionNumber) + 1));
     }
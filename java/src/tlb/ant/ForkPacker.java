@@ -0,0 +1,85 @@
+package tlb.ant;
+
+import tlb.TlbSuiteFile;
+import tlb.domain.SuiteTimeEntry;
+import tlb.service.Server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @understands splitting suites of a partition further into time balanced batches, one for each local fork
+ */
+public class ForkPacker {
+    private final Server server;
+    private Map<String, Long> suiteTimes;
+    private long meanTime;
+
+    public ForkPacker(Server server) {
+        this.server = server;
+    }
+
+    /**
+     * packs longest suites first, each in the least loaded fork, so every fork gets the same batches irrespective of which one asks.
+     * @return suites of given fork(1 based), in the order they were given
+     */
+    public List<TlbSuiteFile> batch(List<TlbSuiteFile> suiteFiles, int forks, int forkNumber) {
+        if (forkNumber < 1 || forkNumber > forks) {
+            throw new IllegalArgumentException(String.format("fork number must be between 1 and %s, was %s", forks, forkNumber));
+        }
+        final Map<TlbSuiteFile, Integer> givenPosition = new HashMap<TlbSuiteFile, Integer>();
+        for (int i = 0; i < suiteFiles.size(); i++) {
+            givenPosition.put(suiteFiles.get(i), i);
+        }
+        List<TlbSuiteFile> longestFirst = new ArrayList<TlbSuiteFile>(suiteFiles);
+        Collections.sort(longestFirst, new Comparator<TlbSuiteFile>() {
+            public int compare(TlbSuiteFile o1, TlbSuiteFile o2) {
+                long time1 = timeOf(o1);
+                long time2 = timeOf(o2);
+                return time1 > time2 ? -1 : (time1 == time2 ? 0 : 1);
+            }
+        });
+        long[] forkLoads = new long[forks];
+        List<TlbSuiteFile> batch = new ArrayList<TlbSuiteFile>();
+        for (TlbSuiteFile suiteFile : longestFirst) {
+            int leastLoaded = 0;
+            for (int i = 1; i < forks; i++) {
+                if (forkLoads[i] < forkLoads[leastLoaded]) leastLoaded = i;
+            }
+            forkLoads[leastLoaded] += timeOf(suiteFile);
+            if (leastLoaded == forkNumber - 1) batch.add(suiteFile);
+        }
+        Collections.sort(batch, new Comparator<TlbSuiteFile>() {
+            public int compare(TlbSuiteFile o1, TlbSuiteFile o2) {
+                return givenPosition.get(o1) - givenPosition.get(o2);
+            }
+        });
+        return batch;
+    }
+
+    /**
+     * suites with no history are taken to run for mean time of known suites, and for a unit of time when nothing is known, so they still get spread across forks
+     */
+    long timeOf(TlbSuiteFile suiteFile) {
+        if (suiteTimes == null) {
+            loadSuiteTimes();
+        }
+        Long time = suiteTimes.get(suiteFile.getName());
+        return time == null ? meanTime : time;
+    }
+
+    private void loadSuiteTimes() {
+        List<SuiteTimeEntry> lastRunTimes = server.getLastRunTestTimes();
+        suiteTimes = new HashMap<String, Long>();
+        long totalTime = 0;
+        for (SuiteTimeEntry entry : lastRunTimes) {
+            suiteTimes.put(entry.getName(), entry.getTime());
+            totalTime += entry.getTime();
+        }
+        meanTime = suiteTimes.isEmpty() ? 1 : Math.max(1, totalTime / lastRunTimes.size());
+    }
+}
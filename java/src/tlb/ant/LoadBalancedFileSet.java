@@ -7,7 +7,9 @@ import tlb.TlbConstants;
 import tlb.TlbFileResource;
 import tlb.TlbSuiteFile;
 import tlb.factory.TlbBalancerFactory;
+import tlb.factory.TlbFactory;
 import tlb.orderer.TestOrderer;
+import tlb.service.PartitionProgress;
 import tlb.splitter.AbstractTestSplitter;
 import tlb.splitter.TestSplitter;
 import tlb.utils.SuiteFileConvertor;
@@ -15,8 +17,10 @@ import tlb.utils.SystemEnvironment;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @understands splitting Junit test classes into groups
@@ -24,18 +28,32 @@ import java.util.List;
 public class LoadBalancedFileSet extends FileSet {
     private static final Logger logger = Logger.getLogger(LoadBalancedFileSet.class.getName());
 
+    private static final Map<String, List<TlbSuiteFile>> forkedSubsets = new HashMap<String, List<TlbSuiteFile>>();
+
     private final TestSplitter criteria;
     private final TestOrderer orderer;
+    private final SystemEnvironment environment;
+    private ForkPacker forkPacker;
+    private PartitionProgress partitionProgress;
     private String moduleName = TlbConstants.Balancer.DEFAULT_MODULE_NAME;
+    private int forks = 1;
+    private int forkNumber = 1;
 
     public LoadBalancedFileSet(TestSplitter criteria, TestOrderer orderer) {
+        this(criteria, orderer, null, null, new SystemEnvironment());
+    }
+
+    LoadBalancedFileSet(TestSplitter criteria, TestOrderer orderer, ForkPacker forkPacker, PartitionProgress partitionProgress, SystemEnvironment environment) {
         this.criteria = criteria;
         this.orderer = orderer;
+        this.forkPacker = forkPacker;
+        this.partitionProgress = partitionProgress;
+        this.environment = environment;
     }
 
     public LoadBalancedFileSet(SystemEnvironment systemEnvironment) {
         this(TlbBalancerFactory.getCriteria(systemEnvironment.val(AbstractTestSplitter.TLB_SPLITTER), systemEnvironment),
-                TlbBalancerFactory.getOrderer(systemEnvironment.val(TestOrderer.TLB_ORDERER), systemEnvironment));
+                TlbBalancerFactory.getOrderer(systemEnvironment.val(TestOrderer.TLB_ORDERER), systemEnvironment), null, null, systemEnvironment);
     }
 
     public LoadBalancedFileSet() {//used by ant
@@ -55,6 +73,24 @@ public class LoadBalancedFileSet extends FileSet {
         final SuiteFileConvertor convertor = new SuiteFileConvertor();
         List<TlbSuiteFile> suiteFiles = convertor.toTlbSuiteFiles(matchedFiles);
 
+        if (forks > 1) {
+            suiteFiles = forkPacker().batch(forkedSubset(suiteFiles), forks, forkNumber);
+            logger.info(String.format("Packed %s suites in fork %s of %s.", suiteFiles.size(), forkNumber, forks));
+        } else {
+            suiteFiles = subset(suiteFiles);
+        }
+        suiteFiles = partitionProgress().remaining(suiteFiles);
+        List<TlbFileResource> matchedTlbFileResources = convertor.toTlbFileResources(suiteFiles);
+
+        List<FileResource> matchedFileResources = new ArrayList<FileResource>();
+        for (TlbFileResource matchedTlbFileResource : matchedTlbFileResources) {
+            JunitFileResource fileResource = (JunitFileResource) matchedTlbFileResource;
+            matchedFileResources.add(fileResource.getFileResource());
+        }
+        return matchedFileResources.iterator();
+    }
+
+    private List<TlbSuiteFile> subset(List<TlbSuiteFile> suiteFiles) {
         if (logger.isInfoEnabled()) {
             logger.info("About to filter tests");
         }
@@ -64,14 +100,61 @@ public class LoadBalancedFileSet extends FileSet {
         }
         Collections.sort(suiteFiles, orderer);
         logger.info("Done ordering.");
-        List<TlbFileResource> matchedTlbFileResources = convertor.toTlbFileResources(suiteFiles);
+        return suiteFiles;
+    }
 
-        List<FileResource> matchedFileResources = new ArrayList<FileResource>();
-        for (TlbFileResource matchedTlbFileResource : matchedTlbFileResources) {
-            JunitFileResource fileResource = (JunitFileResource) matchedTlbFileResource;
-            matchedFileResources.add(fileResource.getFileResource());
+    /**
+     * every fork's fileset asks for the same subset, which is balanced only once per module so the server sees one subset per partition
+     */
+    private List<TlbSuiteFile> forkedSubset(List<TlbSuiteFile> suiteFiles) {
+        List<String> names = new ArrayList<String>();
+        for (TlbSuiteFile suiteFile : suiteFiles) {
+            names.add(suiteFile.getName());
         }
-        return matchedFileResources.iterator();
+        Collections.sort(names);
+        String key = moduleName + names;
+        synchronized (forkedSubsets) {
+            List<TlbSuiteFile> subset = forkedSubsets.get(key);
+            if (subset == null) {
+                subset = subset(suiteFiles);
+                forkedSubsets.put(key, subset);
+            }
+            return new ArrayList<TlbSuiteFile>(subset);
+        }
+    }
+
+    private ForkPacker forkPacker() {
+        if (forkPacker == null) {
+            forkPacker = new ForkPacker(TlbFactory.getTalkToService(environment));
+        }
+        return forkPacker;
+    }
+
+    private PartitionProgress partitionProgress() {
+        if (partitionProgress == null) {
+            partitionProgress = new PartitionProgress(environment);
+        }
+        return partitionProgress;
+    }
+
+    static void forgetForkedSubsets() {
+        synchronized (forkedSubsets) {
+            forkedSubsets.clear();
+        }
+    }
+
+    /**
+     * number of local forks the subset of this partition is to be split into, defaults to 1(not split)
+     */
+    public void setForks(int forks) {
+        this.forks = forks;
+    }
+
+    /**
+     * fork(1 based) whose batch this fileset lists when split across forks
+     */
+    public void setForkNumber(int forkNumber) {
+        this.forkNumber = forkNumber;
     }
 
     public TestSplitter getSplitterCriteria() {
@@ -0,0 +1,68 @@
+package tlb.ant;
+
+import org.junit.Before;
+import org.junit.Test;
+import tlb.TlbSuiteFile;
+import tlb.TlbSuiteFileImpl;
+import tlb.domain.SuiteTimeEntry;
+import tlb.service.Server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static junit.framework.Assert.fail;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class ForkPackerTest {
+    private Server server;
+    private ForkPacker packer;
+
+    @Before
+    public void setUp() {
+        server = mock(Server.class);
+        packer = new ForkPacker(server);
+    }
+
+    @Test
+    public void shouldPackLongestSuitesFirstInLeastLoadedFork_retainingGivenOrderWithinFork() {
+        when(server.getLastRunTestTimes()).thenReturn(Arrays.asList(new SuiteTimeEntry("A.class", 50l), new SuiteTimeEntry("B.class", 40l), new SuiteTimeEntry("C.class", 30l), new SuiteTimeEntry("D.class", 20l), new SuiteTimeEntry("E.class", 10l)));
+        List<TlbSuiteFile> subset = Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("E.class"), new TlbSuiteFileImpl("C.class"), new TlbSuiteFileImpl("A.class"), new TlbSuiteFileImpl("B.class"), new TlbSuiteFileImpl("D.class"));
+
+        assertThat(packer.batch(subset, 2, 1), is(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("E.class"), new TlbSuiteFileImpl("A.class"), new TlbSuiteFileImpl("D.class"))));
+        assertThat(packer.batch(subset, 2, 2), is(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("C.class"), new TlbSuiteFileImpl("B.class"))));
+        verify(server, times(1)).getLastRunTestTimes();
+    }
+
+    @Test
+    public void shouldConsiderSuitesWithNoHistoryToTakeMeanTime() {
+        when(server.getLastRunTestTimes()).thenReturn(Arrays.asList(new SuiteTimeEntry("A.class", 60l), new SuiteTimeEntry("B.class", 20l)));
+        List<TlbSuiteFile> subset = Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class"), new TlbSuiteFileImpl("B.class"), new TlbSuiteFileImpl("New1.class"), new TlbSuiteFileImpl("New2.class"));
+
+        assertThat(packer.batch(subset, 2, 1), is(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class"), new TlbSuiteFileImpl("B.class"))));
+        assertThat(packer.batch(subset, 2, 2), is(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("New1.class"), new TlbSuiteFileImpl("New2.class"))));
+    }
+
+    @Test
+    public void shouldSpreadSuitesEvenly_whenNoHistoryIsAvailable() {
+        when(server.getLastRunTestTimes()).thenReturn(new ArrayList<SuiteTimeEntry>());
+        List<TlbSuiteFile> subset = Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class"), new TlbSuiteFileImpl("B.class"), new TlbSuiteFileImpl("C.class"), new TlbSuiteFileImpl("D.class"), new TlbSuiteFileImpl("E.class"));
+
+        assertThat(packer.batch(subset, 3, 1), is(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class"), new TlbSuiteFileImpl("D.class"))));
+        assertThat(packer.batch(subset, 3, 2), is(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("B.class"), new TlbSuiteFileImpl("E.class"))));
+        assertThat(packer.batch(subset, 3, 3), is(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("C.class"))));
+    }
+
+    @Test
+    public void shouldBombForForkNumberOutsideForks() {
+        try {
+            packer.batch(Arrays.asList((TlbSuiteFile) new TlbSuiteFileImpl("A.class")), 2, 3);
+            fail("should not have allowed fork 3 of 2");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("fork number must be between 1 and 2, was 3"));
+        }
+        verify(server, never()).getLastRunTestTimes();
+    }
+}
@@ -8,8 +8,12 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import tlb.TestUtil;
+import tlb.TlbConstants;
 import tlb.TlbFileResource;
 import tlb.TlbSuiteFile;
+import tlb.domain.SuiteTimeEntry;
+import tlb.service.PartitionProgress;
+import tlb.service.Server;
 import tlb.orderer.TestOrderer;
 import tlb.splitter.CountBasedTestSplitter;
 import tlb.splitter.JobFamilyAwareSplitter;
@@ -26,6 +30,8 @@ import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static tlb.TlbConstants.Go.GO_SERVER_URL;
 import static tlb.TlbConstants.TLB_SPLITTER;
@@ -46,6 +52,7 @@ public class LoadBalancedFileSetTest {
 
     @After
     public void tearDown() {
+        LoadBalancedFileSet.forgetForkedSubsets();
         FileUtils.deleteQuietly(projectDir);
         FileUtils.deleteQuietly(tmpDir);
     }
@@ -122,6 +129,64 @@ public class LoadBalancedFileSetTest {
         }
     }
 
+    @Test
+    public void shouldListOnlySuitesPackedInGivenFork_balancingSubsetOnlyOnceForAllForks() {
+        File slow = TestUtil.createFileInFolder(projectDir, "Slow");
+        File quick = TestUtil.createFileInFolder(projectDir, "Quick");
+        File medium = TestUtil.createFileInFolder(projectDir, "Medium");
+        final SuiteFileConvertor convertor = new SuiteFileConvertor();
+        List<TlbSuiteFile> subset = convertor.toTlbSuiteFiles(Arrays.asList((TlbFileResource) new JunitFileResource(slow), new JunitFileResource(quick), new JunitFileResource(medium)));
+
+        JobFamilyAwareSplitter criteria = mock(JobFamilyAwareSplitter.class);
+        when(criteria.filterSuites(any(List.class), eq("module_foo"))).thenReturn(subset);
+        Server server = mock(Server.class);
+        when(server.getLastRunTestTimes()).thenReturn(Arrays.asList(new SuiteTimeEntry(subset.get(0).getName(), 100l), new SuiteTimeEntry(subset.get(1).getName(), 10l), new SuiteTimeEntry(subset.get(2).getName(), 60l)));
+        ForkPacker packer = new ForkPacker(server);
+
+        assertThat(filesIn(forkFileSet(criteria, packer, 1)), is(Arrays.asList(slow)));
+        assertThat(filesIn(forkFileSet(criteria, packer, 2)), is(Arrays.asList(quick, medium)));
+        verify(criteria, times(1)).filterSuites(any(List.class), eq("module_foo"));
+    }
+
+    @Test
+    public void shouldListOnlySuitesNotRunYet_whenResumingPartition() {
+        File ran = TestUtil.createFileInFolder(projectDir, "Ran");
+        File pending = TestUtil.createFileInFolder(projectDir, "Pending");
+        final SuiteFileConvertor convertor = new SuiteFileConvertor();
+        List<TlbSuiteFile> subset = convertor.toTlbSuiteFiles(Arrays.asList((TlbFileResource) new JunitFileResource(ran), new JunitFileResource(pending)));
+
+        JobFamilyAwareSplitter criteria = mock(JobFamilyAwareSplitter.class);
+        when(criteria.filterSuites(any(List.class), eq("default-module"))).thenReturn(subset);
+        Server server = mock(Server.class);
+        when(server.completedSuiteNames()).thenReturn(Arrays.asList(subset.get(0).getName()));
+        Map<String, String> variables = new HashMap<String, String>();
+        variables.put(TlbConstants.TLB_RESUME_PARTITION.key, "true");
+        SystemEnvironment env = new SystemEnvironment(variables);
+
+        fileSet = new LoadBalancedFileSet(criteria, TestOrderer.NO_OP, null, new PartitionProgress(server, env), env);
+        initFileSet(fileSet);
+
+        assertThat(filesIn(fileSet), is(Arrays.asList(pending)));
+    }
+
+    private LoadBalancedFileSet forkFileSet(JobFamilyAwareSplitter criteria, ForkPacker packer, int forkNumber) {
+        LoadBalancedFileSet forkFileSet = new LoadBalancedFileSet(criteria, TestOrderer.NO_OP, packer, null, new SystemEnvironment());
+        forkFileSet.setModuleName("module_foo");
+        forkFileSet.setForks(2);
+        forkFileSet.setForkNumber(forkNumber);
+        initFileSet(forkFileSet);
+        return forkFileSet;
+    }
+
+    private List<File> filesIn(FileSet fileSet) {
+        List<File> files = new ArrayList<File>();
+        Iterator iterator = fileSet.iterator();
+        while (iterator.hasNext()) {
+            files.add(((FileResource) iterator.next()).getFile());
+        }
+        return files;
+    }
+
     private SystemEnvironment initEnvironment(String strategyName) {
         Map<String, String> map = new HashMap<String, String>();
         map.put(TLB_SPLITTER, strategyName);
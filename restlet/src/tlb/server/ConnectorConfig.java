@@ -0,0 +1,61 @@
+package tlb.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @understands tuning the http connector, either thread per connection or non-blocking with bounded worker pool and accept queue
+ */
+public class ConnectorConfig {
+    static final String TYPE = "type";
+    static final String ACCEPTOR_THREADS = "acceptorThreads";
+    static final String MIN_THREADS = "minThreads";
+    static final String MAX_THREADS = "maxThreads";
+    static final String ACCEPT_QUEUE_SIZE = "acceptQueueSize";
+
+    static final String SELECT_CHANNEL_CONNECTOR_TYPE = "1";//as understood by jetty connector
+    static final String SOCKET_CONNECTOR_TYPE = "3";
+
+    public static enum Mode {
+        blocking,
+        nio
+    }
+
+    private final Mode mode;
+    private final int acceptorThreads;
+    private final int minThreads;
+    private final int maxThreads;
+    private final int acceptQueueSize;
+
+    public ConnectorConfig(Mode mode, int acceptorThreads, int minThreads, int maxThreads, int acceptQueueSize) {
+        if (acceptorThreads < 1 || minThreads < 1 || maxThreads < minThreads || acceptQueueSize < 0) {
+            throw new IllegalArgumentException(String.format("connector needs at least one acceptor and worker thread, no more min than max worker threads and a non-negative accept queue, was acceptors: %s, workers: %s-%s, accept queue: %s", acceptorThreads, minThreads, maxThreads, acceptQueueSize));
+        }
+        this.mode = mode;
+        this.acceptorThreads = acceptorThreads;
+        this.minThreads = minThreads;
+        this.maxThreads = maxThreads;
+        this.acceptQueueSize = acceptQueueSize;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * connector type is always given, as jetty would otherwise pick its non-blocking connector on its own, pools are tuned only in nio mode
+     */
+    public Map<String, String> parameters() {
+        Map<String, String> parameters = new LinkedHashMap<String, String>();
+        if (mode == Mode.nio) {
+            parameters.put(TYPE, SELECT_CHANNEL_CONNECTOR_TYPE);
+            parameters.put(ACCEPTOR_THREADS, String.valueOf(acceptorThreads));
+            parameters.put(MIN_THREADS, String.valueOf(minThreads));
+            parameters.put(MAX_THREADS, String.valueOf(maxThreads));
+            parameters.put(ACCEPT_QUEUE_SIZE, String.valueOf(acceptQueueSize));
+        } else {
+            parameters.put(TYPE, SOCKET_CONNECTOR_TYPE);
+        }
+        return parameters;
+    }
+}
@@ -2,8 +2,11 @@ package tlb.server;
 
 import org.restlet.Component;
 import org.restlet.Restlet;
+import org.restlet.Server;
 import org.restlet.data.Protocol;
 
+import java.util.Map;
+
 /**
  * @understands initializing a restlet application
  */
@@ -13,7 +16,13 @@ public abstract class ServerInitializer {
     public final Component init() {
         if (component == null) {
             component = new Component();
-            component.getServers().add(Protocol.HTTP, appPort());
+            Server server = component.getServers().add(Protocol.HTTP, appPort());
+            ConnectorConfig connectorConfig = connectorConfig();
+            if (connectorConfig != null) {
+                for (Map.Entry<String, String> parameter : connectorConfig.parameters().entrySet()) {
+                    server.getContext().getParameters().add(parameter.getKey(), parameter.getValue());
+                }
+            }
             component.getDefaultHost().attach(application());
         }
         return component;
@@ -22,4 +31,11 @@ public abstract class ServerInitializer {
     protected abstract Restlet application();
 
     protected abstract int appPort();
+
+    /**
+     * null leaves http connector untuned
+     */
+    protected ConnectorConfig connectorConfig() {
+        return null;
+    }
 }
@@ -0,0 +1,52 @@
+package tlb.server;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static junit.framework.Assert.fail;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class ConnectorConfigTest {
+    @Test
+    public void shouldAskForThreadPerConnectionSocketConnectorWithoutTuningIt_inBlockingMode() {
+        Map<String, String> expected = new LinkedHashMap<String, String>();
+        expected.put("type", "3");
+        assertThat(new ConnectorConfig(ConnectorConfig.Mode.blocking, 2, 16, 256, 2048).parameters(), is(expected));
+    }
+
+    @Test
+    public void shouldAskForNonBlockingConnectorWithTunedPoolsAndAcceptQueue() {
+        Map<String, String> expected = new LinkedHashMap<String, String>();
+        expected.put("type", "1");
+        expected.put("acceptorThreads", "4");
+        expected.put("minThreads", "8");
+        expected.put("maxThreads", "128");
+        expected.put("acceptQueueSize", "1000");
+        assertThat(new ConnectorConfig(ConnectorConfig.Mode.nio, 4, 8, 128, 1000).parameters(), is(expected));
+    }
+
+    @Test
+    public void shouldUnderstandModeNames() {
+        assertThat(ConnectorConfig.Mode.valueOf("nio"), is(ConnectorConfig.Mode.nio));
+        assertThat(ConnectorConfig.Mode.valueOf("blocking"), is(ConnectorConfig.Mode.blocking));
+    }
+
+    @Test
+    public void shouldBombWhenPoolsAreNonsensical() {
+        try {
+            new ConnectorConfig(ConnectorConfig.Mode.nio, 1, 16, 8, 100);
+            fail("should not have accepted fewer max than min worker threads");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("connector needs at least one acceptor and worker thread, no more min than max worker threads and a non-negative accept queue, was acceptors: 1, workers: 16-8, accept queue: 100"));
+        }
+        try {
+            new ConnectorConfig(ConnectorConfig.Mode.nio, 0, 1, 8, 100);
+            fail("should not have accepted connector without acceptor");
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.Test;
 import org.restlet.Component;
 import org.restlet.Context;
 import org.restlet.Restlet;
+import org.restlet.Server;
 import org.restlet.data.Protocol;
 import org.restlet.util.RouteList;
 import org.restlet.util.ServerList;
@@ -62,4 +63,38 @@ public class ServerInitializerTest {
         assertThat(serverInitializer.init(), sameInstance(component));
     }
 
+    @Test
+    public void shouldLeaveConnectorUntuned_unlessConfigured() {
+        assertThat(component.getServers().get(0).getContext().getParameters().size(), is(0));
+    }
+
+    @Test
+    public void shouldPassConnectorConfigToHttpServer() {
+        Component tunedComponent = new TestServerInitializer() {
+            @Override
+            protected ConnectorConfig connectorConfig() {
+                return new ConnectorConfig(ConnectorConfig.Mode.nio, 2, 4, 64, 500);
+            }
+        }.init();
+        Server server = tunedComponent.getServers().get(0);
+        assertThat(server.getContext().getParameters().getFirstValue("type"), is("1"));
+        assertThat(server.getContext().getParameters().getFirstValue("acceptorThreads"), is("2"));
+        assertThat(server.getContext().getParameters().getFirstValue("minThreads"), is("4"));
+        assertThat(server.getContext().getParameters().getFirstValue("maxThreads"), is("64"));
+        assertThat(server.getContext().getParameters().getFirstValue("acceptQueueSize"), is("500"));
+    }
+
+    @Test
+    public void shouldPassConnectorTypeToHttpServer_inBlockingMode() {
+        Component blockingComponent = new TestServerInitializer() {
+            @Override
+            protected ConnectorConfig connectorConfig() {
+                return new ConnectorConfig(ConnectorConfig.Mode.blocking, 2, 4, 64, 500);
+            }
+        }.init();
+        Server server = blockingComponent.getServers().get(0);
+        assertThat(server.getContext().getParameters().size(), is(1));
+        assertThat(server.getContext().getParameters().getFirstValue("type"), is("3"));
+    }
+
 }
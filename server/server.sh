@@ -9,6 +9,9 @@
 #Store is the directory under which the test information(running-time, results etc) are stored
 #TLB_DATA_DIR=tlb_store #in current working directory
 
+#Http connector, 'blocking' serves each connection off a thread of its own(jetty socket connector), 'nio' multiplexes connections over a bounded worker pool(jetty select channel connector)
+#TLB_SERVER_CONNECTOR=blocking
+
 
 pid_file=.server.pid
 server_out=server.out
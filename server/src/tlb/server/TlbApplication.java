@@ -4,14 +4,22 @@ import org.restlet.Application;
 import org.restlet.Context;
 import org.restlet.Restlet;
 import org.restlet.Router;
+import tlb.server.resources.PartitionSpeedResource;
+import tlb.server.resources.ReadinessResource;
 import tlb.server.resources.SubsetSizeResource;
+import tlb.server.resources.SuiteFailureHistoryResource;
 import tlb.server.resources.SuiteResultResource;
+import tlb.server.resources.SuiteTimeAggregateResource;
+import tlb.server.resources.SuiteTimeHistoryResource;
 import tlb.server.resources.SuiteTimeResource;
+import tlb.server.resources.VersionedPartitionSpeedResource;
 import tlb.server.resources.VersionedSuiteTimeResource;
 import tlb.server.resources.correctness.HomeResource;
 import tlb.server.resources.correctness.UpdateSubsetResource;
 import tlb.server.resources.correctness.UpdateUniversalSetResource;
 import tlb.server.resources.correctness.VerifyPartitionCompletenessResource;
+import tlb.server.resources.queue.ClaimSuitesResource;
+import tlb.server.resources.queue.SuiteQueueResource;
 
 import static tlb.TlbConstants.Server.EntryRepoFactory.*;
 import static tlb.TlbConstants.Server.*;
@@ -31,18 +39,29 @@ public class TlbApplication extends Application {
 
         router.attachDefault(HomeResource.class);
 
+        router.attach(String.format("/%s", READY), ReadinessResource.class);
+
         router.attach(String.format("/{%s}/%s", REQUEST_NAMESPACE, SUBSET_SIZE), SubsetSizeResource.class);
 
         router.attach(String.format("/{%s}/%s", REQUEST_NAMESPACE, SUITE_RESULT), SuiteResultResource.class);
+        router.attach(String.format("/{%s}/%s", REQUEST_NAMESPACE, SUITE_FAILURE_HISTORY), SuiteFailureHistoryResource.class);
+
+        router.attach(String.format("/{%s}/%s", REQUEST_NAMESPACE, PARTITION_SPEED), PartitionSpeedResource.class);
+        router.attach(String.format("/{%s}/%s/{%s}", REQUEST_NAMESPACE, PARTITION_SPEED, LISTING_VERSION), VersionedPartitionSpeedResource.class);
 
         router.attach(String.format("/{%s}/%s", REQUEST_NAMESPACE, SUITE_TIME), SuiteTimeResource.class);
         router.attach(String.format("/{%s}/%s/{%s}", REQUEST_NAMESPACE, SUITE_TIME, LISTING_VERSION), VersionedSuiteTimeResource.class);
+        router.attach(String.format("/{%s}/%s/{%s}", REQUEST_NAMESPACE, SUITE_TIME_HISTORY, LISTING_VERSION), SuiteTimeHistoryResource.class);
+        router.attach(String.format("/{%s}/%s/{%s}/{%s}", REQUEST_NAMESPACE, SUITE_TIME_HISTORY, LISTING_VERSION, SUITE_TIME_AGGREGATE), SuiteTimeAggregateResource.class);
 
         router.attach(String.format("/{%s}/%s/{%s}/%s/{%s}", REQUEST_NAMESPACE, CORRECTNESS_CHECK, LISTING_VERSION, UNIVERSAL_SET, MODULE_NAME), UpdateUniversalSetResource.class);
         router.attach(String.format("/{%s}/%s/{%s}/{%s}/{%s}/%s/{%s}", REQUEST_NAMESPACE, CORRECTNESS_CHECK, LISTING_VERSION, TOTAL_JOBS, JOB_NUMBER, SUB_SET, MODULE_NAME), UpdateSubsetResource.class);
 
         router.attach(String.format("/{%s}/%s/{%s}/%s/{%s}", REQUEST_NAMESPACE, CORRECTNESS_CHECK, LISTING_VERSION, VERIFY_PARTITION_COMPLETENESS, MODULE_NAME), VerifyPartitionCompletenessResource.class);
 
+        router.attach(String.format("/{%s}/%s/{%s}/%s/{%s}", REQUEST_NAMESPACE, SUITE_QUEUE, LISTING_VERSION, UNIVERSAL_SET, MODULE_NAME), SuiteQueueResource.class);
+        router.attach(String.format("/{%s}/%s/{%s}/{%s}/{%s}/%s/{%s}", REQUEST_NAMESPACE, SUITE_QUEUE, LISTING_VERSION, TOTAL_JOBS, JOB_NUMBER, CLAIM, MODULE_NAME), ClaimSuitesResource.class);
+
         return router;
     }
 }
@@ -2,6 +2,7 @@ package tlb.server;
 
 import tlb.TlbConstants;
 import tlb.server.repo.EntryRepoFactory;
+import tlb.server.repo.RepoWarmUp;
 import tlb.utils.SystemEnvironment;
 import org.restlet.Context;
 import org.restlet.Restlet;
@@ -45,9 +46,25 @@ public class TlbServerInitializer extends ServerInitializer {
 
         repoFactory.registerExitHook();
         appMap.put(TlbConstants.Server.REPO_FACTORY, repoFactory);
+
+        RepoWarmUp warmUp = new RepoWarmUp(repoFactory,
+                Integer.parseInt(env.val(TlbConstants.Server.TLB_REPO_PREWARM_LIMIT)),
+                Integer.parseInt(env.val(TlbConstants.Server.TLB_REPO_PREWARM_THREADS)),
+                Integer.parseInt(env.val(TlbConstants.Server.TLB_REPO_PREWARM_MEMORY_BUDGET_IN_MB)));
+        appMap.put(TlbConstants.Server.REPO_WARM_UP, warmUp);
+        startWarmUp(warmUp);
         applicationContext.setAttributes(appMap);
     }
 
+    /**
+     * warm-up runs in background, so server is listening(and answering readiness checks) while repos load
+     */
+    void startWarmUp(RepoWarmUp warmUp) {
+        Thread warmUpThread = new Thread(warmUp, "tlb-repo-warm-up");
+        warmUpThread.setDaemon(true);
+        warmUpThread.start();
+    }
+
     private void setupTimerForFlushingToDisk(EntryRepoFactory repoFactory) {
         timer.schedule(new SyncToDisk(repoFactory), 0, Integer.parseInt(env.val(TlbConstants.Server.TLB_SYNC_TO_DISK_INTERVAL_IN_MINS)) * MILLS_PER_MINUTE);
     }
@@ -57,7 +74,9 @@ public class TlbServerInitializer extends ServerInitializer {
         if (versionLifeInDays == -1) {
             return;
         }
-        timer.schedule(new Purge(repoFactory, versionLifeInDays), 0, ONCE_A_DAY);
+        timer.schedule(new Purge(repoFactory, versionLifeInDays,
+                Integer.parseInt(env.val(TlbConstants.Server.TLB_PURGE_BATCH_SIZE)),
+                Long.parseLong(env.val(TlbConstants.Server.TLB_PURGE_BATCH_PAUSE_IN_MILLIS))), 0, ONCE_A_DAY);
     }
 
     private int versionLifeInDays() {
@@ -69,6 +88,15 @@ public class TlbServerInitializer extends ServerInitializer {
         return Integer.parseInt(env.val(TlbConstants.Server.TLB_SERVER_PORT));
     }
 
+    @Override
+    protected ConnectorConfig connectorConfig() {
+        return new ConnectorConfig(ConnectorConfig.Mode.valueOf(env.val(TlbConstants.Server.TLB_SERVER_CONNECTOR)),
+                Integer.parseInt(env.val(TlbConstants.Server.TLB_SERVER_ACCEPTOR_THREADS)),
+                Integer.parseInt(env.val(TlbConstants.Server.TLB_SERVER_MIN_WORKER_THREADS)),
+                Integer.parseInt(env.val(TlbConstants.Server.TLB_SERVER_MAX_WORKER_THREADS)),
+                Integer.parseInt(env.val(TlbConstants.Server.TLB_SERVER_ACCEPT_QUEUE_SIZE)));
+    }
+
     EntryRepoFactory repoFactory() {
         return new EntryRepoFactory(env);
     }
@@ -76,15 +104,19 @@ public class TlbServerInitializer extends ServerInitializer {
     static class Purge extends TimerTask {
         private final EntryRepoFactory repoFactory;
         private final int versionLifeInDays;
+        private final int batchSize;
+        private final long pauseBetweenBatches;
 
-        public Purge(EntryRepoFactory repoFactory, int versionLifeInDays) {
+        public Purge(EntryRepoFactory repoFactory, int versionLifeInDays, int batchSize, long pauseBetweenBatches) {
             this.repoFactory = repoFactory;
             this.versionLifeInDays = versionLifeInDays;
+            this.batchSize = batchSize;
+            this.pauseBetweenBatches = pauseBetweenBatches;
         }
 
         @Override
         public void run() {
-            repoFactory.purgeVersionsOlderThan(versionLifeInDays);
+            repoFactory.purgeVersionsOlderThan(versionLifeInDays, batchSize, pauseBetweenBatches);
         }
     }
 
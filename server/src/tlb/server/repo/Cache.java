@@ -1,8 +1,11 @@
 package tlb.server.repo;
 
+import net.sf.ehcache.CacheException;
 import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Ehcache;
 import net.sf.ehcache.Element;
 import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.event.CacheEventListener;
 import net.sf.ehcache.store.MemoryStoreEvictionPolicy;
 
 import java.util.List;
@@ -15,11 +18,22 @@ public class Cache<T> {
     public static final CacheManager CACHE_MANAGER = CacheManager.create();
     private final net.sf.ehcache.Cache cache;
 
+    /**
+     * told about values cache lets go of to stay within its size, on the thread that put the value that made room necessary
+     */
+    public static interface EvictionListener<T> {
+        void evicted(String key, T value);
+    }
+
     public Cache() {
         this(1000);
     }
 
     public Cache(final int maxElementsInMemory) {
+        this(maxElementsInMemory, null);
+    }
+
+    public Cache(final int maxElementsInMemory, final EvictionListener<T> evictionListener) {
         cache = new net.sf.ehcache.Cache(
                 new CacheConfiguration()
                         .name(UUID.randomUUID().toString())
@@ -29,6 +43,9 @@ public class Cache<T> {
                         .eternal(true)
                         .diskPersistent(false));
         CACHE_MANAGER.addCache(cache);
+        if (evictionListener != null) {
+            cache.getCacheEventNotificationService().registerListener(new Evictions<T>(evictionListener));
+        }
     }
 
     public void put(final String key, final T value) {
@@ -54,4 +71,33 @@ public class Cache<T> {
     public void clear() {
         cache.removeAll();
     }
+
+    private static class Evictions<T> implements CacheEventListener {
+        private final EvictionListener<T> listener;
+
+        private Evictions(EvictionListener<T> listener) {
+            this.listener = listener;
+        }
+
+        public void notifyElementEvicted(Ehcache cache, Element element) {
+            listener.evicted((String) element.getObjectKey(), (T) element.getObjectValue());
+        }
+
+        public void notifyElementRemoved(Ehcache cache, Element element) throws CacheException {}
+
+        public void notifyElementPut(Ehcache cache, Element element) throws CacheException {}
+
+        public void notifyElementUpdated(Ehcache cache, Element element) throws CacheException {}
+
+        public void notifyElementExpired(Ehcache cache, Element element) {}
+
+        public void notifyRemoveAll(Ehcache cache) {}
+
+        public void dispose() {}
+
+        @Override
+        public Object clone() throws CloneNotSupportedException {
+            throw new CloneNotSupportedException("eviction listener is bound to the cache it was registered with");
+        }
+    }
 }
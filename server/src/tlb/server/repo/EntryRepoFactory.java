@@ -9,8 +9,25 @@ import tlb.utils.SystemEnvironment;
 import org.apache.commons.io.FileUtils;
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
 
 import static tlb.TlbConstants.Server.EntryRepoFactory.*;
 
@@ -22,24 +39,81 @@ public class EntryRepoFactory implements Runnable {
     public static final String LATEST_VERSION = "LATEST";
     private static final Logger logger = Logger.getLogger(EntryRepoFactory.class.getName());
     public static final String ERF_NAMESPACE = "tlb-erf";
+    static final String SEGMENT = "segment";
+    static final String KEY_VALUE_STORE_DIR = "kv_store";
 
     //private final Map<String, EntryRepo> repos;
-    private final String tlbStoreDir;
+    private final ShardedDataDir dataDir;
     private final TimeProvider timeProvider;
     private Cache<EntryRepo> cache;
+    private final int cacheSize;
+    private final ConcurrentMap<String, FutureTask<EntryRepo>> loadsInFlight;
     private final RepoLedger repoLedger;
+    private final PurgeTombstones tombstones;
+    private final int suiteTimeHistorySize;
+    private final double failureScoreDecay;
+    private final boolean segmentedStorage;
+    private final ConcurrentMap<String, RepoSegment> segments;
+    private final ConcurrentMap<String, RepoSegment> segmentOfRepo;
+    private final KeyValueRepoStore keyValueStore;
+    //repos cache let go of, held till dumped so they aren't read back from a stale dump meanwhile
+    private final ConcurrentMap<String, EntryRepo> evictedUnsynced;
+    private final ExecutorService evictedReposSync;
 
     static interface Creator<T> {
         T create();
     }
 
     public EntryRepoFactory(SystemEnvironment env) {
-        this(new File(env.val(TlbConstants.Server.TLB_DATA_DIR)), new TimeProvider(), Integer.parseInt(env.val(TlbConstants.Server.TLB_DATA_CACHE_SIZE)));
+        this(new File(env.val(TlbConstants.Server.TLB_DATA_DIR)), new TimeProvider(), Integer.parseInt(env.val(TlbConstants.Server.TLB_DATA_CACHE_SIZE)), Integer.parseInt(env.val(TlbConstants.Server.TLB_SUITE_TIME_HISTORY_SIZE)), Double.parseDouble(env.val(TlbConstants.Server.TLB_FAILURE_SCORE_DECAY)),
+                env.val(TlbConstants.Server.TLB_DATA_STORAGE));
     }
 
     EntryRepoFactory(File tlbStoreDir, TimeProvider timeProvider, int cacheSize) {
-        this.tlbStoreDir = tlbStoreDir.getAbsolutePath();
-        this.cache = new Cache<EntryRepo>(cacheSize);
+        this(tlbStoreDir, timeProvider, cacheSize, Integer.parseInt(TlbConstants.Server.DEFAULT_SUITE_TIME_HISTORY_SIZE));
+    }
+
+    EntryRepoFactory(File tlbStoreDir, TimeProvider timeProvider, int cacheSize, int suiteTimeHistorySize) {
+        this(tlbStoreDir, timeProvider, cacheSize, suiteTimeHistorySize, Double.parseDouble(TlbConstants.Server.DEFAULT_FAILURE_SCORE_DECAY));
+    }
+
+    EntryRepoFactory(File tlbStoreDir, TimeProvider timeProvider, int cacheSize, int suiteTimeHistorySize, double failureScoreDecay) {
+        this(tlbStoreDir, timeProvider, cacheSize, suiteTimeHistorySize, failureScoreDecay, TlbConstants.Server.FILE_DATA_STORAGE);
+    }
+
+    EntryRepoFactory(File tlbStoreDir, TimeProvider timeProvider, int cacheSize, int suiteTimeHistorySize, double failureScoreDecay, String dataStorage) {
+        this.segmentedStorage = TlbConstants.Server.SEGMENTED_DATA_STORAGE.equals(dataStorage);
+        this.segments = new ConcurrentHashMap<String, RepoSegment>();
+        this.segmentOfRepo = new ConcurrentHashMap<String, RepoSegment>();
+        this.dataDir = new ShardedDataDir(tlbStoreDir.getAbsoluteFile());
+        dataDir.migrateFlatLayout();
+        try {
+            this.keyValueStore = TlbConstants.Server.KEY_VALUE_DATA_STORAGE.equals(dataStorage) ? new KeyValueRepoStore(new File(tlbStoreDir.getAbsoluteFile(), KEY_VALUE_STORE_DIR)) : null;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        this.suiteTimeHistorySize = suiteTimeHistorySize;
+        this.failureScoreDecay = failureScoreDecay;
+        this.evictedUnsynced = new ConcurrentHashMap<String, EntryRepo>();
+        this.evictedReposSync = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "tlb-evicted-repo-sync");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.cache = new Cache<EntryRepo>(cacheSize, new Cache.EvictionListener<EntryRepo>() {
+            public void evicted(String identifier, EntryRepo repo) {
+                evictedUnsynced.put(identifier, repo);
+                evictedReposSync.execute(new Runnable() {
+                    public void run() {
+                        syncEvictedReposToDisk();
+                    }
+                });
+            }
+        });
+        this.cacheSize = cacheSize;
+        this.loadsInFlight = new ConcurrentHashMap<String, FutureTask<EntryRepo>>();
         this.timeProvider = timeProvider;
         try {
             this.repoLedger = findOrCreate(ERF_NAMESPACE, new VersionedNamespace(LATEST_VERSION, "REPO_LEDGER"), new Creator<RepoLedger>() {
@@ -50,36 +124,153 @@ public class EntryRepoFactory implements Runnable {
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        this.tombstones = new PurgeTombstones(dataDir.fileForWriting(new VersionedNamespace(LATEST_VERSION, "PURGE_TOMBSTONES").getIdUnder(ERF_NAMESPACE)));
+        resumeInterruptedPurge();
     }
 
     public void purge(String identifier) throws IOException {
+        if (isSegment(identifier)) {
+            purgeSegment(identifier);
+            return;
+        }
         synchronized (mutex(identifier)) {
             cache.remove(identifier);
+            evictedUnsynced.remove(identifier);
+            if (keyValueStore != null) keyValueStore.remove(identifier);
             File file = dumpFile(identifier);
             if (file.exists()) FileUtils.forceDelete(file);
             repoLedger.deleteRepoEntryFor(identifier);
         }
     }
 
+    /**
+     * all repos packed in a segment belong to the same namespace and version, so they expire together and go in one file delete
+     */
+    private void purgeSegment(String segmentId) throws IOException {
+        synchronized (mutex(segmentId)) {
+            RepoSegment segment = segments.remove(segmentId);
+            if (segment == null) {
+                segment = new RepoSegment(dumpFile(segmentId));
+            }
+            for (String identifier : segment.identifiers()) {
+                cache.remove(identifier);
+                evictedUnsynced.remove(identifier);
+                segmentOfRepo.remove(identifier);
+            }
+            segment.delete();
+            repoLedger.deleteRepoEntryFor(segmentId);
+        }
+    }
+
+    private RepoSegment segment(String segmentId) throws IOException {
+        RepoSegment segment = segments.get(segmentId);
+        if (segment == null) {
+            synchronized (mutex(segmentId)) {
+                segment = segments.get(segmentId);
+                if (segment == null) {
+                    segment = new RepoSegment(dataDir.fileFor(segmentId));
+                    segments.put(segmentId, segment);
+                }
+            }
+        }
+        return segment;
+    }
+
+    private static boolean isSegment(String identifier) {
+        return identifier.endsWith(DELIMITER + escape(SEGMENT));
+    }
+
     public static String mutex(String identifier) {
         return identifier.intern();
     }
 
     public void purgeVersionsOlderThan(int versionLifeInDays) {
+        purgeVersionsOlderThan(versionLifeInDays, Integer.parseInt(TlbConstants.Server.DEFAULT_PURGE_BATCH_SIZE), Long.parseLong(TlbConstants.Server.DEFAULT_PURGE_BATCH_PAUSE_IN_MILLIS));
+    }
+
+    /**
+     * purges in batches of at most batchSize repos, oldest first, pausing between batches so live traffic gets the disk and repo mutexes in between
+     */
+    public void purgeVersionsOlderThan(int versionLifeInDays, int batchSize, long pauseBetweenBatches) {
         GregorianCalendar cal = timeProvider.cal();
         cal.add(GregorianCalendar.DAY_OF_WEEK, -versionLifeInDays);//this should be parametrized
         final Date tooOldThreshold = cal.getTime();
-        for (RepoCreatedTimeEntry repoTimeEntry : repoLedger.list()) {
-            if (repoTimeEntry.isPurgable() && repoTimeEntry.getCreationTime().before(tooOldThreshold)) {
-                String repoIdentifier = repoTimeEntry.getRepoIdentifier();
-                try {
-                    this.purge(repoIdentifier);
-                    logger.warn(String.format("purged repo identified by '%s' at '%s'.", repoIdentifier, timeProvider.now()));
-                } catch (Exception e) {
-                    logger.warn(String.format("failed to delete older versions for repo identified by '%s'", repoIdentifier), e);
-                }
+        Set<String> failed = new HashSet<String>();
+        int purged = 0;
+        List<String> batch = repoLedger.purgableCreatedBefore(tooOldThreshold, batchSize, failed);
+        while (! batch.isEmpty()) {
+            purged += purgeBatch(batch, failed);
+            batch = repoLedger.purgableCreatedBefore(tooOldThreshold, batchSize, failed);
+            if (! batch.isEmpty() && ! pauseBetweenPurgeBatches(pauseBetweenBatches)) {
+                logger.warn(String.format("purge interrupted, %s repos older than '%s' left for next run", batch.size(), tooOldThreshold));
+                break;
             }
         }
+        logger.info(String.format("purged %s repos created before '%s', %s could not be purged", purged, tooOldThreshold, failed.size()));
+    }
+
+    private int purgeBatch(List<String> batch, Set<String> failed) {
+        try {
+            tombstones.record(batch);
+        } catch (IOException e) {
+            logger.warn("failed to record purge tombstones, an interrupted purge will be finished by next scheduled run instead", e);
+        }
+        int purged = 0;
+        for (String repoIdentifier : batch) {
+            try {
+                this.purge(repoIdentifier);
+                purged++;
+                logger.warn(String.format("purged repo identified by '%s' at '%s'.", repoIdentifier, timeProvider.now()));
+            } catch (Exception e) {
+                failed.add(repoIdentifier);
+                logger.warn(String.format("failed to delete older versions for repo identified by '%s'", repoIdentifier), e);
+            }
+        }
+        forgetTombstonesOnceLedgerIsOnDisk();
+        return purged;
+    }
+
+    boolean pauseBetweenPurgeBatches(long millis) {
+        if (millis <= 0) return true;
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * finishes purge batch that was cut short(by crash or kill) before its ledger changes hit the disk
+     */
+    private void resumeInterruptedPurge() {
+        List<String> pending;
+        try {
+            pending = tombstones.pending();
+        } catch (IOException e) {
+            logger.warn("failed to read purge tombstones, repos left behind by interrupted purge will be purged by next scheduled run", e);
+            return;
+        }
+        if (pending.isEmpty()) return;
+        for (String identifier : pending) {
+            try {
+                purge(identifier);
+            } catch (Exception e) {
+                logger.warn(String.format("failed to finish interrupted purge of repo identified by '%s'", identifier), e);
+            }
+        }
+        forgetTombstonesOnceLedgerIsOnDisk();
+        logger.info(String.format("finished interrupted purge of %s repos", pending.size()));
+    }
+
+    private void forgetTombstonesOnceLedgerIsOnDisk() {
+        syncRepoToDisk(repoLedger.getIdentifier(), repoLedger);
+        try {
+            tombstones.clear();
+        } catch (IOException e) {
+            logger.warn("failed to clear purge tombstones", e);
+        }
     }
 
     public static abstract class IdentificationScheme {
@@ -113,6 +304,13 @@ public class EntryRepoFactory implements Runnable {
         }
 
         public abstract boolean isPurgable();
+
+        /**
+         * identifier of segment repos under this scheme can be packed into, null when each repo must get a file of its own
+         */
+        public String getSegmentIdUnder(String namespace) {
+            return null;
+        }
     }
 
     public static class VersionedNamespace extends IdentificationScheme {
@@ -164,6 +362,11 @@ public class EntryRepoFactory implements Runnable {
             return super.getIdWithoutNamespace() + DELIMITER + escape(submoduleName);
         }
 
+        @Override
+        public String getSegmentIdUnder(String namespace) {
+            return escape(namespace) + DELIMITER + super.getIdWithoutNamespace() + DELIMITER + escape(SEGMENT);
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -203,6 +406,34 @@ public class EntryRepoFactory implements Runnable {
         }, new VersionedNamespace(LATEST_VERSION, SUITE_TIME));
     }
 
+    public SuiteTimeHistoryRepo createSuiteTimeHistoryRepo(final String namespace, final String version) throws IOException {
+        return findOrCreate(namespace, new VersionedNamespace(version, SUITE_TIME_HISTORY), new Creator<SuiteTimeHistoryRepo>() {
+            public SuiteTimeHistoryRepo create() {
+                return new SuiteTimeHistoryRepo(suiteTimeHistorySize);
+            }
+        }, new VersionedNamespace(LATEST_VERSION, SUITE_TIME_HISTORY));
+    }
+
+    public SuiteFailureHistoryRepo createSuiteFailureHistoryRepo(final String namespace) throws IOException {
+        return findOrCreate(namespace, new VersionedNamespace(LATEST_VERSION, SUITE_FAILURE_HISTORY), new Creator<SuiteFailureHistoryRepo>() {
+            public SuiteFailureHistoryRepo create() {
+                return new SuiteFailureHistoryRepo(failureScoreDecay);
+            }
+        }, null);
+    }
+
+    public PartitionSpeedRepo createPartitionSpeedRepo(final String namespace) throws IOException {
+        return createPartitionSpeedRepo(namespace, LATEST_VERSION);
+    }
+
+    public PartitionSpeedRepo createPartitionSpeedRepo(final String namespace, final String version) throws IOException {
+        return findOrCreate(namespace, new VersionedNamespace(version, PARTITION_SPEED), new Creator<PartitionSpeedRepo>() {
+            public PartitionSpeedRepo create() {
+                return new PartitionSpeedRepo();
+            }
+        }, new VersionedNamespace(LATEST_VERSION, PARTITION_SPEED));
+    }
+
     public SubsetSizeRepo createSubsetRepo(final String namespace, final String version) throws IOException {
         return findOrCreate(namespace, new VersionedNamespace(version, SUBSET_SIZE), new Creator<SubsetSizeRepo>() {
             public SubsetSizeRepo create() {
@@ -227,38 +458,23 @@ public class EntryRepoFactory implements Runnable {
         }, null);
     }
 
-    <T extends EntryRepo> T findOrCreate(String namespace, IdentificationScheme idScheme, Creator<T> creator, IdentificationScheme primeFrom) throws IOException {
-        String identifier = idScheme.getIdUnder(namespace);
+    public SuiteQueueRepo createSuiteQueueRepo(String namespace, String version, final String submoduleName) throws IOException {
+        return findOrCreate(namespace, new SubmoduledUnderVersionedNamespace(version, SUITE_QUEUE, submoduleName), new Creator<SuiteQueueRepo>() {
+            public SuiteQueueRepo create() {
+                return new SuiteQueueRepo();
+            }
+        }, null);
+    }
+
+    <T extends EntryRepo> T findOrCreate(final String namespace, final IdentificationScheme idScheme, final Creator<T> creator, final IdentificationScheme primeFrom) throws IOException {
+        final String identifier = idScheme.getIdUnder(namespace);
         T repo = (T) cache.get(identifier);
         if (repo == null) {
-            synchronized (mutex(identifier)) {
-                repo = (T) cache.get(identifier);
-                if (repo == null) {
-                    repo = creator.create();
-                    repo.setNamespace(namespace);
-                    repo.setIdentifier(identifier);
-                    cache.put(identifier, repo);
-
-                    File diskDump = dumpFile(identifier);
-                    if (diskDump.exists()) {
-                        FileReader reader = null;
-                        try {
-                            reader = new FileReader(diskDump);
-                            repo.loadCopyFromDisk(new BufferedReader(reader));
-                        } finally {
-                            if (reader != null) {
-                                reader.close();
-                            }
-                        }
-                    } else if (primeFrom != null) {
-                        T primingVersion = findOrCreate(namespace, primeFrom, creator, null);
-                        repo.copyFrom(primingVersion);
-                    }
-                    if (! (repo instanceof RepoLedger)) {
-                        repoLedger.update(new RepoCreatedTimeEntry(identifier, timeProvider.now().getTime(), idScheme.isPurgable()));
-                    }
+            repo = (T) loadOnce(identifier, new Callable<EntryRepo>() {
+                public EntryRepo call() throws IOException {
+                    return load(namespace, identifier, idScheme, creator, primeFrom);
                 }
-            }
+            });
         }
         if (! repo.hasFactory()) {
             synchronized (mutex(identifier)) {
@@ -270,9 +486,211 @@ public class EntryRepoFactory implements Runnable {
         return repo;
     }
 
+    /**
+     * single flight, first caller for an identifier loads it while concurrent callers park on the same future rather than queueing on the repo mutex
+     */
+    private EntryRepo loadOnce(String identifier, Callable<EntryRepo> loader) throws IOException {
+        FutureTask<EntryRepo> load = new FutureTask<EntryRepo>(loader);
+        FutureTask<EntryRepo> inFlight = loadsInFlight.putIfAbsent(identifier, load);
+        if (inFlight == null) {
+            inFlight = load;
+            try {
+                load.run();
+            } finally {
+                loadsInFlight.remove(identifier, load);
+            }
+        }
+        try {
+            return inFlight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(String.format("interrupted while waiting for repo identified by '%s' to load", identifier), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * repo is cached only once fully loaded, so no caller gets to see it half read off disk
+     */
+    private <T extends EntryRepo> T load(String namespace, String identifier, IdentificationScheme idScheme, Creator<T> creator, IdentificationScheme primeFrom) throws IOException {
+        synchronized (mutex(identifier)) {
+            T repo = (T) cache.get(identifier);
+            if (repo != null) {
+                return repo;
+            }
+            repo = (T) evictedUnsynced.remove(identifier);
+            if (repo != null) {
+                cache.put(identifier, repo);
+                return repo;
+            }
+            repo = creator.create();
+            repo.setNamespace(namespace);
+            repo.setIdentifier(identifier);
+
+            String segmentId = segmentedStorage ? idScheme.getSegmentIdUnder(namespace) : null;
+            RepoSegment segment = segmentId == null ? null : segment(segmentId);
+            String storedDump = keyValueStore != null ? keyValueStore.read(identifier) : (segment == null ? null : segment.read(identifier));
+
+            File diskDump = dumpFile(identifier);
+            if (storedDump == null && keyValueStore != null && (diskDump.exists() || dataDir.adoptStray(identifier))) {
+                storedDump = adoptIntoKeyValueStore(identifier, diskDump);
+            }
+            if (storedDump != null) {
+                repo.loadCopyFromDisk(new BufferedReader(new StringReader(storedDump)));
+            } else if (diskDump.exists() || dataDir.adoptStray(identifier)) {
+                FileReader reader = null;
+                try {
+                    reader = new FileReader(diskDump);
+                    repo.loadCopyFromDisk(new BufferedReader(reader));
+                } finally {
+                    if (reader != null) {
+                        reader.close();
+                    }
+                }
+            } else if (primeFrom != null && ! primeFrom.getIdUnder(namespace).equals(identifier)) {
+                T primingVersion = findOrCreate(namespace, primeFrom, creator, null);
+                repo.copyFrom(primingVersion);
+            }
+            cache.put(identifier, repo);
+            if (segment != null) {
+                segmentOfRepo.put(identifier, segment);
+            }
+            if (! (repo instanceof RepoLedger)) {
+                repoLedger.update(new RepoCreatedTimeEntry(segmentId == null ? identifier : segmentId, timeProvider.now().getTime(), idScheme.isPurgable()));
+            }
+            return repo;
+        }
+    }
+
+    /**
+     * loads latest-version repos whose disk dumps were written most recently(the ones busy jobs were using when server went down), on given number of threads,
+     * at most limit of them, never more than cache holds and only as many as fit in memory budget(size of disk dump is taken as estimate of repo size)
+     */
+    public int prewarm(int limit, int threads, long memoryBudget) {
+        final int bound = Math.min(limit, cacheSize);
+        List<String> candidates = new ArrayList<String>();
+        for (RepoCreatedTimeEntry entry : repoLedger.list()) {
+            String identifier = entry.getRepoIdentifier();
+            if (! entry.isPurgable() && latestVersionType(identifier) != null && storedDumpLength(identifier) >= 0) {
+                candidates.add(identifier);
+            }
+        }
+        Collections.sort(candidates, new Comparator<String>() {
+            public int compare(String one, String other) {
+                long oneModified = storedDumpLastModified(one);
+                long otherModified = storedDumpLastModified(other);
+                return oneModified > otherModified ? -1 : (oneModified == otherModified ? one.compareTo(other) : 1);
+            }
+        });
+        List<String> selected = new ArrayList<String>();
+        long budgetUsed = 0;
+        for (String identifier : candidates) {
+            if (selected.size() >= bound) break;
+            long estimatedSize = storedDumpLength(identifier);
+            if (budgetUsed + estimatedSize > memoryBudget) continue;
+            budgetUsed += estimatedSize;
+            selected.add(identifier);
+        }
+        int warmed = selected.isEmpty() ? 0 : prewarmAll(selected, threads);
+        logger.info(String.format("pre-warmed %s of %s latest repos(%s bytes on disk)", warmed, candidates.size(), budgetUsed));
+        return warmed;
+    }
+
+    private int prewarmAll(List<String> identifiers, int threads) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, identifiers.size())));
+        try {
+            Map<String, Future<Object>> loads = new LinkedHashMap<String, Future<Object>>();
+            for (final String identifier : identifiers) {
+                loads.put(identifier, pool.submit(new Callable<Object>() {
+                    public Object call() throws Exception {
+                        prewarm(identifier);
+                        return identifier;
+                    }
+                }));
+            }
+            int warmed = 0;
+            for (Map.Entry<String, Future<Object>> load : loads.entrySet()) {
+                try {
+                    load.getValue().get();
+                    warmed++;
+                } catch (ExecutionException e) {
+                    logger.warn(String.format("failed to pre-warm repo identified by '%s'", load.getKey()), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    logger.warn("interrupted while pre-warming repos", e);
+                    break;
+                }
+            }
+            return warmed;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void prewarm(String identifier) throws IOException, ClassNotFoundException {
+        String type = latestVersionType(identifier);
+        String namespace = identifier.substring(0, identifier.length() - latestVersionSuffix(type).length()).replace(DELIMITER + DELIMITER, DELIMITER);
+        if (SUITE_TIME.equals(type)) {
+            createSuiteTimeRepo(namespace, LATEST_VERSION);
+        } else if (SUITE_TIME_HISTORY.equals(type)) {
+            createSuiteTimeHistoryRepo(namespace, LATEST_VERSION);
+        } else if (SUITE_FAILURE_HISTORY.equals(type)) {
+            createSuiteFailureHistoryRepo(namespace);
+        } else if (PARTITION_SPEED.equals(type)) {
+            createPartitionSpeedRepo(namespace);
+        } else {
+            createSuiteResultRepo(namespace, LATEST_VERSION);
+        }
+    }
+
+    private static final String[] PREWARMED_TYPES = {SUITE_TIME, SUITE_TIME_HISTORY, SUITE_FAILURE_HISTORY, PARTITION_SPEED, SUITE_RESULT};
+
+    static String latestVersionType(String identifier) {
+        for (String type : PREWARMED_TYPES) {
+            String suffix = latestVersionSuffix(type);
+            if (identifier.endsWith(suffix) && identifier.length() > suffix.length()) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private static String latestVersionSuffix(String type) {
+        return DELIMITER + escape(LATEST_VERSION) + DELIMITER + escape(type);
+    }
+
     private File dumpFile(String identifier) {
-        new File(tlbStoreDir).mkdirs();
-        return new File(tlbStoreDir, identifier);
+        return dataDir.fileFor(identifier);
+    }
+
+    private long storedDumpLength(String identifier) {
+        if (keyValueStore != null) {
+            return keyValueStore.dumpLength(identifier);
+        }
+        File file = dumpFile(identifier);
+        return file.exists() ? file.length() : -1;
+    }
+
+    /**
+     * key-value store keeps no write times, so repos stored there all look equally old(and warm up in identifier order)
+     */
+    private long storedDumpLastModified(String identifier) {
+        return keyValueStore != null ? 0 : dumpFile(identifier).lastModified();
+    }
+
+    /**
+     * moves dump written by file storage into key-value store the first time repo is loaded, so switching storage doesn't lose data
+     */
+    private String adoptIntoKeyValueStore(String identifier, File diskDump) throws IOException {
+        String dump = FileUtils.readFileToString(diskDump);
+        keyValueStore.write(identifier, dump);
+        FileUtils.forceDelete(diskDump);
+        return dump;
     }
 
     private static String escape(String str) {
@@ -289,20 +707,47 @@ public class EntryRepoFactory implements Runnable {
     }
 
     public void syncReposToDisk() {
+        syncEvictedReposToDisk();
         for (String identifier : cache.keys()) {
             syncRepoToDisk(identifier, cache.get(identifier));
         }
     }
 
+    /**
+     * dumps repos cache let go of while they may still be dirty, and has snapshots of an evicted latest version stop sharing its entries
+     */
+    void syncEvictedReposToDisk() {
+        for (Map.Entry<String, EntryRepo> evicted : evictedUnsynced.entrySet()) {
+            String identifier = evicted.getKey();
+            EntryRepo repo = evicted.getValue();
+            synchronized (mutex(identifier)) {
+                if (! evictedUnsynced.remove(identifier, repo)) continue;
+                syncRepoToDisk(identifier, repo);
+                if (repo instanceof SuiteTimeRepo) {
+                    ((SuiteTimeRepo) repo).detachSnapshots();
+                }
+            }
+        }
+    }
+
     public void syncRepoToDisk(final String identifier, final EntryRepo entryRepo) {
         try {
             OutputStreamWriter writer = null;
             FileOutputStream fos = null;
             //don't care about a couple entries not being persisted(at teardown), as client is capable of balancing on averages(treat like new suites)
             synchronized (mutex(identifier)) {
-                if (entryRepo != null && entryRepo.isDirty()) {
+                RepoSegment segment = segmentOfRepo.get(identifier);
+                if (entryRepo != null && entryRepo.isDirty() && (keyValueStore != null || segment != null)) {
+                    StringWriter dump = new StringWriter();
+                    entryRepo.diskDumpTo(dump);
+                    if (keyValueStore != null) {
+                        keyValueStore.write(identifier, dump.toString());
+                    } else {
+                        segment.write(identifier, dump.toString());
+                    }
+                } else if (entryRepo != null && entryRepo.isDirty()) {
                     try {
-                        File file = dumpFile(identifier);
+                        File file = dataDir.fileForWriting(identifier);
                         fos = new FileOutputStream(file);
                         BufferedOutputStream bos = new BufferedOutputStream(fos);
                         writer = new OutputStreamWriter(bos);
@@ -0,0 +1,61 @@
+package tlb.server.repo;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * @understands keeping disk dumps of all repos in a handful of append-only log files, with only identifiers and offsets held in memory
+ *
+ * repos are spread over partitions by identifier hash, so compaction rewrites one partition at a time and writers to different partitions don't contend
+ */
+class KeyValueRepoStore {
+    static final int PARTITIONS = 16;
+
+    private final RepoSegment[] partitions;
+
+    KeyValueRepoStore(File dir) throws IOException {
+        dir.mkdirs();
+        partitions = new RepoSegment[PARTITIONS];
+        for (int i = 0; i < PARTITIONS; i++) {
+            partitions[i] = new RepoSegment(new File(dir, String.format("partition-%02d", i)));
+        }
+    }
+
+    public String read(String identifier) throws IOException {
+        return partitionFor(identifier).read(identifier);
+    }
+
+    public void write(String identifier, String dump) throws IOException {
+        partitionFor(identifier).write(identifier, dump);
+    }
+
+    public void remove(String identifier) throws IOException {
+        partitionFor(identifier).remove(identifier);
+    }
+
+    public boolean contains(String identifier) {
+        return partitionFor(identifier).contains(identifier);
+    }
+
+    /**
+     * length of stored dump in bytes, -1 if there is none
+     */
+    public long dumpLength(String identifier) {
+        return partitionFor(identifier).dumpLength(identifier);
+    }
+
+    public int size() {
+        int size = 0;
+        for (RepoSegment partition : partitions) {
+            size += partition.identifiers().size();
+        }
+        return size;
+    }
+
+    private RepoSegment partitionFor(String identifier) {
+        int hash = identifier.hashCode();
+        hash ^= (hash >>> 20) ^ (hash >>> 12);//identifiers share long prefixes and suffixes, low bits alone leave partitions unused
+        hash ^= (hash >>> 7) ^ (hash >>> 4);
+        return partitions[(hash & Integer.MAX_VALUE) % PARTITIONS];
+    }
+}
@@ -83,6 +83,10 @@ public abstract class NamedEntryRepo<T extends NamedEntry> implements EntryRepo<
         return dirty;
     }
 
+    protected final void markDirty() {
+        dirty = true;
+    }
+
     public synchronized void diskDumpTo(final Writer writer) throws IOException {
         dirty = false;
         dumpTo(writer);
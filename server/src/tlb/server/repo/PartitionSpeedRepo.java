@@ -0,0 +1,18 @@
+package tlb.server.repo;
+
+import tlb.domain.PartitionSpeedEntry;
+
+import java.util.List;
+
+/**
+ * @understands storage and retrival of how fast each partition of a job runs its suites
+ */
+public class PartitionSpeedRepo extends NamedEntryRepo<PartitionSpeedEntry> {
+    public List<PartitionSpeedEntry> parse(String string) {
+        return PartitionSpeedEntry.parse(string);
+    }
+
+    public PartitionSpeedEntry parseLine(String line) {
+        return PartitionSpeedEntry.parseSingleEntry(line);
+    }
+}
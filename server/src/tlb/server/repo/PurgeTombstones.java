@@ -0,0 +1,50 @@
+package tlb.server.repo;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @understands remembering repos a purge batch set out to delete, until ledger that forgets them is safely on disk
+ */
+class PurgeTombstones {
+    private final File log;
+
+    PurgeTombstones(File log) {
+        this.log = log;
+    }
+
+    public synchronized void record(Collection<String> identifiers) throws IOException {
+        FileOutputStream out = new FileOutputStream(log, true);
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out));
+            for (String identifier : identifiers) {
+                writer.write(identifier);
+                writer.write("\n");
+            }
+            writer.flush();
+            out.getFD().sync();
+        } finally {
+            out.close();
+        }
+    }
+
+    public synchronized List<String> pending() throws IOException {
+        List<String> identifiers = new ArrayList<String>();
+        if (! log.exists()) {
+            return identifiers;
+        }
+        for (Object line : FileUtils.readLines(log)) {
+            String identifier = ((String) line).trim();
+            if (identifier.length() > 0) identifiers.add(identifier);
+        }
+        return identifiers;
+    }
+
+    public synchronized void clear() throws IOException {
+        if (log.exists()) FileUtils.forceDelete(log);
+    }
+}
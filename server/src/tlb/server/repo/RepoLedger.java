@@ -3,12 +3,19 @@ package tlb.server.repo;
 import tlb.domain.NameNumberEntry;
 import tlb.domain.RepoCreatedTimeEntry;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
 
 /**
  * @understands maintaining record of created repos(identifiers) and creation time
  */
 public class RepoLedger extends NamedEntryRepo<RepoCreatedTimeEntry> {
+    static final long CREATION_BUCKET_MILLIS = 60 * 60 * 1000l;
+
+    //purgable identifiers bucketed by hour of creation, so finding old repos doesn't walk the whole ledger
+    private final TreeMap<Long, Set<String>> purgableByCreationBucket = new TreeMap<Long, Set<String>>();
+
     public List<RepoCreatedTimeEntry> parse(String string) {
         return RepoCreatedTimeEntry.parse(string);
     }
@@ -17,7 +24,92 @@ public class RepoLedger extends NamedEntryRepo<RepoCreatedTimeEntry> {
         return RepoCreatedTimeEntry.parseSingleEntry(line);
     }
 
-    public void deleteRepoEntryFor(String identifier) {
-        nameToEntry.remove(identifier);
+    @Override
+    public synchronized void update(RepoCreatedTimeEntry record) {
+        RepoCreatedTimeEntry existing = nameToEntry.get(getKey(record));
+        if (existing != null) {
+            unindex(existing);
+        }
+        super.update(record);
+        index(record);
+    }
+
+    public synchronized void deleteRepoEntryFor(String identifier) {
+        RepoCreatedTimeEntry entry = nameToEntry.remove(identifier);
+        if (entry != null) {
+            unindex(entry);
+            markDirty();
+        }
+    }
+
+    @Override
+    public synchronized void loadCopyFromDisk(Reader reader) throws IOException {
+        super.loadCopyFromDisk(reader);
+        reindex();
+    }
+
+    @Override
+    public synchronized void loadAndMarkDirty(Reader stringReader) throws IOException {
+        super.loadAndMarkDirty(stringReader);
+        reindex();
+    }
+
+    @Override
+    public synchronized void copyFrom(NamedEntryRepo<RepoCreatedTimeEntry> otherRepo) {
+        super.copyFrom(otherRepo);
+        reindex();
+    }
+
+    /**
+     * oldest first(by hour of creation), at most max of them, leaving out identifiers in skip
+     */
+    public synchronized List<String> purgableCreatedBefore(Date threshold, int max, Set<String> skip) {
+        final long thresholdTime = threshold.getTime();
+        List<String> identifiers = new ArrayList<String>();
+        for (Set<String> bucket : purgableByCreationBucket.headMap(bucketOf(thresholdTime) + 1).values()) {
+            for (String identifier : bucket) {
+                if (identifiers.size() >= max) {
+                    return identifiers;
+                }
+                RepoCreatedTimeEntry entry = nameToEntry.get(identifier);
+                if (! skip.contains(identifier) && entry.getCreationTime().getTime() < thresholdTime) {
+                    identifiers.add(identifier);
+                }
+            }
+        }
+        return identifiers;
+    }
+
+    private void reindex() {
+        purgableByCreationBucket.clear();
+        for (RepoCreatedTimeEntry entry : nameToEntry.values()) {
+            index(entry);
+        }
+    }
+
+    private void index(RepoCreatedTimeEntry entry) {
+        if (! entry.isPurgable()) return;
+        Long bucket = bucketOf(entry.getCreationTime().getTime());
+        Set<String> identifiers = purgableByCreationBucket.get(bucket);
+        if (identifiers == null) {
+            identifiers = new HashSet<String>();
+            purgableByCreationBucket.put(bucket, identifiers);
+        }
+        identifiers.add(entry.getRepoIdentifier());
+    }
+
+    private void unindex(RepoCreatedTimeEntry entry) {
+        if (! entry.isPurgable()) return;
+        Long bucket = bucketOf(entry.getCreationTime().getTime());
+        Set<String> identifiers = purgableByCreationBucket.get(bucket);
+        if (identifiers == null) return;
+        identifiers.remove(entry.getRepoIdentifier());
+        if (identifiers.isEmpty()) {
+            purgableByCreationBucket.remove(bucket);
+        }
+    }
+
+    private static long bucketOf(long time) {
+        return time / CREATION_BUCKET_MILLIS;
     }
 }
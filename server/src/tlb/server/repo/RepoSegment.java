@@ -0,0 +1,235 @@
+package tlb.server.repo;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @understands packing disk dumps of many small repos into one append-only file, with an in-memory index of where latest dump of each repo starts
+ *
+ * every record is [identifier length][identifier][dump length][dump], a dump length of -1 marks the repo as removed
+ */
+class RepoSegment {
+    private static final Logger logger = Logger.getLogger(RepoSegment.class.getName());
+    private static final String UTF_8 = "UTF-8";
+    private static final int REMOVED = -1;
+    static final long MIN_GARBAGE_TO_COMPACT = 64 * 1024;
+
+    private static class Slot {
+        private final long offset;
+        private final int length;
+
+        private Slot(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private final File file;
+    private final Map<String, Slot> index;
+    private long size;
+    private long garbage;
+    private boolean deleted;
+
+    RepoSegment(File file) throws IOException {
+        this.file = file;
+        this.index = new HashMap<String, Slot>();
+        if (file.exists()) {
+            scan();
+        }
+    }
+
+    public synchronized String read(String identifier) throws IOException {
+        Slot slot = index.get(identifier);
+        if (slot == null) {
+            return null;
+        }
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            byte[] dump = new byte[slot.length];
+            in.seek(slot.offset);
+            in.readFully(dump);
+            return new String(dump, UTF_8);
+        } finally {
+            in.close();
+        }
+    }
+
+    public synchronized void write(String identifier, String dump) throws IOException {
+        append(identifier, dump.getBytes(UTF_8));
+    }
+
+    public synchronized void remove(String identifier) throws IOException {
+        if (index.containsKey(identifier)) {
+            append(identifier, null);
+        }
+    }
+
+    public synchronized boolean contains(String identifier) {
+        return index.containsKey(identifier);
+    }
+
+    public synchronized long dumpLength(String identifier) {
+        Slot slot = index.get(identifier);
+        return slot == null ? -1 : slot.length;
+    }
+
+    public synchronized Set<String> identifiers() {
+        return new HashSet<String>(index.keySet());
+    }
+
+    public synchronized boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    /**
+     * removes whole segment file, later writes are dropped as repos in it are being purged
+     */
+    public synchronized void delete() throws IOException {
+        deleted = true;
+        index.clear();
+        if (file.exists()) FileUtils.forceDelete(file);
+    }
+
+    /**
+     * rewrites live dumps one after another into a fresh file and swaps it in, reclaiming space held by overwritten and removed dumps
+     */
+    public synchronized void compact() throws IOException {
+        File compacted = new File(file.getParentFile(), file.getName() + ".compacting");
+        Map<String, Slot> compactedIndex = new HashMap<String, Slot>();
+        long compactedSize = 0;
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(compacted)));
+        try {
+            for (Map.Entry<String, Slot> entry : index.entrySet()) {
+                byte[] dump = new byte[entry.getValue().length];
+                in.seek(entry.getValue().offset);
+                in.readFully(dump);
+                long dumpOffset = compactedSize + headerLength(entry.getKey());
+                writeRecord(out, entry.getKey(), dump);
+                compactedIndex.put(entry.getKey(), new Slot(dumpOffset, dump.length));
+                compactedSize = dumpOffset + dump.length;
+            }
+        } finally {
+            in.close();
+            out.close();
+        }
+        if (! compacted.renameTo(file)) {
+            FileUtils.forceDelete(file);
+            if (! compacted.renameTo(file)) {
+                throw new IOException(String.format("could not move compacted segment %s to %s", compacted.getAbsolutePath(), file.getAbsolutePath()));
+            }
+        }
+        index.clear();
+        index.putAll(compactedIndex);
+        size = compactedSize;
+        garbage = 0;
+    }
+
+    long garbage() {
+        return garbage;
+    }
+
+    private void append(String identifier, byte[] dump) throws IOException {
+        if (deleted) {
+            logger.warn(String.format("dropping write of repo identified by '%s' as segment %s has been purged", identifier, file.getName()));
+            return;
+        }
+        file.getParentFile().mkdirs();
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        try {
+            writeRecord(out, identifier, dump);
+        } finally {
+            out.close();
+        }
+        long dumpOffset = size + headerLength(identifier);
+        Slot previous = dump == null ? index.remove(identifier) : index.put(identifier, new Slot(dumpOffset, dump.length));
+        if (previous != null) {
+            garbage += headerLength(identifier) + previous.length;
+        }
+        size = dumpOffset + (dump == null ? 0 : dump.length);
+        if (dump == null) {
+            garbage += headerLength(identifier);
+        }
+        if (garbage > MIN_GARBAGE_TO_COMPACT && garbage > size - garbage) {
+            compact();
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, String identifier, byte[] dump) throws IOException {
+        byte[] id = identifier.getBytes(UTF_8);
+        out.writeInt(id.length);
+        out.write(id);
+        if (dump == null) {
+            out.writeInt(REMOVED);
+        } else {
+            out.writeInt(dump.length);
+            out.write(dump);
+        }
+    }
+
+    private static long headerLength(String identifier) throws UnsupportedEncodingException {
+        return 4 + identifier.getBytes(UTF_8).length + 4;
+    }
+
+    /**
+     * rebuilds index from records on disk, a record torn by crash in the middle of an append is cut off
+     */
+    private void scan() throws IOException {
+        long fileLength = file.length();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        long position = 0;
+        try {
+            while (position < fileLength) {
+                if (fileLength - position < 4) break;
+                int idLength = in.readInt();
+                if (idLength < 0 || fileLength - position - 4 < idLength + 4) break;
+                byte[] id = new byte[idLength];
+                in.readFully(id);
+                int dumpLength = in.readInt();
+                long dumpOffset = position + 4 + idLength + 4;
+                if (dumpLength > fileLength - dumpOffset) break;
+                String identifier = new String(id, UTF_8);
+                Slot previous;
+                if (dumpLength == REMOVED) {
+                    previous = index.remove(identifier);
+                    garbage += dumpOffset - position;
+                    position = dumpOffset;
+                } else {
+                    skipFully(in, dumpLength);
+                    previous = index.put(identifier, new Slot(dumpOffset, dumpLength));
+                    position = dumpOffset + dumpLength;
+                }
+                if (previous != null) {
+                    garbage += headerLength(identifier) + previous.length;
+                }
+            }
+        } finally {
+            in.close();
+        }
+        if (position < fileLength) {
+            logger.warn(String.format("cutting off %s bytes of incomplete record at the end of segment %s", fileLength - position, file.getAbsolutePath()));
+            RandomAccessFile truncate = new RandomAccessFile(file, "rw");
+            try {
+                truncate.setLength(position);
+            } finally {
+                truncate.close();
+            }
+        }
+        size = position;
+    }
+
+    private static void skipFully(DataInputStream in, int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            int skipped = in.skipBytes(remaining);
+            if (skipped <= 0) throw new EOFException();
+            remaining -= skipped;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package tlb.server.repo;
+
+import org.apache.log4j.Logger;
+
+/**
+ * @understands loading hot repos into cache before first builds ask for them, and whether that is done yet
+ */
+public class RepoWarmUp implements Runnable {
+    private static final Logger logger = Logger.getLogger(RepoWarmUp.class.getName());
+    private static final long BYTES_PER_MB = 1024 * 1024l;
+
+    private final EntryRepoFactory repoFactory;
+    private final int limit;
+    private final int threads;
+    private final long memoryBudget;
+    private volatile boolean done;
+
+    public RepoWarmUp(EntryRepoFactory repoFactory, int limit, int threads, int memoryBudgetInMb) {
+        this.repoFactory = repoFactory;
+        this.limit = limit;
+        this.threads = threads;
+        this.memoryBudget = memoryBudgetInMb * BYTES_PER_MB;
+        this.done = limit <= 0;
+    }
+
+    public void run() {
+        if (done) {
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        try {
+            int warmed = repoFactory.prewarm(limit, threads, memoryBudget);
+            logger.info(String.format("warm-up loaded %s repos in %s ms", warmed, System.currentTimeMillis() - startedAt));
+        } catch (RuntimeException e) {
+            logger.warn("warm-up failed, repos will be loaded as they are asked for", e);
+        } finally {
+            done = true;
+        }
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+}
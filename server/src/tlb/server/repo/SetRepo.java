@@ -32,7 +32,7 @@ public class SetRepo extends NamedEntryRepo<SuiteNamePartitionEntry> {
         return tryMatching(parse(reader));
     }
 
-    private List<SuiteNamePartitionEntry> parse(Reader reader) throws IOException {
+    protected List<SuiteNamePartitionEntry> parse(Reader reader) throws IOException {
         LineNumberReader lineReader = new LineNumberReader(reader);
         String line = null;
         List<SuiteNamePartitionEntry> parsedList = new ArrayList<SuiteNamePartitionEntry>();
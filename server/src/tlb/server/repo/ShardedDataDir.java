@@ -0,0 +1,77 @@
+package tlb.server.repo;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+
+/**
+ * @understands where repo dumps live on disk, spread over two levels of hashed directories so no single directory grows to millions of entries
+ */
+class ShardedDataDir {
+    private static final Logger logger = Logger.getLogger(ShardedDataDir.class.getName());
+    static final int SHARD_NAME_LENGTH = 2;
+
+    private final File root;
+
+    ShardedDataDir(File root) {
+        this.root = root;
+        root.mkdirs();
+    }
+
+    public File fileFor(String identifier) {
+        return new File(shardFor(identifier), identifier);
+    }
+
+    /**
+     * same as fileFor, but makes sure shard directory exists, reads never touch directories
+     */
+    public File fileForWriting(String identifier) {
+        File shard = shardFor(identifier);
+        if (! shard.isDirectory()) {
+            shard.mkdirs();
+        }
+        return new File(shard, identifier);
+    }
+
+    /**
+     * moves dump left in root by flat layout(older server, or restored by hand) into its shard, returns false if there was none
+     */
+    public boolean adoptStray(String identifier) {
+        File stray = new File(root, identifier);
+        if (! stray.isFile()) {
+            return false;
+        }
+        File sharded = fileForWriting(identifier);
+        if (sharded.exists() || ! stray.renameTo(sharded)) {
+            logger.warn(String.format("could not move %s to %s, leaving it where it is", stray.getAbsolutePath(), sharded.getAbsolutePath()));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * one-time move of every dump sitting directly under root(flat layout) into its shard, cheap once root holds only shard directories
+     */
+    public int migrateFlatLayout() {
+        File[] entries = root.listFiles();
+        if (entries == null) {
+            return 0;
+        }
+        int moved = 0;
+        for (File entry : entries) {
+            if (entry.isFile() && adoptStray(entry.getName())) {
+                moved++;
+            }
+        }
+        if (moved > 0) {
+            logger.info(String.format("moved %s repo dumps in %s to sharded layout", moved, root.getAbsolutePath()));
+        }
+        return moved;
+    }
+
+    private File shardFor(String identifier) {
+        String hash = DigestUtils.md5Hex(identifier);
+        return new File(new File(root, hash.substring(0, SHARD_NAME_LENGTH)), hash.substring(SHARD_NAME_LENGTH, 2 * SHARD_NAME_LENGTH));
+    }
+}
@@ -0,0 +1,55 @@
+package tlb.server.repo;
+
+import tlb.domain.SuiteFailureHistoryEntry;
+import tlb.domain.SuiteResultEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * @understands storage of how often and how recently suites failed, and ranking them by how likely they are to fail next
+ */
+public class SuiteFailureHistoryRepo extends NamedEntryRepo<SuiteFailureHistoryEntry> {
+    private final double decay;
+
+    public SuiteFailureHistoryRepo(double decay) {
+        this.decay = decay;
+    }
+
+    public synchronized void recordAll(List<SuiteResultEntry> results) {
+        for (SuiteResultEntry result : results) {
+            SuiteFailureHistoryEntry history = nameToEntry.get(result.getName());
+            if (history == null) {
+                history = new SuiteFailureHistoryEntry(result.getName());
+            }
+            update(history.record(result.hasFailed(), decay));
+        }
+    }
+
+    /**
+     * highest failure score first, suites that have not failed in remembered runs are left out
+     */
+    public List<SuiteFailureHistoryEntry> ranked() {
+        List<SuiteFailureHistoryEntry> ranked = new ArrayList<SuiteFailureHistoryEntry>();
+        for (SuiteFailureHistoryEntry entry : list()) {
+            if (entry.getFailedRuns() != 0) ranked.add(entry);
+        }
+        Collections.sort(ranked, new Comparator<SuiteFailureHistoryEntry>() {
+            public int compare(SuiteFailureHistoryEntry one, SuiteFailureHistoryEntry other) {
+                int byScore = Double.compare(other.getScore(), one.getScore());
+                return byScore != 0 ? byScore : one.getName().compareTo(other.getName());
+            }
+        });
+        return ranked;
+    }
+
+    public List<SuiteFailureHistoryEntry> parse(String string) {
+        return SuiteFailureHistoryEntry.parse(string);
+    }
+
+    public SuiteFailureHistoryEntry parseLine(String line) {
+        return SuiteFailureHistoryEntry.parseSingleEntry(line);
+    }
+}
@@ -0,0 +1,100 @@
+package tlb.server.repo;
+
+import tlb.domain.PartitionIdentifier;
+import tlb.domain.SuiteNamePartitionEntry;
+import tlb.domain.SuiteTimeEntry;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * @understands suites of a build waiting to be claimed by partitions, slowest first, so partitions that run ahead pick up more of the work
+ */
+public class SuiteQueueRepo extends SetRepo {
+    private transient List<SuiteNamePartitionEntry> queue;
+    private transient int cursor;
+
+    public SuiteQueueRepo() {
+        nameToEntry = Collections.synchronizedMap(new LinkedHashMap<String, SuiteNamePartitionEntry>());
+    }
+
+    public synchronized void define(Reader reader, Collection<SuiteTimeEntry> knownTimes) throws IOException {
+        final Map<String, Long> times = new HashMap<String, Long>();
+        long totalTime = 0;
+        for (SuiteTimeEntry suiteTime : knownTimes) {
+            times.put(suiteTime.getName(), suiteTime.getTime());
+            totalTime += suiteTime.getTime();
+        }
+        final long unknownTime = times.isEmpty() ? 0 : totalTime / times.size();
+        List<SuiteNamePartitionEntry> slowestFirst = new ArrayList<SuiteNamePartitionEntry>();
+        for (SuiteNamePartitionEntry suite : parse(reader)) {
+            if (suite.getName().trim().length() > 0) slowestFirst.add(new SuiteNamePartitionEntry(suite.getName()));
+        }
+        Collections.sort(slowestFirst, new Comparator<SuiteNamePartitionEntry>() {
+            public int compare(SuiteNamePartitionEntry one, SuiteNamePartitionEntry other) {
+                long oneTime = timeOf(one), otherTime = timeOf(other);
+                return oneTime == otherTime ? one.getName().compareTo(other.getName()) : (oneTime > otherTime ? -1 : 1);
+            }
+
+            private long timeOf(SuiteNamePartitionEntry suite) {
+                Long time = times.get(suite.getName());
+                return time == null ? unknownTime : time;
+            }
+        });
+        loadAndMarkDirty(new StringReader(SuiteNamePartitionEntry.dump(slowestFirst)));
+    }
+
+    /**
+     * hands out next suites nobody has claimed yet, a suite is never handed out twice
+     */
+    public synchronized List<SuiteNamePartitionEntry> claim(PartitionIdentifier partitionIdentifier, int batchSize) {
+        if (queue == null) {
+            queue = new ArrayList<SuiteNamePartitionEntry>(list());
+        }
+        List<SuiteNamePartitionEntry> claimed = new ArrayList<SuiteNamePartitionEntry>();
+        while (claimed.size() < batchSize && cursor < queue.size()) {
+            SuiteNamePartitionEntry entry = queue.get(cursor++);
+            if (entry.isUsedByAnyPartition()) continue;
+            entry.markUsedBy(partitionIdentifier);
+            claimed.add(entry);
+        }
+        if (! claimed.isEmpty()) {
+            markDirty();
+        }
+        return claimed;
+    }
+
+    @Override
+    public Collection<SuiteNamePartitionEntry> list() {
+        synchronized (nameToEntry) {
+            return new ArrayList<SuiteNamePartitionEntry>(nameToEntry.values());
+        }
+    }
+
+    @Override
+    public synchronized void dumpTo(Writer writer) throws IOException {
+        for (SuiteNamePartitionEntry entry : list()) {
+            writer.write(entry.dump());
+        }
+    }
+
+    @Override
+    public synchronized void loadCopyFromDisk(Reader reader) throws IOException {
+        super.loadCopyFromDisk(reader);
+        resetCursor();
+    }
+
+    @Override
+    public synchronized void loadAndMarkDirty(Reader reader) throws IOException {
+        super.loadAndMarkDirty(reader);
+        resetCursor();
+    }
+
+    private void resetCursor() {
+        queue = null;
+        cursor = 0;
+    }
+}
@@ -0,0 +1,48 @@
+package tlb.server.repo;
+
+import tlb.domain.SuiteTimeEntry;
+import tlb.domain.SuiteTimeHistoryEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @understands storage of times each suite took over last few runs, and aggregation of it into a single time per suite
+ */
+public class SuiteTimeHistoryRepo extends NamedEntryRepo<SuiteTimeHistoryEntry> {
+    private final int runsPerSuite;
+
+    public SuiteTimeHistoryRepo(int runsPerSuite) {
+        this.runsPerSuite = runsPerSuite;
+    }
+
+    public synchronized void recordAll(List<SuiteTimeEntry> suiteTimes) {
+        for (SuiteTimeEntry suiteTime : suiteTimes) {
+            SuiteTimeHistoryEntry history = nameToEntry.get(suiteTime.getName());
+            if (history == null) {
+                history = new SuiteTimeHistoryEntry(suiteTime.getName(), runsPerSuite);
+            }
+            update(history.resizedTo(runsPerSuite).record(suiteTime.getTime()));
+        }
+    }
+
+    public List<SuiteTimeEntry> aggregated(SuiteTimeHistoryEntry.Aggregate aggregate) {
+        List<SuiteTimeEntry> aggregatedTimes = new ArrayList<SuiteTimeEntry>();
+        for (SuiteTimeHistoryEntry history : list()) {
+            aggregatedTimes.add(history.aggregate(aggregate));
+        }
+        return aggregatedTimes;
+    }
+
+    public List<SuiteTimeHistoryEntry> parse(String string) {
+        List<SuiteTimeHistoryEntry> entries = new ArrayList<SuiteTimeHistoryEntry>();
+        for (SuiteTimeHistoryEntry entry : SuiteTimeHistoryEntry.parse(string)) {
+            entries.add(entry.resizedTo(runsPerSuite));
+        }
+        return entries;
+    }
+
+    public SuiteTimeHistoryEntry parseLine(String line) {
+        return SuiteTimeHistoryEntry.parseSingleEntry(line, runsPerSuite);
+    }
+}
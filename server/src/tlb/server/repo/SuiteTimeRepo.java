@@ -3,12 +3,25 @@ package tlb.server.repo;
 import tlb.domain.SuiteTimeEntry;
 import tlb.domain.TimeProvider;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+import java.util.*;
 
 /**
  * @understands storage and retrival of time that each suite took to run
+ *
+ * a version copied from latest is a copy-on-write snapshot, it shares entries with latest and holds only the ones latest changed since, till it is first read or latest leaves the cache
  */
 public class SuiteTimeRepo extends NamedEntryRepo<SuiteTimeEntry> {
+    //repo this snapshot shares unchanged entries with, null once snapshot has entries of its own
+    private volatile SuiteTimeRepo base;
+    //entries base changed after snapshot was taken, as they were at that time(null for ones base didn't have), guarded by base
+    private Map<String, SuiteTimeEntry> preImages;
+    //snapshots sharing entries with this repo, guarded by this
+    private final List<WeakReference<SuiteTimeRepo>> snapshots = new ArrayList<WeakReference<SuiteTimeRepo>>();
+
     public List<SuiteTimeEntry> parse(String string) {
         return SuiteTimeEntry.parse(string);
     }
@@ -16,4 +29,125 @@ public class SuiteTimeRepo extends NamedEntryRepo<SuiteTimeEntry> {
     public SuiteTimeEntry parseLine(String line) {
         return SuiteTimeEntry.parseSingleEntry(line);
     }
+
+    /**
+     * first read of a snapshot copies shared entries over, so reads don't keep merging them under lock on latest
+     */
+    @Override
+    public Collection<SuiteTimeEntry> list() {
+        detachFromBase();
+        return super.list();
+    }
+
+    @Override
+    public synchronized void update(SuiteTimeEntry record) {
+        detachFromBase();
+        preserveForSnapshots(getKey(record));
+        super.update(record);
+    }
+
+    @Override
+    public void dumpTo(Writer writer) throws IOException {
+        for (SuiteTimeEntry entry : list()) {
+            writer.write(entry.dump());
+        }
+    }
+
+    @Override
+    public synchronized void loadCopyFromDisk(Reader reader) throws IOException {
+        detachFromBase();
+        detachSnapshots();
+        super.loadCopyFromDisk(reader);
+    }
+
+    @Override
+    public synchronized void loadAndMarkDirty(Reader stringReader) throws IOException {
+        detachFromBase();
+        detachSnapshots();
+        super.loadAndMarkDirty(stringReader);
+    }
+
+    /**
+     * O(1) when copying from a repo that is not a snapshot itself, entries are shared rather than copied
+     */
+    @Override
+    public synchronized void copyFrom(NamedEntryRepo<SuiteTimeEntry> otherRepo) {
+        detachFromBase();
+        detachSnapshots();
+        if (otherRepo instanceof SuiteTimeRepo && ((SuiteTimeRepo) otherRepo).shareWith(this)) {
+            markDirty();
+            return;
+        }
+        super.copyFrom(otherRepo);
+    }
+
+    boolean isSnapshot() {
+        return base != null;
+    }
+
+    private synchronized boolean shareWith(SuiteTimeRepo snapshot) {
+        if (base != null) {
+            return false;
+        }
+        snapshot.nameToEntry.clear();
+        snapshot.preImages = new HashMap<String, SuiteTimeEntry>();
+        snapshot.base = this;
+        snapshots.add(new WeakReference<SuiteTimeRepo>(snapshot));
+        return true;
+    }
+
+    private void preserveForSnapshots(String key) {
+        if (snapshots.isEmpty()) return;
+        SuiteTimeEntry current = nameToEntry.get(key);
+        for (Iterator<WeakReference<SuiteTimeRepo>> iterator = snapshots.iterator(); iterator.hasNext();) {
+            SuiteTimeRepo snapshot = iterator.next().get();
+            if (snapshot == null) {
+                iterator.remove();
+            } else if (! snapshot.preImages.containsKey(key)) {
+                snapshot.preImages.put(key, current);
+            }
+        }
+    }
+
+    /**
+     * lets snapshots sharing entries with this repo take copies of them, so they don't keep an evicted or reloaded repo around
+     */
+    synchronized void detachSnapshots() {
+        for (WeakReference<SuiteTimeRepo> reference : snapshots) {
+            SuiteTimeRepo snapshot = reference.get();
+            if (snapshot != null) {
+                snapshot.materialize();
+            }
+        }
+        snapshots.clear();
+    }
+
+    private void detachFromBase() {
+        SuiteTimeRepo base = this.base;
+        if (base == null) return;
+        synchronized (base) {
+            if (this.base != base) return;
+            for (Iterator<WeakReference<SuiteTimeRepo>> iterator = base.snapshots.iterator(); iterator.hasNext();) {
+                if (iterator.next().get() == this) iterator.remove();
+            }
+            materialize();
+        }
+    }
+
+    /**
+     * caller holds lock on base
+     */
+    private void materialize() {
+        Map<String, SuiteTimeEntry> view = new HashMap<String, SuiteTimeEntry>(base.nameToEntry);
+        for (Map.Entry<String, SuiteTimeEntry> preImage : preImages.entrySet()) {
+            if (preImage.getValue() == null) {
+                view.remove(preImage.getKey());
+            } else {
+                view.put(preImage.getKey(), preImage.getValue());
+            }
+        }
+        nameToEntry.putAll(view);
+        preImages = null;
+        base = null;
+    }
 }
@@ -0,0 +1,43 @@
+package tlb.server.resources;
+
+import org.restlet.Context;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.resource.Representation;
+import tlb.domain.Entry;
+import tlb.domain.PartitionSpeedEntry;
+import tlb.server.repo.EntryRepoFactory;
+import tlb.server.repo.PartitionSpeedRepo;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * @understands speed of partitions reported by job, relative to time predicted for suites they ran
+ */
+public class PartitionSpeedResource extends SimpleCRUResource<PartitionSpeedRepo> {
+
+    public PartitionSpeedResource(Context context, Request request, Response response) {
+        super(context, request, response);
+    }
+
+    @Override
+    protected PartitionSpeedRepo getRepo(EntryRepoFactory repoFactory, String namespace) throws IOException, ClassNotFoundException {
+        return repoFactory.createPartitionSpeedRepo(namespace);
+    }
+
+    @Override
+    protected Entry parseEntry(Representation entity) throws IOException {
+        return PartitionSpeedEntry.parseSingleEntry(entity.getText());
+    }
+
+    @Override
+    protected List<PartitionSpeedEntry> parseEntries(Representation entity) throws IOException {
+        return PartitionSpeedEntry.parse(entity.getText());
+    }
+
+    @Override
+    public boolean allowPut() {
+        return true;
+    }
+}
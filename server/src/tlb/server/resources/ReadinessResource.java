@@ -0,0 +1,38 @@
+package tlb.server.resources;
+
+import org.restlet.Context;
+import org.restlet.data.MediaType;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.data.Status;
+import org.restlet.resource.Representation;
+import org.restlet.resource.Resource;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.StringRepresentation;
+import org.restlet.resource.Variant;
+import tlb.server.repo.RepoWarmUp;
+
+import static tlb.TlbConstants.Server.REPO_WARM_UP;
+
+/**
+ * @understands telling load balancers in front of tlb server whether it is ready to take traffic
+ */
+public class ReadinessResource extends Resource {
+    static final String READY_STATUS = "ready";
+    static final String WARMING_UP_STATUS = "warming up";
+
+    public ReadinessResource(Context context, Request request, Response response) {
+        super(context, request, response);
+        getVariants().add(new Variant(MediaType.TEXT_PLAIN));
+    }
+
+    @Override
+    public Representation represent(Variant variant) throws ResourceException {
+        RepoWarmUp warmUp = (RepoWarmUp) getContext().getAttributes().get(REPO_WARM_UP);
+        if (warmUp == null || warmUp.isDone()) {
+            return new StringRepresentation(READY_STATUS);
+        }
+        getResponse().setStatus(Status.SERVER_ERROR_SERVICE_UNAVAILABLE);
+        return new StringRepresentation(WARMING_UP_STATUS);
+    }
+}
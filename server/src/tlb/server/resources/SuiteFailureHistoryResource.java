@@ -0,0 +1,44 @@
+package tlb.server.resources;
+
+import org.restlet.Context;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.resource.Representation;
+import tlb.domain.Entry;
+import tlb.server.repo.EntryRepoFactory;
+import tlb.server.repo.SuiteFailureHistoryRepo;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @understands suites ranked by how likely they are to fail, going by their failure history
+ */
+public class SuiteFailureHistoryResource extends SimpleCRUResource<SuiteFailureHistoryRepo> {
+    public SuiteFailureHistoryResource(Context context, Request request, Response response) {
+        super(context, request, response);
+        setModifiable(false);
+    }
+
+    @Override
+    protected SuiteFailureHistoryRepo getRepo(EntryRepoFactory repoFactory, String namespace) throws IOException, ClassNotFoundException {
+        return repoFactory.createSuiteFailureHistoryRepo(namespace);
+    }
+
+    @Override
+    protected Collection<Entry> getListing() throws IOException, ClassNotFoundException {
+        return new ArrayList<Entry>(repo.ranked());
+    }
+
+    @Override
+    protected Entry parseEntry(Representation entity) throws IOException {
+        throw new UnsupportedOperationException("failure history is only updated by reporting suite results");
+    }
+
+    @Override
+    protected List<Entry> parseEntries(Representation entity) throws IOException {
+        throw new UnsupportedOperationException("failure history is only updated by reporting suite results");
+    }
+}
@@ -2,11 +2,14 @@ package tlb.server.resources;
 
 import tlb.domain.Entry;
 import tlb.domain.SuiteResultEntry;
+import org.apache.log4j.Logger;
 import tlb.server.repo.EntryRepoFactory;
 import org.restlet.Context;
 import org.restlet.data.Request;
 import org.restlet.data.Response;
 import org.restlet.resource.Representation;
+import org.restlet.resource.ResourceException;
+import tlb.server.repo.SuiteFailureHistoryRepo;
 import tlb.server.repo.SuiteResultRepo;
 
 import java.io.IOException;
@@ -16,11 +19,19 @@ import java.util.List;
  * @understands result of suite reported by job
  */
 public class SuiteResultResource extends SimpleCRUResource<SuiteResultRepo> {
+    private static final Logger logger = Logger.getLogger(SuiteResultResource.class.getName());
+    protected SuiteFailureHistoryRepo failureHistoryRepo;
 
     public SuiteResultResource(Context context, Request request, Response response) {
         super(context, request, response);
     }
 
+    @Override
+    protected void createRepos() throws IOException, ClassNotFoundException {
+        super.createRepos();
+        failureHistoryRepo = repoFactory().createSuiteFailureHistoryRepo(reqNamespace());
+    }
+
     @Override
     protected SuiteResultRepo getRepo(EntryRepoFactory repoFactory, String namespace) throws IOException, ClassNotFoundException {
         return repoFactory.createSuiteResultRepo(namespace, EntryRepoFactory.LATEST_VERSION);
@@ -36,6 +47,18 @@ public class SuiteResultResource extends SimpleCRUResource<SuiteResultRepo> {
         return SuiteResultEntry.parse(entity.getText());
     }
 
+    @Override
+    public void storeRepresentation(Representation entity) throws ResourceException {
+        try {
+            List<SuiteResultEntry> results = parseEntries(entity);
+            repo.updateAll(results);
+            failureHistoryRepo.recordAll(results);
+        } catch (Exception e) {
+            logger.warn(String.format("update of representation failed for %s", entity), e);
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
     public boolean allowPut() {
         return true;
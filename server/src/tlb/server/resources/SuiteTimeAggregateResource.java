@@ -0,0 +1,50 @@
+package tlb.server.resources;
+
+import org.restlet.Context;
+import org.restlet.data.MediaType;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.data.Status;
+import org.restlet.resource.Representation;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.StringRepresentation;
+import org.restlet.resource.Variant;
+import tlb.domain.Entry;
+import tlb.domain.SuiteTimeHistoryEntry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static tlb.TlbConstants.Server.SUITE_TIME_AGGREGATE;
+
+/**
+ * @understands versioned run time of suites aggregated over their last few runs
+ */
+public class SuiteTimeAggregateResource extends SuiteTimeHistoryResource {
+    public SuiteTimeAggregateResource(Context context, Request request, Response response) {
+        super(context, request, response);
+    }
+
+    @Override
+    public Representation represent(Variant variant) throws ResourceException {
+        try {
+            SuiteTimeHistoryEntry.Aggregate.named(strAttr(SUITE_TIME_AGGREGATE));
+        } catch (IllegalArgumentException e) {
+            List<String> validNames = new ArrayList<String>();
+            for (SuiteTimeHistoryEntry.Aggregate aggregate : SuiteTimeHistoryEntry.Aggregate.values()) {
+                validNames.add(aggregate.name().toLowerCase());
+            }
+            String message = String.format("unknown aggregate '%s', valid aggregates are %s", strAttr(SUITE_TIME_AGGREGATE), validNames);
+            getResponse().setStatus(new Status(Status.CLIENT_ERROR_BAD_REQUEST, message));
+            return new StringRepresentation(message, MediaType.TEXT_PLAIN);
+        }
+        return super.represent(variant);
+    }
+
+    @Override
+    protected Collection<Entry> getListing() throws IOException, ClassNotFoundException {
+        return new ArrayList<Entry>(repo.aggregated(SuiteTimeHistoryEntry.Aggregate.named(strAttr(SUITE_TIME_AGGREGATE))));
+    }
+}
@@ -1,5 +1,6 @@
 package tlb.server.resources;
 
+import org.apache.log4j.Logger;
 import tlb.domain.Entry;
 import tlb.domain.SuiteTimeEntry;
 import tlb.server.repo.EntryRepoFactory;
@@ -7,6 +8,8 @@ import org.restlet.Context;
 import org.restlet.data.Request;
 import org.restlet.data.Response;
 import org.restlet.resource.Representation;
+import org.restlet.resource.ResourceException;
+import tlb.server.repo.SuiteTimeHistoryRepo;
 import tlb.server.repo.SuiteTimeRepo;
 
 import java.io.IOException;
@@ -16,10 +19,19 @@ import java.util.List;
  * @understands run time of suite reported by job
  */
 public class SuiteTimeResource extends SimpleCRUResource<SuiteTimeRepo> {
+    private static final Logger logger = Logger.getLogger(SuiteTimeResource.class.getName());
+    protected SuiteTimeHistoryRepo historyRepo;
+
     public SuiteTimeResource(Context context, Request request, Response response) {
         super(context, request, response);
     }
 
+    @Override
+    protected void createRepos() throws IOException, ClassNotFoundException {
+        super.createRepos();
+        historyRepo = repoFactory().createSuiteTimeHistoryRepo(reqNamespace(), EntryRepoFactory.LATEST_VERSION);
+    }
+
     @Override
     protected SuiteTimeRepo getRepo(EntryRepoFactory repoFactory, String namespace) throws ClassNotFoundException, IOException {
         return repoFactory.createSuiteTimeRepo(namespace, EntryRepoFactory.LATEST_VERSION);
@@ -35,6 +47,18 @@ public class SuiteTimeResource extends SimpleCRUResource<SuiteTimeRepo> {
         return SuiteTimeEntry.parse(entity.getText());
     }
 
+    @Override
+    public void storeRepresentation(Representation entity) throws ResourceException {
+        try {
+            List<SuiteTimeEntry> suiteTimes = parseEntries(entity);
+            repo.updateAll(suiteTimes);
+            historyRepo.recordAll(suiteTimes);
+        } catch (Exception e) {
+            logger.warn(String.format("update of representation failed for %s", entity), e);
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
     public boolean allowPut() {
         return true;
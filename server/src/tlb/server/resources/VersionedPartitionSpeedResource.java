@@ -0,0 +1,37 @@
+package tlb.server.resources;
+
+import org.restlet.Context;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.resource.Representation;
+import tlb.domain.Entry;
+import tlb.server.repo.EntryRepoFactory;
+import tlb.server.repo.PartitionSpeedRepo;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * @understands versioned speed of partitions, as it was when job version first asked for it
+ */
+public class VersionedPartitionSpeedResource extends SimpleCRUResource<PartitionSpeedRepo> {
+    public VersionedPartitionSpeedResource(Context context, Request request, Response response) {
+        super(context, request, response);
+        setModifiable(false);
+    }
+
+    @Override
+    protected PartitionSpeedRepo getRepo(EntryRepoFactory repoFactory, String namespace) throws ClassNotFoundException, IOException {
+        return repoFactory.createPartitionSpeedRepo(namespace, reqVersion());
+    }
+
+    @Override
+    protected Entry parseEntry(Representation entity) throws IOException {
+        throw new UnsupportedOperationException("parsing does not make sense, as mutation of versioned data is not allowed");
+    }
+
+    @Override
+    protected List<Entry> parseEntries(Representation entity) throws IOException {
+        throw new UnsupportedOperationException("parsing does not make sense, as mutation of versioned data is not allowed");
+    }
+}
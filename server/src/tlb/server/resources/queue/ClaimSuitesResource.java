@@ -0,0 +1,81 @@
+package tlb.server.resources.queue;
+
+import org.apache.log4j.Logger;
+import org.restlet.Context;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.data.Status;
+import org.restlet.resource.Representation;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.StringRepresentation;
+import tlb.domain.PartitionIdentifier;
+import tlb.domain.SuiteNamePartitionEntry;
+import tlb.server.repo.SuiteQueueRepo;
+import tlb.server.resources.TlbResource;
+
+import java.io.IOException;
+import java.util.List;
+
+import static tlb.TlbConstants.Correctness.NO_SUITE_QUEUE_FOUND;
+import static tlb.TlbConstants.Server.JOB_NUMBER;
+import static tlb.TlbConstants.Server.TOTAL_JOBS;
+
+/**
+ * @understands handing out next batch of queued suites to a partition that asks for more work
+ */
+public class ClaimSuitesResource extends TlbResource {
+    private static final Logger logger = Logger.getLogger(ClaimSuitesResource.class.getName());
+
+    private SuiteQueueRepo suiteQueueRepo;
+
+    public ClaimSuitesResource(Context context, Request request, Response response) {
+        super(context, request, response);
+        setModifiable(false);
+        setReadable(false);
+    }
+
+    @Override
+    protected void createRepos() throws IOException, ClassNotFoundException {
+        suiteQueueRepo = repoFactory().createSuiteQueueRepo(reqNamespace(), reqVersion(), reqModuleName());
+    }
+
+    @Override
+    public boolean allowPost() {
+        return true;
+    }
+
+    @Override
+    public void acceptRepresentation(Representation entity) throws ResourceException {
+        if (! suiteQueueRepo.isPrimed()) {
+            getResponse().setStatus(new Status(Status.CLIENT_ERROR_NOT_ACCEPTABLE, NO_SUITE_QUEUE_FOUND));
+            getResponse().setEntity(new StringRepresentation("Suite queue for given job-name, job-version and module-name combination doesn't exist."));
+            return;
+        }
+        List<SuiteNamePartitionEntry> claimed = suiteQueueRepo.claim(new PartitionIdentifier(jobNumber(), totalJobs()), batchSize(entity));
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("Partition %s/%s of %s[v:%s](m:%s) claimed %s suites.", jobNumber(), totalJobs(), reqNamespace(), reqVersion(), reqModuleName(), claimed.size()));
+        }
+        StringBuilder builder = new StringBuilder();
+        for (SuiteNamePartitionEntry entry : claimed) {
+            builder.append(entry.getName()).append("\n");
+        }
+        getResponse().setEntity(new StringRepresentation(builder));
+    }
+
+    private int batchSize(Representation entity) {
+        try {
+            String body = entity == null ? null : entity.getText();
+            return body == null || body.trim().length() == 0 ? 1 : Integer.parseInt(body.trim());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private int totalJobs() {
+        return Integer.parseInt(strAttr(TOTAL_JOBS));
+    }
+
+    private int jobNumber() {
+        return Integer.parseInt(strAttr(JOB_NUMBER));
+    }
+}
@@ -0,0 +1,83 @@
+package tlb.server.resources.queue;
+
+import org.apache.log4j.Logger;
+import org.restlet.Context;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.data.Status;
+import org.restlet.resource.Representation;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.StringRepresentation;
+import org.restlet.resource.Variant;
+import tlb.domain.SuiteNamePartitionEntry;
+import tlb.server.repo.EntryRepoFactory;
+import tlb.server.repo.SetRepo;
+import tlb.server.repo.SuiteQueueRepo;
+import tlb.server.resources.TlbResource;
+import tlb.utils.Function;
+import tlb.utils.Procedure;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import static tlb.TlbConstants.Correctness.CURRENT_PARTITION_POSTED_INCORRECT_UNIVERSAL_SET;
+
+/**
+ * @understands defining the queue of suites partitions of a build claim work from, and reporting who claimed what
+ */
+public class SuiteQueueResource extends TlbResource {
+    private static final Logger logger = Logger.getLogger(SuiteQueueResource.class.getName());
+
+    protected SuiteQueueRepo suiteQueueRepo;
+
+    public SuiteQueueResource(Context context, Request request, Response response) {
+        super(context, request, response);
+        setModifiable(false);
+    }
+
+    @Override
+    protected void createRepos() throws IOException, ClassNotFoundException {
+        suiteQueueRepo = repoFactory().createSuiteQueueRepo(reqNamespace(), reqVersion(), reqModuleName());
+    }
+
+    @Override
+    public boolean allowPost() {
+        return true;
+    }
+
+    @Override
+    public Representation represent(Variant variant) throws ResourceException {
+        return new StringRepresentation(SuiteNamePartitionEntry.dump(suiteQueueRepo.sortedList()));
+    }
+
+    @Override
+    public void acceptRepresentation(Representation entity) throws ResourceException {
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("Some partition of %s[v:%s](m:%s) reported suites to be queued.", reqNamespace(), reqVersion(), reqModuleName()));
+        }
+        if (! suiteQueueRepo.isPrimed()) {
+            synchronized (EntryRepoFactory.mutex(suiteQueueRepo.getIdentifier())) {
+                if (! suiteQueueRepo.isPrimed()) {
+                    reqPayload(new Procedure<Reader, IOException>() {
+                        public void perform(Reader reader) throws IOException {
+                            suiteQueueRepo.define(reader, repoFactory().createSuiteTimeRepo(reqNamespace(), EntryRepoFactory.LATEST_VERSION).list());
+                        }
+                    }, entity);
+                    getResponse().setStatus(new Status(Status.SUCCESS_CREATED, "First definition of suite queue stored"));
+                    return;
+                }
+            }
+        }
+        SetRepo.OperationResult match = reqPayload(new Function<Reader, IOException, SetRepo.OperationResult>() {
+            public SetRepo.OperationResult execute(Reader reader) throws IOException {
+                return suiteQueueRepo.tryMatching(reader);
+            }
+        }, entity);
+        if (match.isSuccess()) {
+            getResponse().setStatus(Status.SUCCESS_OK);
+        } else {
+            getResponse().setStatus(new Status(Status.CLIENT_ERROR_CONFLICT, CURRENT_PARTITION_POSTED_INCORRECT_UNIVERSAL_SET));
+            getResponse().setEntity(new StringRepresentation(match.getMessage()));
+        }
+    }
+}
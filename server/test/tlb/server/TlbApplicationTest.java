@@ -8,6 +8,8 @@ import tlb.server.resources.correctness.HomeResource;
 import tlb.server.resources.correctness.UpdateSubsetResource;
 import tlb.server.resources.correctness.UpdateUniversalSetResource;
 import tlb.server.resources.correctness.VerifyPartitionCompletenessResource;
+import tlb.server.resources.queue.ClaimSuitesResource;
+import tlb.server.resources.queue.SuiteQueueResource;
 
 import java.util.HashMap;
 
@@ -58,6 +60,38 @@ public class TlbApplicationTest {
         assertThat(((Finder)restlet).getTargetClass().getName(), is(SuiteResultResource.class.getName()));
     }
 
+    @Test
+    public void shouldHaveRouteForSuiteFailureHistory() {
+        HashMap<String, Restlet> routeMaping = getRoutePatternsAndResources(app);
+        assertThat(routeMaping.keySet(), hasItem("/{namespace}/suite_failure_history"));
+        Restlet restlet = routeMaping.get("/{namespace}/suite_failure_history");
+        assertThat(((Finder)restlet).getTargetClass().getName(), is(SuiteFailureHistoryResource.class.getName()));
+    }
+
+    @Test
+    public void shouldHaveRouteForReadiness() {
+        HashMap<String, Restlet> routeMaping = getRoutePatternsAndResources(app);
+        assertThat(routeMaping.keySet(), hasItem("/ready"));
+        Restlet restlet = routeMaping.get("/ready");
+        assertThat(((Finder)restlet).getTargetClass().getName(), is(ReadinessResource.class.getName()));
+    }
+
+    @Test
+    public void shouldHaveRouteForPartitionSpeed() {
+        HashMap<String, Restlet> routeMaping = getRoutePatternsAndResources(app);
+        assertThat(routeMaping.keySet(), hasItem("/{namespace}/partition_speed"));
+        Restlet restlet = routeMaping.get("/{namespace}/partition_speed");
+        assertThat(((Finder)restlet).getTargetClass().getName(), is(PartitionSpeedResource.class.getName()));
+    }
+
+    @Test
+    public void shouldHaveRouteForVersionedPartitionSpeed() {
+        HashMap<String, Restlet> routeMaping = getRoutePatternsAndResources(app);
+        assertThat(routeMaping.keySet(), hasItem("/{namespace}/partition_speed/{listing_version}"));
+        Restlet restlet = routeMaping.get("/{namespace}/partition_speed/{listing_version}");
+        assertThat(((Finder)restlet).getTargetClass().getName(), is(VersionedPartitionSpeedResource.class.getName()));
+    }
+
     @Test
     public void shouldHaveAn_updateUniversalSet_RouteForCorrectnessCheck() {
         HashMap<String, Restlet> routeMaping = getRoutePatternsAndResources(app);
@@ -82,6 +116,17 @@ public class TlbApplicationTest {
         assertThat(((Finder)restlet).getTargetClass().getName(), is(VerifyPartitionCompletenessResource.class.getName()));
     }
 
+    @Test
+    public void shouldHaveRoutesForDefiningAndClaimingFromSuiteQueue() {
+        HashMap<String, Restlet> routeMaping = getRoutePatternsAndResources(app);
+        assertThat(routeMaping.keySet(), hasItem("/{namespace}/suite_queue/{listing_version}/universal_set/{module_name}"));
+        Restlet restlet = routeMaping.get("/{namespace}/suite_queue/{listing_version}/universal_set/{module_name}");
+        assertThat(((Finder)restlet).getTargetClass().getName(), is(SuiteQueueResource.class.getName()));
+        assertThat(routeMaping.keySet(), hasItem("/{namespace}/suite_queue/{listing_version}/{total_jobs}/{job_number}/claim/{module_name}"));
+        restlet = routeMaping.get("/{namespace}/suite_queue/{listing_version}/{total_jobs}/{job_number}/claim/{module_name}");
+        assertThat(((Finder)restlet).getTargetClass().getName(), is(ClaimSuitesResource.class.getName()));
+    }
+
     @Test
     public void shouldHaveARouteFor_homePage() {
         Route defaultRoute = ((Router) app.createRoot()).getDefaultRoute();
@@ -6,17 +6,21 @@ import org.junit.Test;
 import org.restlet.Component;
 import org.restlet.Context;
 import org.restlet.Restlet;
+import org.restlet.Server;
 import org.restlet.util.ServerList;
 import tlb.TestUtil;
 import tlb.TlbConstants;
 import tlb.domain.SubsetSizeEntry;
 import tlb.server.repo.EntryRepoFactory;
+import tlb.server.repo.RepoWarmUp;
 import tlb.server.repo.SubsetSizeRepo;
 import tlb.utils.SystemEnvironment;
 
 import java.io.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static junit.framework.Assert.fail;
 import static org.hamcrest.core.Is.is;
@@ -37,6 +41,7 @@ public class TlbServerInitializerTest {
     @Before
     public void setUp() {
         systemEnv = new HashMap<String, String>();
+        systemEnv.put(TlbConstants.Server.TLB_REPO_PREWARM_LIMIT.key, "0");
         SystemEnvironment env = new SystemEnvironment(systemEnv);
         initializer = new TlbServerInitializer(env);
     }
@@ -68,6 +73,30 @@ public class TlbServerInitializerTest {
     }
 
 
+    @Test
+    public void shouldUseBlockingSocketConnectorByDefault() {
+        assertThat(initializer.connectorConfig().getMode(), is(ConnectorConfig.Mode.blocking));
+        Server server = initializer.init().getServers().get(0);
+        assertThat(server.getContext().getParameters().size(), is(1));
+        assertThat(server.getContext().getParameters().getFirstValue("type"), is("3"));
+    }
+
+    @Test
+    public void shouldUseNonBlockingConnectorWithConfiguredPoolsWhenAskedTo() {
+        systemEnv.put(TlbConstants.Server.TLB_SERVER_CONNECTOR.key, "nio");
+        systemEnv.put(TlbConstants.Server.TLB_SERVER_ACCEPTOR_THREADS.key, "4");
+        systemEnv.put(TlbConstants.Server.TLB_SERVER_MIN_WORKER_THREADS.key, "32");
+        systemEnv.put(TlbConstants.Server.TLB_SERVER_MAX_WORKER_THREADS.key, "512");
+        systemEnv.put(TlbConstants.Server.TLB_SERVER_ACCEPT_QUEUE_SIZE.key, "4096");
+        Map<String, String> expected = new LinkedHashMap<String, String>();
+        expected.put("type", "1");
+        expected.put("acceptorThreads", "4");
+        expected.put("minThreads", "32");
+        expected.put("maxThreads", "512");
+        expected.put("acceptQueueSize", "4096");
+        assertThat(new TlbServerInitializer(new SystemEnvironment(systemEnv)).connectorConfig().parameters(), is(expected));
+    }
+
     @Test
     public void shouldRegisterEntryRepoFactoryExitHook() {
         final EntryRepoFactory repoFactory = mock(EntryRepoFactory.class);
@@ -87,6 +116,50 @@ public class TlbServerInitializerTest {
         verify(repoFactory).registerExitHook();
     }
 
+    @Test
+    public void shouldWarmUpRepoFactoryInBackground_andPublishWarmUpForReadinessChecks() {
+        final EntryRepoFactory repoFactory = mock(EntryRepoFactory.class);
+        final RepoWarmUp[] started = new RepoWarmUp[1];
+        systemEnv.put(TlbConstants.Server.TLB_REPO_PREWARM_LIMIT.key, "32");
+        systemEnv.put(TlbConstants.Server.TLB_REPO_PREWARM_THREADS.key, "8");
+        systemEnv.put(TlbConstants.Server.TLB_REPO_PREWARM_MEMORY_BUDGET_IN_MB.key, "2");
+        TlbServerInitializer initializer = new TlbServerInitializer(new SystemEnvironment(systemEnv)) {
+            @Override
+            EntryRepoFactory repoFactory() {
+                return repoFactory;
+            }
+
+            @Override
+            void startWarmUp(RepoWarmUp warmUp) {
+                started[0] = warmUp;
+            }
+        };
+        Context ctx = initializer.application().getContext();
+        assertThat((RepoWarmUp) ctx.getAttributes().get(TlbConstants.Server.REPO_WARM_UP), sameInstance(started[0]));
+        assertThat(started[0].isDone(), is(false));
+        verify(repoFactory, never()).prewarm(anyInt(), anyInt(), anyLong());
+
+        started[0].run();
+        verify(repoFactory).prewarm(32, 8, 2 * 1024 * 1024l);
+        assertThat(started[0].isDone(), is(true));
+    }
+
+    @Test
+    public void shouldWarmUpRepoFactoryOnBackgroundThread() throws InterruptedException {
+        final CountDownLatch warmedUp = new CountDownLatch(1);
+        final String[] warmedUpOn = new String[1];
+        RepoWarmUp warmUp = new RepoWarmUp(mock(EntryRepoFactory.class), 1, 1, 1) {
+            @Override
+            public void run() {
+                warmedUpOn[0] = Thread.currentThread().getName();
+                warmedUp.countDown();
+            }
+        };
+        initializer.startWarmUp(warmUp);
+        assertThat(warmedUp.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(warmedUpOn[0], is("tlb-repo-warm-up"));
+    }
+
     @Test
     public void shouldInitializeEntryRepoFactoryWithPresentWorkingDirectoryAsDiskStorageRoot() throws IOException, ClassNotFoundException {
         EntryRepoFactory factory = initializer.repoFactory();
@@ -157,12 +230,14 @@ public class TlbServerInitializerTest {
         verifyNoMoreInteractions(repoFactory);
 
         tasks[0].run();
-        verify(repoFactory).purgeVersionsOlderThan(7);
+        verify(repoFactory).purgeVersionsOlderThan(7, 500, 1000l);
         verifyNoMoreInteractions(repoFactory);
 
         final EntryRepoFactory anotherRepoFactory = mock(EntryRepoFactory.class);
 
         systemEnv.put(TLB_VERSION_LIFE_IN_DAYS.key, "3");
+        systemEnv.put(TlbConstants.Server.TLB_PURGE_BATCH_SIZE.key, "50");
+        systemEnv.put(TlbConstants.Server.TLB_PURGE_BATCH_PAUSE_IN_MILLIS.key, "20");
 
         new TlbServerInitializer(new SystemEnvironment(systemEnv), timer) {
             @Override
@@ -175,7 +250,7 @@ public class TlbServerInitializerTest {
         verifyNoMoreInteractions(repoFactory);
 
         tasks[0].run();
-        verify(anotherRepoFactory).purgeVersionsOlderThan(3);
+        verify(anotherRepoFactory).purgeVersionsOlderThan(3, 50, 20l);
         verifyNoMoreInteractions(repoFactory);
     }
 
@@ -5,7 +5,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNull.nullValue;
@@ -55,4 +57,21 @@ public class CacheTest {
         assertThat(testObjectCache.get("foo"), nullValue());
     }
 
+    @Test
+    public void shouldTellListenerOfValuesLetGoOfToStayWithinSize_butNotOfOnesRemovedOnRequest() throws InterruptedException {
+        final Map<String, TestObject> evicted = new HashMap<String, TestObject>();
+        Cache<TestObject> cache = new Cache<TestObject>(1, new Cache.EvictionListener<TestObject>() {
+            public void evicted(String key, TestObject value) {
+                evicted.put(key, value);
+            }
+        });
+        cache.put("foo", cachedObject);
+        Thread.sleep(1);
+        cache.put("bar", new TestObject());
+
+        assertThat(evicted.size(), is(1));
+        assertThat(evicted.get("foo"), sameInstance(cachedObject));
+        cache.remove("bar");
+        assertThat(evicted.size(), is(1));
+    }
 }
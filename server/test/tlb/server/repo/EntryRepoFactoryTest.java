@@ -18,6 +18,9 @@ import tlb.utils.SystemEnvironment;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
@@ -84,11 +87,11 @@ public class EntryRepoFactoryTest {
         partitionRepo.subsetReceivedFromPartition(new PartitionIdentifier(2, 3));
         partitionRepo.subsetReceivedFromPartition(new PartitionIdentifier(1, 3));
 
-        assertThat("No files should exist as sync on this factory has never been called.", baseDir.list().length, is(0));
+        assertThat("No files should exist as sync on this factory has never been called.", dumpedFiles().size(), is(0));
 
         factory.syncReposToDisk();
 
-        assertThat("Files should exist as sync on this factory has been called.", baseDir.list().length, is(6));//repo ledger is there as well
+        assertThat("Files should exist as sync on this factory has been called.", dumpedFiles().size(), is(6));//repo ledger is there as well
 
         assertContentIs(new EntryRepoFactory.VersionedNamespace(LATEST_VERSION, SUBSET_SIZE).getIdUnder("dev"), "10");
         assertContentIs(new EntryRepoFactory.VersionedNamespace(LATEST_VERSION, SUITE_TIME).getIdUnder("dev"), "foo.bar.Quux: 25");
@@ -120,11 +123,11 @@ public class EntryRepoFactoryTest {
 
         FileUtils.cleanDirectory(baseDir);
 
-        assertThat(baseDir.list().length, is(0));
+        assertThat(dumpedFiles().size(), is(0));
 
         factory.syncReposToDisk();
 
-        assertThat("No files should exist as no repos were dirty when sync-to-disk was called.", baseDir.list().length, is(0));
+        assertThat("No files should exist as no repos were dirty when sync-to-disk was called.", dumpedFiles().size(), is(0));
 
         subsetRepo.add(new SubsetSizeEntry(21));
         suiteTimeRepo.update(new SuiteTimeEntry("foo.bar.Bang", 35));
@@ -137,7 +140,7 @@ public class EntryRepoFactoryTest {
 
         factory.syncReposToDisk();
 
-        assertThat("Files should exist as sync on this factory has been called.", baseDir.list().length, is(5));
+        assertThat("Files should exist as sync on this factory has been called.", dumpedFiles().size(), is(5));
 
         assertContentIs(new EntryRepoFactory.VersionedNamespace(LATEST_VERSION, SUBSET_SIZE).getIdUnder("dev"), "10", "21");
         assertContentIs(new EntryRepoFactory.VersionedNamespace(LATEST_VERSION, SUITE_TIME).getIdUnder("dev"), "foo.bar.Quux: 25", "foo.bar.Bang: 35");
@@ -147,7 +150,7 @@ public class EntryRepoFactoryTest {
     }
 
     private void assertContentIs(final String fileName, String... str) throws IOException {
-        List list = IOUtils.readLines(new FileInputStream(new File(baseDir, fileName)));
+        List list = IOUtils.readLines(new FileInputStream(dumped(fileName)));
         assertThat("Expected content lines and number-of-lines-in-file do not match", list.size(), is(str.length));
         for (int i = 0; i < str.length; i++) {
             assertThat((String) list.get(i), is(str[i]));
@@ -223,6 +226,16 @@ public class EntryRepoFactoryTest {
         assertThat(suiteResultRepo, is(SuiteResultRepo.class));
     }
 
+    @Test
+    public void shouldNotOverrideUniversalSetRepoWithSuiteQueueRepo() throws ClassNotFoundException, IOException {
+        SetRepo universalSetRepo = factory.createUniversalSetRepo("dev", "version", "module");
+        SuiteQueueRepo suiteQueueRepo = factory.createSuiteQueueRepo("dev", "version", "module");
+        assertThat(factory.createUniversalSetRepo("dev", "version", "module"), sameInstance(universalSetRepo));
+        assertThat(factory.createSuiteQueueRepo("dev", "version", "module"), sameInstance(suiteQueueRepo));
+        assertThat(suiteQueueRepo, is(SuiteQueueRepo.class));
+        assertThat(factory.createSuiteQueueRepo("dev", "version", "other-module"), not(sameInstance(suiteQueueRepo)));
+    }
+
     @Test
     public void shouldKeepRecordOfAllReposCreated() throws IllegalAccessException, IOException, ClassNotFoundException {
         RepoLedger reposLedger = repoLedger(factory);
@@ -399,6 +412,46 @@ public class EntryRepoFactoryTest {
         assertThat(repo.list(), is((Collection<SubsetSizeEntry>) Arrays.asList(new SubsetSizeEntry(1), new SubsetSizeEntry(2), new SubsetSizeEntry(3))));
     }
 
+    @Test
+    public void shouldMoveFlatLayoutDumpsIntoShardsOnStartup() throws IOException, ClassNotFoundException, IllegalAccessException {
+        File flatStore = new File(tmpDir, "flat_tlb_store");
+        flatStore.mkdirs();
+        String suiteTimeId = idOf("foo", SUITE_TIME);
+        FileUtils.writeStringToFile(new File(flatStore, suiteTimeId), "foo.bar.Baz: 10\n");
+        String ledgerId = new EntryRepoFactory.VersionedNamespace(LATEST_VERSION, "REPO_LEDGER").getIdUnder(EntryRepoFactory.ERF_NAMESPACE);
+        FileUtils.writeStringToFile(new File(flatStore, ledgerId), suiteTimeId + ": -1\n");
+
+        EntryRepoFactory factory = new EntryRepoFactory(flatStore, timeProvider, 100);
+
+        assertThat(new File(flatStore, suiteTimeId).exists(), is(false));
+        assertThat(new File(flatStore, ledgerId).exists(), is(false));
+        assertThat(new ShardedDataDir(flatStore).fileFor(suiteTimeId).exists(), is(true));
+        assertThat(factory.createSuiteTimeRepo("foo", LATEST_VERSION).list(), hasItem(new SuiteTimeEntry("foo.bar.Baz", 10)));
+        assertThat(reposInLedger(factory), hasItem(suiteTimeId));
+    }
+
+    @Test
+    public void shouldDumpRepoCacheLetGoOf_soItIsReadBackUpToDate_andItsSnapshotsStopSharingEntriesWithIt() throws IOException, InterruptedException {
+        factory = new EntryRepoFactory(baseDir, timeProvider, 3);
+        SuiteTimeRepo latest = factory.createSuiteTimeRepo("foo", LATEST_VERSION);
+        latest.update(new SuiteTimeEntry("foo/Bar", 10l));
+        SuiteTimeRepo version = factory.createSuiteTimeRepo("foo", "version");
+        latest.update(new SuiteTimeEntry("foo/Bar", 15l));
+        for (int i = 0; i < 5; i++) {
+            Thread.sleep(1);
+            factory.createSuiteTimeRepo("other-" + i, LATEST_VERSION);
+        }
+        assertThat(factory.getRepos().get(latest.getIdentifier()), is(nullValue()));
+
+        factory.syncEvictedReposToDisk();
+        SuiteTimeRepo reloaded = factory.createSuiteTimeRepo("foo", LATEST_VERSION);
+
+        assertThat(reloaded, not(sameInstance(latest)));
+        assertThat(reloaded.sortedList(), is(Arrays.asList(new SuiteTimeEntry("foo/Bar", 15l))));
+        assertThat(version.isSnapshot(), is(false));
+        assertThat(version.sortedList(), is(Arrays.asList(new SuiteTimeEntry("foo/Bar", 10l))));
+    }
+
     @Test
     public void shouldNotLoadDiskDumpWhenUsingARepoThatIsAlreadyCreated() throws ClassNotFoundException, IOException {
         SubsetSizeRepo fooRepo = factory.createSubsetRepo("foo", LATEST_VERSION);
@@ -410,6 +463,219 @@ public class EntryRepoFactoryTest {
         assertThat(factory.createSubsetRepo("foo", LATEST_VERSION).list().size(), is(0));
     }
 
+    @Test
+    public void shouldLoadRepoJustOnce_whenManyCallersAskForItAtTheSameTime() throws InterruptedException {
+        final AtomicInteger creations = new AtomicInteger(0);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<EntryRepo> loaded = Collections.synchronizedList(new ArrayList<EntryRepo>());
+        List<Thread> callers = new ArrayList<Thread>();
+        for (int i = 0; i < 20; i++) {
+            Thread caller = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        start.await();
+                        loaded.add(factory.findOrCreate("herd", new EntryRepoFactory.VersionedNamespace(LATEST_VERSION, SUITE_TIME), new EntryRepoFactory.Creator<SuiteTimeRepo>() {
+                            public SuiteTimeRepo create() {
+                                creations.incrementAndGet();
+                                try {
+                                    Thread.sleep(50);
+                                } catch (InterruptedException e) {
+                                    throw new RuntimeException(e);
+                                }
+                                return new SuiteTimeRepo();
+                            }
+                        }, null));
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
+            caller.start();
+            callers.add(caller);
+        }
+        start.countDown();
+        for (Thread caller : callers) {
+            caller.join();
+        }
+        assertThat(creations.get(), is(1));
+        assertThat(loaded.size(), is(20));
+        for (EntryRepo repo : loaded) {
+            assertThat(repo, sameInstance(loaded.get(0)));
+        }
+    }
+
+    @Test
+    public void shouldNotRememberFailedLoad_soNextCallerTriesAgain() throws IOException {
+        final EntryRepoFactory.VersionedNamespace idScheme = new EntryRepoFactory.VersionedNamespace(LATEST_VERSION, SUITE_TIME);
+        try {
+            factory.findOrCreate("flaky", idScheme, new EntryRepoFactory.Creator<SuiteTimeRepo>() {
+                public SuiteTimeRepo create() {
+                    throw new RuntimeException("could not create");
+                }
+            }, null);
+            fail("should have propagated creation failure");
+        } catch (RuntimeException e) {
+            assertThat(e.getMessage(), is("could not create"));
+        }
+        assertThat(factory.getRepos().get(idScheme.getIdUnder("flaky")), is(nullValue()));
+
+        SuiteTimeRepo repo = factory.findOrCreate("flaky", idScheme, new EntryRepoFactory.Creator<SuiteTimeRepo>() {
+            public SuiteTimeRepo create() {
+                return new SuiteTimeRepo();
+            }
+        }, null);
+        assertThat(factory.getRepos().get(idScheme.getIdUnder("flaky")), sameInstance((EntryRepo) repo));
+    }
+
+    @Test
+    public void shouldPropagateIOExceptionFromLoadAsIs() throws IOException {
+        baseDir.mkdirs();
+        final EntryRepoFactory.VersionedNamespace idScheme = new EntryRepoFactory.VersionedNamespace(LATEST_VERSION, SUITE_TIME);
+        FileUtils.writeStringToFile(new File(baseDir, idScheme.getIdUnder("broken")), "foo.bar.Baz: 10\n");
+        final SuiteTimeRepo repo = mock(SuiteTimeRepo.class);
+        doThrow(new IOException("disk went away")).when(repo).loadCopyFromDisk(any(Reader.class));
+        try {
+            factory.findOrCreate("broken", idScheme, new EntryRepoFactory.Creator<SuiteTimeRepo>() {
+                public SuiteTimeRepo create() {
+                    return repo;
+                }
+            }, null);
+            fail("should have propagated load failure");
+        } catch (IOException e) {
+            assertThat(e.getMessage(), is("disk went away"));
+        }
+        assertThat(factory.getRepos().get(idScheme.getIdUnder("broken")), is(nullValue()));
+    }
+
+    @Test
+    public void shouldPrewarmMostRecentlyWrittenLatestRepos_butNoMoreThanLimit() throws IOException, InterruptedException, ClassNotFoundException {
+        factory.createSuiteTimeRepo("old_one", LATEST_VERSION).update(new SuiteTimeEntry("foo.bar.Baz", 10));
+        factory.createPartitionSpeedRepo("recent").update(new PartitionSpeedEntry(1, 100));
+        factory.createSuiteResultRepo("recent", LATEST_VERSION).update(new SuiteResultEntry("foo.bar.Baz", false));
+        factory.createSuiteTimeRepo("versioned", "some-version").update(new SuiteTimeEntry("foo.bar.Quux", 20));
+        factory.createSubsetRepo("subset", LATEST_VERSION).add(new SubsetSizeEntry(10));
+        Thread exitHook = factory.exitHook();
+        exitHook.start();
+        exitHook.join();
+
+        long now = System.currentTimeMillis();
+        dumpOf("old_one", SUITE_TIME).setLastModified(now - 100000);
+        dumpOf("recent", PARTITION_SPEED).setLastModified(now - 1000);
+        dumpOf("recent", SUITE_RESULT).setLastModified(now - 2000);
+
+        EntryRepoFactory otherFactory = new EntryRepoFactory(env());
+        assertThat(otherFactory.prewarm(2, 2, Long.MAX_VALUE), is(2));
+        Cache<EntryRepo> repos = otherFactory.getRepos();
+        assertThat(repos.get(idOf("recent", PARTITION_SPEED)), not(nullValue()));
+        assertThat(repos.get(idOf("recent", SUITE_RESULT)), not(nullValue()));
+        assertThat(repos.get(idOf("old_one", SUITE_TIME)), is(nullValue()));
+        assertThat(repos.get(new EntryRepoFactory.VersionedNamespace("some-version", SUITE_TIME).getIdUnder("versioned")), is(nullValue()));
+        assertThat(repos.get(idOf("subset", SUBSET_SIZE)), is(nullValue()));
+
+        EntryRepoFactory anotherFactory = new EntryRepoFactory(env());
+        assertThat(anotherFactory.prewarm(10, 2, Long.MAX_VALUE), is(3));
+        SuiteTimeRepo oldOne = (SuiteTimeRepo) anotherFactory.getRepos().get(idOf("old_one", SUITE_TIME));
+        assertThat(oldOne.list().size(), is(1));
+        assertThat(oldOne.list(), hasItem(new SuiteTimeEntry("foo.bar.Baz", 10)));
+        assertThat(anotherFactory.createSuiteTimeRepo("old_one", LATEST_VERSION), sameInstance(oldOne));
+    }
+
+    @Test
+    public void shouldNotPrewarmMoreReposThanCacheCanHold() throws IOException, InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            factory.createSuiteTimeRepo("ns-" + i, LATEST_VERSION).update(new SuiteTimeEntry("foo.bar.Baz", 10));
+        }
+        Thread exitHook = factory.exitHook();
+        exitHook.start();
+        exitHook.join();
+        assertThat(new EntryRepoFactory(baseDir, timeProvider, 2).prewarm(10, 1, Long.MAX_VALUE), is(2));
+    }
+
+    @Test
+    public void shouldPrewarmOnlyAsManyReposAsFitInMemoryBudget() throws IOException, InterruptedException {
+        factory.createSuiteTimeRepo("small", LATEST_VERSION).update(new SuiteTimeEntry("foo.bar.Baz", 10));
+        SuiteTimeRepo bigRepo = factory.createSuiteTimeRepo("big", LATEST_VERSION);
+        for (int i = 0; i < 100; i++) {
+            bigRepo.update(new SuiteTimeEntry("foo.bar.Baz" + i, i));
+        }
+        factory.createSuiteTimeRepo("other_small", LATEST_VERSION).update(new SuiteTimeEntry("foo.bar.Quux", 20));
+        Thread exitHook = factory.exitHook();
+        exitHook.start();
+        exitHook.join();
+        long now = System.currentTimeMillis();
+        dumpOf("small", SUITE_TIME).setLastModified(now - 3000);
+        dumpOf("big", SUITE_TIME).setLastModified(now - 1000);
+        dumpOf("other_small", SUITE_TIME).setLastModified(now - 2000);
+
+        long budget = dumpOf("small", SUITE_TIME).length() + dumpOf("other_small", SUITE_TIME).length();
+        EntryRepoFactory otherFactory = new EntryRepoFactory(env());
+        assertThat(otherFactory.prewarm(10, 3, budget), is(2));
+        assertThat(otherFactory.getRepos().get(idOf("big", SUITE_TIME)), is(nullValue()));
+        assertThat(otherFactory.getRepos().get(idOf("small", SUITE_TIME)), not(nullValue()));
+        assertThat(otherFactory.getRepos().get(idOf("other_small", SUITE_TIME)), not(nullValue()));
+
+        assertThat(new EntryRepoFactory(env()).prewarm(10, 3, 0), is(0));
+    }
+
+    @Test
+    public void shouldPrewarmOnAsManyThreadsAsAsked() throws IOException, InterruptedException {
+        for (int i = 0; i < 6; i++) {
+            factory.createSuiteTimeRepo("ns-" + i, LATEST_VERSION).update(new SuiteTimeEntry("foo.bar.Baz", 10));
+        }
+        Thread exitHook = factory.exitHook();
+        exitHook.start();
+        exitHook.join();
+        final Set<String> loadingThreads = Collections.synchronizedSet(new HashSet<String>());
+        final CountDownLatch allThreadsLoading = new CountDownLatch(3);
+        EntryRepoFactory otherFactory = new EntryRepoFactory(env()) {
+            @Override
+            public SuiteTimeRepo createSuiteTimeRepo(String namespace, String version) throws IOException {
+                if (loadingThreads.add(Thread.currentThread().getName())) {
+                    allThreadsLoading.countDown();
+                }
+                try {
+                    allThreadsLoading.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return super.createSuiteTimeRepo(namespace, version);
+            }
+        };
+        assertThat(otherFactory.prewarm(10, 3, Long.MAX_VALUE), is(6));
+        assertThat(loadingThreads.size(), is(3));
+    }
+
+    @Test
+    public void shouldUnderstandTypeOfLatestVersionRepoFromIdentifier() {
+        assertThat(EntryRepoFactory.latestVersionType(idOf("foo_bar", SUITE_TIME)), is(SUITE_TIME));
+        assertThat(EntryRepoFactory.latestVersionType(idOf("foo", SUITE_TIME_HISTORY)), is(SUITE_TIME_HISTORY));
+        assertThat(EntryRepoFactory.latestVersionType(idOf("foo", SUITE_FAILURE_HISTORY)), is(SUITE_FAILURE_HISTORY));
+        assertThat(EntryRepoFactory.latestVersionType(idOf("foo", PARTITION_SPEED)), is(PARTITION_SPEED));
+        assertThat(EntryRepoFactory.latestVersionType(idOf("foo", SUITE_RESULT)), is(SUITE_RESULT));
+        assertThat(EntryRepoFactory.latestVersionType(idOf("foo", SUBSET_SIZE)), is(nullValue()));
+        assertThat(EntryRepoFactory.latestVersionType(new EntryRepoFactory.VersionedNamespace("1.2", SUITE_TIME).getIdUnder("foo")), is(nullValue()));
+    }
+
+    private String idOf(String namespace, String type) {
+        return new EntryRepoFactory.VersionedNamespace(LATEST_VERSION, type).getIdUnder(namespace);
+    }
+
+    private File dumpOf(String namespace, String type) {
+        return dumped(idOf(namespace, type));
+    }
+
+    private File dumped(String identifier) {
+        return new ShardedDataDir(baseDir).fileFor(identifier);
+    }
+
+    private List<String> dumpedFiles() {
+        List<String> names = new ArrayList<String>();
+        for (Object file : FileUtils.listFiles(baseDir, null, true)) {
+            names.add(((File) file).getName());
+        }
+        return names;
+    }
+
     @Test
     public void shouldPurgeDiskDumpAndRepositoryWhenAsked() throws IOException, ClassNotFoundException, InterruptedException {
         SuiteTimeRepo fooRepo = factory.createSuiteTimeRepo("foo", LATEST_VERSION);
@@ -475,16 +741,16 @@ public class EntryRepoFactoryTest {
         exitHook.start();
         exitHook.join();
 
-        assertThat(baseDir.list().length, is(4));
-        assertThat(Arrays.asList(baseDir.list()), hasItem("foo_old_suite__time"));
+        assertThat(dumpedFiles().size(), is(4));
+        assertThat(dumpedFiles(), hasItem("foo_old_suite__time"));
         assertThat(repoLedger(factory).list().size(), is(3));
         assertThat(reposInLedger(factory), hasItem("foo_old_suite__time"));
 
         cal[0] = new GregorianCalendar(2010, 6, 10, 0, 37, 12);
         factory.purgeVersionsOlderThan(2);
 
-        assertThat(Arrays.asList(baseDir.list()), not(hasItem("foo_old_suite__time")));
-        assertThat(baseDir.list().length, is(3));
+        assertThat(dumpedFiles(), not(hasItem("foo_old_suite__time")));
+        assertThat(dumpedFiles().size(), is(3));
         assertThat(reposInLedger(factory), not(hasItem("foo_old_suite__time")));
         assertThat(repoLedger(factory).list().size(), is(2));
 
@@ -566,6 +832,237 @@ public class EntryRepoFactoryTest {
         }, null);
     }
 
+    @Test
+    public void shouldPurgeOldReposInBoundedBatches_pausingBetweenBatches() throws IOException {
+        final GregorianCalendar[] cal = new GregorianCalendar[] {new GregorianCalendar(2011, 10, 1, 0, 0, 0)};
+        final List<String> purged = new ArrayList<String>();
+        final List<Long> pauses = new ArrayList<Long>();
+        EntryRepoFactory factory = new EntryRepoFactory(baseDir, settableTimeProvider(cal), 100) {
+            @Override
+            public void purge(String identifier) throws IOException {
+                purged.add(identifier);
+                super.purge(identifier);
+            }
+
+            @Override
+            boolean pauseBetweenPurgeBatches(long millis) {
+                pauses.add(millis);
+                return true;
+            }
+        };
+        for (int i = 0; i < 5; i++) {
+            factory.createSuiteTimeRepo("foo", "version-" + i).update(new SuiteTimeEntry("foo.bar.Baz", i));
+        }
+        factory.createSuiteTimeRepo("foo", LATEST_VERSION).update(new SuiteTimeEntry("foo.bar.Baz", 10));
+        factory.syncReposToDisk();
+        cal[0] = new GregorianCalendar(2011, 10, 20, 0, 0, 0);
+        factory.purgeVersionsOlderThan(12, 2, 25);
+
+        assertThat(purged.size(), is(5));
+        assertThat(pauses, is(Arrays.asList(25l, 25l)));
+        for (int i = 0; i < 5; i++) {
+            String identifier = new EntryRepoFactory.VersionedNamespace("version-" + i, SUITE_TIME).getIdUnder("foo");
+            assertThat(purged, hasItem(identifier));
+            assertThat(dumped(identifier).exists(), is(false));
+        }
+        assertThat(dumped(idOf("foo", SUITE_TIME)).exists(), is(true));
+        assertThat(tombstoneLog().exists(), is(false));
+
+        List<String> ledgerOnDisk = FileUtils.readLines(dumped(new EntryRepoFactory.VersionedNamespace(LATEST_VERSION, "REPO_LEDGER").getIdUnder(EntryRepoFactory.ERF_NAMESPACE)));
+        assertThat(ledgerOnDisk.size(), is(1));
+        assertThat(ledgerOnDisk.get(0).startsWith(idOf("foo", SUITE_TIME) + ":"), is(true));
+    }
+
+    @Test
+    public void shouldLeaveRestOfOldReposForNextRun_whenPurgeIsInterruptedBetweenBatches() throws IOException {
+        final GregorianCalendar[] cal = new GregorianCalendar[] {new GregorianCalendar(2011, 10, 1, 0, 0, 0)};
+        EntryRepoFactory factory = new EntryRepoFactory(baseDir, settableTimeProvider(cal), 100) {
+            @Override
+            boolean pauseBetweenPurgeBatches(long millis) {
+                return false;
+            }
+        };
+        for (int i = 0; i < 5; i++) {
+            factory.createSuiteTimeRepo("foo", "version-" + i);
+        }
+        cal[0] = new GregorianCalendar(2011, 10, 20, 0, 0, 0);
+        factory.purgeVersionsOlderThan(12, 2, 25);
+        int left = 0;
+        for (int i = 0; i < 5; i++) {
+            if (factory.getRepos().get(new EntryRepoFactory.VersionedNamespace("version-" + i, SUITE_TIME).getIdUnder("foo")) != null) left++;
+        }
+        assertThat(left, is(3));
+    }
+
+    @Test
+    public void shouldFinishPurgeInterruptedBeforeLedgerWasSynced_whenStartedAgain() throws IOException, InterruptedException {
+        SuiteTimeRepo doomed = factory.createSuiteTimeRepo("foo", "old-version");
+        doomed.update(new SuiteTimeEntry("foo.bar.Baz", 10));
+        factory.createSuiteTimeRepo("foo", "new-version").update(new SuiteTimeEntry("foo.bar.Baz", 20));
+        Thread exitHook = factory.exitHook();
+        exitHook.start();
+        exitHook.join();
+        String doomedIdentifier = doomed.getIdentifier();
+        new PurgeTombstones(tombstoneLog()).record(Arrays.asList(doomedIdentifier));
+
+        logFixture.startListening();
+        EntryRepoFactory restarted = new EntryRepoFactory(env());
+        logFixture.stopListening();
+
+        logFixture.assertHeard("finished interrupted purge of 1 repos");
+        assertThat(dumped(doomedIdentifier).exists(), is(false));
+        assertThat(tombstoneLog().exists(), is(false));
+        assertThat(restarted.createSuiteTimeRepo("foo", "new-version").list().size(), is(1));
+        for (RepoCreatedTimeEntry entry : ledgerEntries()) {
+            assertThat(entry.getRepoIdentifier().equals(doomedIdentifier), is(false));
+        }
+    }
+
+    @Test
+    public void shouldPackSubmoduleReposOfAVersionIntoOneSegment_whenUsingSegmentedStorage() throws IOException {
+        factory = new EntryRepoFactory(baseDir, timeProvider, 100, 10, 0.5, TlbConstants.Server.SEGMENTED_DATA_STORAGE);
+        for (String module : Arrays.asList("module-1", "module-2")) {
+            SetRepo setRepo = factory.createUniversalSetRepo("dev", "version", module);
+            synchronized (setRepo) {
+                setRepo.loadAndMarkDirty(new StringReader("foo/bar/Baz.quux"));
+            }
+            factory.createPartitionRecordRepo("dev", "version", module).subsetReceivedFromPartition(new PartitionIdentifier(1, 2));
+        }
+        factory.createSuiteTimeRepo("dev", LATEST_VERSION).update(new SuiteTimeEntry("foo.bar.Quux", 25));
+
+        factory.syncReposToDisk();
+
+        String segmentId = new EntryRepoFactory.VersionedNamespace("version", EntryRepoFactory.SEGMENT).getIdUnder("dev");
+        assertThat(dumpedFiles().size(), is(3));
+        assertThat(dumpedFiles(), hasItems(segmentId, idOf("dev", SUITE_TIME)));
+        assertThat(new RepoSegment(dumped(segmentId)).identifiers().size(), is(4));
+
+        List<String> ledgered = new ArrayList<String>();
+        for (RepoCreatedTimeEntry entry : ledgerEntries()) {
+            ledgered.add(entry.getRepoIdentifier());
+        }
+        assertThat(ledgered.size(), is(2));
+        assertThat(ledgered, hasItems(segmentId, idOf("dev", SUITE_TIME)));
+
+        EntryRepoFactory restarted = new EntryRepoFactory(baseDir, timeProvider, 100, 10, 0.5, TlbConstants.Server.SEGMENTED_DATA_STORAGE);
+        assertThat(restarted.createUniversalSetRepo("dev", "version", "module-2").list().size(), is(1));
+        assertThat(restarted.createPartitionRecordRepo("dev", "version", "module-1").list().size(), is(1));
+        assertThat(restarted.createUniversalSetRepo("dev", "other-version", "module-1").list().size(), is(0));
+    }
+
+    @Test
+    public void shouldPickSegmentedStorageFromEnvironment() throws IOException {
+        HashMap<String, String> env = new HashMap<String, String>();
+        env.put(TlbConstants.Server.TLB_DATA_DIR.key, baseDir.getAbsolutePath());
+        env.put(TlbConstants.Server.TLB_DATA_STORAGE.key, "segments");
+        factory = new EntryRepoFactory(new SystemEnvironment(env));
+        factory.createPartitionRecordRepo("dev", "version", "module").subsetReceivedFromPartition(new PartitionIdentifier(1, 2));
+
+        factory.syncReposToDisk();
+
+        assertThat(dumpedFiles(), hasItem(new EntryRepoFactory.VersionedNamespace("version", EntryRepoFactory.SEGMENT).getIdUnder("dev")));
+        assertThat(dumpedFiles(), not(hasItem(new EntryRepoFactory.SubmoduledUnderVersionedNamespace("version", PARTITION_RECORD, "module").getIdUnder("dev"))));
+    }
+
+    @Test
+    public void shouldDeleteWholeSegmentAndEvictItsRepos_whenVersionExpires() throws IOException {
+        final GregorianCalendar[] cal = new GregorianCalendar[] {new GregorianCalendar(2011, 10, 1, 0, 0, 0)};
+        factory = new EntryRepoFactory(baseDir, settableTimeProvider(cal), 100, 10, 0.5, TlbConstants.Server.SEGMENTED_DATA_STORAGE);
+        factory.createPartitionRecordRepo("dev", "old-version", "module-1").subsetReceivedFromPartition(new PartitionIdentifier(1, 2));
+        factory.createPartitionRecordRepo("dev", "old-version", "module-2").subsetReceivedFromPartition(new PartitionIdentifier(1, 2));
+        factory.syncReposToDisk();
+        cal[0] = new GregorianCalendar(2011, 10, 20, 0, 0, 0);
+        factory.createPartitionRecordRepo("dev", "new-version", "module-1").subsetReceivedFromPartition(new PartitionIdentifier(2, 2));
+        factory.syncReposToDisk();
+
+        factory.purgeVersionsOlderThan(12, 10, 0);
+
+        String oldSegment = new EntryRepoFactory.VersionedNamespace("old-version", EntryRepoFactory.SEGMENT).getIdUnder("dev");
+        assertThat(dumped(oldSegment).exists(), is(false));
+        assertThat(dumped(new EntryRepoFactory.VersionedNamespace("new-version", EntryRepoFactory.SEGMENT).getIdUnder("dev")).exists(), is(true));
+        assertThat(factory.getRepos().get(new EntryRepoFactory.SubmoduledUnderVersionedNamespace("old-version", PARTITION_RECORD, "module-1").getIdUnder("dev")), nullValue());
+        assertThat(factory.getRepos().get(new EntryRepoFactory.SubmoduledUnderVersionedNamespace("old-version", PARTITION_RECORD, "module-2").getIdUnder("dev")), nullValue());
+        factory.syncReposToDisk();
+        for (RepoCreatedTimeEntry entry : ledgerEntries()) {
+            assertThat(entry.getRepoIdentifier().equals(oldSegment), is(false));
+        }
+        assertThat(factory.createPartitionRecordRepo("dev", "old-version", "module-1").list().size(), is(0));
+    }
+
+    @Test
+    public void shouldKeepAllReposInKeyValueStore_whenUsingKeyValueStorage() throws IOException, ClassNotFoundException {
+        factory = new EntryRepoFactory(baseDir, timeProvider, 100, 10, 0.5, TlbConstants.Server.KEY_VALUE_DATA_STORAGE);
+        factory.createSuiteTimeRepo("dev", LATEST_VERSION).update(new SuiteTimeEntry("foo.bar.Quux", 25));
+        factory.createSuiteResultRepo("dev", "version").update(new SuiteResultEntry("foo.bar.Baz", true));
+        factory.createPartitionRecordRepo("dev", "version", "module").subsetReceivedFromPartition(new PartitionIdentifier(1, 2));
+
+        factory.syncReposToDisk();
+
+        File storeDir = new File(baseDir, EntryRepoFactory.KEY_VALUE_STORE_DIR);
+        for (Object file : FileUtils.listFiles(baseDir, null, true)) {
+            assertThat(((File) file).getParentFile(), is(storeDir));
+        }
+        KeyValueRepoStore store = new KeyValueRepoStore(storeDir);
+        assertThat(store.size(), is(4));//repo ledger is there as well
+        assertThat(store.read(idOf("dev", SUITE_TIME)), is("foo.bar.Quux: 25\n"));
+
+        EntryRepoFactory restarted = new EntryRepoFactory(baseDir, timeProvider, 100, 10, 0.5, TlbConstants.Server.KEY_VALUE_DATA_STORAGE);
+        assertThat(restarted.createSuiteTimeRepo("dev", LATEST_VERSION).list().size(), is(1));
+        assertThat(restarted.createSuiteResultRepo("dev", "version").list().size(), is(1));
+        assertThat(restarted.createPartitionRecordRepo("dev", "version", "module").list().size(), is(1));
+        assertThat(restarted.createSuiteTimeRepo("other", LATEST_VERSION).list().size(), is(0));
+    }
+
+    @Test
+    public void shouldMoveDumpsWrittenByFileStorageIntoKeyValueStore_whenLoaded() throws IOException {
+        factory.createSuiteTimeRepo("dev", LATEST_VERSION).update(new SuiteTimeEntry("foo.bar.Quux", 25));
+        factory.syncReposToDisk();
+        assertThat(dumpOf("dev", SUITE_TIME).exists(), is(true));
+
+        factory = new EntryRepoFactory(baseDir, timeProvider, 100, 10, 0.5, TlbConstants.Server.KEY_VALUE_DATA_STORAGE);
+        assertThat(factory.createSuiteTimeRepo("dev", LATEST_VERSION).list().size(), is(1));
+
+        assertThat(dumpOf("dev", SUITE_TIME).exists(), is(false));
+        assertThat(new KeyValueRepoStore(new File(baseDir, EntryRepoFactory.KEY_VALUE_STORE_DIR)).read(idOf("dev", SUITE_TIME)), is("foo.bar.Quux: 25\n"));
+    }
+
+    @Test
+    public void shouldRemovePurgedRepoFromKeyValueStore() throws IOException {
+        final GregorianCalendar[] cal = new GregorianCalendar[] {new GregorianCalendar(2011, 10, 1, 0, 0, 0)};
+        factory = new EntryRepoFactory(baseDir, settableTimeProvider(cal), 100, 10, 0.5, TlbConstants.Server.KEY_VALUE_DATA_STORAGE);
+        factory.createSuiteTimeRepo("dev", "old-version").update(new SuiteTimeEntry("foo.bar.Quux", 25));
+        factory.syncReposToDisk();
+        cal[0] = new GregorianCalendar(2011, 10, 20, 0, 0, 0);
+
+        factory.purgeVersionsOlderThan(12, 10, 0);
+
+        String purged = new EntryRepoFactory.VersionedNamespace("old-version", SUITE_TIME).getIdUnder("dev");
+        assertThat(new KeyValueRepoStore(new File(baseDir, EntryRepoFactory.KEY_VALUE_STORE_DIR)).contains(purged), is(false));
+        assertThat(factory.getRepos().get(purged), nullValue());
+    }
+
+    private List<RepoCreatedTimeEntry> ledgerEntries() throws IOException {
+        return RepoCreatedTimeEntry.parse(FileUtils.readFileToString(dumped(new EntryRepoFactory.VersionedNamespace(LATEST_VERSION, "REPO_LEDGER").getIdUnder(EntryRepoFactory.ERF_NAMESPACE))));
+    }
+
+    private File tombstoneLog() {
+        return dumped(new EntryRepoFactory.VersionedNamespace(LATEST_VERSION, "PURGE_TOMBSTONES").getIdUnder(EntryRepoFactory.ERF_NAMESPACE));
+    }
+
+    private TimeProvider settableTimeProvider(final GregorianCalendar[] cal) {
+        return new TimeProvider() {
+            @Override
+            public GregorianCalendar cal() {
+                return (GregorianCalendar) cal[0].clone();
+            }
+
+            @Override
+            public Date now() {
+                return cal().getTime();
+            }
+        };
+    }
+
     @Test
     public void shouldCheckRepoExistenceBeforeTryingPurge() throws IOException, IllegalAccessException {
         factory.createSuiteTimeRepo("foo", LATEST_VERSION);
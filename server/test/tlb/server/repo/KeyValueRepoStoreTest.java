@@ -0,0 +1,76 @@
+package tlb.server.repo;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import tlb.TestUtil;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class KeyValueRepoStoreTest {
+    private File dir;
+    private KeyValueRepoStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = new File(TestUtil.createTmpDir(), "kv_store");
+        store = new KeyValueRepoStore(dir);
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(dir.getParentFile());
+    }
+
+    @Test
+    public void shouldStoreAndReadBackDumps() throws IOException {
+        store.write("foo_LATEST_suite__time", "foo.bar.Baz: 10\n");
+        store.write("foo_version_suite__time", "foo.bar.Baz: 20\n");
+        assertThat(store.read("foo_LATEST_suite__time"), is("foo.bar.Baz: 10\n"));
+        assertThat(store.read("foo_version_suite__time"), is("foo.bar.Baz: 20\n"));
+        assertThat(store.read("bar_LATEST_suite__time"), nullValue());
+        assertThat(store.contains("foo_LATEST_suite__time"), is(true));
+        assertThat(store.dumpLength("foo_LATEST_suite__time"), is(16l));
+        assertThat(store.dumpLength("bar_LATEST_suite__time"), is(-1l));
+        assertThat(store.size(), is(2));
+    }
+
+    @Test
+    public void shouldForgetRemovedDumps() throws IOException {
+        store.write("foo_version_suite__time", "foo.bar.Baz: 20\n");
+        store.remove("foo_version_suite__time");
+        assertThat(store.read("foo_version_suite__time"), nullValue());
+        assertThat(store.contains("foo_version_suite__time"), is(false));
+        assertThat(new KeyValueRepoStore(dir).contains("foo_version_suite__time"), is(false));
+    }
+
+    @Test
+    public void shouldFindDumpsAgain_whenReopened() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            store.write("job-" + i + "_LATEST_suite__time", "foo.bar.Baz: " + i + "\n");
+        }
+        store.write("job-7_LATEST_suite__time", "foo.bar.Baz: 70\n");
+
+        KeyValueRepoStore reopened = new KeyValueRepoStore(dir);
+        assertThat(reopened.size(), is(100));
+        assertThat(reopened.read("job-42_LATEST_suite__time"), is("foo.bar.Baz: 42\n"));
+        assertThat(reopened.read("job-7_LATEST_suite__time"), is("foo.bar.Baz: 70\n"));
+    }
+
+    @Test
+    public void shouldSpreadReposOverAFixedNumberOfFiles() throws IOException {
+        for (int i = 0; i < 1000; i++) {
+            store.write("job-" + i + "_version-" + i + "_suite__time", "foo.bar.Baz: " + i + "\n");
+        }
+        assertThat(dir.list().length, is(KeyValueRepoStore.PARTITIONS));
+        for (File partition : dir.listFiles()) {
+            assertThat(partition.length() > 0, is(true));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package tlb.server.repo;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import tlb.TestUtil;
+import tlb.TlbConstants;
+import tlb.domain.PartitionSpeedEntry;
+import tlb.utils.SystemEnvironment;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+import static tlb.server.repo.EntryRepoFactory.LATEST_VERSION;
+
+public class PartitionSpeedRepoTest {
+    private File tmpDir;
+    private EntryRepoFactory factory;
+
+    @Before
+    public void setUp() throws Exception {
+        tmpDir = TestUtil.createTmpDir();
+        factory = new EntryRepoFactory(env());
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(tmpDir);
+    }
+
+    private SystemEnvironment env() {
+        final HashMap<String, String> env = new HashMap<String, String>();
+        env.put(TlbConstants.Server.TLB_DATA_DIR.key, tmpDir.getAbsolutePath());
+        return new SystemEnvironment(env);
+    }
+
+    @Test
+    public void shouldKeepOneSpeedPerPartition_replacingOlderReportsOfSamePartition() throws Exception {
+        PartitionSpeedRepo repo = factory.createPartitionSpeedRepo("name");
+        assertThat(factory.createPartitionSpeedRepo("name"), sameInstance(repo));
+        repo.update(new PartitionSpeedEntry(1, 80));
+        repo.update(new PartitionSpeedEntry(2, 140));
+        repo.updateAll(Arrays.asList(new PartitionSpeedEntry(1, 90)));
+        assertThat(repo.sortedList(), is(Arrays.asList(new PartitionSpeedEntry(1, 90), new PartitionSpeedEntry(2, 140))));
+    }
+
+    @Test
+    public void shouldSurviveDumpAndReload() throws Exception {
+        factory.createPartitionSpeedRepo("name").update(new PartitionSpeedEntry(3, 125));
+        final Thread exitHook = factory.exitHook();
+        exitHook.start();
+        exitHook.join();
+        assertThat(new EntryRepoFactory(env()).createPartitionSpeedRepo("name").sortedList(), is(Arrays.asList(new PartitionSpeedEntry(3, 125))));
+    }
+
+    @Test
+    public void shouldPrimeVersionFromLatestSpeeds_andKeepItUnaffectedByLaterReports() throws Exception {
+        PartitionSpeedRepo latest = factory.createPartitionSpeedRepo("name");
+        latest.update(new PartitionSpeedEntry(1, 80));
+        latest.update(new PartitionSpeedEntry(2, 140));
+
+        PartitionSpeedRepo version = factory.createPartitionSpeedRepo("name", "version");
+        assertThat(factory.createPartitionSpeedRepo("name", LATEST_VERSION), sameInstance(latest));
+        latest.update(new PartitionSpeedEntry(1, 120));
+
+        assertThat(version.sortedList(), is(Arrays.asList(new PartitionSpeedEntry(1, 80), new PartitionSpeedEntry(2, 140))));
+        assertThat(factory.createPartitionSpeedRepo("name", "version").sortedList(), is(Arrays.asList(new PartitionSpeedEntry(1, 80), new PartitionSpeedEntry(2, 140))));
+        assertThat(latest.sortedList(), is(Arrays.asList(new PartitionSpeedEntry(1, 120), new PartitionSpeedEntry(2, 140))));
+    }
+}
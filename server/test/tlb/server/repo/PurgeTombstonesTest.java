@@ -0,0 +1,55 @@
+package tlb.server.repo;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import tlb.TestUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class PurgeTombstonesTest {
+    private File tmpDir;
+    private File log;
+    private PurgeTombstones tombstones;
+
+    @Before
+    public void setUp() {
+        tmpDir = TestUtil.createTmpDir();
+        log = new File(tmpDir, "tombstones");
+        tombstones = new PurgeTombstones(log);
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(tmpDir);
+    }
+
+    @Test
+    public void shouldHaveNothingPending_whenNothingWasRecorded() throws IOException {
+        assertThat(tombstones.pending().size(), is(0));
+        assertThat(log.exists(), is(false));
+    }
+
+    @Test
+    public void shouldAppendRecordedIdentifiersToLog() throws IOException {
+        tombstones.record(Arrays.asList("foo", "bar"));
+        tombstones.record(Arrays.asList("baz"));
+        assertThat(tombstones.pending(), is(Arrays.asList("foo", "bar", "baz")));
+        assertThat(new PurgeTombstones(log).pending(), is(Arrays.asList("foo", "bar", "baz")));
+    }
+
+    @Test
+    public void shouldForgetEverythingWhenCleared() throws IOException {
+        tombstones.record(Arrays.asList("foo", "bar"));
+        tombstones.clear();
+        assertThat(tombstones.pending().size(), is(0));
+        assertThat(log.exists(), is(false));
+        tombstones.clear();
+    }
+}
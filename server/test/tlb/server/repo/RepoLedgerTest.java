@@ -3,7 +3,11 @@ package tlb.server.repo;
 import org.junit.Test;
 import tlb.domain.RepoCreatedTimeEntry;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 
 import static org.hamcrest.core.Is.is;
@@ -38,4 +42,68 @@ public class RepoLedgerTest {
         assertThat(ledger.list().size(), is(1));
         assertThat(ledger.list(), not(hasItem(entry)));
     }
+
+    @Test
+    public void shouldFindPurgableReposCreatedBeforeGivenTime_oldestBucketFirst() {
+        RepoLedger ledger = new RepoLedger();
+        long hour = RepoLedger.CREATION_BUCKET_MILLIS;
+        ledger.update(new RepoCreatedTimeEntry("newest", 10 * hour));
+        ledger.update(new RepoCreatedTimeEntry("oldest", hour));
+        ledger.update(new RepoCreatedTimeEntry("older", 3 * hour));
+        ledger.update(new RepoCreatedTimeEntry("latest", 0, false));
+        ledger.update(new RepoCreatedTimeEntry("same_hour_but_later", 5 * hour + 100));
+        ledger.update(new RepoCreatedTimeEntry("same_hour_but_earlier", 5 * hour + 10));
+
+        List<String> purgable = ledger.purgableCreatedBefore(new Date(5 * hour + 50), 10, new HashSet<String>());
+        assertThat(purgable, is(Arrays.asList("oldest", "older", "same_hour_but_earlier")));
+    }
+
+    @Test
+    public void shouldHonorBatchSizeAndSkipListWhenFindingPurgableRepos() {
+        RepoLedger ledger = new RepoLedger();
+        long hour = RepoLedger.CREATION_BUCKET_MILLIS;
+        for (int i = 0; i < 5; i++) {
+            ledger.update(new RepoCreatedTimeEntry("repo-" + i, i * hour));
+        }
+        assertThat(ledger.purgableCreatedBefore(new Date(10 * hour), 2, new HashSet<String>()), is(Arrays.asList("repo-0", "repo-1")));
+        assertThat(ledger.purgableCreatedBefore(new Date(10 * hour), 2, new HashSet<String>(Arrays.asList("repo-0", "repo-2"))), is(Arrays.asList("repo-1", "repo-3")));
+    }
+
+    @Test
+    public void shouldKeepCreationIndexInSyncWithUpdatesAndDeletes() {
+        RepoLedger ledger = new RepoLedger();
+        long hour = RepoLedger.CREATION_BUCKET_MILLIS;
+        ledger.update(new RepoCreatedTimeEntry("foo", hour));
+        ledger.update(new RepoCreatedTimeEntry("bar", 2 * hour));
+        ledger.update(new RepoCreatedTimeEntry("foo", 20 * hour));
+        assertThat(ledger.purgableCreatedBefore(new Date(10 * hour), 10, new HashSet<String>()), is(Arrays.asList("bar")));
+
+        ledger.update(new RepoCreatedTimeEntry("bar", 0, false));
+        assertThat(ledger.purgableCreatedBefore(new Date(10 * hour), 10, new HashSet<String>()).size(), is(0));
+
+        ledger.deleteRepoEntryFor("foo");
+        assertThat(ledger.purgableCreatedBefore(new Date(30 * hour), 10, new HashSet<String>()).size(), is(0));
+    }
+
+    @Test
+    public void shouldMarkLedgerDirtyWhenRepoEntryIsDeleted() throws IOException {
+        RepoLedger ledger = new RepoLedger();
+        ledger.loadCopyFromDisk(new StringReader("foo: 10\n"));
+        assertThat(ledger.isDirty(), is(false));
+        ledger.deleteRepoEntryFor("bar");
+        assertThat(ledger.isDirty(), is(false));
+        ledger.deleteRepoEntryFor("foo");
+        assertThat(ledger.isDirty(), is(true));
+    }
+
+    @Test
+    public void shouldIndexEntriesLoadedFromDisk() throws IOException {
+        RepoLedger ledger = new RepoLedger();
+        ledger.loadCopyFromDisk(new StringReader("foo: 10\nbar: -1\nbaz: 20\n"));
+        assertThat(ledger.purgableCreatedBefore(new Date(15), 10, new HashSet<String>()), is(Arrays.asList("foo")));
+
+        RepoLedger copy = new RepoLedger();
+        copy.copyFrom(ledger);
+        assertThat(copy.purgableCreatedBefore(new Date(25), 10, new HashSet<String>()).size(), is(2));
+    }
 }
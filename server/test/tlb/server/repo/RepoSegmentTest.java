@@ -0,0 +1,152 @@
+package tlb.server.repo;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import tlb.TestUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.matchers.JUnitMatchers.hasItems;
+
+public class RepoSegmentTest {
+    private File tmpDir;
+    private File file;
+    private RepoSegment segment;
+
+    @Before
+    public void setUp() throws IOException {
+        tmpDir = TestUtil.createTmpDir();
+        file = new File(new File(tmpDir, "shard"), "foo_version_segment");
+        segment = new RepoSegment(file);
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(tmpDir);
+    }
+
+    @Test
+    public void shouldReadBackWhatWasWritten() throws IOException {
+        segment.write("foo_version_universal__set_module", "foo/bar/Baz.class\nfoo/bar/Quux.class\n");
+        segment.write("foo_version_partition__record_module", "1/2\n");
+        assertThat(segment.read("foo_version_universal__set_module"), is("foo/bar/Baz.class\nfoo/bar/Quux.class\n"));
+        assertThat(segment.read("foo_version_partition__record_module"), is("1/2\n"));
+        assertThat(segment.read("foo_version_suite__queue_module"), nullValue());
+        assertThat(segment.identifiers().size(), is(2));
+        assertThat(segment.identifiers(), hasItems("foo_version_universal__set_module", "foo_version_partition__record_module"));
+    }
+
+    @Test
+    public void shouldServeLatestDump_whenRepoIsWrittenAgain() throws IOException {
+        segment.write("foo_version_partition__record_module", "1/2\n");
+        segment.write("foo_version_partition__record_module", "1/2\n2/2\n");
+        assertThat(segment.read("foo_version_partition__record_module"), is("1/2\n2/2\n"));
+        assertThat(segment.garbage() > 0, is(true));
+    }
+
+    @Test
+    public void shouldForgetRemovedRepo() throws IOException {
+        segment.write("foo_version_partition__record_module", "1/2\n");
+        segment.remove("foo_version_partition__record_module");
+        assertThat(segment.read("foo_version_partition__record_module"), nullValue());
+        assertThat(segment.contains("foo_version_partition__record_module"), is(false));
+        assertThat(segment.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldRebuildIndexFromDisk_whenOpenedAgain() throws IOException {
+        segment.write("foo_version_universal__set_module", "foo/bar/Baz.class\n");
+        segment.write("foo_version_partition__record_module", "1/2\n");
+        segment.write("foo_version_partition__record_module", "1/2\n2/2\n");
+        segment.write("foo_version_suite__queue_module", "foo.bar.Baz: 10\n");
+        segment.remove("foo_version_suite__queue_module");
+
+        RepoSegment reopened = new RepoSegment(file);
+        assertThat(reopened.identifiers().size(), is(2));
+        assertThat(reopened.read("foo_version_universal__set_module"), is("foo/bar/Baz.class\n"));
+        assertThat(reopened.read("foo_version_partition__record_module"), is("1/2\n2/2\n"));
+        assertThat(reopened.read("foo_version_suite__queue_module"), nullValue());
+        assertThat(reopened.garbage(), is(segment.garbage()));
+    }
+
+    @Test
+    public void shouldCutOffRecordTornByCrash_andKeepAppendingAfterLastCompleteOne() throws IOException {
+        segment.write("foo_version_universal__set_module", "foo/bar/Baz.class\n");
+        segment.write("foo_version_partition__record_module", "1/2\n");
+        long intactLength = file.length();
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(intactLength - 2);
+        } finally {
+            raf.close();
+        }
+
+        RepoSegment reopened = new RepoSegment(file);
+        assertThat(reopened.identifiers().size(), is(1));
+        assertThat(reopened.read("foo_version_universal__set_module"), is("foo/bar/Baz.class\n"));
+        reopened.write("foo_version_partition__record_module", "2/2\n");
+
+        reopened = new RepoSegment(file);
+        assertThat(reopened.read("foo_version_universal__set_module"), is("foo/bar/Baz.class\n"));
+        assertThat(reopened.read("foo_version_partition__record_module"), is("2/2\n"));
+    }
+
+    @Test
+    public void shouldReclaimSpaceOfOverwrittenAndRemovedDumps_whenCompacted() throws IOException {
+        segment.write("foo_version_universal__set_module", "foo/bar/Baz.class\n");
+        segment.write("foo_version_partition__record_module", "1/2\n");
+        segment.write("foo_version_partition__record_module", "1/2\n2/2\n");
+        segment.write("foo_version_suite__queue_module", "foo.bar.Baz: 10\n");
+        segment.remove("foo_version_suite__queue_module");
+        long lengthBeforeCompaction = file.length();
+
+        segment.compact();
+
+        assertThat(file.length() < lengthBeforeCompaction, is(true));
+        assertThat(segment.garbage(), is(0l));
+        assertThat(new File(file.getParentFile(), file.getName() + ".compacting").exists(), is(false));
+        assertThat(segment.read("foo_version_universal__set_module"), is("foo/bar/Baz.class\n"));
+        assertThat(segment.read("foo_version_partition__record_module"), is("1/2\n2/2\n"));
+        RepoSegment reopened = new RepoSegment(file);
+        assertThat(reopened.identifiers().size(), is(2));
+        assertThat(reopened.read("foo_version_partition__record_module"), is("1/2\n2/2\n"));
+        assertThat(reopened.garbage(), is(0l));
+    }
+
+    @Test
+    public void shouldCompactOnItsOwn_onceMostOfFileIsGarbage() throws IOException {
+        StringBuilder dump = new StringBuilder();
+        for (int i = 0; i < 1024; i++) {
+            dump.append("foo/bar/Baz").append(i).append(".class\n");
+        }
+        long highestLength = 0;
+        for (int i = 0; i < 50; i++) {
+            segment.write("foo_version_universal__set_module", dump.toString());
+            highestLength = Math.max(highestLength, file.length());
+        }
+        assertThat(highestLength < 3 * RepoSegment.MIN_GARBAGE_TO_COMPACT, is(true));
+        assertThat(file.length() < 50 * dump.length(), is(true));
+        assertThat(segment.read("foo_version_universal__set_module"), is(dump.toString()));
+    }
+
+    @Test
+    public void shouldDeleteWholeFile_andDropLaterWrites() throws IOException {
+        segment.write("foo_version_universal__set_module", "foo/bar/Baz.class\n");
+        segment.write("foo_version_partition__record_module", "1/2\n");
+
+        segment.delete();
+
+        assertThat(file.exists(), is(false));
+        assertThat(segment.isEmpty(), is(true));
+        segment.write("foo_version_partition__record_module", "2/2\n");
+        assertThat(file.exists(), is(false));
+        assertThat(segment.read("foo_version_partition__record_module"), nullValue());
+    }
+}
@@ -0,0 +1,47 @@
+package tlb.server.repo;
+
+import org.junit.Before;
+import org.junit.Test;
+import tlb.TestUtil;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class RepoWarmUpTest {
+    private EntryRepoFactory repoFactory;
+
+    @Before
+    public void setUp() {
+        repoFactory = mock(EntryRepoFactory.class);
+    }
+
+    @Test
+    public void shouldPrewarmRepoFactoryWithinLimitsGiven() {
+        RepoWarmUp warmUp = new RepoWarmUp(repoFactory, 20, 5, 3);
+        assertThat(warmUp.isDone(), is(false));
+        warmUp.run();
+        verify(repoFactory).prewarm(20, 5, 3 * 1024 * 1024l);
+        assertThat(warmUp.isDone(), is(true));
+    }
+
+    @Test
+    public void shouldBeDoneRightAway_whenWarmUpIsTurnedOff() {
+        RepoWarmUp warmUp = new RepoWarmUp(repoFactory, 0, 5, 3);
+        assertThat(warmUp.isDone(), is(true));
+        warmUp.run();
+        verifyZeroInteractions(repoFactory);
+    }
+
+    @Test
+    public void shouldBeDoneEvenWhenWarmUpFails() {
+        when(repoFactory.prewarm(20, 5, 3 * 1024 * 1024l)).thenThrow(new RuntimeException("disk went away"));
+        RepoWarmUp warmUp = new RepoWarmUp(repoFactory, 20, 5, 3);
+        TestUtil.LogFixture logFixture = new TestUtil.LogFixture();
+        logFixture.startListening();
+        warmUp.run();
+        logFixture.stopListening();
+        assertThat(warmUp.isDone(), is(true));
+        logFixture.assertHeard("warm-up failed, repos will be loaded as they are asked for");
+    }
+}
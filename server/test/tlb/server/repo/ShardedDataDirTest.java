@@ -0,0 +1,81 @@
+package tlb.server.repo;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import tlb.TestUtil;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class ShardedDataDirTest {
+    private File root;
+    private ShardedDataDir dataDir;
+
+    @Before
+    public void setUp() {
+        root = new File(TestUtil.createTmpDir(), "tlb_store");
+        dataDir = new ShardedDataDir(root);
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(root.getParentFile());
+    }
+
+    @Test
+    public void shouldPlaceDumpUnderTwoLevelsOfHashedDirectories() {
+        String hash = DigestUtils.md5Hex("foo_LATEST_suite__time");
+        File file = dataDir.fileFor("foo_LATEST_suite__time");
+        assertThat(file.getName(), is("foo_LATEST_suite__time"));
+        assertThat(file.getParentFile().getName(), is(hash.substring(2, 4)));
+        assertThat(file.getParentFile().getParentFile().getName(), is(hash.substring(0, 2)));
+        assertThat(file.getParentFile().getParentFile().getParentFile(), is(root));
+    }
+
+    @Test
+    public void shouldCreateShardOnlyWhenAskedForFileToWriteTo() {
+        assertThat(dataDir.fileFor("foo").getParentFile().exists(), is(false));
+        File file = dataDir.fileForWriting("foo");
+        assertThat(file.getParentFile().isDirectory(), is(true));
+        assertThat(file, is(dataDir.fileFor("foo")));
+    }
+
+    @Test
+    public void shouldRecreateShardThatWentAwayUnderneath() throws IOException {
+        dataDir.fileForWriting("foo");
+        FileUtils.cleanDirectory(root);
+        assertThat(dataDir.fileForWriting("foo").getParentFile().isDirectory(), is(true));
+    }
+
+    @Test
+    public void shouldMoveFlatLayoutDumpsIntoShards() throws IOException {
+        FileUtils.writeStringToFile(new File(root, "foo"), "foo-data");
+        FileUtils.writeStringToFile(new File(root, "bar"), "bar-data");
+        assertThat(dataDir.migrateFlatLayout(), is(2));
+        assertThat(FileUtils.readFileToString(dataDir.fileFor("foo")), is("foo-data"));
+        assertThat(FileUtils.readFileToString(dataDir.fileFor("bar")), is("bar-data"));
+        assertThat(new File(root, "foo").exists(), is(false));
+        assertThat(new File(root, "bar").exists(), is(false));
+        assertThat(dataDir.migrateFlatLayout(), is(0));
+    }
+
+    @Test
+    public void shouldLeaveStrayAlone_whenShardAlreadyHasThatDump() throws IOException {
+        FileUtils.writeStringToFile(dataDir.fileForWriting("foo"), "sharded-data");
+        FileUtils.writeStringToFile(new File(root, "foo"), "stray-data");
+        assertThat(dataDir.adoptStray("foo"), is(false));
+        assertThat(FileUtils.readFileToString(dataDir.fileFor("foo")), is("sharded-data"));
+        assertThat(new File(root, "foo").exists(), is(true));
+    }
+
+    @Test
+    public void shouldNotAdoptWhatIsNotThere() {
+        assertThat(dataDir.adoptStray("foo"), is(false));
+    }
+}
@@ -0,0 +1,70 @@
+package tlb.server.repo;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import tlb.TestUtil;
+import tlb.TlbConstants;
+import tlb.domain.SuiteFailureHistoryEntry;
+import tlb.domain.SuiteResultEntry;
+import tlb.utils.SystemEnvironment;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class SuiteFailureHistoryRepoTest {
+    private File tmpDir;
+    private EntryRepoFactory factory;
+    private SuiteFailureHistoryRepo repo;
+
+    @Before
+    public void setUp() throws Exception {
+        tmpDir = TestUtil.createTmpDir();
+        final HashMap<String, String> env = new HashMap<String, String>();
+        env.put(TlbConstants.Server.TLB_DATA_DIR.key, tmpDir.getAbsolutePath());
+        env.put(TlbConstants.Server.TLB_FAILURE_SCORE_DECAY.key, "0.5");
+        factory = new EntryRepoFactory(new SystemEnvironment(env));
+        repo = factory.createSuiteFailureHistoryRepo("name");
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(tmpDir);
+    }
+
+    @Test
+    public void shouldBeOnePerNamespace() throws Exception {
+        assertThat(factory.createSuiteFailureHistoryRepo("name"), sameInstance(repo));
+    }
+
+    @Test
+    public void shouldRecordEveryReportedResultInHistoryOfTheSuite() {
+        repo.recordAll(Arrays.asList(new SuiteResultEntry("foo/Bar.class", true), new SuiteResultEntry("foo/Baz.class", false)));
+        repo.recordAll(Arrays.asList(new SuiteResultEntry("foo/Bar.class", false), new SuiteResultEntry("foo/Baz.class", true)));
+        assertThat(repo.sortedList(), is(Arrays.asList(new SuiteFailureHistoryEntry("foo/Bar.class", 2l, 0.5), new SuiteFailureHistoryEntry("foo/Baz.class", 1l, 1.0))));
+    }
+
+    @Test
+    public void shouldRankSuitesByFailureScore_leavingOutSuitesThatHaveNotFailed() {
+        repo.recordAll(Arrays.asList(new SuiteResultEntry("Old.class", true), new SuiteResultEntry("Recent.class", false), new SuiteResultEntry("Often.class", true), new SuiteResultEntry("Never.class", false), new SuiteResultEntry("AlsoOld.class", true)));
+        repo.recordAll(Arrays.asList(new SuiteResultEntry("Old.class", false), new SuiteResultEntry("Recent.class", true), new SuiteResultEntry("Often.class", true), new SuiteResultEntry("Never.class", false), new SuiteResultEntry("AlsoOld.class", false)));
+        assertThat(repo.ranked(), is(Arrays.asList(
+                new SuiteFailureHistoryEntry("Often.class", 3l, 1.5),
+                new SuiteFailureHistoryEntry("Recent.class", 1l, 1.0),
+                new SuiteFailureHistoryEntry("AlsoOld.class", 2l, 0.5),
+                new SuiteFailureHistoryEntry("Old.class", 2l, 0.5))));
+    }
+
+    @Test
+    public void shouldParseDumpedHistory() {
+        repo.recordAll(Arrays.asList(new SuiteResultEntry("foo/Bar.class", true)));
+        assertThat(repo.parse("foo/Bar.class: 1: 1.0\n"), is(Arrays.asList(new SuiteFailureHistoryEntry("foo/Bar.class", 1l, 1.0))));
+        assertThat(repo.parseLine("foo/Bar.class: 1: 1.0"), is(new SuiteFailureHistoryEntry("foo/Bar.class", 1l, 1.0)));
+    }
+}
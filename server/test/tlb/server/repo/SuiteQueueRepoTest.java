@@ -0,0 +1,107 @@
+package tlb.server.repo;
+
+import org.junit.Before;
+import org.junit.Test;
+import tlb.domain.PartitionIdentifier;
+import tlb.domain.SuiteNamePartitionEntry;
+import tlb.domain.SuiteTimeEntry;
+import tlb.server.RepoFactoryTestUtil;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.*;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class SuiteQueueRepoTest {
+    private SuiteQueueRepo repo;
+    private PartitionIdentifier first;
+    private PartitionIdentifier second;
+
+    @Before
+    public void setUp() throws Exception {
+        repo = new SuiteQueueRepo();
+        first = new PartitionIdentifier(1, 2);
+        second = new PartitionIdentifier(2, 2);
+    }
+
+    @Test
+    public void shouldQueueSuitesSlowestFirst() throws IOException {
+        repo.define(new StringReader("Fast\nSlow\nMedium\n"), Arrays.asList(new SuiteTimeEntry("Fast", 10), new SuiteTimeEntry("Slow", 100), new SuiteTimeEntry("Medium", 50)));
+        assertThat(names(repo.list()), is(Arrays.asList("Slow", "Medium", "Fast")));
+        assertThat(repo.isPrimed(), is(true));
+    }
+
+    @Test
+    public void shouldQueueSuitesWithNoKnownTimeAsIfTheyTookMeanOfKnownTimes_andBreakTiesByName() throws IOException {
+        repo.define(new StringReader("Fast\nUnknown\nSlow\nAlsoUnknown\nUnrelatedTimeIgnored\n"), Arrays.asList(new SuiteTimeEntry("Fast", 10), new SuiteTimeEntry("Slow", 110)));
+        assertThat(names(repo.list()), is(Arrays.asList("Slow", "AlsoUnknown", "Unknown", "UnrelatedTimeIgnored", "Fast")));
+    }
+
+    @Test
+    public void shouldQueueSuitesByNameWhenNoTimesAreKnown() throws IOException {
+        repo.define(new StringReader("Foo\nBar\n\nBaz\n"), new ArrayList<SuiteTimeEntry>());
+        assertThat(names(repo.list()), is(Arrays.asList("Bar", "Baz", "Foo")));
+    }
+
+    @Test
+    public void shouldHandOutEverySuiteExactlyOnce_inBatchesOfGivenSize() throws IOException {
+        repo.define(new StringReader("A\nB\nC\nD\nE\n"), new ArrayList<SuiteTimeEntry>());
+        assertThat(names(repo.claim(first, 2)), is(Arrays.asList("A", "B")));
+        assertThat(names(repo.claim(second, 1)), is(Arrays.asList("C")));
+        assertThat(names(repo.claim(second, 5)), is(Arrays.asList("D", "E")));
+        assertThat(repo.claim(first, 2).isEmpty(), is(true));
+
+        for (SuiteNamePartitionEntry entry : repo.list()) {
+            assertThat(entry.isUsedByAnyPartition(), is(true));
+        }
+        assertThat(RepoFactoryTestUtil.diskDump(repo), is("A: 1/2\nB: 1/2\nC: 2/2\nD: 2/2\nE: 2/2\n"));
+    }
+
+    @Test
+    public void shouldNotHandOutSuitesClaimedBeforeQueueWasReloadedFromDisk() throws IOException {
+        repo.loadCopyFromDisk(new StringReader("A: 1/2\nB\nC: 2/2\nD\n"));
+        assertThat(names(repo.claim(second, 1)), is(Arrays.asList("B")));
+        assertThat(names(repo.claim(first, 3)), is(Arrays.asList("D")));
+        assertThat(repo.claim(first, 3).isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldHandOutEverySuiteExactlyOnce_whenClaimedConcurrently() throws Exception {
+        StringBuilder suites = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            suites.append("Suite").append(i).append("\n");
+        }
+        repo.define(new StringReader(suites.toString()), new ArrayList<SuiteTimeEntry>());
+        final List<String> claimed = Collections.synchronizedList(new ArrayList<String>());
+        List<Thread> claimers = new ArrayList<Thread>();
+        for (int i = 1; i <= 5; i++) {
+            final PartitionIdentifier partition = new PartitionIdentifier(i, 5);
+            claimers.add(new Thread(new Runnable() {
+                public void run() {
+                    List<SuiteNamePartitionEntry> batch;
+                    while (! (batch = repo.claim(partition, 3)).isEmpty()) {
+                        claimed.addAll(names(batch));
+                    }
+                }
+            }));
+        }
+        for (Thread claimer : claimers) {
+            claimer.start();
+        }
+        for (Thread claimer : claimers) {
+            claimer.join();
+        }
+        assertThat(claimed.size(), is(500));
+        assertThat(new HashSet<String>(claimed).size(), is(500));
+    }
+
+    private static List<String> names(Collection<SuiteNamePartitionEntry> entries) {
+        List<String> names = new ArrayList<String>();
+        for (SuiteNamePartitionEntry entry : entries) {
+            names.add(entry.getName());
+        }
+        return names;
+    }
+}
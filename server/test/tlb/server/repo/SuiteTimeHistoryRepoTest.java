@@ -0,0 +1,104 @@
+package tlb.server.repo;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import tlb.TestUtil;
+import tlb.TlbConstants;
+import tlb.domain.SuiteTimeEntry;
+import tlb.domain.SuiteTimeHistoryEntry;
+import tlb.utils.SystemEnvironment;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.matchers.JUnitMatchers.hasItem;
+import static tlb.server.repo.EntryRepoFactory.LATEST_VERSION;
+
+public class SuiteTimeHistoryRepoTest {
+    private File tmpDir;
+    private EntryRepoFactory factory;
+    private SuiteTimeHistoryRepo repo;
+
+    @Before
+    public void setUp() throws Exception {
+        tmpDir = TestUtil.createTmpDir();
+        factory = new EntryRepoFactory(env("3"));
+        repo = factory.createSuiteTimeHistoryRepo("name", LATEST_VERSION);
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(tmpDir);
+    }
+
+    private SystemEnvironment env(String historySize) {
+        final HashMap<String, String> env = new HashMap<String, String>();
+        env.put(TlbConstants.Server.TLB_DATA_DIR.key, tmpDir.getAbsolutePath());
+        env.put(TlbConstants.Server.TLB_SUITE_TIME_HISTORY_SIZE.key, historySize);
+        return new SystemEnvironment(env);
+    }
+
+    @Test
+    public void shouldRecordLastFewTimesPerSuite() {
+        repo.recordAll(Arrays.asList(new SuiteTimeEntry("foo.Foo", 10), new SuiteTimeEntry("foo.Bar", 100)));
+        repo.recordAll(Arrays.asList(new SuiteTimeEntry("foo.Foo", 20)));
+        repo.recordAll(Arrays.asList(new SuiteTimeEntry("foo.Foo", 30), new SuiteTimeEntry("foo.Bar", 200)));
+        repo.recordAll(Arrays.asList(new SuiteTimeEntry("foo.Foo", 40)));
+
+        List<SuiteTimeHistoryEntry> histories = repo.sortedList();
+        assertThat(histories.get(0).times(), is(new long[]{100, 200}));
+        assertThat(histories.get(1).times(), is(new long[]{20, 30, 40}));
+        assertThat(repo.isDirty(), is(true));
+    }
+
+    @Test
+    public void shouldAggregateHistoryOfEverySuite() {
+        repo.recordAll(Arrays.asList(new SuiteTimeEntry("foo.Foo", 10), new SuiteTimeEntry("foo.Bar", 100)));
+        repo.recordAll(Arrays.asList(new SuiteTimeEntry("foo.Foo", 500), new SuiteTimeEntry("foo.Bar", 110)));
+        repo.recordAll(Arrays.asList(new SuiteTimeEntry("foo.Foo", 12), new SuiteTimeEntry("foo.Bar", 90)));
+
+        List<SuiteTimeEntry> medians = repo.aggregated(SuiteTimeHistoryEntry.Aggregate.MEDIAN);
+        assertThat(medians.size(), is(2));
+        assertThat(medians, hasItem(new SuiteTimeEntry("foo.Foo", 12)));
+        assertThat(medians, hasItem(new SuiteTimeEntry("foo.Bar", 100)));
+    }
+
+    @Test
+    public void shouldKeepVersionFrozenWhileLatestHistoryMovesOn() throws IOException {
+        repo.recordAll(Arrays.asList(new SuiteTimeEntry("foo.Foo", 10)));
+        SuiteTimeHistoryRepo frozen = factory.createSuiteTimeHistoryRepo("name", "foo");
+        repo.recordAll(Arrays.asList(new SuiteTimeEntry("foo.Foo", 20), new SuiteTimeEntry("foo.Bar", 30)));
+
+        assertThat(frozen.sortedList(), is(Arrays.asList(new SuiteTimeHistoryEntry("foo.Foo", 3).record(10))));
+    }
+
+    @Test
+    public void shouldReloadHistoryFromDiskWithChangedHistorySize() throws InterruptedException, IOException {
+        repo.recordAll(Arrays.asList(new SuiteTimeEntry("foo.Foo", 10)));
+        repo.recordAll(Arrays.asList(new SuiteTimeEntry("foo.Foo", 20)));
+        repo.recordAll(Arrays.asList(new SuiteTimeEntry("foo.Foo", 30)));
+        final Thread exitHook = factory.exitHook();
+        exitHook.start();
+        exitHook.join();
+
+        SuiteTimeHistoryRepo reloaded = new EntryRepoFactory(env("2")).createSuiteTimeHistoryRepo("name", LATEST_VERSION);
+        assertThat(reloaded.sortedList().get(0).times(), is(new long[]{20, 30}));
+        reloaded.recordAll(Arrays.asList(new SuiteTimeEntry("foo.Foo", 40)));
+        assertThat(reloaded.sortedList().get(0).times(), is(new long[]{30, 40}));
+    }
+
+    @Test
+    public void shouldUnderstandParsingEntries() {
+        SuiteTimeHistoryRepo repo = new SuiteTimeHistoryRepo(5);
+        List<SuiteTimeHistoryEntry> entries = repo.parse("foo.Bar: 10,12\nbar.Baz: 20");
+        assertThat(entries.get(0).times(), is(new long[]{10, 12}));
+        assertThat(entries.get(1), is(new SuiteTimeHistoryEntry("bar.Baz", 5).record(20)));
+    }
+}
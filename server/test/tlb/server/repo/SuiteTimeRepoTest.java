@@ -11,6 +11,9 @@ import tlb.utils.SystemEnvironment;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
@@ -60,6 +63,91 @@ public class SuiteTimeRepoTest {
         assertThat(frozenCollection, hasItem(new SuiteTimeEntry("foo.bar.Bar", 134)));
     }
 
+    @Test
+    public void shouldShareEntriesWithLatest_whenVersionIsCreated() throws IOException {
+        repo.update(parseSingleEntry("foo.bar.Foo: 12"));
+        repo.update(parseSingleEntry("foo.bar.Bar: 134"));
+
+        SuiteTimeRepo version = factory.createSuiteTimeRepo("name", "foo");
+
+        assertThat(version.isSnapshot(), is(true));
+        assertThat(version.nameToEntry.size(), is(0));
+        assertThat(version.isDirty(), is(true));
+        assertThat(version.sortedList(), is(Arrays.asList(new SuiteTimeEntry("foo.bar.Bar", 134), new SuiteTimeEntry("foo.bar.Foo", 12))));
+    }
+
+    @Test
+    public void shouldHoldOnlyEntriesLatestChanged_andKeepShowingThemAsTheyWereWhenVersionWasCreated() throws IOException {
+        repo.update(parseSingleEntry("foo.bar.Foo: 12"));
+        repo.update(parseSingleEntry("foo.bar.Bar: 134"));
+        repo.update(parseSingleEntry("foo.bar.Quux: 7"));
+        SuiteTimeRepo version = factory.createSuiteTimeRepo("name", "foo");
+
+        repo.update(parseSingleEntry("foo.bar.Bar: 18"));
+        repo.update(parseSingleEntry("foo.bar.Bar: 20"));
+        repo.update(parseSingleEntry("foo.bar.Baz: 15"));
+
+        assertThat(version.nameToEntry.size(), is(0));
+        assertThat(version.sortedList(), is(Arrays.asList(new SuiteTimeEntry("foo.bar.Bar", 134), new SuiteTimeEntry("foo.bar.Foo", 12), new SuiteTimeEntry("foo.bar.Quux", 7))));
+        assertThat(repo.sortedList(), is(Arrays.asList(new SuiteTimeEntry("foo.bar.Bar", 20), new SuiteTimeEntry("foo.bar.Baz", 15), new SuiteTimeEntry("foo.bar.Foo", 12), new SuiteTimeEntry("foo.bar.Quux", 7))));
+        StringWriter dump = new StringWriter();
+        version.dumpTo(dump);
+        assertThat(dump.toString().split("\n").length, is(3));
+        assertThat(dump.toString().contains("foo.bar.Bar: 134"), is(true));
+    }
+
+    @Test
+    public void shouldStopSharingEntriesWithLatest_onceVersionIsFirstRead() throws IOException {
+        repo.update(parseSingleEntry("foo.bar.Foo: 12"));
+        SuiteTimeRepo version = factory.createSuiteTimeRepo("name", "foo");
+        repo.update(parseSingleEntry("foo.bar.Foo: 30"));
+
+        assertThat(version.sortedList(), is(Arrays.asList(new SuiteTimeEntry("foo.bar.Foo", 12))));
+        assertThat(version.isSnapshot(), is(false));
+        assertThat(version.nameToEntry.size(), is(1));
+        repo.update(parseSingleEntry("foo.bar.Bar: 10"));
+        assertThat(version.sortedList(), is(Arrays.asList(new SuiteTimeEntry("foo.bar.Foo", 12))));
+    }
+
+    @Test
+    public void shouldGetEntriesOfItsOwn_whenVersionIsUpdated() throws IOException {
+        repo.update(parseSingleEntry("foo.bar.Foo: 12"));
+        SuiteTimeRepo version = factory.createSuiteTimeRepo("name", "foo");
+
+        version.update(parseSingleEntry("foo.bar.Bar: 10"));
+        repo.update(parseSingleEntry("foo.bar.Foo: 30"));
+
+        assertThat(version.isSnapshot(), is(false));
+        assertThat(version.sortedList(), is(Arrays.asList(new SuiteTimeEntry("foo.bar.Bar", 10), new SuiteTimeEntry("foo.bar.Foo", 12))));
+        assertThat(repo.sortedList(), is(Arrays.asList(new SuiteTimeEntry("foo.bar.Foo", 30))));
+    }
+
+    @Test
+    public void shouldKeepVersionIntact_whenLatestIsReloaded() throws IOException {
+        repo.update(parseSingleEntry("foo.bar.Foo: 12"));
+        SuiteTimeRepo version = factory.createSuiteTimeRepo("name", "foo");
+
+        repo.loadCopyFromDisk(new StringReader("foo.bar.Bar: 10\n"));
+
+        assertThat(version.isSnapshot(), is(false));
+        assertThat(version.sortedList(), is(Arrays.asList(new SuiteTimeEntry("foo.bar.Foo", 12))));
+        repo.update(parseSingleEntry("foo.bar.Foo: 30"));
+        assertThat(version.sortedList(), is(Arrays.asList(new SuiteTimeEntry("foo.bar.Foo", 12))));
+    }
+
+    @Test
+    public void shouldCopyEntries_whenCopyingFromAnotherVersion() throws IOException {
+        repo.update(parseSingleEntry("foo.bar.Foo: 12"));
+        SuiteTimeRepo version = factory.createSuiteTimeRepo("name", "foo");
+        SuiteTimeRepo copy = new SuiteTimeRepo();
+
+        copy.copyFrom(version);
+        repo.update(parseSingleEntry("foo.bar.Foo: 30"));
+
+        assertThat(copy.isSnapshot(), is(false));
+        assertThat(copy.sortedList(), is(Arrays.asList(new SuiteTimeEntry("foo.bar.Foo", 12))));
+    }
+
     @Test
     public void shouldUnderstandParsingEntries() {
         SuiteTimeRepo repo = new SuiteTimeRepo();
@@ -0,0 +1,63 @@
+package tlb.server.resources;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.restlet.Context;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.resource.StringRepresentation;
+import tlb.TlbConstants;
+import tlb.domain.PartitionSpeedEntry;
+import tlb.server.repo.EntryRepo;
+import tlb.server.repo.EntryRepoFactory;
+import tlb.server.repo.PartitionSpeedRepo;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PartitionSpeedResourceTest {
+    private PartitionSpeedResource partitionSpeedResource;
+
+    @Before
+    public void setUp() throws ClassNotFoundException, IOException {
+        Context context = new Context();
+        Request request = mock(Request.class);
+        EntryRepoFactory factory = mock(EntryRepoFactory.class);
+        context.setAttributes(Collections.singletonMap(TlbConstants.Server.REPO_FACTORY, (Object) factory));
+        HashMap<String, Object> attributeMap = new HashMap<String, Object>();
+        attributeMap.put(TlbConstants.Server.REQUEST_NAMESPACE, "namespace");
+        when(request.getAttributes()).thenReturn(attributeMap);
+        partitionSpeedResource = new PartitionSpeedResource(context, request, mock(Response.class));
+    }
+
+    @Test
+    public void shouldAllowPutButNotPost() {
+        assertThat(partitionSpeedResource.allowPut(), is(true));
+        assertThat(partitionSpeedResource.allowPost(), is(false));
+    }
+
+    @Test
+    public void shouldUsePartitionSpeedRepoOfNamespace() throws IOException, ClassNotFoundException {
+        EntryRepoFactory repoFactory = mock(EntryRepoFactory.class);
+        PartitionSpeedRepo expectedRepo = mock(PartitionSpeedRepo.class);
+        when(repoFactory.createPartitionSpeedRepo("namespace")).thenReturn(expectedRepo);
+        EntryRepo repo = partitionSpeedResource.getRepo(repoFactory, "namespace");
+        assertThat((PartitionSpeedRepo) repo, sameInstance(expectedRepo));
+    }
+
+    @Test
+    public void shouldParsePartitionSpeedEntries() throws IOException {
+        assertThat((PartitionSpeedEntry) partitionSpeedResource.parseEntry(new StringRepresentation("2: 150")), is(new PartitionSpeedEntry(2, 150)));
+        List<PartitionSpeedEntry> entries = partitionSpeedResource.parseEntries(new StringRepresentation("1: 80\n3: 125\n"));
+        assertThat(entries, is(Arrays.asList(new PartitionSpeedEntry(1, 80), new PartitionSpeedEntry(3, 125))));
+    }
+}
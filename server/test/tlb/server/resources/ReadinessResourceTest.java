@@ -0,0 +1,59 @@
+package tlb.server.resources;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.restlet.Context;
+import org.restlet.data.MediaType;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.data.Status;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.Variant;
+import tlb.TlbConstants;
+import tlb.server.repo.RepoWarmUp;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class ReadinessResourceTest {
+    private Context context;
+    private Response response;
+    private ReadinessResource readinessResource;
+
+    @Before
+    public void setUp() {
+        context = new Context();
+        response = mock(Response.class);
+        readinessResource = new ReadinessResource(context, mock(Request.class), response);
+    }
+
+    @Test
+    public void shouldReportReady_onceWarmUpIsDone() throws ResourceException, IOException {
+        RepoWarmUp warmUp = mock(RepoWarmUp.class);
+        when(warmUp.isDone()).thenReturn(true);
+        context.setAttributes(Collections.singletonMap(TlbConstants.Server.REPO_WARM_UP, (Object) warmUp));
+        assertThat(readinessResource.represent(new Variant(MediaType.TEXT_PLAIN)).getText(), is("ready"));
+        verify(response, never()).setStatus(any(Status.class));
+    }
+
+    @Test
+    public void shouldReportServiceUnavailable_whileWarmingUp() throws ResourceException, IOException {
+        RepoWarmUp warmUp = mock(RepoWarmUp.class);
+        when(warmUp.isDone()).thenReturn(false);
+        context.setAttributes(Collections.singletonMap(TlbConstants.Server.REPO_WARM_UP, (Object) warmUp));
+        assertThat(readinessResource.represent(new Variant(MediaType.TEXT_PLAIN)).getText(), is("warming up"));
+        verify(response).setStatus(Status.SERVER_ERROR_SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    public void shouldReportReady_whenNoWarmUpIsConfigured() throws ResourceException, IOException {
+        context.setAttributes(new HashMap<String, Object>());
+        assertThat(readinessResource.represent(new Variant(MediaType.TEXT_PLAIN)).getText(), is("ready"));
+        verify(response, never()).setStatus(any(Status.class));
+    }
+}
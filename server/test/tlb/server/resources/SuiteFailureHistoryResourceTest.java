@@ -0,0 +1,64 @@
+package tlb.server.resources;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.restlet.Context;
+import org.restlet.data.MediaType;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.resource.Representation;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.Variant;
+import tlb.TlbConstants;
+import tlb.domain.SuiteFailureHistoryEntry;
+import tlb.server.repo.EntryRepoFactory;
+import tlb.server.repo.SuiteFailureHistoryRepo;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SuiteFailureHistoryResourceTest {
+    private SuiteFailureHistoryResource historyResource;
+    private EntryRepoFactory factory;
+    private SuiteFailureHistoryRepo repo;
+
+    @Before
+    public void setUp() throws ClassNotFoundException, IOException {
+        Context context = new Context();
+        Request request = mock(Request.class);
+        factory = mock(EntryRepoFactory.class);
+        context.setAttributes(Collections.singletonMap(TlbConstants.Server.REPO_FACTORY, (Object) factory));
+        HashMap<String, Object> attributeMap = new HashMap<String, Object>();
+        attributeMap.put(TlbConstants.Server.REQUEST_NAMESPACE, "namespace");
+        when(request.getAttributes()).thenReturn(attributeMap);
+        repo = mock(SuiteFailureHistoryRepo.class);
+        when(factory.createSuiteFailureHistoryRepo("namespace")).thenReturn(repo);
+        historyResource = new SuiteFailureHistoryResource(context, request, mock(Response.class));
+    }
+
+    @Test
+    public void shouldUseSuiteFailureHistoryRepo() throws IOException, ClassNotFoundException {
+        assertThat(historyResource.getRepo(factory, "namespace"), sameInstance(repo));
+    }
+
+    @Test
+    public void shouldNotAllowModification() {
+        assertThat(historyResource.allowPost(), is(false));
+        assertThat(historyResource.allowPut(), is(false));
+    }
+
+    @Test
+    public void shouldListSuitesRankedByFailureScore() throws ResourceException, IOException {
+        when(repo.ranked()).thenReturn(Arrays.asList(new SuiteFailureHistoryEntry("foo/Bar.class", 3l, 1.5), new SuiteFailureHistoryEntry("foo/Baz.class", 2l, 0.5)));
+        Representation representation = historyResource.represent(new Variant(MediaType.TEXT_PLAIN));
+        assertThat(representation.getText(), is("foo/Bar.class: 3: 1.5\nfoo/Baz.class: 2: 0.5\n"));
+    }
+}
@@ -5,11 +5,13 @@ import org.junit.Test;
 import org.restlet.Context;
 import org.restlet.data.Request;
 import org.restlet.data.Response;
+import org.restlet.resource.ResourceException;
 import org.restlet.resource.StringRepresentation;
 import tlb.TlbConstants;
 import tlb.domain.SuiteResultEntry;
 import tlb.server.repo.EntryRepo;
 import tlb.server.repo.EntryRepoFactory;
+import tlb.server.repo.SuiteFailureHistoryRepo;
 import tlb.server.repo.SuiteResultRepo;
 
 import java.io.IOException;
@@ -22,6 +24,7 @@ import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class SuiteResultResourceTest {
@@ -69,4 +72,14 @@ public class SuiteResultResourceTest {
         final List<SuiteResultEntry> entry = suiteResultResource.parseEntries(new StringRepresentation("foo.bar.Baz: true\nfoo.baz.Quux: false\nfoo.quux.Bang: true\n"));
         assertThat(entry, is(Arrays.asList(new SuiteResultEntry("foo.bar.Baz", true), new SuiteResultEntry("foo.baz.Quux", false), new SuiteResultEntry("foo.quux.Bang", true))));
     }
+
+    @Test
+    public void shouldRecordStoredResultsInFailureHistoryAlongWithLastResults() throws ResourceException {
+        List<SuiteResultEntry> entries = Arrays.asList(new SuiteResultEntry("foo.bar.Baz", true), new SuiteResultEntry("foo.baz.Quux", false));
+        suiteResultResource.repo = mock(SuiteResultRepo.class);
+        suiteResultResource.failureHistoryRepo = mock(SuiteFailureHistoryRepo.class);
+        suiteResultResource.storeRepresentation(new StringRepresentation("foo.bar.Baz: true\nfoo.baz.Quux: false\n"));
+        verify(suiteResultResource.repo).updateAll(entries);
+        verify(suiteResultResource.failureHistoryRepo).recordAll(entries);
+    }
 }
@@ -0,0 +1,107 @@
+package tlb.server.resources;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.restlet.Context;
+import org.restlet.data.MediaType;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.data.Status;
+import org.restlet.resource.Representation;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.StringRepresentation;
+import org.restlet.resource.Variant;
+import tlb.TlbConstants;
+import tlb.domain.SuiteTimeEntry;
+import tlb.server.repo.EntryRepoFactory;
+import tlb.server.repo.SuiteTimeHistoryRepo;
+import tlb.utils.SystemEnvironment;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.junit.matchers.JUnitMatchers.containsString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SuiteTimeAggregateResourceTest {
+    private SuiteTimeAggregateResource aggregateResource;
+    private HashMap<String, Object> attributeMap;
+    private EntryRepoFactory factory;
+    private SuiteTimeHistoryRepo repo;
+    private Context context;
+    private Request request;
+
+    @Before
+    public void setUp() throws ClassNotFoundException, IOException {
+        context = new Context();
+        request = mock(Request.class);
+        factory = mock(EntryRepoFactory.class);
+        context.setAttributes(Collections.singletonMap(TlbConstants.Server.REPO_FACTORY, (Object) factory));
+        attributeMap = new HashMap<String, Object>();
+        attributeMap.put(TlbConstants.Server.REQUEST_NAMESPACE, "namespace");
+        attributeMap.put(TlbConstants.Server.LISTING_VERSION, "version");
+        attributeMap.put(TlbConstants.Server.SUITE_TIME_AGGREGATE, "median");
+        when(request.getAttributes()).thenReturn(attributeMap);
+        repo = mock(SuiteTimeHistoryRepo.class);
+        when(factory.createSuiteTimeHistoryRepo("namespace", "version")).thenReturn(repo);
+        aggregateResource = new SuiteTimeAggregateResource(context, request, mock(Response.class));
+    }
+
+    @Test
+    public void shouldUseVersionedSuiteTimeHistoryRepo() throws IOException, ClassNotFoundException {
+        assertThat(aggregateResource.getRepo(factory, "namespace"), sameInstance(repo));
+    }
+
+    @Test
+    public void shouldNotAllowModification() {
+        assertThat(aggregateResource.allowPost(), is(false));
+        assertThat(aggregateResource.allowPut(), is(false));
+    }
+
+    @Test
+    public void shouldNotSupportParsingOfEntries_AsAggregatedDataIsNotMutable() throws ResourceException, IOException {
+        try {
+            aggregateResource.parseEntries(new StringRepresentation("foo.bar.Baz: 120\n"));
+            fail("should not have parsed entries, as mutation of aggregated data is not allowed");
+        } catch (Exception e) {
+            assertThat(e, is(UnsupportedOperationException.class));
+        }
+    }
+
+    @Test
+    public void shouldRenderRequestedAggregateOfHistoryForGivenNamespaceAndVersion() throws ResourceException, IOException, ClassNotFoundException {
+        attributeMap.put(TlbConstants.Server.SUITE_TIME_AGGREGATE, "p90");
+        factory = new EntryRepoFactory(new SystemEnvironment(new HashMap<String, String>()));
+        context.setAttributes(Collections.singletonMap(TlbConstants.Server.REPO_FACTORY, (Object) factory));
+        SuiteTimeHistoryRepo latestRepo = factory.createSuiteTimeHistoryRepo("namespace", EntryRepoFactory.LATEST_VERSION);
+        latestRepo.recordAll(Arrays.asList(new SuiteTimeEntry("foo.bar.Baz", 10), new SuiteTimeEntry("foo.bar.Quux", 20)));
+        latestRepo.recordAll(Arrays.asList(new SuiteTimeEntry("foo.bar.Baz", 30), new SuiteTimeEntry("foo.bar.Quux", 5)));
+
+        aggregateResource = new SuiteTimeAggregateResource(context, request, mock(Response.class));
+        Representation actualRepresentation = aggregateResource.represent(new Variant(MediaType.TEXT_PLAIN));
+        String body = actualRepresentation.getText();
+        assertThat(body, containsString("foo.bar.Baz: 30\n"));
+        assertThat(body, containsString("foo.bar.Quux: 20\n"));
+    }
+
+    @Test
+    public void shouldRespondWithBadRequestListingValidAggregates_whenAskedForUnknownAggregate() throws ResourceException, IOException {
+        attributeMap.put(TlbConstants.Server.SUITE_TIME_AGGREGATE, "mode");
+        Response response = mock(Response.class);
+        aggregateResource = new SuiteTimeAggregateResource(context, request, response);
+
+        Representation representation = aggregateResource.represent(new Variant(MediaType.TEXT_PLAIN));
+
+        String message = "unknown aggregate 'mode', valid aggregates are [median, trimmed_mean, p90]";
+        verify(response).setStatus(new Status(Status.CLIENT_ERROR_BAD_REQUEST, message));
+        assertThat(representation.getText(), is(message));
+    }
+}
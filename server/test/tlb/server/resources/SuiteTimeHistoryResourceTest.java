@@ -0,0 +1,77 @@
+package tlb.server.resources;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.restlet.Context;
+import org.restlet.data.MediaType;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.resource.Representation;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.Variant;
+import tlb.TlbConstants;
+import tlb.domain.SuiteTimeEntry;
+import tlb.server.repo.EntryRepoFactory;
+import tlb.server.repo.SuiteTimeHistoryRepo;
+import tlb.utils.SystemEnvironment;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.matchers.JUnitMatchers.containsString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SuiteTimeHistoryResourceTest {
+    private SuiteTimeHistoryResource historyResource;
+    private EntryRepoFactory factory;
+    private SuiteTimeHistoryRepo repo;
+    private Context context;
+    private Request request;
+
+    @Before
+    public void setUp() throws ClassNotFoundException, IOException {
+        context = new Context();
+        request = mock(Request.class);
+        factory = mock(EntryRepoFactory.class);
+        context.setAttributes(Collections.singletonMap(TlbConstants.Server.REPO_FACTORY, (Object) factory));
+        HashMap<String, Object> attributeMap = new HashMap<String, Object>();
+        attributeMap.put(TlbConstants.Server.REQUEST_NAMESPACE, "namespace");
+        attributeMap.put(TlbConstants.Server.LISTING_VERSION, "version");
+        when(request.getAttributes()).thenReturn(attributeMap);
+        repo = mock(SuiteTimeHistoryRepo.class);
+        when(factory.createSuiteTimeHistoryRepo("namespace", "version")).thenReturn(repo);
+        historyResource = new SuiteTimeHistoryResource(context, request, mock(Response.class));
+    }
+
+    @Test
+    public void shouldUseVersionedSuiteTimeHistoryRepo() throws IOException, ClassNotFoundException {
+        assertThat(historyResource.getRepo(factory, "namespace"), sameInstance(repo));
+    }
+
+    @Test
+    public void shouldNotAllowModification() {
+        assertThat(historyResource.allowPost(), is(false));
+        assertThat(historyResource.allowPut(), is(false));
+    }
+
+    @Test
+    public void shouldRenderRememberedTimesOfRecentRunsForGivenNamespaceAndVersion() throws ResourceException, IOException, ClassNotFoundException {
+        factory = new EntryRepoFactory(new SystemEnvironment(new HashMap<String, String>()));
+        context.setAttributes(Collections.singletonMap(TlbConstants.Server.REPO_FACTORY, (Object) factory));
+        SuiteTimeHistoryRepo latestRepo = factory.createSuiteTimeHistoryRepo("namespace", EntryRepoFactory.LATEST_VERSION);
+        latestRepo.recordAll(Arrays.asList(new SuiteTimeEntry("foo.bar.Baz", 10), new SuiteTimeEntry("foo.bar.Quux", 20)));
+        latestRepo.recordAll(Arrays.asList(new SuiteTimeEntry("foo.bar.Baz", 30)));
+
+        historyResource = new SuiteTimeHistoryResource(context, request, mock(Response.class));
+        Representation actualRepresentation = historyResource.represent(new Variant(MediaType.TEXT_PLAIN));
+        String body = actualRepresentation.getText();
+        assertThat(body, containsString("foo.bar.Baz: 10,30\n"));
+        assertThat(body, containsString("foo.bar.Quux: 20\n"));
+    }
+}
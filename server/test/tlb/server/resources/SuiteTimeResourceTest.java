@@ -5,11 +5,13 @@ import org.junit.Test;
 import org.restlet.Context;
 import org.restlet.data.Request;
 import org.restlet.data.Response;
+import org.restlet.resource.ResourceException;
 import org.restlet.resource.StringRepresentation;
 import tlb.TlbConstants;
 import tlb.domain.SuiteTimeEntry;
 import tlb.server.repo.EntryRepo;
 import tlb.server.repo.EntryRepoFactory;
+import tlb.server.repo.SuiteTimeHistoryRepo;
 import tlb.server.repo.SuiteTimeRepo;
 
 import java.io.IOException;
@@ -22,6 +24,7 @@ import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class SuiteTimeResourceTest {
@@ -61,6 +64,16 @@ public class SuiteTimeResourceTest {
         assertThat(entry, is(Arrays.asList(new SuiteTimeEntry("foo.bar.Baz", 135), new SuiteTimeEntry("foo.baz.Quux", 27), new SuiteTimeEntry("foo.quux.Bang", 129))));
     }
 
+    @Test
+    public void shouldRecordStoredTimesInLatestSuiteTimeHistoryAlongWithSuiteTimes() throws ResourceException {
+        List<SuiteTimeEntry> entries = Arrays.asList(new SuiteTimeEntry("foo.bar.Baz", 135), new SuiteTimeEntry("foo.baz.Quux", 27));
+        suiteTimeResource.repo = mock(SuiteTimeRepo.class);
+        suiteTimeResource.historyRepo = mock(SuiteTimeHistoryRepo.class);
+        suiteTimeResource.storeRepresentation(new StringRepresentation("foo.bar.Baz: 135\nfoo.baz.Quux: 27\n"));
+        verify(suiteTimeResource.repo).updateAll(entries);
+        verify(suiteTimeResource.historyRepo).recordAll(entries);
+    }
+
     @Test
     public void shouldUseSuiteTimeRepo() throws IOException, ClassNotFoundException {
         EntryRepoFactory repoFactory = mock(EntryRepoFactory.class);
@@ -0,0 +1,97 @@
+package tlb.server.resources;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.restlet.Context;
+import org.restlet.data.MediaType;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.resource.Representation;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.StringRepresentation;
+import org.restlet.resource.Variant;
+import tlb.TlbConstants;
+import tlb.domain.PartitionSpeedEntry;
+import tlb.server.repo.EntryRepo;
+import tlb.server.repo.EntryRepoFactory;
+import tlb.server.repo.PartitionSpeedRepo;
+import tlb.utils.SystemEnvironment;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class VersionedPartitionSpeedResourceTest {
+    private VersionedPartitionSpeedResource partitionSpeedResource;
+    private HashMap<String, Object> attributeMap;
+    private EntryRepoFactory factory;
+    private PartitionSpeedRepo repo;
+    private Context context;
+    private Request request;
+
+    @Before
+    public void setUp() throws ClassNotFoundException, IOException {
+        context = new Context();
+        request = mock(Request.class);
+        factory = mock(EntryRepoFactory.class);
+        context.setAttributes(Collections.singletonMap(TlbConstants.Server.REPO_FACTORY, (Object) factory));
+        attributeMap = new HashMap<String, Object>();
+        attributeMap.put(TlbConstants.Server.REQUEST_NAMESPACE, "namespace");
+        attributeMap.put(TlbConstants.Server.LISTING_VERSION, "version");
+        when(request.getAttributes()).thenReturn(attributeMap);
+        repo = mock(PartitionSpeedRepo.class);
+        when(factory.createPartitionSpeedRepo("namespace", "version")).thenReturn(repo);
+        partitionSpeedResource = new VersionedPartitionSpeedResource(context, request, mock(Response.class));
+    }
+
+    @Test
+    public void shouldUsePartitionSpeedRepoOfVersion() throws IOException, ClassNotFoundException {
+        EntryRepo repo = partitionSpeedResource.getRepo(factory, "namespace");
+        assertThat((PartitionSpeedRepo) repo, sameInstance(this.repo));
+    }
+
+    @Test
+    public void shouldAllowNeitherPostNorPut() {
+        assertThat(partitionSpeedResource.allowPost(), is(false));
+        assertThat(partitionSpeedResource.allowPut(), is(false));
+    }
+
+    @Test
+    public void shouldNotSupportParsing_AsAddingToVersionedRepoIsNotPermitted() throws ResourceException, IOException {
+        try {
+            partitionSpeedResource.parseEntry(new StringRepresentation("1: 80"));
+            fail("should not have parsed entry, as mutation of versioned data is not allowed");
+        } catch (Exception e) {
+            assertThat(e, is(UnsupportedOperationException.class));
+        }
+        try {
+            partitionSpeedResource.parseEntries(new StringRepresentation("1: 80\n2: 140\n"));
+            fail("should not have parsed entries, as mutation of versioned data is not allowed");
+        } catch (Exception e) {
+            assertThat(e, is(UnsupportedOperationException.class));
+        }
+    }
+
+    @Test
+    public void shouldRenderSpeedsOfPartitionsAsOfGivenVersion() throws ResourceException, IOException, ClassNotFoundException {
+        factory = new EntryRepoFactory(new SystemEnvironment(new HashMap<String, String>()));
+        context.setAttributes(Collections.singletonMap(TlbConstants.Server.REPO_FACTORY, (Object) factory));
+        PartitionSpeedRepo latest = factory.createPartitionSpeedRepo("namespace");
+        latest.update(new PartitionSpeedEntry(1, 80));
+        latest.update(new PartitionSpeedEntry(2, 140));
+
+        partitionSpeedResource = new VersionedPartitionSpeedResource(context, request, mock(Response.class));
+        Representation representation = partitionSpeedResource.represent(new Variant(MediaType.TEXT_PLAIN));
+        latest.update(new PartitionSpeedEntry(1, 120));
+
+        assertThat(representation.getText(), is("1: 80\n2: 140\n"));
+        assertThat(new VersionedPartitionSpeedResource(context, request, mock(Response.class)).represent(new Variant(MediaType.TEXT_PLAIN)).getText(), is("1: 80\n2: 140\n"));
+    }
+}
@@ -0,0 +1,104 @@
+package tlb.server.resources.queue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.restlet.Context;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.data.Status;
+import org.restlet.resource.Representation;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.StringRepresentation;
+import tlb.TlbConstants;
+import tlb.domain.SuiteTimeEntry;
+import tlb.server.repo.EntryRepoFactory;
+import tlb.server.RepoFactoryTestUtil;
+import tlb.server.repo.SuiteQueueRepo;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class ClaimSuitesResourceTest {
+    private Context context;
+    private Request request;
+    private Response response;
+    private SuiteQueueRepo repo;
+    private HashMap<String, Object> reqAttrMap;
+    private Representation representationGiven;
+
+    @Before
+    public void setUp() throws IOException, ClassNotFoundException {
+        context = new Context();
+        request = mock(Request.class);
+        EntryRepoFactory repoFactory = mock(EntryRepoFactory.class);
+        repo = new SuiteQueueRepo();
+        context.setAttributes(Collections.singletonMap(TlbConstants.Server.REPO_FACTORY, (Object) repoFactory));
+        reqAttrMap = new HashMap<String, Object>();
+        reqAttrMap.put(TlbConstants.Server.REQUEST_NAMESPACE, "family_name");
+        reqAttrMap.put(TlbConstants.Server.LISTING_VERSION, "version-string");
+        reqAttrMap.put(TlbConstants.Server.MODULE_NAME, "my-module");
+        reqAttrMap.put(TlbConstants.Server.TOTAL_JOBS, "2");
+        reqAttrMap.put(TlbConstants.Server.JOB_NUMBER, "1");
+        when(request.getAttributes()).thenReturn(reqAttrMap);
+        when(repoFactory.createSuiteQueueRepo("family_name", "version-string", "my-module")).thenReturn(repo);
+        response = mock(Response.class);
+
+        representationGiven = null;
+        doAnswer(new Answer<Object>() {
+            public Object answer(InvocationOnMock invocationOnMock) throws Throwable {
+                representationGiven = (Representation) invocationOnMock.getArguments()[0];
+                return null;
+            }
+        }).when(response).setEntity(any(Representation.class));
+    }
+
+    @Test
+    public void shouldAllow_ONLY_Post() {
+        ClaimSuitesResource resource = new ClaimSuitesResource(context, request, response);
+        assertThat(resource.allowPost(), is(true));
+        assertThat(resource.allowPut(), is(false));
+        assertThat(resource.allowGet(), is(false));
+        assertThat(resource.allowDelete(), is(false));
+    }
+
+    @Test
+    public void shouldHandOutRequestedNumberOfSuites_andNothingOnceQueueIsDrained() throws ResourceException, IOException {
+        repo.define(new StringReader("A\nB\nC"), new ArrayList<SuiteTimeEntry>());
+
+        new ClaimSuitesResource(context, request, response).acceptRepresentation(new StringRepresentation("2"));
+        assertThat(representationGiven.getText(), is("A\nB\n"));
+
+        reqAttrMap.put(TlbConstants.Server.JOB_NUMBER, "2");
+        new ClaimSuitesResource(context, request, response).acceptRepresentation(new StringRepresentation("2"));
+        assertThat(representationGiven.getText(), is("C\n"));
+
+        new ClaimSuitesResource(context, request, response).acceptRepresentation(new StringRepresentation("2"));
+        assertThat(representationGiven.getText(), is(""));
+
+        assertThat(RepoFactoryTestUtil.diskDump(repo), is("A: 1/2\nB: 1/2\nC: 2/2\n"));
+    }
+
+    @Test
+    public void shouldHandOutOneSuite_whenBatchSizeIsNotGiven() throws ResourceException, IOException {
+        repo.define(new StringReader("A\nB"), new ArrayList<SuiteTimeEntry>());
+        new ClaimSuitesResource(context, request, response).acceptRepresentation(new StringRepresentation(""));
+        assertThat(representationGiven.getText(), is("A\n"));
+    }
+
+    @Test
+    public void shouldRejectClaim_whenQueueWasNeverDefined() throws ResourceException, IOException {
+        new ClaimSuitesResource(context, request, response).acceptRepresentation(new StringRepresentation("2"));
+        verify(response).setStatus(new Status(Status.CLIENT_ERROR_NOT_ACCEPTABLE, TlbConstants.Correctness.NO_SUITE_QUEUE_FOUND));
+        assertThat(representationGiven.getText(), is("Suite queue for given job-name, job-version and module-name combination doesn't exist."));
+    }
+}
@@ -0,0 +1,114 @@
+package tlb.server.resources.queue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.restlet.Context;
+import org.restlet.data.MediaType;
+import org.restlet.data.Request;
+import org.restlet.data.Response;
+import org.restlet.data.Status;
+import org.restlet.resource.Representation;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.StringRepresentation;
+import org.restlet.resource.Variant;
+import tlb.TlbConstants;
+import tlb.domain.PartitionIdentifier;
+import tlb.domain.SuiteNamePartitionEntry;
+import tlb.domain.SuiteTimeEntry;
+import tlb.server.repo.EntryRepoFactory;
+import tlb.server.repo.SuiteQueueRepo;
+import tlb.server.repo.SuiteTimeRepo;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.*;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class SuiteQueueResourceTest {
+    private Request request;
+    private Response response;
+    private SuiteQueueRepo repo;
+    private SuiteQueueResource resource;
+    private Representation representationGiven;
+
+    @Before
+    public void setUp() throws IOException, ClassNotFoundException {
+        Context context = new Context();
+        request = mock(Request.class);
+        EntryRepoFactory repoFactory = mock(EntryRepoFactory.class);
+        repo = new SuiteQueueRepo();
+        repo.setIdentifier("foo-bar-baz");
+        SuiteTimeRepo suiteTimeRepo = new SuiteTimeRepo();
+        suiteTimeRepo.update(new SuiteTimeEntry("foo.bar.Baz.class", 10));
+        suiteTimeRepo.update(new SuiteTimeEntry("baz.bang.Quux.class", 30));
+        context.setAttributes(Collections.singletonMap(TlbConstants.Server.REPO_FACTORY, (Object) repoFactory));
+        HashMap<String, Object> reqAttrMap = new HashMap<String, Object>();
+        reqAttrMap.put(TlbConstants.Server.REQUEST_NAMESPACE, "family_name");
+        reqAttrMap.put(TlbConstants.Server.LISTING_VERSION, "version-string");
+        reqAttrMap.put(TlbConstants.Server.MODULE_NAME, "my-module");
+        when(request.getAttributes()).thenReturn(reqAttrMap);
+        when(repoFactory.createSuiteQueueRepo("family_name", "version-string", "my-module")).thenReturn(repo);
+        when(repoFactory.createSuiteTimeRepo("family_name", EntryRepoFactory.LATEST_VERSION)).thenReturn(suiteTimeRepo);
+        response = mock(Response.class);
+
+        representationGiven = null;
+        doAnswer(new Answer<Object>() {
+            public Object answer(InvocationOnMock invocationOnMock) throws Throwable {
+                representationGiven = (Representation) invocationOnMock.getArguments()[0];
+                return null;
+            }
+        }).when(response).setEntity(any(Representation.class));
+
+        resource = new SuiteQueueResource(context, request, response);
+    }
+
+    @Test
+    public void shouldAllowGetAndPost() {
+        assertThat(resource.allowPost(), is(true));
+        assertThat(resource.allowGet(), is(true));
+        assertThat(resource.allowPut(), is(false));
+        assertThat(resource.allowDelete(), is(false));
+    }
+
+    @Test
+    public void shouldDefineQueueSlowestFirst_whenGivenTheListingByFirstPartition() throws ResourceException {
+        resource.acceptRepresentation(new StringRepresentation("foo.bar.Baz.class\nbar.baz.Bang.class\nbaz.bang.Quux.class"));
+        assertThat(new ArrayList<SuiteNamePartitionEntry>(repo.list()), is(Arrays.asList(new SuiteNamePartitionEntry("baz.bang.Quux.class"), new SuiteNamePartitionEntry("bar.baz.Bang.class"), new SuiteNamePartitionEntry("foo.bar.Baz.class"))));
+        verify(response).setStatus(Status.SUCCESS_CREATED);
+    }
+
+    @Test
+    public void shouldLeaveQueueAlone_whenPartitionAfterFirstPostsSameListing() throws ResourceException, IOException {
+        repo.define(new StringReader("foo.bar.Baz.class\nbar.baz.Bang.class"), new ArrayList<SuiteTimeEntry>());
+        repo.claim(new PartitionIdentifier(1, 2), 1);
+
+        resource.acceptRepresentation(new StringRepresentation("foo.bar.Baz.class\nbar.baz.Bang.class"));
+
+        assertThat(repo.claim(new PartitionIdentifier(2, 2), 2), is(Arrays.asList(new SuiteNamePartitionEntry("foo.bar.Baz.class"))));
+        verify(response).setStatus(Status.SUCCESS_OK);
+    }
+
+    @Test
+    public void shouldReportConflict_whenPartitionAfterFirstPostsDifferentListing() throws ResourceException, IOException {
+        repo.define(new StringReader("foo.bar.Baz.class\nbar.baz.Bang.class"), new ArrayList<SuiteTimeEntry>());
+
+        resource.acceptRepresentation(new StringRepresentation("foo.bar.Baz.class"));
+
+        verify(response).setStatus(new Status(Status.CLIENT_ERROR_CONFLICT, TlbConstants.Correctness.CURRENT_PARTITION_POSTED_INCORRECT_UNIVERSAL_SET));
+        assertThat(representationGiven.getText(), is("Expected universal set was [bar.baz.Bang.class, foo.bar.Baz.class] but given [foo.bar.Baz.class].\n"));
+        assertThat(repo.list().size(), is(2));
+    }
+
+    @Test
+    public void shouldRenderQueueWithClaimingPartitions() throws ResourceException, IOException {
+        repo.define(new StringReader("foo.bar.Baz.class\nbar.baz.Bang.class"), new ArrayList<SuiteTimeEntry>());
+        repo.claim(new PartitionIdentifier(2, 2), 1);
+        assertThat(resource.represent(new Variant(MediaType.TEXT_PLAIN)).getText(), is("bar.baz.Bang.class: 2/2\nfoo.bar.Baz.class\n"));
+    }
+}